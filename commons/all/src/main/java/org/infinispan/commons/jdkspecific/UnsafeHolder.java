@@ -1,6 +1,7 @@
 package org.infinispan.commons.jdkspecific;
 
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 
 import org.infinispan.commons.CacheException;
 
@@ -10,9 +11,19 @@
  * @author wburns
  * @since 9.0
  */
-class UnsafeHolder {
+public class UnsafeHolder {
    static Unsafe UNSAFE = UnsafeHolder.getUnsafe();
 
+   /**
+    * Releases the memory of a direct or memory mapped buffer right away, instead of when the buffer is garbage
+    * collected. The buffer must not be used afterwards.
+    *
+    * @since 16.3
+    */
+   public static void invokeCleaner(ByteBuffer buffer) {
+      UNSAFE.invokeCleaner(buffer);
+   }
+
    @SuppressWarnings("restriction")
    private static Unsafe getUnsafe() {
       // attempt to access field Unsafe#theUnsafe
@@ -180,4 +180,9 @@ public void setMemory(long address, long bytes, byte value) {
 
       UNSAFE.setMemory(address, bytes, value);
    }
+
+   @Override
+   public boolean tracksAllocations() {
+      return allocatedBlocks != null;
+   }
 }
@@ -441,6 +441,9 @@ public interface ProtoStreamTypeIds {
    // Additional PublisherReducers
    int COLLECTOR_FINALIZER_SUPPLIER = CORE_LOWER_BOUND + 335;
    int COLLECTOR_REDUCER_SUPPLIER = CORE_LOWER_BOUND + 336;
+   int STATE_TRANSFER_GET_CHECKSUMS_COMMAND = CORE_LOWER_BOUND + 337;
+   int COMMAND_BATCH = CORE_LOWER_BOUND + 338;
+   int REMOVE_EXPIRED_KEYS_COMMAND = CORE_LOWER_BOUND + 339;
 
    // Counter range 4000 -> 4199
    int COUNTERS_LOWER_BOUND = 4000;
@@ -8,9 +8,13 @@
 import java.lang.management.MemoryNotificationInfo;
 import java.lang.management.MemoryPoolMXBean;
 import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
@@ -42,6 +46,11 @@
  *    exceeds a configured fraction. Auto-clears when pressure drops below the threshold.</li>
  * </ul>
  * <p>
+ * Besides the alerts, the monitor exposes the current GC pressure and the heap allocation rate over
+ * the same rolling window, see {@link #getGcPressure()} and {@link #getAllocationRate()}, so that
+ * listeners can scale their reaction to how severe the pressure is. The allocation rate is estimated
+ * from the heap usage before each GC and the heap usage after the previous one.
+ * <p>
  * Individual GC pauses exceeding the duration threshold are logged as warnings but do not raise
  * a persistent alert.
  * <p>
@@ -61,7 +70,7 @@ public class MemoryMonitor {
 
    private final AtomicLong gcGeneration = new AtomicLong();
 
-   private record GcEvent(long timestampMs, long durationMs) {}
+   private record GcEvent(long timestampMs, long durationMs, long allocatedBytes) {}
    private final Deque<GcEvent> gcEvents = new ConcurrentLinkedDeque<>();
 
    private final List<ListenerRegistration> registeredListeners = new ArrayList<>();
@@ -115,6 +124,8 @@ private record CallbackRegistration(Listener listener, Executor executor) {}
    private final List<CallbackRegistration> callbackListeners = new CopyOnWriteArrayList<>();
 
    private final MemoryPoolMXBean oldGenPool;
+   private final Set<String> heapPoolNames;
+   private final AtomicLong heapUsedAfterLastGc = new AtomicLong(-1);
 
    /**
     * Creates a new monitor with the specified thresholds and immediately registers JMX listeners.
@@ -131,6 +142,7 @@ public MemoryMonitor(double memoryThresholdPercentage, long gcDurationThresholdM
       this.gcPressureThreshold = gcPressureThreshold;
       this.gcPressureWindowMs = gcPressureWindowMs;
       this.oldGenPool = findOldGenPool();
+      this.heapPoolNames = findHeapPoolNames();
       setupMemoryListener();
       setupGcListener();
    }
@@ -178,7 +190,7 @@ private void setupGcListener() {
                      CONFIG.gcDurationExceeded(duration, gcDurationThresholdMs);
                   }
                   boolean wasPressured = gcPressureAlert.get();
-                  recordGcEvent(now, duration);
+                  recordGcEvent(now, duration, allocatedSinceLastGc(info));
                   if (!wasPressured && gcPressureAlert.get()) {
                      CONFIG.gcPressureExceeded((int) (gcPressureThreshold * 100), gcPressureWindowMs / 1000);
                   }
@@ -206,10 +218,33 @@ public void stop() {
       callbackListeners.clear();
    }
 
+   private long allocatedSinceLastGc(GcInfo info) {
+      long usedBefore = heapUsed(info.getMemoryUsageBeforeGc());
+      long usedAfter = heapUsed(info.getMemoryUsageAfterGc());
+      long previousUsedAfter = heapUsedAfterLastGc.getAndSet(usedAfter);
+      // Unknown for the first GC
+      return previousUsedAfter < 0 ? 0 : Math.max(0, usedBefore - previousUsedAfter);
+   }
+
+   private long heapUsed(Map<String, MemoryUsage> usages) {
+      long used = 0;
+      for (Map.Entry<String, MemoryUsage> entry : usages.entrySet()) {
+         if (heapPoolNames.contains(entry.getKey())) {
+            used += entry.getValue().getUsed();
+         }
+      }
+      return used;
+   }
+
    // Visible for testing
    public void recordGcEvent(long timestampMs, long durationMs) {
+      recordGcEvent(timestampMs, durationMs, 0);
+   }
+
+   // Visible for testing
+   public void recordGcEvent(long timestampMs, long durationMs, long allocatedBytes) {
       gcGeneration.incrementAndGet();
-      gcEvents.addLast(new GcEvent(timestampMs, durationMs));
+      gcEvents.addLast(new GcEvent(timestampMs, durationMs, allocatedBytes));
       evictOldEvents(timestampMs);
       if (computeGcPressure(timestampMs) >= gcPressureThreshold) {
          if (gcPressureAlert.compareAndSet(false, true)) {
@@ -242,6 +277,18 @@ private double computeGcPressure(long now) {
       return (double) totalGcMs / windowMs;
    }
 
+   long computeAllocationRate(long now) {
+      long windowMs = gcPressureWindowMs;
+      long allocatedBytes = 0;
+      long cutoff = now - windowMs;
+      for (GcEvent event : gcEvents) {
+         if (event.timestampMs >= cutoff) {
+            allocatedBytes += event.allocatedBytes;
+         }
+      }
+      return allocatedBytes * 1000 / windowMs;
+   }
+
    private void checkMemoryRecovery() {
       if (lowMemoryAlert.get() && oldGenPool != null) {
          long used = oldGenPool.getUsage().getUsed();
@@ -261,6 +308,16 @@ private void applyMemoryThreshold() {
       }
    }
 
+   private static Set<String> findHeapPoolNames() {
+      Set<String> names = new HashSet<>();
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+         if (pool.getType() == MemoryType.HEAP) {
+            names.add(pool.getName());
+         }
+      }
+      return names;
+   }
+
    private static MemoryPoolMXBean findOldGenPool() {
       MemoryPoolMXBean fallback = null;
       for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
@@ -333,6 +390,22 @@ public boolean isGcPressureExceeded() {
       return gcPressureAlert.get();
    }
 
+   /**
+    * Returns the fraction of time spent in GC over the pressure window, the same value that is compared
+    * against the GC pressure threshold.
+    */
+   public double getGcPressure() {
+      return computeGcPressure(System.currentTimeMillis());
+   }
+
+   /**
+    * Returns the average rate at which the heap was allocated over the pressure window, in bytes per
+    * second. It is only an estimate, as it is computed from the heap usage around each GC.
+    */
+   public long getAllocationRate() {
+      return computeAllocationRate(System.currentTimeMillis());
+   }
+
    /**
     * Clears all alerts and discards recorded GC events.
     */
@@ -129,6 +129,19 @@ public void testGcPressureEviction() {
       assertFalse(monitor.isGcPressureExceeded());
    }
 
+   @Test
+   public void testAllocationRate() {
+      // 10-second window
+      monitor.setGcPressureWindow(10_000);
+
+      long now = 100_000;
+      monitor.recordGcEvent(now - 20_000, 10, 500_000_000);
+      monitor.recordGcEvent(now - 5000, 10, 100_000_000);
+      monitor.recordGcEvent(now, 10, 200_000_000);
+      // The first event is out of the window => 300MB in 10s
+      assertEquals(30_000_000, monitor.computeAllocationRate(now));
+   }
+
    @Test
    public void testGcPressureAutoClears() {
       monitor.setGcPressureWindow(10_000);
@@ -219,4 +219,9 @@ public void setMemory(long address, long bytes, byte value) {
             .reinterpret(bytes)
             .fill(value);
    }
+
+   @Override
+   public boolean tracksAllocations() {
+      return allocatedBlocks != null;
+   }
 }
@@ -30,4 +30,14 @@ public interface OffHeapMemory {
    void free(long address);
 
    void setMemory(long address, long bytes, byte value);
+
+   /**
+    * Returns whether memory accesses are validated against the blocks returned by {@link #allocate(long)}, in which
+    * case only addresses of those blocks may be accessed, and not addresses inside them handed out by a pooling
+    * allocator.
+    * @return true if accesses are validated against the allocated blocks
+    */
+   default boolean tracksAllocations() {
+      return false;
+   }
 }
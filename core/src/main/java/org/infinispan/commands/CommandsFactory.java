@@ -45,6 +45,7 @@
 import org.infinispan.commands.remote.CheckTransactionRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.remote.RemoveExpiredKeysCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTxInfoCommand;
@@ -52,6 +53,7 @@
 import org.infinispan.commands.statetransfer.ConflictResolutionStartCommand;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commands.statetransfer.StateTransferCancelCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetChecksumsCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetListenersCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetTransactionsCommand;
 import org.infinispan.commands.statetransfer.StateTransferStartCommand;
@@ -215,6 +217,15 @@ default RemoveCommand buildRemoveCommand(Object key, Object value, int segment,
     */
    RemoveExpiredCommand buildRemoveExpiredCommand(Object key, Object value, int segment, long flagsBitSet);
 
+   /**
+    * Builds a command sent by the primary owner to a backup owner with the entries it removed because their lifespan
+    * expired. Both lists have the same size, the lifespan at a position belongs to the key at that position.
+    * @param keys the keys of the expired entries
+    * @param lifespans the lifespans that expired
+    * @return a RemoveExpiredKeysCommand
+    */
+   RemoveExpiredKeysCommand buildRemoveExpiredKeysCommand(List<?> keys, List<Long> lifespans);
+
    /**
     * Builds a ReplaceCommand
     * @param key key to replace
@@ -428,6 +439,8 @@ ComputeIfAbsentCommand buildComputeIfAbsentCommand(Object key, Function mappingF
 
    StateTransferGetTransactionsCommand buildStateTransferGetTransactionsCommand(int topologyId, IntSet segments);
 
+   StateTransferGetChecksumsCommand buildStateTransferGetChecksumsCommand(int topologyId, IntSet segments);
+
    StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments);
 
    /**
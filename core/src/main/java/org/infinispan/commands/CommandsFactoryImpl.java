@@ -45,6 +45,7 @@
 import org.infinispan.commands.remote.CheckTransactionRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.remote.RemoveExpiredKeysCommand;
 import org.infinispan.commands.remote.recovery.CompleteTransactionCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTxInfoCommand;
@@ -52,6 +53,7 @@
 import org.infinispan.commands.statetransfer.ConflictResolutionStartCommand;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commands.statetransfer.StateTransferCancelCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetChecksumsCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetListenersCommand;
 import org.infinispan.commands.statetransfer.StateTransferGetTransactionsCommand;
 import org.infinispan.commands.statetransfer.StateTransferStartCommand;
@@ -213,6 +215,11 @@ public RemoveExpiredCommand buildRemoveExpiredCommand(Object key, Object value,
             generateUUID(false));
    }
 
+   @Override
+   public RemoveExpiredKeysCommand buildRemoveExpiredKeysCommand(List<?> keys, List<Long> lifespans) {
+      return new RemoveExpiredKeysCommand(cacheName, keys, lifespans);
+   }
+
    @Override
    public ReplaceCommand buildReplaceCommand(Object key, Object oldValue, Object newValue, int segment,
                                              Metadata metadata, long flagsBitSet, boolean returnEntry) {
@@ -340,6 +347,11 @@ public StateTransferGetTransactionsCommand buildStateTransferGetTransactionsComm
       return new StateTransferGetTransactionsCommand(cacheName, topologyId, segments);
    }
 
+   @Override
+   public StateTransferGetChecksumsCommand buildStateTransferGetChecksumsCommand(int topologyId, IntSet segments) {
+      return new StateTransferGetChecksumsCommand(cacheName, topologyId, segments);
+   }
+
    @Override
    public StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments) {
       return new StateTransferStartCommand(cacheName, topologyId, segments);
@@ -0,0 +1,85 @@
+package org.infinispan.commands.remote;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.commons.util.Util;
+import org.infinispan.expiration.impl.ClusterExpirationManager;
+import org.infinispan.expiration.impl.InternalExpirationManager;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.marshall.protostream.impl.MarshallableList;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.util.ByteString;
+
+/**
+ * Sent by the primary owner to a backup owner with the entries its expiration reaper removed because their lifespan
+ * elapsed. This replaces one {@link org.infinispan.commands.write.RemoveExpiredCommand} per key with a single command
+ * per backup owner.
+ * <p>
+ * The backup owner removes each entry only if it still has the same lifespan and is still expired according to its own
+ * creation time, so a write that reached the backup owner after the expiration is never undone. The values are not
+ * sent, as a value without a value-based {@code equals} would never match once unmarshalled.
+ * <p>
+ * This is not a {@link org.infinispan.commands.VisitableCommand}, the entries are removed locally on the backup owner.
+ *
+ * @since 16.3
+ */
+@ProtoTypeId(ProtoStreamTypeIds.REMOVE_EXPIRED_KEYS_COMMAND)
+public class RemoveExpiredKeysCommand extends BaseRpcCommand {
+
+   public static final NodeVersion SUPPORTED_SINCE = NodeVersion.from((byte) 16, (byte) 3, (byte) 0);
+
+   private final List<?> keys;
+   private final List<Long> lifespans;
+
+   public RemoveExpiredKeysCommand(ByteString cacheName, List<?> keys, List<Long> lifespans) {
+      super(cacheName);
+      this.keys = keys;
+      this.lifespans = lifespans;
+   }
+
+   @ProtoFactory
+   RemoveExpiredKeysCommand(ByteString cacheName, MarshallableList<?> wrappedKeys,
+                            MarshallableList<Long> wrappedLifespans) {
+      this(cacheName, MarshallableList.unwrap(wrappedKeys), MarshallableList.unwrap(wrappedLifespans));
+   }
+
+   @ProtoField(number = 2, name = "keys")
+   MarshallableList<?> getWrappedKeys() {
+      return MarshallableList.create(keys);
+   }
+
+   @ProtoField(number = 3, name = "lifespans")
+   MarshallableList<Long> getWrappedLifespans() {
+      return MarshallableList.create(lifespans);
+   }
+
+   @Override
+   public CompletionStage<Void> invokeAsync(ComponentRegistry registry) throws Throwable {
+      ClusterExpirationManager<Object, Object> expirationManager =
+            (ClusterExpirationManager<Object, Object>) registry.getComponent(InternalExpirationManager.class);
+      return expirationManager.removeExpiredOnBackup(keys, lifespans);
+   }
+
+   @Override
+   public NodeVersion supportedSince() {
+      return SUPPORTED_SINCE;
+   }
+
+   public List<?> getKeys() {
+      return keys;
+   }
+
+   @Override
+   public String toString() {
+      return "RemoveExpiredKeysCommand{" +
+            "keys=" + Util.toStr(keys) +
+            ", lifespans=" + lifespans +
+            ", cacheName=" + cacheName +
+            '}';
+   }
+}
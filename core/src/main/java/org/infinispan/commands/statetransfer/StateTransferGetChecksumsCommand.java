@@ -0,0 +1,56 @@
+package org.infinispan.commands.statetransfer;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.marshall.protostream.impl.WrappedMessages;
+import org.infinispan.protostream.WrappedMessage;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.statetransfer.StateProvider;
+import org.infinispan.util.ByteString;
+
+/**
+ * Get the checksums of the entries in the specified segments, so that the requester only transfers the segments
+ * with different contents.
+ *
+ * @since 16.3
+ */
+@ProtoTypeId(ProtoStreamTypeIds.STATE_TRANSFER_GET_CHECKSUMS_COMMAND)
+public class StateTransferGetChecksumsCommand extends AbstractStateTransferCommand {
+
+   public static final NodeVersion SUPPORTED_SINCE = NodeVersion.from((byte) 16, (byte) 3, (byte) 0);
+
+   @ProtoFactory
+   StateTransferGetChecksumsCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments) {
+      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments));
+   }
+
+   public StateTransferGetChecksumsCommand(ByteString cacheName, int topologyId, IntSet segments) {
+      super(cacheName, topologyId, segments);
+   }
+
+   @Override
+   public CompletionStage<Map<Integer, Long>> invokeAsync(ComponentRegistry registry) throws Throwable {
+      StateProvider stateProvider = registry.getStateTransferManager().getStateProvider();
+      return stateProvider.getSegmentChecksums(origin, topologyId, segments);
+   }
+
+   @Override
+   public NodeVersion supportedSince() {
+      return SUPPORTED_SINCE;
+   }
+
+   @Override
+   public String toString() {
+      return "StateTransferGetChecksumsCommand{" +
+            "topologyId=" + topologyId +
+            ", segments=" + segments +
+            ", cacheName=" + cacheName +
+            '}';
+   }
+}
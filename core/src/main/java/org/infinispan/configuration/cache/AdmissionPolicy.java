@@ -0,0 +1,22 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining whether a new entry is stored in a bounded data container when storing it requires the eviction
+ * of another entry.
+ *
+ * @since 16.3
+ */
+public enum AdmissionPolicy {
+
+   /**
+    * Always stores new entries, evicting other entries as needed.
+    */
+   NONE,
+
+   /**
+    * Only stores a new entry if its key was accessed more often than the key of the entry it would evict, according to
+    * a count-min sketch of the recently accessed keys. Keys that are accessed only once, such as the keys of a scan,
+    * do not evict frequently accessed entries.
+    */
+   TINY_LFU
+}
@@ -4,6 +4,7 @@
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.attributes.ConfigurationElement;
+import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.parsing.Element;
 
 /**
@@ -17,9 +18,12 @@ public class AsyncStoreConfiguration extends ConfigurationElement<AsyncStoreConf
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ENABLED, false).immutable().build();
    public static final AttributeDefinition<Integer> MODIFICATION_QUEUE_SIZE  = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MODIFICATION_QUEUE_SIZE, 1024).immutable().build();
    public static final AttributeDefinition<Boolean> FAIL_SILENTLY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FAIL_SILENTLY, false).immutable().build();
+   public static final AttributeDefinition<TimeQuantity> FLUSH_INTERVAL = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FLUSH_INTERVAL, TimeQuantity.valueOf(0))
+         .parser(TimeQuantity.PARSER).immutable().since(16, 3).build();
+   public static final AttributeDefinition<Integer> FLUSH_MAX_BYTES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FLUSH_MAX_BYTES, 4 * 1024 * 1024).immutable().since(16, 3).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, FAIL_SILENTLY);
+      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, FAIL_SILENTLY, FLUSH_INTERVAL, FLUSH_MAX_BYTES);
    }
 
    private final Attribute<Boolean> failSilently;
@@ -49,4 +53,20 @@ public int modificationQueueSize() {
    public boolean failSilently() {
       return failSilently.get();
    }
+
+   /**
+    * How long, in milliseconds, modifications are kept in the queue before they are written to the store, so that
+    * repeated writes to the same key are coalesced. 0 writes the modifications as soon as the store is idle.
+    */
+   public long flushInterval() {
+      return attributes.attribute(FLUSH_INTERVAL).get().longValue();
+   }
+
+   /**
+    * When {@link #flushInterval()} is positive, how many bytes of entries can be queued before they are written to the
+    * store, regardless of the interval.
+    */
+   public int flushMaxBytes() {
+      return attributes.attribute(FLUSH_MAX_BYTES).get();
+   }
 }
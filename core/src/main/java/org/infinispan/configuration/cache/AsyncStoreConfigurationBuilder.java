@@ -2,11 +2,16 @@
 
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.ENABLED;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FAIL_SILENTLY;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FLUSH_INTERVAL;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FLUSH_MAX_BYTES;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.TimeQuantity;
 
 /**
  * Configuration for the async cache store. If enabled, this configuration provides
@@ -79,6 +84,33 @@ public AsyncStoreConfigurationBuilder<S> failSilently(boolean failSilently) {
       return this;
    }
 
+   /**
+    * Sets how long modifications are kept in the queue before they are written to the store. Repeated writes to the
+    * same key during this interval are coalesced, and only the last one is written to the store. The default, 0,
+    * writes the modifications as soon as the store is idle.
+    */
+   public AsyncStoreConfigurationBuilder<S> flushInterval(long flushInterval, TimeUnit unit) {
+      attributes.attribute(FLUSH_INTERVAL).set(TimeQuantity.valueOf(unit.toMillis(flushInterval)));
+      return this;
+   }
+
+   /**
+    * Same as {@link #flushInterval(long, TimeUnit)}, but supporting time units like "500ms" or "2s".
+    */
+   public AsyncStoreConfigurationBuilder<S> flushInterval(String flushInterval) {
+      attributes.attribute(FLUSH_INTERVAL).set(TimeQuantity.valueOf(flushInterval));
+      return this;
+   }
+
+   /**
+    * Sets how many bytes of entries can be queued before they are written to the store, without waiting for the
+    * {@link #flushInterval(long, TimeUnit)} to elapse.
+    */
+   public AsyncStoreConfigurationBuilder<S> flushMaxBytes(int flushMaxBytes) {
+      attributes.attribute(FLUSH_MAX_BYTES).set(flushMaxBytes);
+      return this;
+   }
+
    @Override
    public AsyncStoreConfiguration create() {
       return new AsyncStoreConfiguration(attributes.protect());
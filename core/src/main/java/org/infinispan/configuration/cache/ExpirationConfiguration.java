@@ -17,9 +17,10 @@ public class ExpirationConfiguration extends ConfigurationElement<ExpirationConf
    public static final AttributeDefinition<Boolean> REAPER_ENABLED = AttributeDefinition.builder("reaperEnabled", true).immutable().autoPersist(false).build();
    public static final AttributeDefinition<TimeQuantity> WAKEUP_INTERVAL = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.INTERVAL, TimeQuantity.valueOf("1m")).parser(TimeQuantity.PARSER).build();
    public static final AttributeDefinition<TouchMode> TOUCH = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TOUCH, TouchMode.SYNC).immutable().build();
+   public static final AttributeDefinition<Boolean> REAPER_INDEX = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.REAPER_INDEX, false).immutable().since(16, 3).build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL, TOUCH);
+      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL, TOUCH, REAPER_INDEX);
    }
 
    private final Attribute<TimeQuantity> lifespan;
@@ -27,6 +28,7 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<Boolean> reaperEnabled;
    private final Attribute<TimeQuantity> wakeUpInterval;
    private final Attribute<TouchMode> touch;
+   private final Attribute<Boolean> reaperIndex;
 
    ExpirationConfiguration(AttributeSet attributes) {
       super(Element.EXPIRATION, attributes);
@@ -35,6 +37,7 @@ static AttributeSet attributeDefinitionSet() {
       reaperEnabled = attributes.attribute(REAPER_ENABLED);
       wakeUpInterval = attributes.attribute(WAKEUP_INTERVAL);
       touch = attributes.attribute(TOUCH);
+      reaperIndex = attributes.attribute(REAPER_INDEX);
    }
 
    /**
@@ -84,4 +87,13 @@ public long wakeUpInterval() {
    public TouchMode touch() {
       return touch.get();
    }
+
+   /**
+    * Whether the data container keeps an index of the entries that can expire, ordered by expiration time. When
+    * enabled the reaper only visits the entries that are due at each run instead of iterating over the entire data
+    * container, at the cost of maintaining the index on every write of an expirable entry.
+    */
+   public boolean reaperIndex() {
+      return reaperIndex.get();
+   }
 }
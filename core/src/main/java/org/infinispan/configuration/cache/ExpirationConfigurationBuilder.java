@@ -3,6 +3,7 @@
 import static org.infinispan.configuration.cache.ExpirationConfiguration.LIFESPAN;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.MAX_IDLE;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.REAPER_ENABLED;
+import static org.infinispan.configuration.cache.ExpirationConfiguration.REAPER_INDEX;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.TOUCH;
 import static org.infinispan.configuration.cache.ExpirationConfiguration.WAKEUP_INTERVAL;
 
@@ -132,6 +133,16 @@ public boolean reaperEnabled() {
       return attributes.attribute(REAPER_ENABLED).get();
    }
 
+   /**
+    * Maintain an index of the entries that can expire, ordered by expiration time, so that the reaper only visits the
+    * entries that are due at each run instead of iterating over the entire data container. This is worthwhile when
+    * only a small fraction of a large data container has a lifespan or max idle.
+    */
+   public ExpirationConfigurationBuilder reaperIndex(boolean enabled) {
+      attributes.attribute(REAPER_INDEX).set(enabled);
+      return this;
+   }
+
    /**
     * Interval (in milliseconds) between subsequent runs to purge expired entries from memory and
     * any cache stores. If you wish to disable the periodic eviction process altogether, set
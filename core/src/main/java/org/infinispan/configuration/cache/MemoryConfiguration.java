@@ -1,11 +1,13 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.commons.configuration.attributes.AttributeValidator.greaterThanZero;
 import static org.infinispan.util.logging.Log.CONFIG;
 
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.attributes.ConfigurationElement;
 import org.infinispan.commons.util.ByteQuantity;
+import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.parsing.Attribute;
 import org.infinispan.configuration.parsing.Element;
 import org.infinispan.eviction.EvictionStrategy;
@@ -21,9 +23,18 @@ public class MemoryConfiguration extends ConfigurationElement<MemoryConfiguratio
    public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(Attribute.MAX_COUNT, -1L).build();
    public static final AttributeDefinition<EvictionStrategy> WHEN_FULL = AttributeDefinition.builder(Attribute.WHEN_FULL, EvictionStrategy.NONE).immutable().build();
    public static final AttributeDefinition<String> EVICTION_CONTAINER = AttributeDefinition.builder(Attribute.EVICTION_CONTAINER, null, String.class).immutable().build();
+   public static final AttributeDefinition<OffHeapAllocatorType> OFF_HEAP_ALLOCATOR = AttributeDefinition.builder(Attribute.OFF_HEAP_ALLOCATOR, OffHeapAllocatorType.UNPOOLED).immutable().since(16, 3).build();
+   public static final AttributeDefinition<OffHeapEvictionPolicy> OFF_HEAP_EVICTION_POLICY = AttributeDefinition.builder(Attribute.OFF_HEAP_EVICTION_POLICY, OffHeapEvictionPolicy.LRU).immutable().since(16, 3).build();
+   public static final AttributeDefinition<Boolean> COMPACT_ENTRIES = AttributeDefinition.builder(Attribute.COMPACT_ENTRIES, false).immutable().since(16, 3).build();
+   public static final AttributeDefinition<Integer> EVICTION_SHARDS = AttributeDefinition.builder(Attribute.EVICTION_SHARDS, 1)
+         .validator(greaterThanZero(Attribute.EVICTION_SHARDS)).immutable().since(16, 3).build();
+   public static final AttributeDefinition<Boolean> DYNAMIC_RESIZE = AttributeDefinition.builder(Attribute.DYNAMIC_RESIZE, false).immutable().since(16, 3).build();
+   public static final AttributeDefinition<TimeQuantity> EVICTION_EXPIRY_WINDOW = AttributeDefinition.builder(Attribute.EVICTION_EXPIRY_WINDOW, TimeQuantity.valueOf(null, -1))
+         .parser(TimeQuantity.PARSER).immutable().since(16, 3).build();
+   public static final AttributeDefinition<AdmissionPolicy> ADMISSION_POLICY = AttributeDefinition.builder(Attribute.ADMISSION_POLICY, AdmissionPolicy.NONE).immutable().since(16, 3).build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, EVICTION_CONTAINER);
+      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, EVICTION_CONTAINER, OFF_HEAP_ALLOCATOR, OFF_HEAP_EVICTION_POLICY, COMPACT_ENTRIES, EVICTION_SHARDS, DYNAMIC_RESIZE, ADMISSION_POLICY, EVICTION_EXPIRY_WINDOW);
    }
 
    MemoryConfiguration(AttributeSet attributes) {
@@ -101,6 +112,63 @@ public String evictionContainer() {
       return attributes.attribute(EVICTION_CONTAINER).get();
    }
 
+   /**
+    * How native memory is allocated for the entries when the storage is off-heap
+    * @return the configured {@link OffHeapAllocatorType}
+    */
+   public OffHeapAllocatorType offHeapAllocator() {
+      return attributes.attribute(OFF_HEAP_ALLOCATOR).get();
+   }
+
+   /**
+    * Which entries are evicted first when the storage is off-heap and the container is bounded
+    * @return the configured {@link OffHeapEvictionPolicy}
+    */
+   public OffHeapEvictionPolicy offHeapEvictionPolicy() {
+      return attributes.attribute(OFF_HEAP_EVICTION_POLICY).get();
+   }
+
+   /**
+    * Whether immortal entries of an unbounded heap container are stored without their {@link org.infinispan.container.entries.InternalCacheEntry}
+    * @return true if the entries are compacted
+    */
+   public boolean compactEntries() {
+      return attributes.attribute(COMPACT_ENTRIES).get();
+   }
+
+   /**
+    * The number of groups of segments of a bounded heap container that evict their entries independently
+    * @return the number of eviction shards
+    */
+   public int evictionShards() {
+      return attributes.attribute(EVICTION_SHARDS).get();
+   }
+
+   /**
+    * Whether the capacity of a bounded container is reduced while the JVM is under memory pressure
+    * @return true if the container is resized dynamically
+    */
+   public boolean dynamicResize() {
+      return attributes.attribute(DYNAMIC_RESIZE).get();
+   }
+
+   /**
+    * Whether a new entry is stored when the storage is off-heap and storing it requires the eviction of another entry
+    * @return the configured {@link AdmissionPolicy}
+    */
+   public AdmissionPolicy admissionPolicy() {
+      return attributes.attribute(ADMISSION_POLICY).get();
+   }
+
+   /**
+    * When a bounded container has to evict an entry, entries that expire within this many milliseconds are evicted
+    * before the entry chosen by the eviction algorithm
+    * @return the window in milliseconds, or -1 if expiring entries are not evicted first
+    */
+   public long evictionExpiryWindow() {
+      return attributes.attribute(EVICTION_EXPIRY_WINDOW).get().longValue();
+   }
+
    private boolean isSizeBounded() {
       return maxSize() != null;
    }
@@ -2,10 +2,13 @@
 
 import static org.infinispan.util.logging.Log.CONFIG;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.Attribute;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.global.ContainerMemoryConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.eviction.EvictionStrategy;
@@ -120,6 +123,138 @@ public String evictionContainer() {
       return attributes.attribute(MemoryConfiguration.EVICTION_CONTAINER).get();
    }
 
+   /**
+    * Sets how native memory is allocated for the entries when the storage is {@link StorageType#OFF_HEAP}. This
+    * setting is ignored for other storage types.
+    *
+    * @param allocatorType the allocator to use
+    * @return this
+    */
+   public MemoryConfigurationBuilder offHeapAllocator(OffHeapAllocatorType allocatorType) {
+      attributes.attribute(MemoryConfiguration.OFF_HEAP_ALLOCATOR).set(allocatorType);
+      return this;
+   }
+
+   public OffHeapAllocatorType offHeapAllocator() {
+      return attributes.attribute(MemoryConfiguration.OFF_HEAP_ALLOCATOR).get();
+   }
+
+   /**
+    * Sets which entries are evicted first when the storage is {@link StorageType#OFF_HEAP} and the container is
+    * bounded by {@link #maxSize(String)} or {@link #maxCount(long)}. This setting is ignored otherwise.
+    *
+    * @param evictionPolicy the eviction policy to use
+    * @return this
+    */
+   public MemoryConfigurationBuilder offHeapEvictionPolicy(OffHeapEvictionPolicy evictionPolicy) {
+      attributes.attribute(MemoryConfiguration.OFF_HEAP_EVICTION_POLICY).set(evictionPolicy);
+      return this;
+   }
+
+   public OffHeapEvictionPolicy offHeapEvictionPolicy() {
+      return attributes.attribute(MemoryConfiguration.OFF_HEAP_EVICTION_POLICY).get();
+   }
+
+   /**
+    * Enables storing immortal entries without metadata in a compact form, which reduces the heap used by every entry.
+    * This only applies when the storage is {@link StorageType#HEAP} and the container is not bounded, it is ignored
+    * otherwise.
+    *
+    * @param compactEntries whether to compact the entries
+    * @return this
+    */
+   public MemoryConfigurationBuilder compactEntries(boolean compactEntries) {
+      attributes.attribute(MemoryConfiguration.COMPACT_ENTRIES).set(compactEntries);
+      return this;
+   }
+
+   public boolean compactEntries() {
+      return attributes.attribute(MemoryConfiguration.COMPACT_ENTRIES).get();
+   }
+
+   /**
+    * Splits the segments of a bounded container into the given number of groups, each one with its own eviction policy
+    * and a share of the capacity, so that writes to different groups do not contend on the same eviction buffers. The
+    * capacity is periodically redistributed between the groups according to how often their entries are read. This
+    * only applies when the storage is {@link StorageType#HEAP}, the container is bounded by {@link #maxSize(String)}
+    * or {@link #maxCount(long)} and the cache is segmented, it is ignored otherwise.
+    *
+    * @param evictionShards the number of groups of segments, 1 to evict from the whole container at once
+    * @return this
+    */
+   public MemoryConfigurationBuilder evictionShards(int evictionShards) {
+      attributes.attribute(MemoryConfiguration.EVICTION_SHARDS).set(evictionShards);
+      return this;
+   }
+
+   public int evictionShards() {
+      return attributes.attribute(MemoryConfiguration.EVICTION_SHARDS).get();
+   }
+
+   /**
+    * Enables reducing the capacity of the container while the JVM is under memory pressure, as reported by the memory
+    * monitor, and restoring it once the pressure is gone. When passivation is enabled the entries that would be
+    * evicted by a reduction are passivated before the capacity is reduced. This only applies when the container is
+    * bounded by {@link #maxSize(String)} or {@link #maxCount(long)}, it is ignored otherwise. Requires the memory
+    * monitor to be enabled.
+    *
+    * @param dynamicResize whether to resize the container dynamically
+    * @return this
+    */
+   public MemoryConfigurationBuilder dynamicResize(boolean dynamicResize) {
+      attributes.attribute(MemoryConfiguration.DYNAMIC_RESIZE).set(dynamicResize);
+      return this;
+   }
+
+   public boolean dynamicResize() {
+      return attributes.attribute(MemoryConfiguration.DYNAMIC_RESIZE).get();
+   }
+
+   /**
+    * Defines whether a new entry is stored in memory when storing it requires the eviction of another entry. Rejected
+    * entries are passivated right away when passivation is enabled. Only applies when the storage is
+    * {@link StorageType#OFF_HEAP} and the cache is bounded, bounded heap caches already use a frequency based admission.
+    * @param admissionPolicy the admission policy
+    * @return this
+    */
+   public MemoryConfigurationBuilder admissionPolicy(AdmissionPolicy admissionPolicy) {
+      attributes.attribute(MemoryConfiguration.ADMISSION_POLICY).set(admissionPolicy);
+      return this;
+   }
+
+   public AdmissionPolicy admissionPolicy() {
+      return attributes.attribute(MemoryConfiguration.ADMISSION_POLICY).get();
+   }
+
+   /**
+    * When the cache is bounded and has to evict an entry, evicts an entry that expires within the given number of
+    * milliseconds, if any, before the entry chosen by the eviction algorithm. This keeps entries that do not expire
+    * soon in memory when most entries have a short lifespan or max idle. Enables the expiration index of the reaper.
+    * -1 disables it.
+    * @param window the window in milliseconds
+    * @return this
+    */
+   public MemoryConfigurationBuilder evictionExpiryWindow(long window) {
+      attributes.attribute(MemoryConfiguration.EVICTION_EXPIRY_WINDOW).set(TimeQuantity.valueOf(window));
+      return this;
+   }
+
+   /**
+    * Same as {@link #evictionExpiryWindow(long)}, but supporting time units such as "10s"
+    */
+   public MemoryConfigurationBuilder evictionExpiryWindow(String window) {
+      attributes.attribute(MemoryConfiguration.EVICTION_EXPIRY_WINDOW).set(TimeQuantity.valueOf(window));
+      return this;
+   }
+
+   public MemoryConfigurationBuilder evictionExpiryWindow(long window, TimeUnit unit) {
+      return evictionExpiryWindow(unit.toMillis(window));
+   }
+
+   public long evictionExpiryWindow() {
+      return attributes.attribute(MemoryConfiguration.EVICTION_EXPIRY_WINDOW).get().longValue();
+   }
+
    private void checkBinaryRequirement() {
       if (!storage().canStoreReferences()) {
          if (getBuilder().clustering().hash().groups().isEnabled()) {
@@ -184,6 +319,8 @@ public void validate(GlobalConfiguration globalConfig) {
          if (containerConfig.dynamicResize() && getBuilder().persistence().passivation()) {
             CONFIG.dynamicResizeWithPassivation(containerStorage);
          }
+      } else if (dynamicResize() && (isSizeBounded() || isCountBounded()) && !globalConfig.memoryMonitor().enabled()) {
+         throw CONFIG.cacheDynamicResizeRequiresMemoryMonitor();
       }
    }
 
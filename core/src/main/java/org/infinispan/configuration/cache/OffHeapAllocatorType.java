@@ -0,0 +1,22 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining how native memory is allocated for the entries of an off-heap data container.
+ *
+ * @since 16.3
+ */
+public enum OffHeapAllocatorType {
+
+   /**
+    * Every entry is allocated and freed individually from the native heap.
+    */
+   UNPOOLED,
+
+   /**
+    * Entries are allocated from pages of native memory that are split into slots of a fixed size class. Freed slots
+    * are kept in free lists and reused by later allocations of the same size class, so that writes do not have to go
+    * to the native heap. As memory is only returned to the native heap when the cache stops, reads do not need to
+    * acquire locks.
+    */
+   SLAB
+}
@@ -0,0 +1,21 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining which entry is evicted first when a bounded off-heap data container is full.
+ *
+ * @since 16.3
+ */
+public enum OffHeapEvictionPolicy {
+
+   /**
+    * Evicts the least recently used entry. Every read moves the entry to the end of a list shared by the whole
+    * container, which requires acquiring a single lock.
+    */
+   LRU,
+
+   /**
+    * Evicts entries in insertion order, giving a second chance to entries that were read since the eviction last
+    * reached them. A read only marks the entry as referenced, without acquiring any lock shared by the container.
+    */
+   CLOCK
+}
@@ -18,15 +18,31 @@ public class StateTransferConfiguration extends ConfigurationElement<StateTransf
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ENABLED, true).immutable().build();
    public static final AttributeDefinition<TimeQuantity> TIMEOUT = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TIMEOUT, TimeQuantity.valueOf("4m")).parser(TimeQuantity.PARSER).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CHUNK_SIZE, 512).immutable().build();
+   public static final AttributeDefinition<Long> CHUNK_BYTES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CHUNK_BYTES, 0L).immutable().build();
+   public static final AttributeDefinition<Long> MAX_OUTBOUND_BANDWIDTH = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_OUTBOUND_BANDWIDTH, 0L).immutable().build();
+   public static final AttributeDefinition<Long> MAX_INBOUND_BANDWIDTH = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_INBOUND_BANDWIDTH, 0L).immutable().build();
+   public static final AttributeDefinition<Boolean> ADAPTIVE_FLOW_CONTROL = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ADAPTIVE_FLOW_CONTROL, false).immutable().build();
+   public static final AttributeDefinition<Integer> APPLY_PARALLELISM = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.APPLY_PARALLELISM, 1).immutable().build();
+   public static final AttributeDefinition<Boolean> DIRECT_APPLY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.DIRECT_APPLY, false).immutable().build();
+   public static final AttributeDefinition<Boolean> DELTA_TRANSFER = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.DELTA_TRANSFER, false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER,
+            CHUNK_BYTES, MAX_OUTBOUND_BANDWIDTH, MAX_INBOUND_BANDWIDTH, ADAPTIVE_FLOW_CONTROL, APPLY_PARALLELISM, DIRECT_APPLY,
+            DELTA_TRANSFER);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
    private final Attribute<Boolean> fetchInMemoryState;
    private final Attribute<TimeQuantity> timeout;
    private final Attribute<Integer> chunkSize;
+   private final Attribute<Long> chunkBytes;
+   private final Attribute<Long> maxOutboundBandwidth;
+   private final Attribute<Long> maxInboundBandwidth;
+   private final Attribute<Boolean> adaptiveFlowControl;
+   private final Attribute<Integer> applyParallelism;
+   private final Attribute<Boolean> directApply;
+   private final Attribute<Boolean> deltaTransfer;
 
    StateTransferConfiguration(AttributeSet attributes) {
       super(Element.STATE_TRANSFER, attributes);
@@ -34,6 +50,13 @@ static AttributeSet attributeDefinitionSet() {
       fetchInMemoryState = attributes.attribute(FETCH_IN_MEMORY_STATE);
       timeout = attributes.attribute(TIMEOUT);
       chunkSize = attributes.attribute(CHUNK_SIZE);
+      chunkBytes = attributes.attribute(CHUNK_BYTES);
+      maxOutboundBandwidth = attributes.attribute(MAX_OUTBOUND_BANDWIDTH);
+      maxInboundBandwidth = attributes.attribute(MAX_INBOUND_BANDWIDTH);
+      adaptiveFlowControl = attributes.attribute(ADAPTIVE_FLOW_CONTROL);
+      applyParallelism = attributes.attribute(APPLY_PARALLELISM);
+      directApply = attributes.attribute(DIRECT_APPLY);
+      deltaTransfer = attributes.attribute(DELTA_TRANSFER);
    }
 
    /**
@@ -63,6 +86,62 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * The maximum estimated size, in bytes, of the cache entries batched in each transfer, or {@code 0} if only
+    * {@link #chunkSize()} limits the batches.
+    */
+   public long chunkBytes() {
+      return chunkBytes.get();
+   }
+
+   /**
+    * The maximum number of bytes per second this node sends to other nodes during state transfer, shared by all the
+    * caches of this node, or {@code 0} if unlimited.
+    */
+   public long maxOutboundBandwidth() {
+      return maxOutboundBandwidth.get();
+   }
+
+   /**
+    * The maximum number of bytes per second this node receives from other nodes during state transfer, shared by all
+    * the caches of this node, or {@code 0} if unlimited.
+    */
+   public long maxInboundBandwidth() {
+      return maxInboundBandwidth.get();
+   }
+
+   /**
+    * If {@code true}, outbound state transfer slows down while the response time of the regular requests sent by
+    * this node rises.
+    */
+   public boolean adaptiveFlowControl() {
+      return adaptiveFlowControl.get();
+   }
+
+   /**
+    * The maximum number of segments whose received state is applied concurrently.
+    */
+   public int applyParallelism() {
+      return applyParallelism.get();
+   }
+
+   /**
+    * If {@code true}, received entries are written directly to the data container instead of going through the
+    * interceptor chain, whenever the cache configuration allows it.
+    */
+   public boolean directApply() {
+      return directApply.get();
+   }
+
+   /**
+    * If {@code true}, a joiner compares the checksums of the segments it already holds with the ones of the owners and
+    * only requests the segments that differ. The checksums are computed by reading all the entries of the segments,
+    * including the ones in the stores, on both the joiner and the owners.
+    */
+   public boolean deltaTransfer() {
+      return deltaTransfer.get();
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
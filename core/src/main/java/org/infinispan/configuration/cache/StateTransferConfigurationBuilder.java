@@ -1,8 +1,15 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.StateTransferConfiguration.ADAPTIVE_FLOW_CONTROL;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.APPLY_PARALLELISM;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.AWAIT_INITIAL_TRANSFER;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_BYTES;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.DELTA_TRANSFER;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.DIRECT_APPLY;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.FETCH_IN_MEMORY_STATE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.MAX_INBOUND_BANDWIDTH;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.MAX_OUTBOUND_BANDWIDTH;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.TIMEOUT;
 import static org.infinispan.util.logging.Log.CONFIG;
 
@@ -11,6 +18,7 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.Attribute;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.global.GlobalConfiguration;
@@ -64,6 +72,86 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * Limits the estimated size of the cache entries in each batch to the given number of bytes, in addition to the
+    * {@link #chunkSize(int)} limit. Defaults to {@code 0} (no limit).
+    */
+   public StateTransferConfigurationBuilder chunkBytes(long bytes) {
+      attributes.attribute(CHUNK_BYTES).set(bytes);
+      return this;
+   }
+
+   /**
+    * Limits the number of bytes per second this node sends to other nodes during state transfer. The limit is shared
+    * by all the caches of this node: each batch uses up the node's bandwidth for the time it needs at the limit of its
+    * own cache. Defaults to {@code 0} (unlimited).
+    */
+   public StateTransferConfigurationBuilder maxOutboundBandwidth(long bytesPerSecond) {
+      attributes.attribute(MAX_OUTBOUND_BANDWIDTH).set(bytesPerSecond);
+      return this;
+   }
+
+   /**
+    * Limits the number of bytes per second this node receives from other nodes during state transfer. The senders
+    * slow down because each batch is only acknowledged after it was admitted by the limit. Like
+    * {@link #maxOutboundBandwidth(long)}, the limit is shared by all the caches of this node. Requires
+    * {@link #chunkBytes(long)} to be set to a value that can be received at this rate within the {@link #timeout(long)}.
+    * Defaults to {@code 0} (unlimited).
+    */
+   public StateTransferConfigurationBuilder maxInboundBandwidth(long bytesPerSecond) {
+      attributes.attribute(MAX_INBOUND_BANDWIDTH).set(bytesPerSecond);
+      return this;
+   }
+
+   /**
+    * If {@code true}, the outbound state transfer window shrinks while the response time of the regular requests
+    * sent by this node rises, and grows back gradually once it settles. Defaults to {@code false}.
+    */
+   public StateTransferConfigurationBuilder adaptiveFlowControl(boolean enabled) {
+      attributes.attribute(ADAPTIVE_FLOW_CONTROL).set(enabled);
+      return this;
+   }
+
+   /**
+    * The maximum number of segments whose received state is applied concurrently. The chunks of a single segment are
+    * always applied in order. Defaults to {@code 1}.
+    */
+   public StateTransferConfigurationBuilder applyParallelism(int parallelism) {
+      attributes.attribute(APPLY_PARALLELISM).set(parallelism);
+      return this;
+   }
+
+   /**
+    * If {@code true}, received entries are written directly to the data container, skipping the creation of a command
+    * for each entry. Only applies to non-transactional caches without indexing, cross-site backups, L1 or stores
+    * written through the cache; other caches always apply state through the interceptor chain.
+    * Defaults to {@code false}.
+    */
+   public StateTransferConfigurationBuilder directApply(boolean enabled) {
+      attributes.attribute(DIRECT_APPLY).set(enabled);
+      return this;
+   }
+
+   /**
+    * If {@code true}, a node that joins with data already in its container or in a store (e.g. after a restart)
+    * compares a checksum of each segment it must receive with the one computed by the current owner, and only requests
+    * the segments whose checksums differ. Segments without local data are always transferred in full.
+    * <p>
+    * The checksum of an entry with a lifespan or a max idle includes its expiry time. Each owner records its own
+    * creation and last used times, so a segment holding such entries rarely matches and is usually transferred in full.
+    * <p>
+    * Computing the checksums reads every entry of the compared segments, from memory and from the stores, on the joiner
+    * and on each owner it receives segments from, and marshals the keys and values that are not stored as bytes or
+    * strings. With large stores this scan can take longer than the transfer it saves, so only enable it when most
+    * segments are expected to be unchanged.
+    * <p>
+    * Defaults to {@code false}.
+    */
+   public StateTransferConfigurationBuilder deltaTransfer(boolean enabled) {
+      attributes.attribute(DELTA_TRANSFER).set(enabled);
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -99,6 +187,13 @@ public void validate() {
       if (chunkSize <= 0) {
          throw CONFIG.invalidChunkSize(chunkSize);
       }
+      validateNotNegative(CHUNK_BYTES);
+      validateNotNegative(MAX_OUTBOUND_BANDWIDTH);
+      validateNotNegative(MAX_INBOUND_BANDWIDTH);
+      int applyParallelism = attributes.attribute(APPLY_PARALLELISM).get();
+      if (applyParallelism <= 0) {
+         throw CONFIG.invalidStateTransferApplyParallelism(applyParallelism);
+      }
 
       if (clustering().cacheMode().isInvalidation()) {
          Attribute<Boolean> fetchAttribute = attributes.attribute(FETCH_IN_MEMORY_STATE);
@@ -117,6 +212,22 @@ public void validate() {
       if (timeoutAttribute.get().longValue() < remoteTimeoutAttribute.get().longValue()) {
          throw CONFIG.invalidStateTransferTimeout(timeoutAttribute.get().toString(), remoteTimeoutAttribute.get().toString());
       }
+
+      // The receiver delays its response while a batch waits for the inbound limit, so the sender's request must not
+      // time out while a single batch is admitted
+      long maxInboundBandwidth = attributes.attribute(MAX_INBOUND_BANDWIDTH).get();
+      long chunkBytes = attributes.attribute(CHUNK_BYTES).get();
+      if (maxInboundBandwidth > 0 &&
+            (chunkBytes == 0 || TimeUnit.SECONDS.toMillis(chunkBytes) / maxInboundBandwidth >= timeoutAttribute.get().longValue())) {
+         throw CONFIG.stateTransferChunkExceedsTimeout(maxInboundBandwidth, timeoutAttribute.get().toString(), chunkBytes);
+      }
+   }
+
+   private void validateNotNegative(AttributeDefinition<Long> definition) {
+      long value = attributes.attribute(definition).get();
+      if (value < 0) {
+         throw CONFIG.invalidStateTransferLimit(definition.name(), value);
+      }
    }
 
    @Override
@@ -15,9 +15,12 @@ public enum Attribute {
     // KEEP THESE IN ALPHABETICAL ORDER!
 
     ACQUIRE_TIMEOUT,
+    ADAPTIVE_FLOW_CONTROL,
     ADDRESS_COUNT,
+    ADMISSION_POLICY,
     AFTER,
     ALIASES,
+    APPLY_PARALLELISM,
     @Deprecated(forRemoval=true, since = "11.0")
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
     @Deprecated(forRemoval=true, since = "11.0")
@@ -38,12 +41,16 @@ public enum Attribute {
     CAPACITY,
     CAPACITY_FACTOR,
     CATEGORIES,
+    CHECKPOINT_INTERVAL,
+    CHUNK_BYTES,
     CHUNK_SIZE,
     CLASS,
     CLUSTER,
     COLLECTOR_ENDPOINT,
     COMMIT_INTERVAL,
+    COMPACTION_RATE,
     COMPACTION_THRESHOLD,
+    COMPACT_ENTRIES,
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL,
     CONFIGURATION,
@@ -57,7 +64,9 @@ public enum Attribute {
     DEFAULT_CACHE,
     DEFAULT_STACK,
     DEFAULT_MAX_RESULTS,
+    DELTA_TRANSFER,
     DESCRIPTION,
+    DIRECT_APPLY,
     DOMAIN,
     DYNAMIC_RESIZE,
     ENABLED,
@@ -65,10 +74,12 @@ public enum Attribute {
     EXECUTOR,
     EVICTION,
     EVICTION_CONTAINER,
+    EVICTION_EXPIRY_WINDOW,
     @Deprecated(forRemoval=true, since = "11.0")
     EVICTION_EXECUTOR,
     @Deprecated(forRemoval=true, since = "11.0")
     EVICTION_STRATEGY,
+    EVICTION_SHARDS,
     EXPIRATION_EXECUTOR,
     EXPORTER_PROTOCOL,
     EXTENDS,
@@ -76,6 +87,8 @@ public enum Attribute {
     FAIL_SILENTLY,
     FAILURE_POLICY_CLASS,
     FETCH_STATE,
+    FLUSH_INTERVAL,
+    FLUSH_MAX_BYTES,
     FRAGMENTATION_FACTOR,
     GAUGES,
     GC_DURATION_THRESHOLD,
@@ -87,6 +100,7 @@ public enum Attribute {
     ID,
     INDEX,
     INDEX_QUEUE_LENGTH("max-queue-length"),
+    INDEX_STORAGE,
     INDEXED_ENTITIES,
     INDEXING_MODE,
     INITIAL_CLUSTER_SIZE,
@@ -120,7 +134,9 @@ public enum Attribute {
     MAX_ENTRIES,
     MAX_FILE_SIZE,
     MAX_IDLE,
+    MAX_INBOUND_BANDWIDTH,
     MAX_NODE_SIZE,
+    MAX_OUTBOUND_BANDWIDTH,
     MAX_RETRIES,
     MIN_SIZE,
     MAX_BUFFERED_ENTRIES,
@@ -130,6 +146,7 @@ public enum Attribute {
     MBEAN_SERVER_LOOKUP,
     MERGE_POLICY,
     MEDIA_TYPE,
+    MEMORY_MAPPED_READS,
     MEMORY_THRESHOLD,
     MIN_NODE_SIZE,
     MODE,
@@ -142,6 +159,8 @@ public enum Attribute {
     NAMES_AS_TAGS,
     NON_BLOCKING_EXECUTOR,
     NOTIFICATIONS,
+    OFF_HEAP_ALLOCATOR,
+    OFF_HEAP_EVICTION_POLICY,
     ON_REHASH("onRehash"),
     OPEN_FILES_LIMIT,
     OWNERS,
@@ -166,6 +185,7 @@ public enum Attribute {
     RAM_BUFFER_SIZE,
     RAFT_MEMBERS,
     READ_ONLY,
+    REAPER_INDEX,
     REAPER_WAKE_UP_INTERVAL("reaper-interval"),
     REBATCH_REQUESTS_SIZE,
     RECOVERY_INFO_CACHE_NAME("recovery-cache"),
@@ -198,6 +218,8 @@ public enum Attribute {
     STACK,
     STOP_TIMEOUT,
     SYNC_WRITES,
+    SYNC_WRITES_MAX_BYTES,
+    SYNC_WRITES_WINDOW,
     TAKE_BACKUP_OFFLINE_AFTER_FAILURES("after-failures"),
     TAKE_BACKUP_OFFLINE_MIN_WAIT("min-wait"),
     THREAD_FACTORY,
@@ -683,6 +683,11 @@ private void parseExpiration(ConfigurationReader reader, ConfigurationBuilder bu
                builder.expiration().touch(ParseUtils.parseEnum(reader, i, TouchMode.class, value));
                break;
             }
+            case REAPER_INDEX: {
+               ParseUtils.introducedFrom(reader, 16, 3);
+               builder.expiration().reaperIndex(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -982,6 +987,13 @@ protected void parseFileStore(ConfigurationReader reader, ConfigurationBuilderHo
                   throw ParseUtils.unexpectedAttribute(reader, i);
                }
                break;
+            case COMPACTION_RATE:
+               if (fileStoreBuilder != null) {
+                  fileStoreBuilder.compactionRate(ParseUtils.parseLong(reader, i, value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             case PURGE: {
                fileStoreBuilder.purgeOnStartup(ParseUtils.parseBoolean(reader, i, value));
                break;
@@ -1034,6 +1046,15 @@ private void parseData(ConfigurationReader reader, SoftIndexFileStoreConfigurati
             case SYNC_WRITES:
                builder.syncWrites(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case SYNC_WRITES_WINDOW:
+               builder.syncWritesWindow(value);
+               break;
+            case SYNC_WRITES_MAX_BYTES:
+               builder.syncWritesMaxBytes(ParseUtils.parseInt(reader, i, value));
+               break;
+            case MEMORY_MAPPED_READS:
+               builder.memoryMappedReads(ParseUtils.parseBoolean(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1068,6 +1089,9 @@ private void parseIndex(ConfigurationReader reader, SoftIndexFileStoreConfigurat
             case MAX_NODE_SIZE:
                builder.maxNodeSize(ParseUtils.parseInt(reader, i, value));
                break;
+            case CHECKPOINT_INTERVAL:
+               builder.checkpointInterval(value);
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1160,6 +1184,12 @@ public static void parseStoreWriteBehind(ConfigurationReader reader, AsyncStoreC
             case FAIL_SILENTLY:
                storeBuilder.failSilently(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case FLUSH_INTERVAL:
+               storeBuilder.flushInterval(value);
+               break;
+            case FLUSH_MAX_BYTES:
+               storeBuilder.flushMaxBytes(ParseUtils.parseInt(reader, i, value));
+               break;
             case THREAD_POOL_SIZE: {
                ParseUtils.attributeRemovedSince(reader, 11, 0, i);
                ignoreAttribute(reader, i);
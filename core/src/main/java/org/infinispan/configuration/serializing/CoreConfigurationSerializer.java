@@ -688,6 +688,13 @@ private void writeMemory(ConfigurationWriter writer, Configuration configuration
          }
          attributes.write(writer, MemoryConfiguration.WHEN_FULL, Attribute.WHEN_FULL);
          attributes.write(writer, MemoryConfiguration.EVICTION_CONTAINER, Attribute.EVICTION_CONTAINER);
+         attributes.write(writer, MemoryConfiguration.OFF_HEAP_ALLOCATOR, Attribute.OFF_HEAP_ALLOCATOR);
+         attributes.write(writer, MemoryConfiguration.OFF_HEAP_EVICTION_POLICY, Attribute.OFF_HEAP_EVICTION_POLICY);
+         attributes.write(writer, MemoryConfiguration.COMPACT_ENTRIES, Attribute.COMPACT_ENTRIES);
+         attributes.write(writer, MemoryConfiguration.EVICTION_SHARDS, Attribute.EVICTION_SHARDS);
+         attributes.write(writer, MemoryConfiguration.DYNAMIC_RESIZE, Attribute.DYNAMIC_RESIZE);
+         attributes.write(writer, MemoryConfiguration.ADMISSION_POLICY, Attribute.ADMISSION_POLICY);
+         attributes.write(writer, MemoryConfiguration.EVICTION_EXPIRY_WINDOW, Attribute.EVICTION_EXPIRY_WINDOW);
          writer.writeEndElement();
       }
    }
@@ -860,7 +867,10 @@ private void writeDataElement(ConfigurationWriter writer, SoftIndexFileStoreConf
       configuration.data().attributes().write(writer, Element.DATA.getLocalName(),
             DataConfiguration.DATA_LOCATION,
             DataConfiguration.MAX_FILE_SIZE,
-            DataConfiguration.SYNC_WRITES);
+            DataConfiguration.SYNC_WRITES,
+            DataConfiguration.SYNC_WRITES_WINDOW,
+            DataConfiguration.SYNC_WRITES_MAX_BYTES,
+            DataConfiguration.MEMORY_MAPPED_READS);
    }
 
    private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreConfiguration configuration) {
@@ -869,7 +879,8 @@ private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreCon
             IndexConfiguration.INDEX_QUEUE_LENGTH,
             IndexConfiguration.INDEX_SEGMENTS,
             IndexConfiguration.MIN_NODE_SIZE,
-            IndexConfiguration.MAX_NODE_SIZE);
+            IndexConfiguration.MAX_NODE_SIZE,
+            IndexConfiguration.CHECKPOINT_INTERVAL);
    }
 
    private void writeCustomStore(ConfigurationWriter writer, CustomStoreConfiguration configuration) {
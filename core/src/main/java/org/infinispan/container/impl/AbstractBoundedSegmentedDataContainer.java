@@ -0,0 +1,236 @@
+package org.infinispan.container.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.ConcatIterator;
+import org.infinispan.commons.util.FlattenSpliterator;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.PrivateMetadata;
+
+/**
+ * Base class of the bounded segmented data containers. All writes and reads go to one or more eviction maps, and the
+ * entries are also kept in a map per segment so that bulk operations (iterator|spliterator) that are given segments
+ * only read the given segments.
+ * <p>
+ * Subclasses provide the eviction maps through {@link #evictionMaps()} and {@link #evictionMaps(IntSet)}, and the map
+ * of a segment through {@link #getMapForSegment(int)}.
+ *
+ * @since 16.3
+ */
+public abstract class AbstractBoundedSegmentedDataContainer<K, V> extends DefaultSegmentedDataContainer<K, V> {
+
+   protected AbstractBoundedSegmentedDataContainer(int numSegments) {
+      super(PeekableTouchableContainerMap::new, numSegments);
+   }
+
+   /**
+    * @return all the eviction maps of the container
+    */
+   protected abstract Collection<? extends PeekableTouchableMap<K, V>> evictionMaps();
+
+   /**
+    * @return the eviction maps that may hold entries of the given segments
+    */
+   protected Collection<? extends PeekableTouchableMap<K, V>> evictionMaps(IntSet segments) {
+      return evictionMaps();
+   }
+
+   @Override
+   public abstract PeekableTouchableMap<K, V> getMapForSegment(int segment);
+
+   @Override
+   public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata internalMetadata, long createdTimestamp,
+         long lastUseTimestamp) {
+      evictExpiringToFit(segment, k);
+      super.put(segment, k, v, metadata, internalMetadata, createdTimestamp, lastUseTimestamp);
+   }
+
+   /**
+    * Invoked before writing an entry, see {@link #evictExpiringToFit(Object)}.
+    */
+   protected void evictExpiringToFit(int segment, K key) {
+      evictExpiringToFit(key);
+   }
+
+   @Override
+   protected void computeEntryWritten(int segment, K key, InternalCacheEntry<K, V> value) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segment);
+      if (map != null) {
+         map.put(key, value);
+      }
+   }
+
+   @Override
+   protected void computeEntryRemoved(int segment, K key, InternalCacheEntry<K, V> value) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segment);
+      if (map != null) {
+         map.remove(key, value);
+      }
+   }
+
+   @Override
+   protected void putEntryInMap(PeekableTouchableMap<K, V> map, int segment, K key, InternalCacheEntry<K, V> ice) {
+      map.compute(key, (k, __) -> {
+         computeEntryWritten(segment, k, ice);
+         return ice;
+      });
+   }
+
+   @Override
+   protected InternalCacheEntry<K, V> removeEntryInMap(PeekableTouchableMap<K, V> map, int segment, Object key) {
+      ByRef<InternalCacheEntry<K, V>> ref = new ByRef<>(null);
+      map.computeIfPresent((K) key, (k, prev) -> {
+         computeEntryRemoved(segment, k, prev);
+         ref.set(prev);
+         return null;
+      });
+      return ref.get();
+   }
+
+   @Override
+   public void clear() {
+      for (PeekableTouchableMap<K, V> entries : evictionMaps()) {
+         entries.clear();
+      }
+      for (int i = 0; i < maps.length(); ++i) {
+         clearMapIfPresent(i);
+      }
+      expirationIndexCleared();
+   }
+
+   @Override
+   public void clear(IntSet segments) {
+      clearSegments(segments);
+      segments.forEach((IntConsumer) this::clearMapIfPresent);
+   }
+
+   private void clearMapIfPresent(int segment) {
+      ConcurrentMap<?, ?> map = maps.get(segment);
+      if (map != null) {
+         map.clear();
+      }
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      List<Collection<InternalCacheEntry<K, V>>> valueIterables = new ArrayList<>();
+      for (PeekableTouchableMap<K, V> entries : evictionMaps()) {
+         valueIterables.add(entries.values());
+      }
+      return new ConcatIterator<>(valueIterables);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(IntSet segments) {
+      // We could explore a streaming approach here to not have to allocate an additional ArrayList
+      List<Collection<InternalCacheEntry<K, V>>> valueIterables = new ArrayList<>(segments.size() + 1);
+      IntSet missingSegments = null;
+      for (PrimitiveIterator.OfInt iter = segments.iterator(); iter.hasNext(); ) {
+         int segment = iter.nextInt();
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segment);
+         if (map != null) {
+            valueIterables.add(map.values());
+         } else {
+            if (missingSegments == null) {
+               missingSegments = IntSets.mutableEmptySet(maps.length());
+            }
+            missingSegments.set(segment);
+         }
+      }
+      if (missingSegments != null) {
+         valueIterables.add(entriesOfSegments(missingSegments));
+      }
+      return new ConcatIterator<>(valueIterables);
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired() {
+      List<? extends PeekableTouchableMap<K, V>> evictionMaps = new ArrayList<>(evictionMaps());
+      return new FlattenSpliterator<>(i -> evictionMaps.get(i).values(), evictionMaps.size(),
+            Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT);
+   }
+
+   @Override
+   public Spliterator<InternalCacheEntry<K, V>> spliteratorIncludingExpired(IntSet segments) {
+      // Copy the ints into an array to parallelize them
+      int[] segmentArray = segments.toIntArray();
+      AtomicBoolean usedOthers = new AtomicBoolean(false);
+
+      return new FlattenSpliterator<>(i -> {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segmentArray[i]);
+         if (map == null) {
+            if (!usedOthers.getAndSet(true)) {
+               IntSet missingSegments = IntSets.mutableEmptySet(maps.length());
+               for (int segment : segmentArray) {
+                  if (maps.get(segment) == null) {
+                     missingSegments.set(segment);
+                  }
+               }
+               return entriesOfSegments(missingSegments);
+            }
+            return Collections.emptyList();
+         }
+         return map.values();
+      }, segmentArray.length, Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT);
+   }
+
+   /**
+    * Copies the entries of the given segments from the eviction maps, used when the segments have no map of their own
+    */
+   private Collection<InternalCacheEntry<K, V>> entriesOfSegments(IntSet segments) {
+      return evictionMaps(segments).stream()
+            .flatMap(entries -> entries.values().stream())
+            .filter(e -> segments.contains(getSegmentForKey(e.getKey())))
+            .collect(Collectors.toSet());
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      int size = 0;
+      for (PeekableTouchableMap<K, V> entries : evictionMaps()) {
+         size += entries.size();
+         // Overflow
+         if (size < 0) {
+            return Integer.MAX_VALUE;
+         }
+      }
+      return size;
+   }
+
+   /**
+    * Clears entries of the given segments out of the eviction maps by invoking remove on iterator.
+    * @param segments the segments to remove
+    */
+   private void clearSegments(IntSet segments) {
+      for (PeekableTouchableMap<K, V> entries : evictionMaps(segments)) {
+         for (Iterator<K> keyIterator = entries.keySet().iterator(); keyIterator.hasNext(); ) {
+            K key = keyIterator.next();
+            if (segments.contains(getSegmentForKey(key))) {
+               keyIterator.remove();
+            }
+         }
+      }
+   }
+
+   @Override
+   public void removeSegments(IntSet segments) {
+      // Call super remove segments so the maps are removed more efficiently
+      super.removeSegments(segments);
+      // Finally remove the entries from the eviction maps
+      clearSegments(segments);
+   }
+}
@@ -232,4 +232,9 @@ public void resize(long newSize) {
    public boolean hasExpirable() {
       return delegate().hasExpirable();
    }
+
+   @Override
+   public ExpirationIndex<K> expirationIndex() {
+      return delegate().expirationIndex();
+   }
 }
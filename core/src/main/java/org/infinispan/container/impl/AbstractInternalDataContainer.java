@@ -3,6 +3,7 @@
 import static org.infinispan.commons.util.Util.toStr;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -28,6 +29,8 @@
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.Configurations;
+import org.infinispan.configuration.cache.ExpirationConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.KeyPartitioner;
@@ -37,6 +40,7 @@
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
@@ -48,6 +52,7 @@
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 
@@ -61,6 +66,8 @@
 @Scope(Scopes.NAMED_CACHE)
 public abstract class AbstractInternalDataContainer<K, V> implements InternalDataContainer<K, V> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   // How many keys polled from the expiration index are checked for a single eviction
+   static final int MAX_EXPIRING_CANDIDATES = 8;
 
    @Inject protected TimeService timeService;
    @Inject protected EvictionManager<K, V> evictionManager;
@@ -81,6 +88,33 @@
     */
    private final AtomicLong expirable = new AtomicLong();
 
+   /**
+    * Index of the keys of expirable entries, only present when {@link ExpirationConfiguration#reaperIndex()} is
+    * enabled. All operations that insert or remove the container's expirable entries should update it, but as it is
+    * only used as a hint by the reaper it is fine to miss updates, e.g. on eviction.
+    */
+   protected ExpirationIndex<K> expirationIndex;
+
+   /**
+    * When positive, a write that requires a bounded container to evict an entry first evicts an entry expiring within
+    * this many milliseconds, as per {@link org.infinispan.configuration.cache.MemoryConfiguration#evictionExpiryWindow()}.
+    */
+   private long evictionExpiryWindow;
+
+   @Start
+   public void startExpirationIndex() {
+      ExpirationConfiguration expiration = configuration.expiration();
+      evictionExpiryWindow = configuration.memory().evictionExpiryWindow();
+      // Expiration aware eviction finds the entries about to expire through the index
+      if (expiration.reaperIndex() || evictionExpiryWindow > 0) {
+         int numSegments = Configurations.needSegments(configuration) ? configuration.clustering().hash().numSegments() : 1;
+         // The index granularity follows the reaper interval, as entries can't be reaped more precisely than that
+         long granularity = expiration.wakeUpInterval() > 0 ? expiration.wakeUpInterval() :
+               ExpirationConfiguration.WAKEUP_INTERVAL.getDefaultValue().longValue();
+         expirationIndex = new ExpirationIndex<>(numSegments, granularity);
+      }
+   }
+
    protected abstract PeekableTouchableMap<K, V> getMapForSegment(int segment);
    protected abstract int getSegmentForKey(Object key);
 
@@ -155,8 +189,8 @@ public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata intern
          if (log.isTraceEnabled())
             log.tracef("Store %s=%s in container", k, copy);
 
-         if (e != null) entryUpdated(copy, e);
-         else entryAdded(copy);
+         if (e != null) entryUpdated(segment, copy, e);
+         else entryAdded(segment, copy);
 
          putEntryInMap(entries, segment, k, copy);
       } else {
@@ -202,7 +236,7 @@ public InternalCacheEntry<K, V> remove(int segment, Object k) {
          }
 
          if (e.canExpire()) {
-            entryRemoved(e);
+            entryRemoved(segment, e);
             if (e.isExpired(timeService.wallClockTime())) {
                return null;
             }
@@ -232,7 +266,7 @@ public CompletionStage<Void> evict(int segment, K key) {
          // - we don't need eviction manager either as it is handled in NotifyHelper
          evictionStageRef.set(handleEviction(entry, null, passivator.running(), null, this, nonBlockingExecutor, null));
          computeEntryRemoved(segment, o, entry);
-         entryRemoved(entry);
+         entryRemoved(segment, entry);
          return null;
       });
       return evictionStageRef.get();
@@ -252,11 +286,12 @@ public InternalCacheEntry<K, V> compute(int segment, K key, DataContainer.Comput
             return oldEntry;
          } else if (newEntry == null) {
             computeEntryRemoved(segment, k, oldEntry);
-            entryRemoved(oldEntry);
+            entryRemoved(segment, oldEntry);
             return null;
          }
          computeEntryWritten(segment, k, newEntry);
-         entryAdded(newEntry);
+         if (oldEntry != null) entryUpdated(segment, newEntry, oldEntry);
+         else entryAdded(segment, newEntry);
          if (log.isTraceEnabled())
             log.tracef("Store %s in container", newEntry);
          return newEntry;
@@ -273,7 +308,7 @@ public void clear(IntSet segments) {
       segments.forEach((int segment) -> {
          Map<K, InternalCacheEntry<K, V>> map = getMapForSegment(segment);
          if (map != null) {
-            segmentRemoved(map);
+            segmentRemoved(segment, map);
             map.clear();
          }
       });
@@ -322,13 +357,29 @@ public boolean hasExpirable() {
       return expirable.get() > 0;
    }
 
-   protected final void entryAdded(InternalCacheEntry<K, V> ice) {
+   @Override
+   public ExpirationIndex<K> expirationIndex() {
+      return expirationIndex;
+   }
+
+   protected final void entryAdded(int segment, InternalCacheEntry<K, V> ice) {
       if (ice.canExpire()) {
          expirable.incrementAndGet();
+         if (expirationIndex != null) {
+            expirationIndex.add(indexSegment(segment), ice.getKey(), ice.getExpiryTime());
+         }
       }
    }
 
-   protected final void entryUpdated(InternalCacheEntry<K, V> curr, InternalCacheEntry<K, V> prev) {
+   protected final void entryUpdated(int segment, InternalCacheEntry<K, V> curr, InternalCacheEntry<K, V> prev) {
+      if (expirationIndex != null) {
+         if (prev.canExpire()) {
+            expirationIndex.remove(indexSegment(segment), prev.getKey(), prev.getExpiryTime());
+         }
+         if (curr.canExpire()) {
+            expirationIndex.add(indexSegment(segment), curr.getKey(), curr.getExpiryTime());
+         }
+      }
       byte combination = 0b00;
       if (curr.canExpire()) combination |= 0b01;
       if (prev.canExpire()) combination |= 0b10;
@@ -348,15 +399,125 @@ protected final void entryUpdated(InternalCacheEntry<K, V> curr, InternalCacheEn
       }
    }
 
-   protected final void entryRemoved(InternalCacheEntry<K, V> ice) {
+   protected final void entryRemoved(int segment, InternalCacheEntry<K, V> ice) {
       if (ice.canExpire()) {
          expirable.decrementAndGet();
+         if (expirationIndex != null) {
+            expirationIndex.remove(indexSegment(segment), ice.getKey(), ice.getExpiryTime());
+         }
       }
    }
 
-   protected final void segmentRemoved(Map<K, InternalCacheEntry<K, V>> segment) {
-      long expirableInSegment = segment.values().stream().filter(InternalCacheEntry::canExpire).count();
+   protected final void segmentRemoved(int segment, Map<K, InternalCacheEntry<K, V>> segmentMap) {
+      long expirableInSegment = segmentMap.values().stream().filter(InternalCacheEntry::canExpire).count();
       expirable.addAndGet(-expirableInSegment);
+      if (expirationIndex != null) {
+         expirationIndex.removeSegment(indexSegment(segment));
+      }
+   }
+
+   /**
+    * @return the window in milliseconds within which expiring entries are evicted first, or a non-positive value if
+    * disabled
+    */
+   public long evictionExpiryWindow() {
+      return evictionExpiryWindow;
+   }
+
+   /**
+    * Evicts an entry that expires at or before the given time, if any, so that a bounded container does not have to
+    * evict an entry that would not expire soon. The entries are found through the expiration index, so this does
+    * nothing if the index is not enabled.
+    *
+    * @param maxExpiryTime the latest wall clock time at which the evicted entry expires
+    * @return true if an entry was evicted
+    */
+   public boolean evictExpiring(long maxExpiryTime) {
+      return expirationIndex != null && evictExpiring(maxExpiryTime, 0, expirationIndex.numSegments());
+   }
+
+   /**
+    * Same as {@link #evictExpiring(long)}, but only evicts an entry of the segments from {@code fromSegment}
+    * (inclusive) to {@code toSegment} (exclusive).
+    */
+   protected boolean evictExpiring(long maxExpiryTime, int fromSegment, int toSegment) {
+      if (expirationIndex == null) {
+         return false;
+      }
+      // The index is only a hint, so the polled keys may have been removed or touched
+      for (int i = 0; i < MAX_EXPIRING_CANDIDATES; ++i) {
+         K key = expirationIndex.pollEarliest(maxExpiryTime, fromSegment, toSegment);
+         if (key == null) {
+            return false;
+         }
+         int segment = getSegmentForKey(key);
+         PeekableTouchableMap<K, V> entries = getMapForSegment(segment);
+         if (entries == null) {
+            continue;
+         }
+         ByRef.Boolean evicted = new ByRef.Boolean(false);
+         InternalCacheEntry<K, V> kept = entries.compute(key, (k, entry) -> {
+            if (entry == null || !entry.canExpire() || entry.getExpiryTime() > maxExpiryTime) {
+               // Removed, updated to an immortal entry or touched since it was added to the index
+               return entry;
+            }
+            // Passivate and notify in the locked section, like evict(), so a concurrent write of the key can't be
+            // overwritten in the store by the evicted value
+            handleEviction(entry, orderer, passivator.running(), evictionManager, this, nonBlockingExecutor, null);
+            computeEntryRemoved(segment, k, entry);
+            entryRemoved(segment, entry);
+            evicted.set(true);
+            return null;
+         });
+         if (evicted.get()) {
+            return true;
+         }
+         if (kept != null && kept.canExpire()) {
+            expirationIndex.add(indexSegment(segment), key, kept.getExpiryTime());
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Invoked by bounded containers before writing an entry: if storing the entry requires the eviction of another
+    * entry, an entry expiring within {@link #evictionExpiryWindow()} is evicted first. The weight of the new entry is
+    * not known yet, so the average weight of the entries of the container is used.
+    *
+    * @param key the key of the entry about to be written
+    */
+   protected final void evictExpiringToFit(Object key) {
+      if (evictionExpiryWindow <= 0) {
+         return;
+      }
+      long count = sizeIncludingExpired();
+      if (count == 0) {
+         return;
+      }
+      long size = evictionSize();
+      long averageWeight = Math.max(1, size / count);
+      if (size + averageWeight <= capacity() || containsKey(key)) {
+         return;
+      }
+      evictExpiring(timeService.wallClockTime() + evictionExpiryWindow);
+   }
+
+   /**
+    * Removes all keys from the expiration index, if present. Invoked when the whole container is cleared.
+    */
+   protected final void expirationIndexCleared() {
+      if (expirationIndex != null) {
+         expirationIndex.clear();
+      }
+   }
+
+   /**
+    * Containers that are not segmented use a segment of {@code -1}, the index stores their keys in segment 0. A local
+    * cache without a segmented store has an index with a single segment, but a segmented store added at runtime makes
+    * the key partitioner return real segments, which are all stored in segment 0 as well.
+    */
+   private int indexSegment(int segment) {
+      return expirationIndex.numSegments() == 1 ? 0 : Math.max(segment, 0);
    }
 
    protected class EntryIterator extends AbstractIterator<InternalCacheEntry<K, V>> {
@@ -408,6 +569,19 @@ protected Caffeine<K, InternalCacheEntry<K, V>> applyListener(Caffeine<K, Intern
       }).removalListener(listener);
    }
 
+   /**
+    * Returns the keys of the coldest entries of a Caffeine eviction policy, up to the given number of entries or
+    * weight, depending on whether the policy is weighted.
+    */
+   static <K, V> Collection<K> coldestKeys(Policy.Eviction<K, InternalCacheEntry<K, V>> eviction, long amount) {
+      if (amount <= 0) {
+         return Collections.emptyList();
+      }
+      Map<K, InternalCacheEntry<K, V>> coldest = eviction.isWeighted() ? eviction.coldestWeighted(amount) :
+            eviction.coldest((int) Math.min(amount, Integer.MAX_VALUE));
+      return coldest.keySet();
+   }
+
    static <K, V> Caffeine<K, V> caffeineBuilder() {
       //noinspection unchecked
       return (Caffeine<K, V>) Caffeine.newBuilder();
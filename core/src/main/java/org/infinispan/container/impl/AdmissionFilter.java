@@ -0,0 +1,119 @@
+package org.infinispan.container.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.configuration.cache.AdmissionPolicy;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Decides whether a new entry is stored in a bounded data container when storing it requires the eviction of another
+ * entry, according to the {@link AdmissionPolicy#TINY_LFU} policy.
+ * <p>
+ * The container records every lookup of a key, whether the entry is found or not, in a {@link FrequencySketch} shared
+ * by all of its segments. The new entry is only admitted if its key was accessed more often than the key of the entry
+ * that would be evicted, so that keys that are written once and never read again do not push out frequently read
+ * entries. To prevent an attacker from keeping a popular entry in the container by making its frequency collide with
+ * the one of the victim, a candidate that was accessed a few times is sometimes admitted regardless.
+ *
+ * @since 16.3
+ */
+@Scope(Scopes.NAMED_CACHE)
+@MBean(objectName = "AdmissionFilter", description = "Rejects new entries that are accessed less often than the entries they would evict")
+public class AdmissionFilter {
+   // Used to estimate the number of entries of a container bounded by size
+   static final int ESTIMATED_ENTRY_SIZE = 256;
+   static final int WARM_CANDIDATE_FREQUENCY = 6;
+
+   @Inject Configuration configuration;
+
+   private final LongAdder admitted = new LongAdder();
+   private final LongAdder rejected = new LongAdder();
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+
+   private FrequencySketch sketch;
+
+   @Start
+   public void start() {
+      MemoryConfiguration memory = configuration.memory();
+      long expectedEntries = memory.maxCount() > 0 ? memory.maxCount() : memory.maxSizeBytes() / ESTIMATED_ENTRY_SIZE;
+      sketch = new FrequencySketch(expectedEntries);
+   }
+
+   /**
+    * Records a lookup of the key in the container
+    *
+    * @param hash the hash code of the key
+    * @param hit  whether the entry was found
+    */
+   public void recordAccess(int hash, boolean hit) {
+      sketch.increment(hash);
+      (hit ? hits : misses).increment();
+   }
+
+   /**
+    * @param candidateHash the hash code of the key of the entry to store
+    * @param victimHash    the hash code of the key of the entry that would be evicted
+    * @return true if the new entry should be stored
+    */
+   public boolean admit(int candidateHash, int victimHash) {
+      int candidateFrequency = sketch.frequency(candidateHash);
+      if (candidateFrequency > sketch.frequency(victimHash) ||
+            candidateFrequency >= WARM_CANDIDATE_FREQUENCY && (ThreadLocalRandom.current().nextInt() & 127) == 0) {
+         admitted.increment();
+         return true;
+      }
+      rejected.increment();
+      return false;
+   }
+
+   @ManagedAttribute(
+         description = "Number of new entries stored in place of an entry that was accessed less often",
+         displayName = "Number of admitted entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAdmitted() {
+      return admitted.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of new entries not stored because they were accessed less often than the entry they would evict",
+         displayName = "Number of rejected entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getRejected() {
+      return rejected.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Percentage of the lookups in the data container that found the entry",
+         displayName = "Data container hit ratio",
+         units = Units.PERCENTAGE
+   )
+   public double getHitRatio() {
+      long hitCount = hits.sum();
+      double total = hitCount + misses.sum();
+      if (total <= 0)
+         return 0;
+      return hitCount / total;
+   }
+
+   @ManagedOperation(description = "Resets the admission statistics", displayName = "Reset statistics")
+   public void resetStatistics() {
+      admitted.reset();
+      rejected.reset();
+      hits.reset();
+      misses.reset();
+   }
+}
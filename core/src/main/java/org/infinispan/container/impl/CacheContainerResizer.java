@@ -0,0 +1,105 @@
+package org.infinispan.container.impl;
+
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.cache.impl.InvocationHelper;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.impl.ComponentRef;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * Registers the bounded data container of a cache with {@link MemoryConfiguration#dynamicResize()} enabled with the
+ * {@link DynamicMemoryResizer}.
+ * <p>
+ * When passivation is enabled, the entries that would be evicted by a reduction of the capacity are evicted, and so
+ * passivated, through regular eviction commands before the capacity is reduced. The resizer only moves on once they
+ * have been written to the store, instead of evicting all of them at once and queuing their passivation.
+ *
+ * @since 16.3
+ */
+@Scope(Scopes.NAMED_CACHE)
+public class CacheContainerResizer implements ResizableContainer {
+   /**
+    * Bounds the number of entries that are passivated before a single reduction, the others are passivated by the
+    * eviction that follows
+    */
+   static final int MAX_PASSIVATED_ENTRIES = 100_000;
+   static final int MAX_CONCURRENT_PASSIVATIONS = 16;
+
+   @Inject Configuration configuration;
+   @Inject @ComponentName(KnownComponentNames.CACHE_NAME) String cacheName;
+   @Inject InternalDataContainer<Object, Object> dataContainer;
+   @Inject ComponentRef<DynamicMemoryResizer> resizer;
+   @Inject ComponentRef<InvocationHelper> invocationHelper;
+   @Inject ComponentRef<InvocationContextFactory> invocationContextFactory;
+   @Inject ComponentRef<CommandsFactory> commandsFactory;
+   @Inject KeyPartitioner keyPartitioner;
+
+   private boolean registered;
+
+   @Start
+   public void start() {
+      MemoryConfiguration memory = configuration.memory();
+      if (memory.dynamicResize() && memory.isEvictionEnabled() && memory.evictionContainer() == null) {
+         resizer.running().register(cacheName, this);
+         registered = true;
+      }
+   }
+
+   @Stop
+   public void stop() {
+      if (registered) {
+         resizer.running().unregister(this);
+         registered = false;
+      }
+   }
+
+   @Override
+   public long capacity() {
+      return dataContainer.capacity();
+   }
+
+   @Override
+   public void resize(long newCapacity) {
+      dataContainer.resize(newCapacity);
+   }
+
+   @Override
+   public CompletionStage<Void> beforeShrink(long newCapacity) {
+      if (!configuration.persistence().passivation()) {
+         return CompletableFutures.completedNull();
+      }
+      long excess = dataContainer.evictionSize() - newCapacity;
+      Collection<Object> keys = dataContainer.evictionCandidates(excess);
+      if (keys.isEmpty()) {
+         return CompletableFutures.completedNull();
+      }
+      return Flowable.fromIterable(keys)
+            .take(MAX_PASSIVATED_ENTRIES)
+            .flatMapCompletable(key -> Completable.fromCompletionStage(evict(key)), false, MAX_CONCURRENT_PASSIVATIONS)
+            .toCompletionStage(null);
+   }
+
+   private CompletionStage<Object> evict(Object key) {
+      // Same as a manual eviction, so that the entry is passivated and removed under the key lock
+      return invocationHelper.running().invokeAsync(
+            invocationContextFactory.running().createSingleKeyNonTxInvocationContext(),
+            commandsFactory.running().buildEvictCommand(key, keyPartitioner.getSegment(key), EnumUtil.EMPTY_BIT_SET));
+   }
+}
@@ -0,0 +1,242 @@
+package org.infinispan.container.impl;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.infinispan.commons.util.IteratorMapper;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * A {@link PeekableTouchableMap} that avoids allocating an {@link InternalCacheEntry} for every stored entry.
+ * <p>
+ * Entries that are immortal, without metadata or internal metadata, which is the case of most entries of caches that
+ * do not use expiration or versioning, only store their value in the underlying {@link ConcurrentHashMap}. The
+ * {@link ImmortalCacheEntry} is created again every time the entry is read. All other entries are stored as is.
+ * <p>
+ * As a consequence the entries returned by this map are not always the same instance for the same mapping and
+ * modifying an immortal entry returned by this map does not modify the map, unless the entry is returned from a
+ * compute function.
+ *
+ * @since 16.3
+ */
+public class CompactContainerMap<K, V> extends AbstractMap<K, InternalCacheEntry<K, V>>
+      implements PeekableTouchableMap<K, V> {
+   private final ConcurrentHashMap<K, Object> map;
+
+   public CompactContainerMap() {
+      this(new ConcurrentHashMap<>());
+   }
+
+   CompactContainerMap(ConcurrentHashMap<K, Object> map) {
+      this.map = map;
+   }
+
+   /**
+    * Returns what is stored in the map for the given entry, that is the entry itself or only its value
+    */
+   static Object compact(InternalCacheEntry<?, ?> ice) {
+      Objects.requireNonNull(ice);
+      // Subclasses, such as MetadataImmortalCacheEntry, have more state
+      if (ice.getClass() != ImmortalCacheEntry.class || ice.getInternalMetadata() != null) {
+         return ice;
+      }
+      Object value = ice.getValue();
+      // The value would be mistaken for an entry
+      if (value == null || value instanceof InternalCacheEntry) {
+         return ice;
+      }
+      return value;
+   }
+
+   @SuppressWarnings("unchecked")
+   static <K, V> InternalCacheEntry<K, V> expand(Object key, Object stored) {
+      if (stored == null) {
+         return null;
+      }
+      if (stored instanceof InternalCacheEntry) {
+         return (InternalCacheEntry<K, V>) stored;
+      }
+      return new ImmortalCacheEntry(key, stored);
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object key) {
+      return expand(key, map.get(key));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object key) {
+      return expand(key, map.get(key));
+   }
+
+   @Override
+   public void touchAll(long currentTimeMillis) {
+      for (Object stored : map.values()) {
+         // Compacted entries are immortal and don't have to be touched
+         if (stored instanceof InternalCacheEntry) {
+            ((InternalCacheEntry<?, ?>) stored).touch(currentTimeMillis);
+         }
+      }
+   }
+
+   @Override
+   public void putNoReturn(K key, InternalCacheEntry<K, V> value) {
+      map.put(key, compact(value));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> put(K key, InternalCacheEntry<K, V> value) {
+      return expand(key, map.put(key, compact(value)));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> putIfAbsent(K key, InternalCacheEntry<K, V> value) {
+      return expand(key, map.putIfAbsent(key, compact(value)));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object key) {
+      return expand(key, map.remove(key));
+   }
+
+   @Override
+   public boolean remove(Object key, Object value) {
+      if (!(value instanceof InternalCacheEntry)) {
+         return false;
+      }
+      return map.remove(key, compact((InternalCacheEntry<?, ?>) value));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> replace(K key, InternalCacheEntry<K, V> value) {
+      return expand(key, map.replace(key, compact(value)));
+   }
+
+   @Override
+   public boolean replace(K key, InternalCacheEntry<K, V> oldValue, InternalCacheEntry<K, V> newValue) {
+      return map.replace(key, compact(oldValue), compact(newValue));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key,
+         BiFunction<? super K, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+      return expand(key, map.compute(key, (k, stored) -> {
+         InternalCacheEntry<K, V> newEntry = remappingFunction.apply(k, expand(k, stored));
+         // The function may have modified and returned the expanded entry, so it has to be compacted again
+         return newEntry == null ? null : compact(newEntry);
+      }));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> computeIfPresent(K key,
+         BiFunction<? super K, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+      return expand(key, map.computeIfPresent(key, (k, stored) -> {
+         InternalCacheEntry<K, V> newEntry = remappingFunction.apply(k, expand(k, stored));
+         return newEntry == null ? null : compact(newEntry);
+      }));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> computeIfAbsent(K key,
+         Function<? super K, ? extends InternalCacheEntry<K, V>> mappingFunction) {
+      return expand(key, map.computeIfAbsent(key, k -> {
+         InternalCacheEntry<K, V> newEntry = mappingFunction.apply(k);
+         return newEntry == null ? null : compact(newEntry);
+      }));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> merge(K key, InternalCacheEntry<K, V> value,
+         BiFunction<? super InternalCacheEntry<K, V>, ? super InternalCacheEntry<K, V>, ? extends InternalCacheEntry<K, V>> remappingFunction) {
+      Objects.requireNonNull(value);
+      return compute(key, (k, oldEntry) -> oldEntry == null ? value : remappingFunction.apply(oldEntry, value));
+   }
+
+   @Override
+   public void forEach(BiConsumer<? super K, ? super InternalCacheEntry<K, V>> action) {
+      map.forEach((k, stored) -> action.accept(k, expand(k, stored)));
+   }
+
+   @Override
+   public int size() {
+      return map.size();
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return map.isEmpty();
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      return map.containsKey(key);
+   }
+
+   @Override
+   public void clear() {
+      map.clear();
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return map.keySet();
+   }
+
+   @Override
+   public Collection<InternalCacheEntry<K, V>> values() {
+      return new AbstractCollection<>() {
+         @Override
+         public Iterator<InternalCacheEntry<K, V>> iterator() {
+            return new IteratorMapper<>(map.entrySet().iterator(), e -> expand(e.getKey(), e.getValue()));
+         }
+
+         @Override
+         public int size() {
+            return map.size();
+         }
+      };
+   }
+
+   @Override
+   public Set<Entry<K, InternalCacheEntry<K, V>>> entrySet() {
+      return new AbstractSet<>() {
+         @Override
+         public Iterator<Entry<K, InternalCacheEntry<K, V>>> iterator() {
+            Iterator<Map.Entry<K, Object>> iterator = map.entrySet().iterator();
+            return new Iterator<>() {
+               @Override
+               public boolean hasNext() {
+                  return iterator.hasNext();
+               }
+
+               @Override
+               public Entry<K, InternalCacheEntry<K, V>> next() {
+                  Map.Entry<K, Object> entry = iterator.next();
+                  return new SimpleImmutableEntry<>(entry.getKey(), expand(entry.getKey(), entry.getValue()));
+               }
+
+               @Override
+               public void remove() {
+                  iterator.remove();
+               }
+            };
+         }
+
+         @Override
+         public int size() {
+            return map.size();
+         }
+      };
+   }
+}
@@ -1,6 +1,8 @@
 package org.infinispan.container.impl;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Optional;
 import java.util.Spliterator;
@@ -18,6 +20,8 @@
 import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.marshall.core.WrappedByteArraySizeCalculator;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.PrivateMetadata;
 import org.reactivestreams.Publisher;
 
 import com.github.benmanes.caffeine.cache.Cache;
@@ -113,6 +117,23 @@ public static <K, V> DefaultDataContainer<K, V> unBoundedDataContainer(int concu
       return new DefaultDataContainer<>(concurrencyLevel);
    }
 
+   /**
+    * Creates an unbounded container that stores immortal entries without allocating an entry for each of them.
+    * @see CompactContainerMap
+    */
+   public static <K, V> DefaultDataContainer<K, V> compactDataContainer() {
+      return new DefaultDataContainer<>(new CompactContainerMap<>());
+   }
+
+   @Override
+   public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata internalMetadata, long createdTimestamp,
+         long lastUseTimestamp) {
+      if (evictionCache != null) {
+         evictExpiringToFit(k);
+      }
+      super.put(segment, k, v, metadata, internalMetadata, createdTimestamp, lastUseTimestamp);
+   }
+
    @Override
    protected PeekableTouchableMap<K, V> getMapForSegment(int segment) {
       return entries;
@@ -146,6 +167,11 @@ public void resize(long newSize) {
       evict.setMaximum(newSize);
    }
 
+   @Override
+   public Collection<K> evictionCandidates(long amount) {
+      return evictionCache == null ? Collections.emptyList() : coldestKeys(eviction(), amount);
+   }
+
    @Override
    public int sizeIncludingExpired() {
       return entries.size();
@@ -165,6 +191,7 @@ public void clear(IntSet segments) {
    public void clear() {
       log.tracef("Clearing data container");
       entries.clear();
+      expirationIndexCleared();
    }
 
    @Override
@@ -245,6 +245,7 @@ public void clear() {
             map.clear();
          }
       }
+      expirationIndexCleared();
    }
 
    @Override
@@ -317,7 +318,7 @@ private void stopMap(int segment, boolean notifyListener) {
          if (notifyListener && !map.isEmpty()) {
             listeners.forEach(c -> c.accept(map.values()));
          }
-         segmentRemoved(map);
+         segmentRemoved(segment, map);
          if (map instanceof AutoCloseable) {
             try {
                ((AutoCloseable) map).close();
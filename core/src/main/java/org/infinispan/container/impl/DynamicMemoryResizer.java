@@ -5,11 +5,13 @@
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.util.MemoryMonitor;
+import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.global.ContainerMemoryConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.KnownComponentNames;
@@ -20,6 +22,19 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 
+/**
+ * Reduces the capacity of bounded containers while the JVM is under memory pressure, as reported by the
+ * {@link MemoryMonitor}, and restores it progressively once the pressure is gone.
+ * <p>
+ * The shared containers with dynamic resize enabled are managed automatically, other containers, such as the data
+ * container of a cache with dynamic resize enabled, are managed after they are {@link #register(String, ResizableContainer) registered}.
+ * <p>
+ * Every shrink step removes a fraction of the original capacity of the containers. The fraction grows with the
+ * severity of the pressure, that is the ratio between the current GC pressure and its threshold, or the ratio
+ * between the current allocation rate and the allocation rate observed while the containers were stable, up to
+ * {@link #MAX_SHRINK_FACTOR} times the base fraction. Containers are only grown back while the allocation rate stays
+ * close to the stable one.
+ */
 @Scope(Scopes.GLOBAL)
 public class DynamicMemoryResizer implements MemoryMonitor.Listener {
 
@@ -31,8 +46,23 @@ enum State { STABLE, SHRINKING, GROWING }
    static final long SHRINK_COOLDOWN_MS = 5_000;
    static final long GROW_INITIAL_MS = 10_000;
    static final long GROW_MAX_MS = 30_000;
+   static final double MAX_SHRINK_FACTOR = 3;
+   static final double GROW_ALLOCATION_RATE_LIMIT = 1.5;
+   static final double ALLOCATION_RATE_SMOOTHING = 0.2;
 
-   record ContainerState(SharedCaffeineMap<?, ?> map, String name, long originalCapacity) {}
+   record ContainerState(ResizableContainer container, String name, long originalCapacity) {}
+
+   private record SharedMapContainer(SharedCaffeineMap<?, ?> map) implements ResizableContainer {
+      @Override
+      public long capacity() {
+         return map.capacity();
+      }
+
+      @Override
+      public void resize(long newCapacity) {
+         map.resize(newCapacity);
+      }
+   }
 
    @Inject GlobalConfiguration globalConfiguration;
    @Inject SharedContainerMaps sharedContainerMaps;
@@ -46,6 +76,9 @@ record ContainerState(SharedCaffeineMap<?, ?> map, String name, long originalCap
    final List<ContainerState> managedContainers = new ArrayList<>();
    private ScheduledFuture<?> currentTask;
    long currentGrowDelayMs = GROW_INITIAL_MS;
+   // Moving average of the allocation rate while stable
+   double stableAllocationRate;
+   private boolean listening;
 
    @Start
    void start() {
@@ -58,24 +91,53 @@ void start() {
             SharedCaffeineMap<Object, Object> map = maps.get(name);
             if (map != null) {
                long originalCapacity = map.capacity();
-               managedContainers.add(new ContainerState(map, name, originalCapacity));
+               managedContainers.add(new ContainerState(new SharedMapContainer(map), name, originalCapacity));
             }
          }
       }
 
       if (!managedContainers.isEmpty()) {
-         memoryMonitor.addListener(this, scheduledExecutor);
+         startListening();
       }
    }
 
    @Stop
-   void stop() {
+   synchronized void stop() {
       cancelCurrentTask();
       memoryMonitor.removeListener(this);
+      listening = false;
       managedContainers.clear();
       state = State.STABLE;
    }
 
+   /**
+    * Starts managing the capacity of the given container. Its current capacity is the one it grows back to once the
+    * memory pressure is gone.
+    *
+    * @param name      the name of the container, used for logging
+    * @param container the container
+    */
+   public synchronized void register(String name, ResizableContainer container) {
+      managedContainers.add(new ContainerState(container, name, container.capacity()));
+      startListening();
+   }
+
+   /**
+    * Stops managing the capacity of the given container, without restoring its original capacity.
+    *
+    * @param container the container
+    */
+   public synchronized void unregister(ResizableContainer container) {
+      managedContainers.removeIf(cs -> cs.container == container);
+   }
+
+   private synchronized void startListening() {
+      if (!listening) {
+         memoryMonitor.addListener(this, scheduledExecutor);
+         listening = true;
+      }
+   }
+
    @Override
    public void onMemoryLow() {
       transitionToShrinking();
@@ -98,6 +160,11 @@ public void onGcPressureRelieved() {
 
    @Override
    public synchronized void onGcCompleted() {
+      if (state == State.STABLE) {
+         long allocationRate = memoryMonitor.getAllocationRate();
+         stableAllocationRate = stableAllocationRate == 0 ? allocationRate :
+               stableAllocationRate + ALLOCATION_RATE_SMOOTHING * (allocationRate - stableAllocationRate);
+      }
       if (state == State.SHRINKING && memoryMonitor.getGcGeneration() > shrinkGeneration) {
          long elapsed = System.currentTimeMillis() - lastShrinkTimeMs;
          if (elapsed >= SHRINK_COOLDOWN_MS) {
@@ -128,20 +195,41 @@ synchronized void checkRecovery() {
       }
    }
 
+   /**
+    * Returns how many times the base fraction of the capacity should be removed by the next shrink step, according
+    * to the GC pressure and the allocation rate.
+    */
+   double shrinkFactor() {
+      double factor = 1;
+      double gcPressureThreshold = memoryMonitor.getGcPressureThreshold();
+      if (gcPressureThreshold > 0) {
+         factor = Math.max(factor, memoryMonitor.getGcPressure() / gcPressureThreshold);
+      }
+      if (stableAllocationRate > 0) {
+         factor = Math.max(factor, memoryMonitor.getAllocationRate() / stableAllocationRate);
+      }
+      return Math.min(factor, MAX_SHRINK_FACTOR);
+   }
+
+   private boolean isAllocationRateHigh() {
+      return stableAllocationRate > 0 &&
+            memoryMonitor.getAllocationRate() > stableAllocationRate * GROW_ALLOCATION_RATE_LIMIT;
+   }
+
    private void shrinkStep() {
       lastShrinkTimeMs = System.currentTimeMillis();
       boolean atFloor = false;
+      double shrinkFraction = SHRINK_FRACTION * shrinkFactor();
       for (ContainerState cs : managedContainers) {
-         long current = cs.map.capacity();
+         long current = cs.container.capacity();
          long floor = Math.max(1, (long) (cs.originalCapacity * FLOOR_FRACTION));
          if (current <= floor) {
             atFloor = true;
             break;
          }
-         long shrinkAmount = (long) (cs.originalCapacity * SHRINK_FRACTION);
+         long shrinkAmount = (long) (cs.originalCapacity * shrinkFraction);
          long newCapacity = Math.max(current - shrinkAmount, floor);
-         cs.map.resize(newCapacity);
-         CONTAINER.containerResized(cs.name, current, newCapacity);
+         shrink(cs, current, newCapacity);
          if (newCapacity <= floor) {
             atFloor = true;
          }
@@ -153,6 +241,30 @@ private void shrinkStep() {
       }
    }
 
+   private void shrink(ContainerState cs, long current, long newCapacity) {
+      CompletionStage<Void> stage = cs.container.beforeShrink(newCapacity);
+      if (CompletionStages.isCompletedSuccessfully(stage)) {
+         resize(cs, current, newCapacity);
+         return;
+      }
+      stage.whenComplete((ignore, t) -> {
+         if (t != null) {
+            CONTAINER.debugf(t, "Unable to prepare container '%s' for shrinking", cs.name);
+         }
+         synchronized (this) {
+            // The pressure could be gone or the container could have been unregistered in the meantime
+            if (state == State.SHRINKING && managedContainers.contains(cs)) {
+               resize(cs, cs.container.capacity(), newCapacity);
+            }
+         }
+      });
+   }
+
+   private void resize(ContainerState cs, long current, long newCapacity) {
+      cs.container.resize(newCapacity);
+      CONTAINER.containerResized(cs.name, current, newCapacity);
+   }
+
    synchronized void deferredRecheckShrink() {
       currentTask = null;
       if (state == State.SHRINKING) {
@@ -184,14 +296,20 @@ synchronized void growStep() {
          return;
       }
 
+      if (isAllocationRateHigh()) {
+         // Growing now would most likely bring the pressure back
+         currentGrowDelayMs = Math.min(currentGrowDelayMs * 2, GROW_MAX_MS);
+         scheduleGrowStep();
+         return;
+      }
+
       boolean fullyRecovered = true;
       for (ContainerState cs : managedContainers) {
-         long current = cs.map.capacity();
+         long current = cs.container.capacity();
          if (current >= cs.originalCapacity) continue;
          long growAmount = (long) (cs.originalCapacity * GROW_FRACTION);
          long newCapacity = Math.min(current + growAmount, cs.originalCapacity);
-         cs.map.resize(newCapacity);
-         CONTAINER.containerResized(cs.name, current, newCapacity);
+         resize(cs, current, newCapacity);
          if (newCapacity < cs.originalCapacity) {
             fullyRecovered = false;
          }
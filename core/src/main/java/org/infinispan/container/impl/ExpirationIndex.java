@@ -0,0 +1,247 @@
+package org.infinispan.container.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Index of the keys of expirable entries in a data container, so that the expiration reaper only has to visit the
+ * entries that are due instead of iterating over the whole container.
+ * <p>
+ * Keys are kept per segment in buckets that cover {@code granularity} milliseconds of expiration time each. The index
+ * is maintained eagerly by the container when an expirable entry is written or removed, but it is only a hint: an entry
+ * may be touched (max idle), evicted or have its segment removed without the index being told. Consumers must therefore
+ * always check the entry in the container after polling its key, and add the key back when the entry is still present
+ * but not yet expired.
+ *
+ * @param <K> the key type
+ * @since 16.3
+ */
+public class ExpirationIndex<K> {
+   private final long granularity;
+   private final AtomicReferenceArray<ConcurrentSkipListMap<Long, Bucket<K>>> segments;
+
+   public ExpirationIndex(int numSegments, long granularity) {
+      if (granularity <= 0) {
+         throw new IllegalArgumentException("granularity must be positive, was " + granularity);
+      }
+      this.granularity = granularity;
+      this.segments = new AtomicReferenceArray<>(numSegments);
+   }
+
+   /**
+    * Adds the key to the bucket covering the given expiration time.
+    * @param segment the segment of the key
+    * @param key the key of the expirable entry
+    * @param expiryTime the wall clock time at which the entry expires, as per
+    *                   {@link org.infinispan.container.entries.InternalCacheEntry#getExpiryTime()}
+    */
+   public void add(int segment, K key, long expiryTime) {
+      ConcurrentSkipListMap<Long, Bucket<K>> buckets = bucketsForSegment(segment);
+      Long slot = slot(expiryTime);
+      while (true) {
+         Bucket<K> bucket = buckets.computeIfAbsent(slot, ignore -> new Bucket<>());
+         synchronized (bucket) {
+            // The bucket may have been polled concurrently, in which case we need a new one
+            if (!bucket.polled) {
+               bucket.keys.add(key);
+               return;
+            }
+         }
+      }
+   }
+
+   /**
+    * Removes the key from the bucket covering the given expiration time, if present.
+    * @param segment the segment of the key
+    * @param key the key of the removed entry
+    * @param expiryTime the expiration time of the entry at the time it was added
+    */
+   public void remove(int segment, K key, long expiryTime) {
+      ConcurrentSkipListMap<Long, Bucket<K>> buckets = segments.get(segment);
+      if (buckets == null) {
+         return;
+      }
+      Bucket<K> bucket = buckets.get(slot(expiryTime));
+      if (bucket != null) {
+         synchronized (bucket) {
+            bucket.keys.remove(key);
+         }
+      }
+   }
+
+   /**
+    * Removes all the keys in the given segment from the index.
+    * @param segment the segment to remove
+    */
+   public void removeSegment(int segment) {
+      segments.set(segment, null);
+   }
+
+   /**
+    * Removes all keys from the index.
+    */
+   public void clear() {
+      for (int i = 0; i < segments.length(); ++i) {
+         segments.set(i, null);
+      }
+   }
+
+   /**
+    * Removes the keys of every bucket in the given segment that covers a time at or before {@code currentTimeMillis}
+    * and passes them to the consumer, one bucket at a time, along with the segment. Buckets are polled in order of
+    * their expiration time.
+    * <p>
+    * Keys added concurrently to a bucket that is being polled are placed in a new bucket and will be returned by a
+    * later invocation.
+    * @param segment the segment to poll
+    * @param currentTimeMillis the current wall clock time
+    * @param consumer consumer of the polled keys and their segment
+    * @return how many keys were polled
+    */
+   public int pollExpired(int segment, long currentTimeMillis, ObjIntConsumer<Collection<K>> consumer) {
+      ConcurrentSkipListMap<Long, Bucket<K>> buckets = segments.get(segment);
+      if (buckets == null) {
+         return 0;
+      }
+      long lastSlot = slot(currentTimeMillis);
+      int polled = 0;
+      Map.Entry<Long, Bucket<K>> entry;
+      while ((entry = buckets.firstEntry()) != null && entry.getKey() <= lastSlot) {
+         Bucket<K> bucket = entry.getValue();
+         if (!buckets.remove(entry.getKey(), bucket)) {
+            continue;
+         }
+         List<K> keys;
+         synchronized (bucket) {
+            bucket.polled = true;
+            keys = new ArrayList<>(bucket.keys);
+         }
+         if (!keys.isEmpty()) {
+            polled += keys.size();
+            consumer.accept(keys, segment);
+         }
+      }
+      return polled;
+   }
+
+   /**
+    * Removes a single key from the bucket that covers the earliest expiration time in any segment, if that time is at
+    * or before {@code maxExpiryTime}. Used to evict the entries that are about to expire before any other entry.
+    * <p>
+    * This visits the oldest buckets of every segment, so it is more expensive than {@link #pollExpired}.
+    * @param maxExpiryTime the latest expiration time of the returned key
+    * @return the removed key, or {@code null} if no key expires at or before {@code maxExpiryTime}
+    */
+   public K pollEarliest(long maxExpiryTime) {
+      return pollEarliest(maxExpiryTime, 0, segments.length());
+   }
+
+   /**
+    * Same as {@link #pollEarliest(long)}, but only for the keys of the segments from {@code fromSegment} (inclusive)
+    * to {@code toSegment} (exclusive).
+    */
+   public K pollEarliest(long maxExpiryTime, int fromSegment, int toSegment) {
+      long lastSlot = slot(maxExpiryTime);
+      while (true) {
+         long earliestSlot = Long.MAX_VALUE;
+         Bucket<K> earliest = null;
+         for (int i = fromSegment; i < Math.min(toSegment, segments.length()); ++i) {
+            ConcurrentSkipListMap<Long, Bucket<K>> buckets = segments.get(i);
+            if (buckets == null) {
+               continue;
+            }
+            // Buckets are only removed once due, so empty ones have to be skipped
+            for (Map.Entry<Long, Bucket<K>> entry : buckets.headMap(lastSlot, true).entrySet()) {
+               if (entry.getKey() >= earliestSlot) {
+                  break;
+               }
+               Bucket<K> bucket = entry.getValue();
+               synchronized (bucket) {
+                  if (!bucket.polled && !bucket.keys.isEmpty()) {
+                     earliestSlot = entry.getKey();
+                     earliest = bucket;
+                     break;
+                  }
+               }
+            }
+         }
+         if (earliest == null) {
+            return null;
+         }
+         synchronized (earliest) {
+            Iterator<K> iterator = earliest.keys.iterator();
+            if (!earliest.polled && iterator.hasNext()) {
+               K key = iterator.next();
+               iterator.remove();
+               return key;
+            }
+         }
+         // The bucket was emptied or polled concurrently
+      }
+   }
+
+   /**
+    * Returns the expiration time covered by the oldest bucket of the index, or {@code -1} if the index is empty.
+    */
+   public long oldestExpiryTime() {
+      long oldest = Long.MAX_VALUE;
+      for (int i = 0; i < segments.length(); ++i) {
+         ConcurrentSkipListMap<Long, Bucket<K>> buckets = segments.get(i);
+         if (buckets != null) {
+            Map.Entry<Long, Bucket<K>> first = buckets.firstEntry();
+            if (first != null) {
+               oldest = Math.min(oldest, first.getKey() * granularity);
+            }
+         }
+      }
+      return oldest == Long.MAX_VALUE ? -1 : oldest;
+   }
+
+   /**
+    * Returns how many keys are currently in the index. This iterates over all the buckets and is only meant for
+    * statistics.
+    */
+   public long size() {
+      long size = 0;
+      for (int i = 0; i < segments.length(); ++i) {
+         ConcurrentSkipListMap<Long, Bucket<K>> buckets = segments.get(i);
+         if (buckets != null) {
+            for (Bucket<K> bucket : buckets.values()) {
+               synchronized (bucket) {
+                  size += bucket.keys.size();
+               }
+            }
+         }
+      }
+      return size;
+   }
+
+   public int numSegments() {
+      return segments.length();
+   }
+
+   private long slot(long expiryTime) {
+      return expiryTime / granularity;
+   }
+
+   private ConcurrentSkipListMap<Long, Bucket<K>> bucketsForSegment(int segment) {
+      ConcurrentSkipListMap<Long, Bucket<K>> buckets;
+      while ((buckets = segments.get(segment)) == null) {
+         segments.compareAndSet(segment, null, new ConcurrentSkipListMap<>());
+      }
+      return buckets;
+   }
+
+   private static final class Bucket<K> {
+      final Set<K> keys = new HashSet<>();
+      boolean polled;
+   }
+}
@@ -0,0 +1,146 @@
+package org.infinispan.container.impl;
+
+import java.util.Arrays;
+
+/**
+ * Approximate histogram of how often keys were accessed recently, used by the TinyLFU admission of
+ * {@link AdmissionFilter}.
+ * <p>
+ * The frequencies are kept in a count-min sketch of 4-bit counters: every key is mapped to one counter in each of four
+ * rows and its frequency is the smallest of them. A doorkeeper bloom filter records the first access to a key, so that
+ * keys that are accessed only once never reach the sketch. Once the number of recorded accesses reaches ten times the
+ * expected number of entries, all the counters are halved and the doorkeeper is cleared, so that the histogram reflects
+ * recent accesses only.
+ * <p>
+ * Keys are identified by their hash code only. Updates are not atomic: concurrent increments of the same counter may be
+ * lost, which only reduces the accuracy of the estimation and avoids any contention between the accessing threads.
+ *
+ * @since 16.3
+ */
+public class FrequencySketch {
+   private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+   private static final long RESET_MASK = 0x7777777777777777L;
+   private static final long ONE_MASK = 0x1111111111111111L;
+   // The sketch uses 8 bytes per expected entry and the doorkeeper 2 more
+   private static final int MAX_EXPECTED_ENTRIES = 1 << 24;
+
+   private final long[] table;
+   private final int tableMask;
+   private final long[] doorkeeper;
+   private final int doorkeeperMask;
+   private final int sampleSize;
+   private int size;
+
+   /**
+    * @param expectedEntries the number of entries of the container, which is also the number of keys whose frequency
+    *                        can be estimated accurately
+    */
+   public FrequencySketch(long expectedEntries) {
+      int entries = (int) Math.max(16, Math.min(expectedEntries, MAX_EXPECTED_ENTRIES));
+      int length = Integer.highestOneBit(entries - 1) << 1;
+      table = new long[length];
+      tableMask = length - 1;
+      // 16 bits per entry, for a false positive rate of about 1.5% with 2 bits per key
+      doorkeeper = new long[length >>> 2];
+      doorkeeperMask = (length << 4) - 1;
+      sampleSize = 10 * entries;
+   }
+
+   /**
+    * @param hash the hash code of the key
+    * @return the estimated number of accesses to the key since the last reset, at most 16
+    */
+   public int frequency(int hash) {
+      int spread = spread(hash);
+      int start = (spread & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; ++i) {
+         int index = indexOf(spread, i);
+         int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return doorkeeperContains(spread) ? frequency + 1 : frequency;
+   }
+
+   /**
+    * Records an access to the key
+    *
+    * @param hash the hash code of the key
+    */
+   public void increment(int hash) {
+      int spread = spread(hash);
+      if (doorkeeperAdd(spread)) {
+         // First access since the last reset
+         return;
+      }
+      int start = (spread & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; ++i) {
+         added |= incrementAt(indexOf(spread, i), start + i);
+      }
+      if (added && ++size >= sampleSize) {
+         reset();
+      }
+   }
+
+   private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      long value = table[index];
+      if ((value & mask) != mask) {
+         table[index] = value + (1L << offset);
+         return true;
+      }
+      return false;
+   }
+
+   void reset() {
+      int odd = 0;
+      for (int i = 0; i < table.length; ++i) {
+         odd += Long.bitCount(table[i] & ONE_MASK);
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      // Halving truncates the odd counters
+      size = (size >>> 1) - (odd >>> 2);
+      Arrays.fill(doorkeeper, 0);
+   }
+
+   private boolean doorkeeperContains(int spread) {
+      int first = spread & doorkeeperMask;
+      int second = (spread >>> 16 | spread << 16) & doorkeeperMask;
+      return isSet(first) && isSet(second);
+   }
+
+   /**
+    * @return true if the key was not in the doorkeeper
+    */
+   private boolean doorkeeperAdd(int spread) {
+      int first = spread & doorkeeperMask;
+      int second = (spread >>> 16 | spread << 16) & doorkeeperMask;
+      boolean added = !isSet(first) | !isSet(second);
+      if (added) {
+         doorkeeper[first >>> 6] |= 1L << first;
+         doorkeeper[second >>> 6] |= 1L << second;
+      }
+      return added;
+   }
+
+   private boolean isSet(int bit) {
+      return (doorkeeper[bit >>> 6] & (1L << bit)) != 0;
+   }
+
+   private int indexOf(int spread, int row) {
+      long hash = (spread + SEEDS[row]) * SEEDS[row];
+      hash += hash >>> 32;
+      return ((int) hash) & tableMask;
+   }
+
+   /**
+    * Applies a supplemental hash function, as the hash code of the keys may be of poor quality
+    */
+   private static int spread(int x) {
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      x = ((x >>> 16) ^ x) * 0x45d9f3b;
+      return (x >>> 16) ^ x;
+   }
+}
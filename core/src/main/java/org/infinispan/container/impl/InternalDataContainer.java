@@ -1,5 +1,7 @@
 package org.infinispan.container.impl;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.concurrent.CompletionStage;
@@ -105,6 +107,17 @@ void put(int segment, K k, V v, Metadata metadata, PrivateMetadata internalMetad
     */
    CompletionStage<Void> evict(int segment, K key);
 
+   /**
+    * Returns the keys of the entries that would be evicted first if the capacity of the container was reduced by the
+    * given amount, which is a number of entries or of bytes depending on how the container is bounded. Containers that
+    * are not bounded, or that cannot tell which entries they would evict, return an empty collection.
+    * @param amount how much the capacity would be reduced
+    * @return the keys of the entries that would be evicted
+    */
+   default Collection<K> evictionCandidates(long amount) {
+      return Collections.emptyList();
+   }
+
    /**
     * Same as {@link DataContainer#compute(Object, ComputeAction)}  except that the segment of the key can provided to
     * update entries without calculating the segment for the given key.
@@ -276,4 +289,14 @@ default void cleanUp() {
     * @return true if any entry can expire, false otherwise.
     */
    boolean hasExpirable();
+
+   /**
+    * Returns the index of the keys of expirable entries maintained by this container, which allows the expiration
+    * reaper to only visit the entries that are due instead of iterating over the entire container.
+    *
+    * @return the expiration index or {@code null} if the container doesn't maintain one
+    */
+   default ExpirationIndex<K> expirationIndex() {
+      return null;
+   }
 }
@@ -0,0 +1,38 @@
+package org.infinispan.container.impl;
+
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+
+/**
+ * A bounded container whose capacity is reduced by {@link DynamicMemoryResizer} while the JVM is under memory pressure,
+ * and restored once the pressure is gone.
+ *
+ * @since 16.3
+ */
+public interface ResizableContainer {
+
+   /**
+    * @return the current capacity of the container, either a number of entries or a number of bytes
+    */
+   long capacity();
+
+   /**
+    * Changes the capacity of the container, evicting entries right away if the new capacity is smaller than the
+    * current size.
+    *
+    * @param newCapacity the new capacity
+    */
+   void resize(long newCapacity);
+
+   /**
+    * Invoked before the capacity is reduced to the given value. It allows the container to passivate the entries that
+    * would be evicted by the resize, so that the resize does not have to wait for them to be written to the store.
+    *
+    * @param newCapacity the capacity that will be passed to {@link #resize(long)}
+    * @return a stage that completes when the container can be resized
+    */
+   default CompletionStage<Void> beforeShrink(long newCapacity) {
+      return CompletableFutures.completedNull();
+   }
+}
@@ -0,0 +1,371 @@
+package org.infinispan.container.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.container.entries.CacheEntrySizeCalculator;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Parameter;
+import org.infinispan.marshall.core.WrappedByteArraySizeCalculator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+
+/**
+ * Bounded implementation of segmented data container that splits the segments into a number of groups, named shards,
+ * each one with its own eviction policy and its own share of the capacity. Contrary to
+ * {@link BoundedSegmentedDataContainer}, where every write goes through the buffers of a single eviction policy,
+ * writes to different shards never contend with each other.
+ * <p>
+ * Every shard starts with the same share of the capacity. The shares are then periodically redistributed according to
+ * the number of reads of the entries of each shard since the previous redistribution, so that the shards that are read
+ * the most keep more entries. Every shard always keeps at least half of an even share, and the shares only move half
+ * way towards their target at every redistribution, so that a short burst of reads doesn't evict most of the other
+ * shards.
+ * <p>
+ * As with {@link BoundedSegmentedDataContainer} the entries are also kept in a map per segment to iterate over a
+ * subset of segments efficiently.
+ *
+ * @since 16.3
+ */
+@MBean(objectName = "ShardedDataContainer", description = "Bounded data container evicting the entries of each group of segments independently")
+public class ShardedBoundedSegmentedDataContainer<K, V> extends AbstractBoundedSegmentedDataContainer<K, V> {
+   static final long REBALANCE_INTERVAL_MS = 5_000;
+
+   @Inject @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
+   ScheduledExecutorService scheduledExecutor;
+
+   private final List<Shard> shards;
+   private final int[] shardForSegment;
+   private final LongAdder rebalances = new LongAdder();
+   // Guarded by this
+   private long capacity;
+   private ScheduledFuture<?> rebalanceTask;
+
+   public ShardedBoundedSegmentedDataContainer(int numSegments, int numShards, long thresholdSize, boolean memoryBased) {
+      super(numSegments);
+      if (numShards < 1 || numShards > numSegments) {
+         throw new IllegalArgumentException("The number of shards must be between 1 and " + numSegments);
+      }
+      CacheEntrySizeCalculator<K, V> calc = memoryBased ? new CacheEntrySizeCalculator<>(
+            new WrappedByteArraySizeCalculator<>(new PrimitiveEntrySizeCalculator())) : null;
+      this.capacity = thresholdSize;
+      this.shards = new ArrayList<>(numShards);
+      this.shardForSegment = new int[numSegments];
+      long[] budgets = split(thresholdSize, new long[numShards]);
+      for (int i = 0; i < numShards; ++i) {
+         shards.add(new Shard(i, budgets[i], calc));
+      }
+      // Adjacent segments share the same shard
+      for (int segment = numSegments - 1; segment >= 0; --segment) {
+         Shard shard = shards.get((int) ((long) segment * numShards / numSegments));
+         shardForSegment[segment] = shard.index;
+         shard.firstSegment = segment;
+      }
+   }
+
+   @Start
+   public void startRebalancer() {
+      if (shards.size() > 1) {
+         rebalanceTask = scheduledExecutor.scheduleWithFixedDelay(this::rebalance, REBALANCE_INTERVAL_MS,
+               REBALANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   @Stop
+   public void stopRebalancer() {
+      if (rebalanceTask != null) {
+         rebalanceTask.cancel(false);
+         rebalanceTask = null;
+      }
+   }
+
+   private Shard shard(int segment) {
+      return shards.get(shardForSegment[segment]);
+   }
+
+   @Override
+   protected Collection<PeekableTouchableMap<K, V>> evictionMaps() {
+      List<PeekableTouchableMap<K, V>> result = new ArrayList<>(shards.size());
+      for (Shard shard : shards) {
+         result.add(shard.entries);
+      }
+      return result;
+   }
+
+   @Override
+   protected Collection<PeekableTouchableMap<K, V>> evictionMaps(IntSet segments) {
+      List<PeekableTouchableMap<K, V>> result = new ArrayList<>();
+      for (Shard shard : shards) {
+         for (PrimitiveIterator.OfInt iter = segments.iterator(); iter.hasNext(); ) {
+            if (shardForSegment[iter.nextInt()] == shard.index) {
+               result.add(shard.entries);
+               break;
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Evicts an expiring entry of the same shard, as the shards evict their entries independently.
+    */
+   @Override
+   protected void evictExpiringToFit(int segment, K key) {
+      long window = evictionExpiryWindow();
+      if (window <= 0) {
+         return;
+      }
+      Shard shard = shard(segment);
+      long count = shard.evictionCache.estimatedSize();
+      if (count == 0) {
+         return;
+      }
+      long size = shard.evictionSize();
+      long averageWeight = Math.max(1, size / count);
+      if (size + averageWeight <= shard.eviction().getMaximum() || shard.entries.containsKey(key)) {
+         return;
+      }
+      int endSegment = shard.index + 1 < shards.size() ? shards.get(shard.index + 1).firstSegment : maps.length();
+      evictExpiring(timeService.wallClockTime() + window, shard.firstSegment, endSegment);
+   }
+
+   @Override
+   public PeekableTouchableMap<K, V> getMapForSegment(int segment) {
+      // All writes and other ops go directly to the caffeine cache of the shard
+      return shard(segment).entries;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(int segment, Object k) {
+      Shard shard = shard(segment);
+      shard.reads.increment();
+      return shard.entries.get(k);
+   }
+
+   @Override
+   public synchronized long capacity() {
+      return capacity;
+   }
+
+   @Override
+   public synchronized void resize(long newSize) {
+      long[] current = new long[shards.size()];
+      for (int i = 0; i < current.length; ++i) {
+         current[i] = shards.get(i).eviction().getMaximum();
+      }
+      // Keep the proportions decided by the last redistribution
+      capacity = newSize;
+      applyBudgets(split(newSize, current));
+   }
+
+   @Override
+   public Collection<K> evictionCandidates(long amount) {
+      long capacity = capacity();
+      List<K> candidates = new ArrayList<>();
+      for (Shard shard : shards) {
+         Policy.Eviction<K, InternalCacheEntry<K, V>> eviction = shard.eviction();
+         // Every shard is reduced proportionally to its share of the capacity
+         long shardAmount = capacity > 0 ? (long) ((double) amount * eviction.getMaximum() / capacity) : 0;
+         candidates.addAll(coldestKeys(eviction, shardAmount));
+      }
+      return candidates;
+   }
+
+   @Override
+   public long evictionSize() {
+      long size = 0;
+      for (Shard shard : shards) {
+         size += shard.evictionSize();
+      }
+      return size;
+   }
+
+   @Override
+   public void cleanUp() {
+      for (Shard shard : shards) {
+         shard.evictionCache.cleanUp();
+      }
+   }
+
+   /**
+    * Redistributes the capacity between the shards according to the reads of each shard since the previous
+    * invocation. The capacity is left as is if there were no reads.
+    */
+   @ManagedOperation(description = "Redistributes the capacity between the shards according to their reads",
+         displayName = "Redistribute capacity")
+   public synchronized void rebalance() {
+      int numShards = shards.size();
+      long[] reads = new long[numShards];
+      long totalReads = 0;
+      for (int i = 0; i < numShards; ++i) {
+         Shard shard = shards.get(i);
+         long sum = shard.reads.sum();
+         reads[i] = sum - shard.readsAtLastRebalance;
+         shard.readsAtLastRebalance = sum;
+         totalReads += reads[i];
+      }
+      if (totalReads == 0) {
+         return;
+      }
+      // Every shard keeps at least half of an even share
+      long floor = capacity / numShards / 2;
+      long[] targets = split(capacity - floor * numShards, reads);
+      long[] weights = new long[numShards];
+      for (int i = 0; i < numShards; ++i) {
+         // Only move half way from the current budget to the target one
+         weights[i] = shards.get(i).eviction().getMaximum() + floor + targets[i];
+      }
+      applyBudgets(split(capacity, weights));
+      rebalances.increment();
+   }
+
+   private void applyBudgets(long[] budgets) {
+      // Shrink first so that the container never holds more than its capacity
+      for (int i = 0; i < budgets.length; ++i) {
+         Policy.Eviction<K, InternalCacheEntry<K, V>> eviction = shards.get(i).eviction();
+         if (budgets[i] < eviction.getMaximum()) {
+            eviction.setMaximum(budgets[i]);
+         }
+      }
+      for (int i = 0; i < budgets.length; ++i) {
+         Policy.Eviction<K, InternalCacheEntry<K, V>> eviction = shards.get(i).eviction();
+         if (budgets[i] > eviction.getMaximum()) {
+            eviction.setMaximum(budgets[i]);
+         }
+      }
+   }
+
+   /**
+    * Splits the total in parts proportional to the given weights, or in even parts if all the weights are 0. The sum
+    * of the parts is always equal to the total.
+    */
+   static long[] split(long total, long[] weights) {
+      int length = weights.length;
+      long[] parts = new long[length];
+      double weightSum = 0;
+      for (long weight : weights) {
+         weightSum += weight;
+      }
+      long assigned = 0;
+      for (int i = 0; i < length; ++i) {
+         parts[i] = weightSum == 0 ? total / length : (long) (total * (weights[i] / weightSum));
+         assigned += parts[i];
+      }
+      // Hand out what was lost to rounding one by one, starting from the heaviest part
+      int start = 0;
+      for (int i = 1; i < length; ++i) {
+         if (weights[i] > weights[start]) {
+            start = i;
+         }
+      }
+      for (int i = 0; assigned < total; i = (i + 1) % length) {
+         parts[(start + i) % length]++;
+         assigned++;
+      }
+      return parts;
+   }
+
+   @ManagedAttribute(
+         description = "Number of groups of segments evicting their entries independently",
+         displayName = "Number of eviction shards"
+   )
+   public int getEvictionShards() {
+      return shards.size();
+   }
+
+   @ManagedAttribute(
+         description = "Number of times the capacity was redistributed between the shards",
+         displayName = "Number of capacity redistributions",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getRebalances() {
+      return rebalances.sum();
+   }
+
+   @ManagedOperation(description = "Returns the share of the capacity of the container assigned to the given shard",
+         displayName = "Capacity of shard",
+         name = "ShardCapacity")
+   public long getShardCapacity(@Parameter(name = "shard", description = "Shard index") int shard) {
+      return shards.get(shard).eviction().getMaximum();
+   }
+
+   @ManagedOperation(description = "Returns the number of entries, or their size in bytes when the container is bounded by size, of the given shard",
+         displayName = "Eviction size of shard",
+         name = "ShardEvictionSize")
+   public long getShardEvictionSize(@Parameter(name = "shard", description = "Shard index") int shard) {
+      return shards.get(shard).evictionSize();
+   }
+
+   @ManagedOperation(description = "Returns the number of reads of the entries of the given shard",
+         displayName = "Reads of shard",
+         name = "ShardReads")
+   public long getShardReads(@Parameter(name = "shard", description = "Shard index") int shard) {
+      return shards.get(shard).reads.sum();
+   }
+
+   @ManagedOperation(description = "Returns the number of entries evicted from the given shard",
+         displayName = "Evictions of shard",
+         name = "ShardEvictions")
+   public long getShardEvictions(@Parameter(name = "shard", description = "Shard index") int shard) {
+      return shards.get(shard).evictions.sum();
+   }
+
+   private final class Shard {
+      final int index;
+      final Cache<K, InternalCacheEntry<K, V>> evictionCache;
+      final PeekableTouchableCaffeineMap<K, V> entries;
+      final LongAdder reads = new LongAdder();
+      final LongAdder evictions = new LongAdder();
+      // The shard holds the segments from firstSegment to the firstSegment of the next shard
+      int firstSegment;
+      // Guarded by the container
+      long readsAtLastRebalance;
+
+      Shard(int index, long budget, CacheEntrySizeCalculator<K, V> calc) {
+         this.index = index;
+         Caffeine<K, InternalCacheEntry<K, V>> caffeine = caffeineBuilder();
+         if (calc != null) {
+            caffeine.weigher((k, v) -> (int) calc.calculateSize(k, v)).maximumWeight(budget);
+         } else {
+            caffeine.maximumSize(budget);
+         }
+         DefaultEvictionListener evictionListener = new DefaultEvictionListener() {
+            @Override
+            void onEntryChosenForEviction(K key, InternalCacheEntry<K, V> value) {
+               evictions.increment();
+               super.onEntryChosenForEviction(key, value);
+               computeEntryRemoved(getSegmentForKey(key), key, value);
+            }
+         };
+         evictionCache = applyListener(caffeine, evictionListener).build();
+         entries = new PeekableTouchableCaffeineMap<>(evictionCache);
+      }
+
+      Policy.Eviction<K, InternalCacheEntry<K, V>> eviction() {
+         return evictionCache.policy().eviction().orElseThrow(UnsupportedOperationException::new);
+      }
+
+      long evictionSize() {
+         return eviction().weightedSize().orElse(evictionCache.estimatedSize());
+      }
+   }
+}
@@ -12,6 +12,8 @@
 import org.infinispan.commons.util.FilterSpliterator;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.cache.AdmissionPolicy;
+import org.infinispan.configuration.cache.OffHeapEvictionPolicy;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.factories.annotations.Inject;
@@ -32,6 +34,15 @@ public BoundedOffHeapDataContainer(long maxSize, boolean memoryBounded) {
       super(1, maxSize, memoryBounded);
    }
 
+   public BoundedOffHeapDataContainer(long maxSize, boolean memoryBounded, OffHeapEvictionPolicy evictionPolicy) {
+      super(1, maxSize, memoryBounded, evictionPolicy);
+   }
+
+   public BoundedOffHeapDataContainer(long maxSize, boolean memoryBounded, OffHeapEvictionPolicy evictionPolicy,
+         AdmissionPolicy admissionPolicy) {
+      super(1, maxSize, memoryBounded, evictionPolicy, admissionPolicy);
+   }
+
    @Override
    protected OffHeapConcurrentMap getMapThatContainsKey(byte[] key) {
       return (OffHeapConcurrentMap) dataContainer.getMapForSegment(0);
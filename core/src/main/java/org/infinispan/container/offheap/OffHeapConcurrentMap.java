@@ -1,6 +1,7 @@
 package org.infinispan.container.offheap;
 
 import java.lang.invoke.MethodHandles;
+import java.lang.ref.Cleaner;
 import java.util.AbstractCollection;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
@@ -21,11 +22,13 @@
 import java.util.stream.LongStream;
 
 import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.spi.OffHeapMemory;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.IteratorMapper;
 import org.infinispan.commons.util.ProcessorInfo;
 import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.PeekableTouchableMap;
 import org.infinispan.util.logging.Log;
@@ -70,6 +73,15 @@
  * write lock for the lock region, are ({@code put}, {@code remove}, {@code replace}, {@code compute}. A clear
  * will acquire all write locks when invoked. This allows the clear to also resize the map down to the initial size.
  * <p>
+ * When the {@link OffHeapMemoryAllocator} retains deallocated memory ({@link OffHeapMemoryAllocator#retainsDeallocatedMemory()})
+ * read operations do not acquire the read lock and instead use an optimistic stamp of the lock of their region, so
+ * that they never write to shared memory. Any address read from native memory is only followed after validating the
+ * stamp, and the entry is copied to a thread local buffer that is only read once the stamp is validated again. If a
+ * write to the same region invalidates the stamp the read is retried a bounded number of times before acquiring the
+ * read lock. The allocator is notified of the start and end of each such read, so that it doesn't return memory the
+ * read may still access to the operating system. A {@code get} still acquires the read lock when an
+ * {@link EntryListener} is present, as it must be notified while the entry is allocated.
+ * <p>
  * When this map is constructed it is also possible to provide an {@link EntryListener} that is invoked when various
  * operations are performed in the map. Note that the various modification callbacks <b>MUST</b> free the old address,
  * or else a memory leak will occur. Please see the various methods for clarification on these methods.
@@ -96,6 +108,7 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    /* ---------------- Constants -------------- */
 
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
 
    // We always have to have more buckets than locks
    public static final int INITIAL_SIZE = 256;
@@ -109,6 +122,15 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private static final int LOCK_SHIFT = 31 - Integer.numberOfTrailingZeros(LOCK_COUNT);
    // The number of bits required to shift to the right to get the bucket size from a given pointer address
    private static final int LOCK_REGION_SHIFT = Integer.numberOfTrailingZeros(LOCK_COUNT);
+   // How many times a read is attempted with an optimistic stamp before acquiring the read lock
+   private static final int OPTIMISTIC_READ_ATTEMPTS = 3;
+   // Entries bigger than this are always read while holding the read lock, so that the read buffers stay small
+   private static final int MAX_READ_BUFFER_SIZE = 64 * 1024;
+   // Returned by an optimistic read that must be retried while holding the read lock
+   @SuppressWarnings("unchecked")
+   private static final InternalCacheEntry<WrappedBytes, WrappedBytes> LOCKED_READ = new ImmortalCacheEntry(null, null);
+   private static final Cleaner CLEANER = Cleaner.create();
+   private static final ThreadLocal<ReadBuffer> READ_BUFFERS = ThreadLocal.withInitial(ReadBuffer::new);
 
    private final AtomicLong size = new AtomicLong();
    private final StripedLock locks;
@@ -117,6 +139,7 @@ public class OffHeapConcurrentMap implements ConcurrentMap<WrappedBytes, Interna
    private final OffHeapEntryFactory offHeapEntryFactory;
 
    private final EntryListener listener;
+   private final boolean optimisticReads;
 
    // Once this threshold size is met, the underlying buckets will be re-sized if possible
    // This variable can be read outside of locks - thus is volatile, however should only be modified while holding
@@ -146,6 +169,7 @@ public OffHeapConcurrentMap(OffHeapMemoryAllocator allocator,
       this.allocator = Objects.requireNonNull(allocator);
       this.offHeapEntryFactory = Objects.requireNonNull(offHeapEntryFactory);
       this.listener = listener;
+      this.optimisticReads = allocator.retainsDeallocatedMemory();
 
       locks = new StripedLock(LOCK_COUNT);
 
@@ -622,6 +646,13 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(WrappedBytes k,
       int hashCode = k.hashCode();
       int lockOffset = getLockOffset(hashCode);
       StampedLock stampedLock = locks.getLockWithOffset(lockOffset);
+      // The listener must be notified of a retrieval while the entry is still allocated, which requires the lock
+      if (optimisticReads && (peek || listener == null)) {
+         InternalCacheEntry<WrappedBytes, WrappedBytes> ice = optimisticPeek(stampedLock, lockOffset, k, hashCode);
+         if (ice != LOCKED_READ) {
+            return ice;
+         }
+      }
       long readStamp = stampedLock.readLock();
       try {
          checkDeallocation();
@@ -637,6 +668,86 @@ private InternalCacheEntry<WrappedBytes, WrappedBytes> peekOrGet(WrappedBytes k,
       }
    }
 
+   /**
+    * Reads the entry for the given key without acquiring the lock of its region. The memory read may be concurrently
+    * deallocated and reused by a write, which is safe as the allocator retains deallocated memory, so every address or
+    * length read from native memory is only used after validating that no write happened since the stamp was obtained.
+    * @return the entry, null if the key is not present or {@link #LOCKED_READ} if the read must be done while holding
+    *         the read lock
+    */
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> optimisticPeek(StampedLock stampedLock, int lockOffset,
+         WrappedBytes k, int hashCode) {
+      // Memory deallocated from now on stays readable until the read ends
+      allocator.startUnlockedRead();
+      try {
+         for (int i = 0; i < OPTIMISTIC_READ_ATTEMPTS; ++i) {
+            long stamp = stampedLock.tryOptimisticRead();
+            if (stamp == 0) {
+               // A write is in progress, wait for it to complete
+               return LOCKED_READ;
+            }
+            try {
+               InternalCacheEntry<WrappedBytes, WrappedBytes> ice = optimisticPeek(stampedLock, stamp, lockOffset, k, hashCode);
+               if (ice != null || stampedLock.validate(stamp)) {
+                  return ice;
+               }
+            } catch (RuntimeException e) {
+               // Inconsistent values may have been read, only throw the exception if they were not
+               if (stampedLock.validate(stamp)) {
+                  throw e;
+               }
+            }
+         }
+         return LOCKED_READ;
+      } finally {
+         allocator.endUnlockedRead();
+      }
+   }
+
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> optimisticPeek(StampedLock stampedLock, long stamp,
+         int lockOffset, WrappedBytes k, int hashCode) {
+      MemoryAddressHash memoryLookup;
+      int shift;
+      IntSet pendingBlocks = this.pendingBlocks;
+      if (pendingBlocks != null && pendingBlocks.contains(lockOffset)) {
+         memoryLookup = this.oldMemoryLookup;
+         shift = oldMemoryShift;
+      } else {
+         memoryLookup = this.memoryLookup;
+         shift = memoryShift;
+      }
+      if (memoryLookup == null) {
+         // The map was closed, let the locked read throw the exception
+         return LOCKED_READ;
+      }
+      long address = memoryLookup.getMemoryAddressOffset(getOffset(hashCode, shift));
+      while (address != 0) {
+         if (!stampedLock.validate(stamp)) {
+            return null;
+         }
+         long nextAddress = offHeapEntryFactory.getNext(address);
+         if (offHeapEntryFactory.getHashCode(address) == hashCode) {
+            long size = offHeapEntryFactory.getSize(address, false);
+            if (!stampedLock.validate(stamp)) {
+               return null;
+            }
+            if (size > MAX_READ_BUFFER_SIZE) {
+               return LOCKED_READ;
+            }
+            long copyAddress = READ_BUFFERS.get().copy(address, size);
+            // The copy is only consistent if no write happened while copying
+            if (!stampedLock.validate(stamp)) {
+               return null;
+            }
+            if (offHeapEntryFactory.equalsKey(copyAddress, k, hashCode)) {
+               return offHeapEntryFactory.fromMemory(copyAddress);
+            }
+         }
+         address = nextAddress;
+      }
+      return null;
+   }
+
    @GuardedBy("locks#readLock")
    private InternalCacheEntry<WrappedBytes, WrappedBytes> lockedPeekOrGet(MemoryAddressHash memoryLookup,
          WrappedBytes k, int hashCode, boolean peek) {
@@ -1275,4 +1386,40 @@ public int size() {
          }
       };
    }
+
+   /**
+    * Native memory of a thread that optimistic reads copy an entry into, so that it can be read once validated while
+    * writers may concurrently modify the original one. The memory is freed once the thread is garbage collected.
+    */
+   private static final class ReadBuffer {
+      private final Deallocator deallocator = new Deallocator();
+      private long capacity;
+
+      ReadBuffer() {
+         CLEANER.register(this, deallocator);
+      }
+
+      long copy(long address, long size) {
+         if (size > capacity) {
+            long newCapacity = Math.max(Util.findNextHighestPowerOfTwo((int) size), 256);
+            long newAddress = MEMORY.allocate(newCapacity);
+            deallocator.run();
+            deallocator.address = newAddress;
+            capacity = newCapacity;
+         }
+         MEMORY.copy(address, 0, deallocator.address, 0, size);
+         return deallocator.address;
+      }
+   }
+
+   private static final class Deallocator implements Runnable {
+      volatile long address;
+
+      @Override
+      public void run() {
+         if (address != 0) {
+            MEMORY.free(address);
+         }
+      }
+   }
 }
@@ -125,4 +125,19 @@ default long calculateSize(WrappedBytes key, WrappedBytes value, Metadata metada
     * @return address of the new entry to use or 0 if the same one can be reused
     */
    long updateMaxIdle(long address, long accessTime);
+
+   /**
+    * Marks the entry as referenced, so that the CLOCK eviction policy gives it a second chance. This only writes to
+    * the entry when it is not already marked and may be invoked concurrently with other readers of the entry, but the
+    * entry must not be deallocated concurrently.
+    * @param address the address of the entry to mark
+    */
+   void markReferenced(long address);
+
+   /**
+    * Clears the referenced mark of the entry.
+    * @param address the address of the entry to clear
+    * @return whether the entry was marked as referenced
+    */
+   boolean clearReferenced(long address);
 }
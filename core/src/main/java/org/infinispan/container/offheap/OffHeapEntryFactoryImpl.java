@@ -64,6 +64,10 @@ public class OffHeapEntryFactoryImpl implements OffHeapEntryFactory {
    // Whether this entry has private metadata or not
    private static final byte HAS_PRIVATE_METADATA = 1 << 6;
 
+   // Whether this entry was read since the CLOCK eviction policy last visited it, the only bit that can change after
+   // the entry is created
+   private static final byte REFERENCED = (byte) (1 << 7);
+
    /**
     * HEADER is composed of type (byte), hashCode (int), keyLength (int), valueLength (int)
     * Note that metadata is not included as this is now optional
@@ -310,7 +314,7 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> fromMemory(long address) {
       offset += 4;
 
       byte[] metadataBytes;
-      switch (metadataType & (~HAS_PRIVATE_METADATA)) {
+      switch (metadataType & ~(HAS_PRIVATE_METADATA | REFERENCED)) {
          case IMMORTAL:
             metadataBytes = Util.EMPTY_BYTE_ARRAY;
             break;
@@ -664,7 +668,7 @@ public long updateMaxIdle(long address, long currentTimeMillis) {
       if (newMetadataSize != metadataSize) {
          // The new marshalled size is different then before, we have to rewrite the object!
          // Offset is still set to the end of the key bytes (before metadata)
-         long newPointer = MEMORY.allocate(newMetadataSize + offset + valueSize + internalMetadataSize);
+         long newPointer = allocator.allocate(newMetadataSize + offset + valueSize + internalMetadataSize);
          // This writes the next pointer, eviction pointers (if applicable),
          // type, hashCode, keyLength, metadataLength, valueLength and key bytes.
          MEMORY.copy(address, 0, newPointer, 0, offset);
@@ -686,6 +690,27 @@ public long updateMaxIdle(long address, long currentTimeMillis) {
       return 0;
    }
 
+   @Override
+   public void markReferenced(long address) {
+      int typeOffset = evictionEnabled ? 24 : 8;
+      byte type = MEMORY.getByte(address, typeOffset);
+      // Avoid writing to memory shared with other readers if we can
+      if ((type & REFERENCED) == 0) {
+         MEMORY.putByte(address, typeOffset, (byte) (type | REFERENCED));
+      }
+   }
+
+   @Override
+   public boolean clearReferenced(long address) {
+      int typeOffset = evictionEnabled ? 24 : 8;
+      byte type = MEMORY.getByte(address, typeOffset);
+      if ((type & REFERENCED) == 0) {
+         return false;
+      }
+      MEMORY.putByte(address, typeOffset, (byte) (type & ~REFERENCED));
+      return true;
+   }
+
    private void storeLongLittleEndian(long destAddres, long offset, long value) {
       MEMORY.putByte(destAddres, offset, (byte) (value >> 56));
       MEMORY.putByte(destAddres, offset + 1, (byte) (value >> 48));
@@ -23,4 +23,29 @@ public interface OffHeapMemoryAllocator {
    void deallocate(long memoryAddress, long size);
 
    long getAllocatedAmount();
+
+   /**
+    * Returns whether memory that was deallocated stays readable for the reads that may still use it, that is it may be
+    * reused by later allocations but is not returned to the operating system until every read started with
+    * {@link #startUnlockedRead()} before the deallocation has ended. Such readers can then safely access an address
+    * that is concurrently deallocated, as long as they validate what they read before using it.
+    * @return whether deallocated memory stays readable
+    */
+   default boolean retainsDeallocatedMemory() {
+      return false;
+   }
+
+   /**
+    * Invoked by the current thread before it reads memory that may be concurrently deallocated. Must be followed by
+    * {@link #endUnlockedRead()}. Only relevant when {@link #retainsDeallocatedMemory()} returns {@code true}.
+    */
+   default void startUnlockedRead() {
+   }
+
+   /**
+    * Invoked by the current thread after a read started with {@link #startUnlockedRead()}, once it doesn't use any
+    * address it read anymore.
+    */
+   default void endUnlockedRead() {
+   }
 }
@@ -8,11 +8,16 @@
 import java.util.function.Supplier;
 
 import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.configuration.cache.AdmissionPolicy;
+import org.infinispan.configuration.cache.OffHeapEvictionPolicy;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.AbstractDelegatingInternalDataContainer;
 import org.infinispan.container.impl.AbstractInternalDataContainer;
+import org.infinispan.container.impl.AdmissionFilter;
 import org.infinispan.container.impl.DefaultSegmentedDataContainer;
 import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.container.impl.InternalEntryFactory;
 import org.infinispan.container.impl.PeekableTouchableMap;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.eviction.impl.PassivationManager;
@@ -26,12 +31,26 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
 import org.infinispan.util.concurrent.DataOperationOrderer;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 /**
+ * Bounded off-heap container that keeps all of its entries in a list whose head is the next entry to evict.
+ * <p>
+ * With the {@link OffHeapEvictionPolicy#LRU} policy a read moves the entry to the end of the list, which requires the
+ * {@link #lruLock}. With the {@link OffHeapEvictionPolicy#CLOCK} policy the list is kept in insertion order and a
+ * read only marks the entry as referenced; when evicting, referenced entries at the head of the list have their mark
+ * cleared and are moved to the end instead of being evicted.
+ * <p>
+ * With the {@link AdmissionPolicy#TINY_LFU} admission policy, a write of a new entry that would cause an eviction is
+ * only stored if the {@link AdmissionFilter} admits it in place of the head of the list. A rejected entry is handled as
+ * if it was evicted right away, so it is passivated when passivation is enabled.
+ * <p>
+ * When {@link org.infinispan.configuration.cache.MemoryConfiguration#evictionExpiryWindow()} is positive, entries that
+ * expire within the window are evicted before the head of the list.
  * @author wburns
  * @since 9.4
  */
@@ -39,6 +58,10 @@
 public class SegmentedBoundedOffHeapDataContainer extends AbstractDelegatingInternalDataContainer<WrappedBytes, WrappedBytes> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
 
+   // How many referenced entries are given a second chance for a single eviction, bounding the time the lruLock is held
+   // when most entries are read between evictions
+   static final int MAX_CLOCK_ROTATIONS = 64;
+
    private final OffHeapListener offHeapListener;
 
    @Inject ComponentRegistry componentRegistry;
@@ -49,13 +72,19 @@ public class SegmentedBoundedOffHeapDataContainer extends AbstractDelegatingInte
    @Inject protected EvictionManager evictionManager;
    @Inject protected ComponentRef<PassivationManager> passivator;
    @Inject protected DataOperationOrderer orderer;
+   @Inject protected InternalEntryFactory entryFactory;
+   @Inject protected TimeService timeService;
+   @Inject protected ComponentRef<AdmissionFilter> admissionFilterRef;
    @Inject @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
    Executor nonBlockingExecutor;
 
-   protected final long maxSize;
+   protected volatile long maxSize;
    protected final Lock lruLock;
    protected final boolean useCount;
    protected final int numSegments;
+   protected final boolean clock;
+   protected final boolean admission;
+   protected AdmissionFilter admissionFilter;
 
    // Must be updated inside lruLock#writeLock - but can be read outside of lock
    protected volatile long currentSize;
@@ -65,7 +94,19 @@ public class SegmentedBoundedOffHeapDataContainer extends AbstractDelegatingInte
    protected DefaultSegmentedDataContainer dataContainer;
 
    public SegmentedBoundedOffHeapDataContainer(int numSegments, long maxSize, boolean memoryBounded) {
+      this(numSegments, maxSize, memoryBounded, OffHeapEvictionPolicy.LRU);
+   }
+
+   public SegmentedBoundedOffHeapDataContainer(int numSegments, long maxSize, boolean memoryBounded,
+         OffHeapEvictionPolicy evictionPolicy) {
+      this(numSegments, maxSize, memoryBounded, evictionPolicy, AdmissionPolicy.NONE);
+   }
+
+   public SegmentedBoundedOffHeapDataContainer(int numSegments, long maxSize, boolean memoryBounded,
+         OffHeapEvictionPolicy evictionPolicy, AdmissionPolicy admissionPolicy) {
       this.numSegments = numSegments;
+      this.clock = evictionPolicy == OffHeapEvictionPolicy.CLOCK;
+      this.admission = admissionPolicy == AdmissionPolicy.TINY_LFU;
       offHeapListener = new OffHeapListener();
 
       this.maxSize = maxSize;
@@ -79,6 +120,10 @@ public SegmentedBoundedOffHeapDataContainer(int numSegments, long maxSize, boole
 
    @Start
    public void start() {
+      if (admission) {
+         admissionFilter = admissionFilterRef.running();
+      }
+      dataContainer.startExpirationIndex();
       dataContainer.start();
    }
 
@@ -93,8 +138,32 @@ protected InternalDataContainer<WrappedBytes, WrappedBytes> delegate() {
    }
 
 
+   // Only reads through get are recorded: the interceptor chain uses get for the reads of the users, while peek is
+   // used by writes and by internal lookups that should not make a key look more popular
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> get(Object k) {
+      return recordAccess(k, super.get(k));
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> get(int segment, Object k) {
+      return recordAccess(k, super.get(segment, k));
+   }
+
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> recordAccess(Object k,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> ice) {
+      if (admissionFilter != null) {
+         admissionFilter.recordAccess(k.hashCode(), ice != null);
+      }
+      return ice;
+   }
+
    @Override
    public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
+      if (admissionFilter != null && !(metadata instanceof L1Metadata)) {
+         putIfAdmitted(dataContainer.getSegmentForKey(key), key, value, metadata, null, -1, -1);
+         return;
+      }
       super.put(key, value, metadata);
       // The following is called outside of the write lock specifically - since we may not have to evict and even
       // if we did it would quite possibly need a different lock
@@ -105,6 +174,10 @@ public void put(WrappedBytes key, WrappedBytes value, Metadata metadata) {
    public void put(int segment, WrappedBytes key, WrappedBytes value, Metadata metadata,
          PrivateMetadata internalMetadata, long createdTimestamp,
          long lastUseTimestamp) {
+      if (admissionFilter != null && !(metadata instanceof L1Metadata)) {
+         putIfAdmitted(segment, key, value, metadata, internalMetadata, createdTimestamp, lastUseTimestamp);
+         return;
+      }
       super.put(segment, key, value, metadata, internalMetadata, createdTimestamp, lastUseTimestamp);
       // The following is called outside of the write lock specifically - since we may not have to evict and even
       // if we did it would quite possibly need a different lock
@@ -136,6 +209,84 @@ public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(int segment, Wrapp
       return result;
    }
 
+   /**
+    * Same as {@link #put(int, WrappedBytes, WrappedBytes, Metadata, PrivateMetadata, long, long)}, but a new entry is
+    * only stored if it is admitted. The admission is decided while holding the lock of the key, so a concurrent write
+    * of the same key can't be stored in between and make a replacement look like a new entry, or the opposite.
+    */
+   private void putIfAdmitted(int segment, WrappedBytes key, WrappedBytes value, Metadata metadata,
+         PrivateMetadata internalMetadata, long createdTimestamp, long lastUseTimestamp) {
+      boolean[] rejected = new boolean[1];
+      InternalCacheEntry<WrappedBytes, WrappedBytes> result = super.compute(segment, key, (k, oldEntry, factory) -> {
+         InternalCacheEntry<WrappedBytes, WrappedBytes> newEntry;
+         if (oldEntry != null) {
+            newEntry = factory.update(oldEntry, value, metadata);
+         } else if (admit(key, value, metadata, internalMetadata)) {
+            // -1 signals the timestamps should be ignored
+            if (createdTimestamp == -1 && lastUseTimestamp == -1) {
+               newEntry = factory.create(k, value, metadata);
+            } else {
+               newEntry = factory.create(k, value, metadata, createdTimestamp, metadata.lifespan(), lastUseTimestamp,
+                     metadata.maxIdle());
+            }
+         } else {
+            rejected[0] = true;
+            return null;
+         }
+         newEntry.setInternalMetadata(internalMetadata);
+         return newEntry;
+      });
+      if (rejected[0]) {
+         reject(key, value, metadata, internalMetadata, createdTimestamp, lastUseTimestamp);
+      } else if (result != null) {
+         // The following is called outside of the write lock specifically - since we may not have to evict and even
+         // if we did it would quite possibly need a different lock
+         ensureSize();
+      }
+   }
+
+   /**
+    * Whether a new entry should be stored. Writes that do not require an eviction are always stored.
+    * This method should only be invoked while holding the write lock of the key, which must be acquired before the
+    * lruLock.
+    */
+   private boolean admit(WrappedBytes key, WrappedBytes value, Metadata metadata, PrivateMetadata internalMetadata) {
+      long entrySize = useCount ? 1 : offHeapEntryFactory.calculateSize(key, value, metadata, internalMetadata);
+      if (currentSize + entrySize <= maxSize) {
+         return true;
+      }
+      int victimHash;
+      lruLock.lock();
+      try {
+         if (firstAddress == 0) {
+            return true;
+         }
+         victimHash = offHeapEntryFactory.getHashCode(firstAddress);
+      } finally {
+         lruLock.unlock();
+      }
+      return admissionFilter.admit(key.hashCode(), victimHash);
+   }
+
+   private void reject(WrappedBytes key, WrappedBytes value, Metadata metadata, PrivateMetadata internalMetadata,
+         long createdTimestamp, long lastUseTimestamp) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Entry for key %s was not admitted in the container", key);
+      }
+      InternalCacheEntry<WrappedBytes, WrappedBytes> ice;
+      // -1 signals the timestamps should be ignored
+      if (createdTimestamp == -1 && lastUseTimestamp == -1) {
+         ice = entryFactory.create(key, value, metadata);
+      } else {
+         ice = entryFactory.create(key, value, metadata, createdTimestamp, metadata.lifespan(), lastUseTimestamp,
+               metadata.maxIdle());
+      }
+      ice.setInternalMetadata(internalMetadata);
+      // Same as if the entry was stored and evicted right away
+      AbstractInternalDataContainer.handleEviction(ice, orderer, passivator.running(), evictionManager, this,
+            nonBlockingExecutor, null);
+   }
+
    protected OffHeapConcurrentMap getMapThatContainsKey(byte[] key) {
       int segment = dataContainer.getSegmentForKey(key);
 
@@ -164,7 +315,20 @@ private void ensureSize() {
          return;
       }
 
+      long evictionExpiryWindow = dataContainer.evictionExpiryWindow();
+      boolean evictExpiring = evictionExpiryWindow > 0;
+      long maxExpiryTime = evictExpiring ? timeService.wallClockTime() + evictionExpiryWindow : 0;
       while (true) {
+         if (evictExpiring) {
+            if (currentSize <= maxSize) {
+               break;
+            }
+            // Entries about to expire are evicted before the head of the list, until there are none left
+            evictExpiring = dataContainer.evictExpiring(maxExpiryTime);
+            if (evictExpiring) {
+               continue;
+            }
+         }
          long addressToRemove;
          StampedLock stampedLock;
          long writeStamp;
@@ -176,6 +340,9 @@ private void ensureSize() {
             }
             // We shouldn't be able to get into this state
             assert firstAddress > 0;
+            if (clock) {
+               advanceClockHand();
+            }
             // We read the key before hashCode due to how off-heap bytes are written (key requires reading metadata
             // which comes before hashCode, which should keep hashCode bytes in memory register in most cases)
             byte[] key = offHeapEntryFactory.getKey(firstAddress);
@@ -250,6 +417,21 @@ private void ensureSize() {
       }
    }
 
+   /**
+    * Moves the entries at the head of the list that were read since they were last visited to the end of the list,
+    * clearing their mark, so that the head is the next entry to evict. At most {@link #MAX_CLOCK_ROTATIONS} entries
+    * are moved, after which the head is evicted even if it was read.
+    * This method should only be invoked after acquiring the lruLock.
+    */
+   private void advanceClockHand() {
+      for (int i = 0; i < MAX_CLOCK_ROTATIONS && firstAddress != lastAddress; ++i) {
+         if (!offHeapEntryFactory.clearReferenced(firstAddress)) {
+            return;
+         }
+         offHeapListener.moveToEnd(firstAddress);
+      }
+   }
+
    private class OffHeapMapSupplier implements Supplier<PeekableTouchableMap<WrappedBytes,
             WrappedBytes>> {
       @Override
@@ -333,6 +515,11 @@ public void entryReplaced(long newAddress, long oldAddress) {
 
       @Override
       public void entryRetrieved(long entryAddress) {
+         if (clock) {
+            // The read lock of the entry prevents it from being deallocated, which is all that is needed to mark it
+            offHeapEntryFactory.markReferenced(entryAddress);
+            return;
+         }
          lruLock.lock();
          try {
             if (log.isTraceEnabled()) {
@@ -460,6 +647,13 @@ public long capacity() {
       return maxSize;
    }
 
+   @Override
+   public void resize(long newSize) {
+      maxSize = newSize;
+      // Evict right away when shrinking instead of waiting for the next write
+      ensureSize();
+   }
+
    @Override
    public long evictionSize() {
       return currentSize;
@@ -0,0 +1,427 @@
+package org.infinispan.container.offheap;
+
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.spi.OffHeapMemory;
+import org.infinispan.commons.util.ProcessorInfo;
+import org.infinispan.commons.util.Util;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * Memory allocator that pools native memory in pages, each page being split into slots of a single size class.
+ * <p>
+ * An allocation is rounded up to the smallest size class that fits it and a slot is taken from the free list of that
+ * size class, or carved from its current page when the free list is empty. Freed slots are pushed back on the free
+ * list, using the first 8 bytes of the slot as the pointer to the next free slot. Pages are only returned to the
+ * native heap when the allocator is stopped.
+ * <p>
+ * Allocations bigger than the largest size class, {@link #MAX_SLOT_SIZE}, such as the bucket arrays of the map, are
+ * not pooled. They are returned to the native heap once deallocated, but only after every unlocked read that started
+ * before the deallocation has ended, see {@link #startUnlockedRead()}. Together with the pages, this keeps a
+ * deallocated address readable for the readers that may still use it, which is what allows
+ * {@link OffHeapConcurrentMap} to read entries without acquiring a lock, see {@link #retainsDeallocatedMemory()}.
+ * <p>
+ * To limit contention the size classes are replicated in a number of arenas, and a thread always uses the same arena.
+ * A slot is freed to the arena of the thread freeing it, which is not necessarily the one it was allocated from, as
+ * any slot of the same size class can serve any allocation.
+ * <p>
+ * When the underlying {@link OffHeapMemory} validates accesses against the blocks it allocated (trace logging) slots
+ * could not be accessed, so all allocations are done individually instead.
+ *
+ * @since 16.3
+ */
+@Scope(Scopes.NAMED_CACHE)
+@MBean(objectName = "OffHeapMemoryAllocator", description = "Allocates native memory for the off-heap entries from pages of fixed size slots")
+public class SlabOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(SlabOffHeapMemoryAllocator.class);
+   private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
+
+   /**
+    * The smallest size of a page, pages of the bigger size classes are bigger so that they hold at least
+    * {@link #MIN_SLOTS_PER_PAGE} slots
+    */
+   static final long MIN_PAGE_SIZE = 64 * 1024;
+   static final int MIN_SLOTS_PER_PAGE = 8;
+   private static final int MAX_ARENAS = 16;
+
+   private static final long[] SLOT_SIZES = slotSizes();
+   /**
+    * The largest size class, bigger allocations are not pooled
+    */
+   static final long MAX_SLOT_SIZE = SLOT_SIZES[SLOT_SIZES.length - 1];
+
+   private final int arenaCount;
+   private final boolean pooled;
+   private final Queue<Long> pages = new ConcurrentLinkedQueue<>();
+   private final LongAdder allocations = new LongAdder();
+   private final LongAdder requestedBytes = new LongAdder();
+   private final LongAdder slotBytes = new LongAdder();
+   private final LongAdder unpooledBytes = new LongAdder();
+   private final LongAdder pageBytes = new LongAdder();
+   private volatile Arena[] arenas;
+
+   // Incremented by every deallocation of unpooled memory, see startUnlockedRead
+   private final AtomicLong epoch = new AtomicLong(1);
+   private final Queue<Reader> readers = new ConcurrentLinkedQueue<>();
+   private final ThreadLocal<Reader> reader = ThreadLocal.withInitial(this::newReader);
+   // Unpooled memory deallocated while unlocked reads may still use it, ordered by epoch
+   @GuardedBy("retired")
+   private final ArrayDeque<Retired> retired = new ArrayDeque<>();
+   private final LongAdder retiredBytes = new LongAdder();
+
+   public SlabOffHeapMemoryAllocator() {
+      this(Math.min(ProcessorInfo.availableProcessors(), MAX_ARENAS));
+   }
+
+   SlabOffHeapMemoryAllocator(int arenaCount) {
+      this.arenaCount = Util.findNextHighestPowerOfTwo(arenaCount);
+      this.pooled = !MEMORY.tracksAllocations();
+      if (!pooled) {
+         log.debug("Off-heap memory allocations are tracked, slab allocator will not pool memory");
+      }
+      this.arenas = newArenas(this.arenaCount);
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      allocations.increment();
+      int sizeClass = pooled ? sizeClass(memoryLength) : -1;
+      long memoryLocation;
+      if (sizeClass < 0) {
+         if (pooled) {
+            // Memory retired by the last deallocations is only released by later deallocations or allocations
+            synchronized (retired) {
+               releaseRetired();
+            }
+         }
+         memoryLocation = MEMORY.allocate(memoryLength);
+         unpooledBytes.add(UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength));
+      } else {
+         memoryLocation = arena().sizeClasses[sizeClass].allocate();
+         requestedBytes.add(memoryLength);
+         slotBytes.add(SLOT_SIZES[sizeClass]);
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+               memoryLength, getAllocatedAmount());
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      int sizeClass = pooled ? sizeClass(size) : -1;
+      if (sizeClass < 0) {
+         long estimatedSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+         unpooledBytes.add(-estimatedSize);
+         if (pooled) {
+            retire(memoryAddress, estimatedSize);
+         } else {
+            MEMORY.free(memoryAddress);
+         }
+      } else {
+         requestedBytes.add(-size);
+         slotBytes.add(-SLOT_SIZES[sizeClass]);
+         arena().sizeClasses[sizeClass].free(memoryAddress);
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               size, getAllocatedAmount());
+      }
+   }
+
+   @Override
+   public long getAllocatedAmount() {
+      return slotBytes.sum() + unpooledBytes.sum();
+   }
+
+   /**
+    * Deallocated memory is only returned to the native heap when no unlocked read may use it, unless accesses are
+    * validated by the underlying {@link OffHeapMemory}, in which case nothing is pooled or retained.
+    */
+   @Override
+   public boolean retainsDeallocatedMemory() {
+      return pooled;
+   }
+
+   /**
+    * Publishes the current epoch for this thread, so that unpooled memory deallocated from now on is not returned to
+    * the native heap before {@link #endUnlockedRead()} is invoked.
+    */
+   @Override
+   public void startUnlockedRead() {
+      if (pooled) {
+         reader.get().startRead(epoch.get());
+      }
+   }
+
+   @Override
+   public void endUnlockedRead() {
+      if (pooled) {
+         reader.get().endRead();
+      }
+   }
+
+   /**
+    * Returns all the pages to the native heap. This must be invoked only after all the memory allocated from this
+    * allocator was deallocated, that is after the data container has been stopped.
+    */
+   @Stop
+   public void stop() {
+      // New arenas so that a restarted cache doesn't reference the freed pages
+      arenas = newArenas(arenaCount);
+      Long page;
+      while ((page = pages.poll()) != null) {
+         MEMORY.free(page);
+      }
+      synchronized (retired) {
+         Retired memory;
+         while ((memory = retired.poll()) != null) {
+            MEMORY.free(memory.address);
+         }
+      }
+      pageBytes.reset();
+      slotBytes.reset();
+      requestedBytes.reset();
+      unpooledBytes.reset();
+      retiredBytes.reset();
+   }
+
+   @ManagedAttribute(
+         description = "Amount of native memory reserved by the allocator, including free slots of the pages (bytes)",
+         displayName = "Reserved off-heap memory",
+         units = Units.BYTES
+   )
+   public long getReservedAmount() {
+      return pageBytes.sum() + unpooledBytes.sum() + retiredBytes.sum();
+   }
+
+   @ManagedAttribute(
+         description = "Number of pages of slots allocated",
+         displayName = "Number of pages"
+   )
+   public int getPages() {
+      return pages.size();
+   }
+
+   @ManagedAttribute(
+         description = "Ratio of the memory of the pages that is in use by allocated slots",
+         displayName = "Page utilization",
+         units = Units.PERCENTAGE
+   )
+   public double getPageUtilization() {
+      long reserved = pageBytes.sum();
+      if (reserved <= 0) {
+         return 0;
+      }
+      return (double) slotBytes.sum() / reserved;
+   }
+
+   @ManagedAttribute(
+         description = "Ratio of the memory of the allocated slots that is wasted because of rounding allocations up to their size class",
+         displayName = "Fragmentation",
+         units = Units.PERCENTAGE
+   )
+   public double getFragmentation() {
+      long used = slotBytes.sum();
+      if (used <= 0) {
+         return 0;
+      }
+      return 1 - (double) requestedBytes.sum() / used;
+   }
+
+   @ManagedAttribute(
+         description = "Number of allocations performed by the allocator",
+         displayName = "Number of allocations",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getAllocations() {
+      return allocations.sum();
+   }
+
+   /**
+    * Returns the index of the smallest size class that can hold the given size or -1 if it is bigger than the largest
+    * size class.
+    */
+   static int sizeClass(long size) {
+      if (size > MAX_SLOT_SIZE) {
+         return -1;
+      }
+      int index = Arrays.binarySearch(SLOT_SIZES, size);
+      return index >= 0 ? index : -index - 1;
+   }
+
+   static long slotSize(int sizeClass) {
+      return SLOT_SIZES[sizeClass];
+   }
+
+   /**
+    * Size classes are multiples of 16 bytes up to 256 bytes and then grow by a quarter of the previous power of two,
+    * which bounds the memory wasted by rounding up to 25%, up to 32 KiB.
+    */
+   private static long[] slotSizes() {
+      List<Long> sizes = new ArrayList<>();
+      for (long size = 16; size <= 256; size += 16) {
+         sizes.add(size);
+      }
+      for (int shift = 8; shift < 15; ++shift) {
+         long base = 1L << shift;
+         for (int i = 1; i <= 4; ++i) {
+            sizes.add(base + i * (base >> 2));
+         }
+      }
+      return sizes.stream().mapToLong(Long::longValue).toArray();
+   }
+
+   private Arena arena() {
+      Arena[] arenas = this.arenas;
+      return arenas[System.identityHashCode(Thread.currentThread()) & (arenas.length - 1)];
+   }
+
+   private Arena[] newArenas(int count) {
+      Arena[] newArenas = new Arena[count];
+      for (int i = 0; i < count; ++i) {
+         newArenas[i] = new Arena();
+      }
+      return newArenas;
+   }
+
+   private long allocatePage(long pageSize) {
+      long page = MEMORY.allocate(pageSize);
+      pages.add(page);
+      pageBytes.add(pageSize);
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated off-heap page at 0x%016x with %d bytes", page, pageSize);
+      }
+      return page;
+   }
+
+   private Reader newReader() {
+      Reader reader = new Reader(Thread.currentThread());
+      readers.add(reader);
+      return reader;
+   }
+
+   private void retire(long address, long size) {
+      retiredBytes.add(size);
+      // The increment orders the removal of the address from the map before the reads of the readers' epochs
+      long retireEpoch = epoch.getAndIncrement();
+      synchronized (retired) {
+         retired.add(new Retired(address, size, retireEpoch));
+         releaseRetired();
+      }
+   }
+
+   /**
+    * Returns to the native heap the retired memory that no unlocked read can use anymore, that is the memory retired
+    * before the epoch of the oldest unlocked read in progress.
+    */
+   @GuardedBy("retired")
+   private void releaseRetired() {
+      long oldestRead = Long.MAX_VALUE;
+      for (Iterator<Reader> it = readers.iterator(); it.hasNext(); ) {
+         Reader reader = it.next();
+         long readEpoch = reader.epoch;
+         if (readEpoch != 0) {
+            oldestRead = Math.min(oldestRead, readEpoch);
+         } else if (reader.thread.refersTo(null)) {
+            it.remove();
+         }
+      }
+      Retired memory;
+      while ((memory = retired.peek()) != null && memory.epoch < oldestRead) {
+         retired.poll();
+         retiredBytes.add(-memory.size);
+         MEMORY.free(memory.address);
+      }
+   }
+
+   /**
+    * The epoch of a thread while it reads without a lock, or 0 when it doesn't.
+    */
+   private static final class Reader {
+      final WeakReference<Thread> thread;
+      volatile long epoch;
+
+      Reader(Thread thread) {
+         this.thread = new WeakReference<>(thread);
+      }
+
+      void startRead(long epoch) {
+         this.epoch = epoch;
+         // The epoch must be visible before any address is read from the map
+         VarHandle.fullFence();
+      }
+
+      void endRead() {
+         epoch = 0;
+      }
+   }
+
+   private record Retired(long address, long size, long epoch) {
+   }
+
+   private final class Arena {
+      final SizeClass[] sizeClasses = new SizeClass[SLOT_SIZES.length];
+
+      Arena() {
+         for (int i = 0; i < sizeClasses.length; ++i) {
+            sizeClasses[i] = new SizeClass(SLOT_SIZES[i]);
+         }
+      }
+   }
+
+   private final class SizeClass {
+      final long slotSize;
+      final long pageSize;
+      // Guarded by this
+      long freeList;
+      long nextSlot;
+      long pageEnd;
+
+      SizeClass(long slotSize) {
+         this.slotSize = slotSize;
+         this.pageSize = Math.max(MIN_PAGE_SIZE, slotSize * MIN_SLOTS_PER_PAGE);
+      }
+
+      synchronized long allocate() {
+         long address = freeList;
+         if (address != 0) {
+            freeList = MEMORY.getLong(address, 0);
+            return address;
+         }
+         if (nextSlot + slotSize > pageEnd) {
+            nextSlot = allocatePage(pageSize);
+            pageEnd = nextSlot + pageSize;
+         }
+         address = nextSlot;
+         nextSlot += slotSize;
+         return address;
+      }
+
+      synchronized void free(long address) {
+         MEMORY.putLong(address, 0, freeList);
+         freeList = address;
+      }
+   }
+}
@@ -2,7 +2,11 @@
 
 import static org.infinispan.commons.util.Util.toStr;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -14,15 +18,20 @@
 import java.util.function.Function;
 
 import org.infinispan.AdvancedCache;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.remote.RemoveExpiredKeysCommand;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.ExpirationIndex;
 import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionInfo;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.LocalizedCacheTopology;
 import org.infinispan.factories.annotations.Inject;
@@ -33,6 +42,7 @@
 import org.infinispan.remoting.RemoteException;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.impl.VoidResponseCollector;
 import org.infinispan.statetransfer.OutdatedTopologyException;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -66,15 +76,21 @@
 
    @Inject protected RpcManager rpcManager;
    @Inject protected DistributionManager distributionManager;
+   @Inject protected CommandsFactory commandsFactory;
 
    private Address localAddress;
    private long timeout;
+   private boolean batchBackupExpirations;
 
    @Override
    public void start() {
       super.start();
       this.localAddress = cache.getCacheManager().getAddress();
       this.timeout = configuration.clustering().remoteTimeout();
+      // The backup owners of a transactional cache, a cache with L1 or a cache with backup sites need more than a
+      // local removal, so every expired entry is still removed with its own clustered RemoveExpiredCommand
+      this.batchBackupExpirations = !configuration.transaction().transactionMode().isTransactional() &&
+            !configuration.clustering().l1().enabled() && !configuration.sites().hasBackups();
 
       configuration.clustering()
                    .attributes().attribute(ClusteringConfiguration.REMOTE_TIMEOUT)
@@ -107,11 +123,16 @@ private boolean purgeInMemoryContents(LocalizedCacheTopology topology) {
       long start = 0;
       int removedEntries = 0;
       AtomicInteger errors = new AtomicInteger();
+      BackupExpirations backupExpirations = null;
       try {
          if (log.isTraceEnabled()) {
             log.tracef("Purging data container on cache %s for topology %d", cacheName, topology.getTopologyId());
             start = timeService.time();
          }
+         if (batchBackupExpirations &&
+               rpcManager.getTransport().getOldestMember().compareTo(RemoveExpiredKeysCommand.SUPPORTED_SINCE) >= 0) {
+            backupExpirations = new BackupExpirations(topology);
+         }
          // We limit how many non blocking expiration removals performed concurrently
          // The addition to the queue shouldn't ever block but rather pollForCompletion when we are waiting for
          // prior tasks to complete
@@ -125,8 +146,24 @@ private boolean purgeInMemoryContents(LocalizedCacheTopology topology) {
             segments = IntSets.immutableEmptySet();
          }
 
-         for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.running().iteratorIncludingExpired(segments);
-              purgeCandidates.hasNext();) {
+         ExpirationIndex<K> index = dataContainer.running().expirationIndex();
+         Iterator<InternalCacheEntry<K, V>> purgeCandidates;
+         if (index != null) {
+            updateReaperLag(index, currentTimeMillis);
+            // Entries of the segments we are not primary for are expired by their primary owner, but the segments are
+            // still polled so that the keys of entries that are gone don't accumulate in the index
+            IntSet nonPrimarySegments = IntSets.mutableEmptySet(index.numSegments());
+            for (int i = 0; i < index.numSegments(); ++i) {
+               if (!segments.contains(i)) {
+                  nonPrimarySegments.set(i);
+               }
+            }
+            indexedPurgeCandidates(index, nonPrimarySegments, currentTimeMillis).forEachRemaining(ignore -> { });
+            purgeCandidates = indexedPurgeCandidates(index, segments, currentTimeMillis);
+         } else {
+            purgeCandidates = dataContainer.running().iteratorIncludingExpired(segments);
+         }
+         while (purgeCandidates.hasNext()) {
             InternalCacheEntry<K, V> ice = purgeCandidates.next();
             if (ice.canExpire()) {
                // Have to synchronize on the entry to make sure we see the value and metadata at the same time
@@ -150,7 +187,9 @@ private boolean purgeInMemoryContents(LocalizedCacheTopology topology) {
                   CompletableFuture<?> stage;
                   // If the entry is expired both wrt lifespan and wrt maxIdle, we perform lifespan expiration as it is cheaper
                   if (expiredMortal) {
-                     stage = handleLifespanExpireEntry(ice.getKey(), value, lifespan, false);
+                     stage = backupExpirations != null ?
+                           backupExpirations.expire(ice.getKey(), value, lifespan) :
+                           handleLifespanExpireEntry(ice.getKey(), value, lifespan, false);
                   } else {
                      stage = handleMaxIdleExpireEntry(ice, false, currentTimeMillis);
                   }
@@ -170,16 +209,46 @@ private boolean purgeInMemoryContents(LocalizedCacheTopology topology) {
                return false;
             }
          }
+         if (backupExpirations != null) {
+            CompletionStages.join(backupExpirations.flush());
+         }
          printResults("Purging data container on cache %s completed in %s and removed %d entries with %d errors", start, removedEntries, errors);
       } catch (InterruptedException e) {
          Thread.currentThread().interrupt();
          printResults("Purging data container on cache %s was interrupted. Total time was: %s and removed %d entries with %d errors", start, removedEntries, errors);
       } catch (Throwable t) {
          log.exceptionPurgingDataContainer(t);
+      } finally {
+         if (backupExpirations != null) {
+            // If the purge stopped early, the entries already removed locally must still be removed from the backup
+            // owners, and any removal that completes later is sent on its own
+            backupExpirations.flush().exceptionally(t -> {
+               log.exceptionPurgingDataContainer(t);
+               return null;
+            });
+         }
       }
       return false;
    }
 
+   /**
+    * Removes the entries a primary owner's reaper found expired via lifespan, sent with a
+    * {@link RemoveExpiredKeysCommand}. An entry is only removed if it still has the same lifespan and it is still
+    * expired, otherwise it was written again after the primary owner expired it.
+    * @param keys the keys of the expired entries
+    * @param lifespans the lifespans that expired
+    * @return a stage that completes when all the entries were processed
+    */
+   public CompletionStage<Void> removeExpiredOnBackup(List<?> keys, List<Long> lifespans) {
+      AdvancedCache<K, V> cacheToUse = cache.withFlags(Flag.CACHE_MODE_LOCAL, Flag.ZERO_LOCK_ACQUISITION_TIMEOUT);
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      for (int i = 0; i < keys.size(); ++i) {
+         // Without a value only the lifespan and the creation time of the local entry are checked
+         stage.dependsOn(removeLifespan(cacheToUse, (K) keys.get(i), null, lifespans.get(i)));
+      }
+      return stage.freeze();
+   }
+
    /**
     * This is a separate method to document the fact that this is invoked in a separate thread and also for code
     * augmentation to find this method if needed
@@ -241,7 +310,7 @@ private boolean pollForCompletion(BlockingQueue<CompletableFuture<?>> queue, lon
    // expiration may occur in the wrong order and events may also be raised in the incorrect order. We assume the caller
    // holds the lock until this CompletableFuture completes. Without lock skipping this would deadlock.
    CompletableFuture<Boolean> handleLifespanExpireEntry(K key, V value, long lifespan, boolean isWrite) {
-      return handleEitherExpiration(key, value, false, lifespan, isWrite);
+      return handleEitherExpiration(key, value, false, lifespan, cacheToUse(isWrite));
    }
 
    CompletableFuture<Boolean> removeLifespan(AdvancedCache<K, V> cacheToUse, K key, V value, long lifespan) {
@@ -249,7 +318,7 @@ CompletableFuture<Boolean> removeLifespan(AdvancedCache<K, V> cacheToUse, K key,
    }
 
    CompletableFuture<Boolean> handleMaxIdleExpireEntry(InternalCacheEntry<K, V> entry, boolean isWrite, long currentTime) {
-      return handleEitherExpiration(entry.getKey(), entry.getValue(), true, entry.getMaxIdle(), isWrite)
+      return handleEitherExpiration(entry.getKey(), entry.getValue(), true, entry.getMaxIdle(), cacheToUse(isWrite))
               .thenCompose(expired -> {
                  if (!expired) {
                     if (log.isTraceEnabled()) {
@@ -267,7 +336,8 @@ CompletableFuture<Boolean> removeMaxIdle(AdvancedCache<K, V> cacheToUse, K key,
       return cacheToUse.removeMaxIdleExpired(key, value);
    }
 
-   private CompletableFuture<Boolean> handleEitherExpiration(K key, V value, boolean maxIdle, long time, boolean isWrite) {
+   private CompletableFuture<Boolean> handleEitherExpiration(K key, V value, boolean maxIdle, long time,
+         AdvancedCache<K, V> cacheToUse) {
       CompletableFuture<Boolean> completableFuture = new CompletableFuture<>();
       CompletableFuture<Boolean> previousFuture = expiring.putIfAbsent(key, completableFuture);
       if (previousFuture == null) {
@@ -275,7 +345,6 @@ private CompletableFuture<Boolean> handleEitherExpiration(K key, V value, boolea
             log.tracef("Submitting expiration removal for key: %s which is maxIdle: %s of: %s", toStr(key), maxIdle, time);
          }
          try {
-            AdvancedCache<K, V> cacheToUse = cacheToUse(isWrite);
             CompletableFuture<Boolean> future;
             if (maxIdle) {
                future = removeMaxIdle(cacheToUse, key, value);
@@ -307,6 +376,89 @@ private CompletableFuture<Boolean> handleEitherExpiration(K key, V value, boolea
       return previousFuture;
    }
 
+   /**
+    * Collects the entries the reaper removed as primary owner and sends them to every backup owner with a single
+    * {@link RemoveExpiredKeysCommand} per {@code REAPER_BATCH_SIZE} entries, instead of removing each entry with
+    * its own clustered {@link org.infinispan.commands.write.RemoveExpiredCommand}.
+    */
+   private class BackupExpirations {
+      private final LocalizedCacheTopology topology;
+      private final AdvancedCache<K, V> localCache;
+      private final Map<Address, Batch> batches = new HashMap<>();
+      private boolean flushed;
+
+      BackupExpirations(LocalizedCacheTopology topology) {
+         this.topology = topology;
+         // The primary owner still acquires the lock, the backup owners are updated by the batches
+         this.localCache = cache.withFlags(Flag.CACHE_MODE_LOCAL, Flag.ZERO_LOCK_ACQUISITION_TIMEOUT);
+      }
+
+      CompletableFuture<Boolean> expire(K key, V value, long lifespan) {
+         return handleEitherExpiration(key, value, false, lifespan, localCache)
+               .thenCompose(removed -> removed == Boolean.TRUE ? add(key, lifespan) : CompletableFutures.completedFalse());
+      }
+
+      private CompletableFuture<Boolean> add(K key, long lifespan) {
+         DistributionInfo info = topology.getDistribution(key);
+         Map<Address, Batch> full = null;
+         synchronized (this) {
+            for (Address backup : info.writeBackups()) {
+               Batch batch = batches.computeIfAbsent(backup, ignore -> new Batch());
+               batch.add(key, lifespan);
+               if (flushed || batch.keys.size() == REAPER_BATCH_SIZE) {
+                  if (full == null) {
+                     full = new HashMap<>();
+                  }
+                  full.put(backup, batches.remove(backup));
+               }
+            }
+         }
+         if (full == null) {
+            return CompletableFutures.completedTrue();
+         }
+         return send(full).thenApply(ignore -> Boolean.TRUE);
+      }
+
+      /**
+       * Sends the entries collected so far, the entries removed afterwards are sent right away.
+       */
+      CompletableFuture<Void> flush() {
+         Map<Address, Batch> pending;
+         synchronized (this) {
+            flushed = true;
+            if (batches.isEmpty()) {
+               return CompletableFutures.completedNull();
+            }
+            pending = new HashMap<>(batches);
+            batches.clear();
+         }
+         return send(pending);
+      }
+
+      private CompletableFuture<Void> send(Map<Address, Batch> pending) {
+         AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+         pending.forEach((backup, batch) -> {
+            if (log.isTraceEnabled()) {
+               log.tracef("Sending %d expired entries of cache %s to backup owner %s", batch.keys.size(), cacheName, backup);
+            }
+            RemoveExpiredKeysCommand command = commandsFactory.buildRemoveExpiredKeysCommand(batch.keys, batch.lifespans);
+            stage.dependsOn(rpcManager.invokeCommand(backup, command, VoidResponseCollector.ignoreLeavers(),
+                  rpcManager.getSyncRpcOptions()));
+         });
+         return stage.freeze().toCompletableFuture();
+      }
+   }
+
+   private static class Batch {
+      final List<Object> keys = new ArrayList<>();
+      final List<Long> lifespans = new ArrayList<>();
+
+      void add(Object key, long lifespan) {
+         keys.add(key);
+         lifespans.add(lifespan);
+      }
+   }
+
    Throwable getMostNestedSuppressedThrowable(Throwable t) {
       Throwable nested = getNestedThrowable(t);
       Throwable[] suppressedNested = nested.getSuppressed();
@@ -2,6 +2,8 @@
 
 import static org.infinispan.util.logging.Log.CONTAINER;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -17,11 +19,15 @@
 import org.infinispan.cache.impl.AbstractDelegatingCache;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.ExpirationIndex;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.factories.KnownComponentNames;
@@ -32,6 +38,9 @@
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
@@ -45,9 +54,15 @@
 
 @ThreadSafe
 @Scope(Scopes.NAMED_CACHE)
+@MBean(objectName = "Expiration", description = "Component that handles expiration of entries in memory and in stores.")
 public class ExpirationManagerImpl<K, V> implements InternalExpirationManager<K, V> {
    private static final Log log = LogFactory.getLog(ExpirationManagerImpl.class);
 
+   /**
+    * How many expired entries the reaper removes from memory at once, deleting them from the stores in a single batch
+    */
+   static final int REAPER_BATCH_SIZE = 1000;
+
    @Inject @ComponentName(KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR)
    protected ScheduledExecutorService executor;
    @Inject protected Configuration configuration;
@@ -72,6 +87,11 @@
    protected ConcurrentMap<K, CompletableFuture<Boolean>> expiring = new ConcurrentHashMap<>();
    protected ScheduledFuture<?> expirationTask;
 
+   /**
+    * How long the oldest entry of the expiration index had been due when the reaper last ran
+    */
+   protected volatile long reaperLag;
+
    private final List<ExpirationConsumer<K, V>> listeners = new CopyOnWriteArrayList<>();
 
    @Start
@@ -105,13 +125,28 @@ public void processExpiration() {
                start = timeService.time();
             }
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.running().iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
+            ExpirationIndex<K> index = dataContainer.running().expirationIndex();
+            Iterator<InternalCacheEntry<K, V>> purgeCandidates;
+            if (index != null) {
+               updateReaperLag(index, currentTimeMillis);
+               purgeCandidates = indexedPurgeCandidates(index, IntSets.immutableRangeSet(index.numSegments()), currentTimeMillis);
+            } else {
+               purgeCandidates = dataContainer.running().iteratorIncludingExpired();
+            }
+            List<InternalCacheEntry<K, V>> batch = new ArrayList<>();
+            while (purgeCandidates.hasNext()) {
                InternalCacheEntry<K, V> e = purgeCandidates.next();
                if (e.isExpired(currentTimeMillis)) {
-                  CompletionStages.join(entryExpiredInMemory(e, currentTimeMillis, false));
+                  batch.add(e);
+                  if (batch.size() == REAPER_BATCH_SIZE) {
+                     CompletionStages.join(entriesExpiredInMemory(batch, currentTimeMillis));
+                     batch.clear();
+                  }
                }
             }
+            if (!batch.isEmpty()) {
+               CompletionStages.join(entriesExpiredInMemory(batch, currentTimeMillis));
+            }
             if (log.isTraceEnabled()) {
                log.tracef("Purging data container completed in %s",
                      Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
@@ -134,6 +169,65 @@ public void processExpiration() {
       }
    }
 
+   /**
+    * Returns the entries whose keys were due in the expiration index for the given segments, polling one segment at a
+    * time as the iterator advances.
+    * <p>
+    * The keys of entries that are no longer in the container or that can no longer expire are dropped from the index.
+    * The keys of the returned entries are added back at their current expiration time, so that entries that were
+    * touched, are not expired yet or could not be removed are visited again by a later run. Entries that are removed
+    * have their key removed from the index by the container as usual.
+    * @param index the expiration index of the data container
+    * @param segments the segments to poll
+    * @param currentTimeMillis the wall clock time of this run
+    * @return the entries that may be expired
+    */
+   protected Iterator<InternalCacheEntry<K, V>> indexedPurgeCandidates(ExpirationIndex<K> index, IntSet segments,
+                                                                       long currentTimeMillis) {
+      InternalDataContainer<K, V> container = dataContainer.running();
+      return segments.stream()
+            .flatMap(segment -> {
+               List<InternalCacheEntry<K, V>> candidates = new ArrayList<>();
+               index.pollExpired(segment, currentTimeMillis, (keys, s) -> {
+                  for (K key : keys) {
+                     InternalCacheEntry<K, V> ice = container.peek(s, key);
+                     if (ice != null && ice.canExpire()) {
+                        candidates.add(ice);
+                     }
+                  }
+               });
+               // Keys are only added back after polling, otherwise the ones that are not expired yet would be polled
+               // again straight away
+               for (InternalCacheEntry<K, V> ice : candidates) {
+                  index.add(segment, ice.getKey(), ice.getExpiryTime());
+               }
+               return candidates.stream();
+            }).iterator();
+   }
+
+   protected void updateReaperLag(ExpirationIndex<K> index, long currentTimeMillis) {
+      long oldestExpiryTime = index.oldestExpiryTime();
+      reaperLag = oldestExpiryTime >= 0 && oldestExpiryTime < currentTimeMillis ? currentTimeMillis - oldestExpiryTime : 0;
+   }
+
+   @ManagedAttribute(
+         description = "Number of keys in the expiration index, including keys of entries that were removed and are yet to be pruned by the reaper. Always 0 if the expiration index is not enabled",
+         displayName = "Expiration index size"
+   )
+   public long getExpirationIndexSize() {
+      ExpirationIndex<K> index = dataContainer.running().expirationIndex();
+      return index != null ? index.size() : 0;
+   }
+
+   @ManagedAttribute(
+         description = "How long the oldest entry of the expiration index had been due when the reaper last ran, to the granularity of the reaper interval. Always 0 if the expiration index is not enabled",
+         displayName = "Expiration reaper lag",
+         units = Units.MILLISECONDS
+   )
+   public long getReaperLag() {
+      return reaperLag;
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
@@ -166,6 +260,53 @@ public CompletableFuture<Boolean> entryExpiredInMemory(InternalCacheEntry<K, V>
       }, "local-expiration").toCompletableFuture();
    }
 
+   /**
+    * Removes the given entries from memory if they are still expired, then deletes them from the stores with a single
+    * batch per store and notifies the listeners of all the removed entries, only waiting once for all of them.
+    * <p>
+    * This is the bulk counterpart of {@link #entryExpiredInMemory(InternalCacheEntry, long, boolean)} used by the
+    * reaper, so it is invoked from the expiration thread, which is allowed to block, and doesn't hop to a blocking
+    * thread for every entry.
+    * @param entries the entries that were found to be expired
+    * @param currentTime the current time in milliseconds
+    * @return a stage that completes when the expired entries were removed from the stores and the listeners notified
+    */
+   protected CompletionStage<Void> entriesExpiredInMemory(Collection<InternalCacheEntry<K, V>> entries, long currentTime) {
+      InternalDataContainer<K, V> container = dataContainer.running();
+      List<InternalCacheEntry<K, V>> expired = new ArrayList<>(entries.size());
+      for (InternalCacheEntry<K, V> entry : entries) {
+         K key = entry.getKey();
+         container.compute(keyPartitioner.getSegment(key), key, ((k, oldEntry, factory) -> {
+            if (oldEntry != null) {
+               synchronized (oldEntry) {
+                  if (!oldEntry.isExpired(currentTime)) {
+                     return oldEntry;
+                  }
+                  expired.add(oldEntry);
+               }
+            }
+            return null;
+         }));
+      }
+      if (expired.isEmpty()) {
+         return CompletableFutures.completedNull();
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Removed %d expired entries from memory, removing them from stores", expired.size());
+      }
+      List<K> keys = new ArrayList<>(expired.size());
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      for (InternalCacheEntry<K, V> oldEntry : expired) {
+         keys.add(oldEntry.getKey());
+         listeners.forEach(l -> l.expired(oldEntry.getKey(), oldEntry.getValue(), oldEntry.getMetadata(),
+               oldEntry.getInternalMetadata())); //for internal use, assume non-blocking
+         stage.dependsOn(cacheNotifier.notifyCacheEntryExpired(oldEntry.getKey(), oldEntry.getValue(),
+               oldEntry.getMetadata(), null));
+      }
+      stage.dependsOn(persistenceManager.deleteBatchFromAllStores(keys, PersistenceManager.AccessMode.BOTH));
+      return stage.freeze();
+   }
+
    @Override
    public CompletionStage<Void> handleInStoreExpirationInternal(K key) {
       // Note since this is invoked without the actual key lock it is entirely possible for a remove to occur
@@ -15,6 +15,7 @@
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.conflict.impl.InternalConflictManager;
+import org.infinispan.container.impl.CacheContainerResizer;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.impl.InternalEntryFactory;
 import org.infinispan.container.versioning.VersionGenerator;
@@ -440,6 +441,7 @@ public void cacheComponents() {
       basicComponentRegistry.getComponent(CacheConfigurationMBean.class);
       basicComponentRegistry.getComponent(InternalConflictManager.class);
       basicComponentRegistry.getComponent(PreloadManager.class);
+      basicComponentRegistry.getComponent(CacheContainerResizer.class);
    }
 
    public final TransactionTable getTransactionTable() {
@@ -10,12 +10,14 @@
 import org.infinispan.configuration.cache.MemoryConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.impl.BoundedSegmentedDataContainer;
+import org.infinispan.container.impl.CompactContainerMap;
 import org.infinispan.container.impl.DefaultDataContainer;
 import org.infinispan.container.impl.DefaultSegmentedDataContainer;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.impl.L1SegmentedDataContainer;
 import org.infinispan.container.impl.PeekableTouchableContainerMap;
 import org.infinispan.container.impl.PeekableTouchableMap;
+import org.infinispan.container.impl.ShardedBoundedSegmentedDataContainer;
 import org.infinispan.container.impl.SharedCaffeineMap;
 import org.infinispan.container.impl.SharedContainerMaps;
 import org.infinispan.container.offheap.BoundedOffHeapDataContainer;
@@ -76,12 +78,14 @@ public Object construct(String componentName) {
                return new OffHeapDataContainer();
             }
          } else if (shouldSegment) {
-            Supplier<PeekableTouchableMap<Object, Object>> mapSupplier =
-                  PeekableTouchableContainerMap::new;
+            Supplier<PeekableTouchableMap<Object, Object>> mapSupplier = memoryConfiguration.compactEntries() ?
+                  CompactContainerMap::new : PeekableTouchableContainerMap::new;
             if (clusteringConfiguration.l1().enabled()) {
                return new L1SegmentedDataContainer<>(mapSupplier, segments);
             }
             return new DefaultSegmentedDataContainer<>(mapSupplier, segments);
+         } else if (memoryConfiguration.compactEntries()) {
+            return DefaultDataContainer.compactDataContainer();
          } else {
             return DefaultDataContainer.unBoundedDataContainer(level);
          }
@@ -93,10 +97,15 @@ public Object construct(String componentName) {
       DataContainer<?, ?> dataContainer;
       if (offHeap) {
          if (shouldSegment) {
-            dataContainer = new SegmentedBoundedOffHeapDataContainer(segments, thresholdSize, sizeInBytes);
+            dataContainer = new SegmentedBoundedOffHeapDataContainer(segments, thresholdSize, sizeInBytes,
+                  memoryConfiguration.offHeapEvictionPolicy(), memoryConfiguration.admissionPolicy());
          } else {
-            dataContainer = new BoundedOffHeapDataContainer(thresholdSize, sizeInBytes);
+            dataContainer = new BoundedOffHeapDataContainer(thresholdSize, sizeInBytes,
+                  memoryConfiguration.offHeapEvictionPolicy(), memoryConfiguration.admissionPolicy());
          }
+      } else if (shouldSegment && memoryConfiguration.evictionShards() > 1) {
+         int shards = Math.min(memoryConfiguration.evictionShards(), segments);
+         dataContainer = new ShardedBoundedSegmentedDataContainer<>(segments, shards, thresholdSize, sizeInBytes);
       } else if (shouldSegment) {
          dataContainer = new BoundedSegmentedDataContainer<>(segments, thresholdSize, sizeInBytes);
       } else {
@@ -19,6 +19,7 @@
 import org.infinispan.remoting.inboundhandler.InboundInvocationHandler;
 import org.infinispan.security.PrincipalRoleMapper;
 import org.infinispan.security.RolePermissionMapper;
+import org.infinispan.statetransfer.StateTransferBandwidth;
 import org.infinispan.statetransfer.StateTransferTracker;
 import org.infinispan.stats.ClusterContainerStats;
 import org.infinispan.stats.ContainerStats;
@@ -58,7 +59,7 @@
       SerializationContextRegistry.class, BlockingManager.class, NonBlockingManager.class,
       RankCalculator.class, EventLoggerNotifier.class, PrincipalRoleMapper.class, RolePermissionMapper.class,
       XSiteCacheMapper.class, XSiteEventsManager.class, SharedContainerMaps.class, DynamicMemoryResizer.class,
-      StateTransferTracker.class,
+      StateTransferTracker.class, StateTransferBandwidth.class,
 })
 @Scope(Scopes.GLOBAL)
 public class EmptyConstructorFactory extends AbstractComponentFactory implements AutoInstantiableFactory {
@@ -117,6 +118,8 @@ else if (componentName.equals(XSiteCacheMapper.class.getName())) {
          return new DynamicMemoryResizer();
       } else if (componentName.equals(StateTransferTracker.class.getName())) {
          return new StateTransferTracker();
+      } else if (componentName.equals(StateTransferBandwidth.class.getName())) {
+         return new StateTransferBandwidth();
       }
 
       throw CONTAINER.factoryCannotConstructComponent(componentName);
@@ -11,9 +11,14 @@
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.io.ByteBufferFactoryImpl;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.container.impl.AdmissionFilter;
+import org.infinispan.container.impl.CacheContainerResizer;
 import org.infinispan.container.offheap.OffHeapEntryFactory;
 import org.infinispan.container.offheap.OffHeapEntryFactoryImpl;
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.SlabOffHeapMemoryAllocator;
 import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.container.versioning.irac.DefaultIracVersionGenerator;
 import org.infinispan.container.versioning.irac.IracVersionGenerator;
@@ -46,6 +51,7 @@
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
 import org.infinispan.reactive.publisher.impl.PublisherHandler;
 import org.infinispan.statetransfer.CommitManager;
+import org.infinispan.statetransfer.StateTransferFlowControl;
 import org.infinispan.statetransfer.StateTransferLock;
 import org.infinispan.statetransfer.StateTransferLockImpl;
 import org.infinispan.stats.ClusterCacheStats;
@@ -88,6 +94,7 @@
                               PersistenceManager.class, PassivationManager.class,
                               PreloadManager.class, BatchContainer.class, EvictionManager.class,
                               TransactionCoordinator.class, RecoveryAdminOperations.class, StateTransferLock.class,
+                              StateTransferFlowControl.class,
                               L1Manager.class, TransactionFactory.class, BackupSender.class,
                               ByteBufferFactory.class, MarshallableEntryFactory.class,
                               RemoteValueRetrievedListener.class, InvocationContextFactory.class, CommitManager.class,
@@ -96,7 +103,8 @@
                               TransactionOriginatorChecker.class, OffHeapEntryFactory.class, OffHeapMemoryAllocator.class,
                               PublisherHandler.class, InvocationHelper.class, TakeOfflineManager.class,
                               IracVersionGenerator.class, BackupReceiver.class, StorageConfigurationManager.class,
-                              XSiteMetricsCollector.class, ClusterCacheStats.class, CacheSpanAttribute.class
+                              XSiteMetricsCollector.class, ClusterCacheStats.class, CacheSpanAttribute.class,
+                              CacheContainerResizer.class, AdmissionFilter.class
 })
 public class EmptyConstructorNamedCacheFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
 
@@ -133,6 +141,8 @@ public Object construct(String componentName) {
          return new RecoveryAdminOperations();
       } else if (componentName.equals(StateTransferLock.class.getName())) {
          return new StateTransferLockImpl();
+      } else if (componentName.equals(StateTransferFlowControl.class.getName())) {
+         return new StateTransferFlowControl();
       } else if (componentName.equals(EvictionManager.class.getName())) {
          return new EvictionManagerImpl<>();
       } else if (componentName.equals(L1Manager.class.getName())) {
@@ -178,7 +188,10 @@ public Object construct(String componentName) {
       } else if (componentName.equals(OffHeapEntryFactory.class.getName())) {
          return new OffHeapEntryFactoryImpl();
       } else if (componentName.equals(OffHeapMemoryAllocator.class.getName())) {
-         return new UnpooledOffHeapMemoryAllocator();
+         MemoryConfiguration memory = configuration.memory();
+         return memory.isOffHeap() && memory.offHeapAllocator() == OffHeapAllocatorType.SLAB ?
+               new SlabOffHeapMemoryAllocator() :
+               new UnpooledOffHeapMemoryAllocator();
       } else if (componentName.equals(ClusterCacheNotifier.class.getName())) {
          return ComponentAlias.of(CacheNotifier.class);
       } else if (componentName.equals(RemoteValueRetrievedListener.class.getName())) {
@@ -210,6 +223,10 @@ public Object construct(String componentName) {
          return new ClusterCacheStatsImpl();
       } else if (componentName.equals(CacheSpanAttribute.class.getName())) {
          return new CacheSpanAttribute(componentRegistry.getCacheName(), configuration);
+      } else if (componentName.equals(CacheContainerResizer.class.getName())) {
+         return new CacheContainerResizer();
+      } else if (componentName.equals(AdmissionFilter.class.getName())) {
+         return new AdmissionFilter();
       }
 
       throw CONTAINER.factoryCannotConstructComponent(componentName);
@@ -5,9 +5,13 @@
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.SHARED;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -148,7 +152,7 @@ public Object visitGetCacheEntryCommand(InvocationContext ctx,
 
    @Override
    public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) {
-      return visitManyDataCommand(ctx, command, command.getKeys());
+      return asyncInvokeNext(ctx, command, loadAllIfNeeded(ctx, command.getKeys(), command));
    }
 
    @Override
@@ -346,6 +350,81 @@ protected CompletionStage<?> loadInContext(InvocationContext ctx, Object key, in
       return cf;
    }
 
+   /**
+    * Same as {@link #loadIfNeeded(InvocationContext, Object, FlagAffectedCommand)} for multiple keys. The keys without
+    * an entry in the data container are loaded together with {@link #loadAllAndStoreInDataContainer(InvocationContext, Map, FlagAffectedCommand)},
+    * so that the stores can read them in bulk.
+    * @param ctx The current invocation's context
+    * @param keys The keys for the entries to look up
+    * @param cmd The command that was called that now wants to query the cache loader
+    * @return null or a CompletionStage that when complete all the entries are loaded in the context
+    */
+   protected final CompletionStage<?> loadAllIfNeeded(InvocationContext ctx, Collection<?> keys, FlagAffectedCommand cmd) {
+      AggregateCompletionStage<Void> stage = null;
+      Map<Integer, List<Object>> keysBySegment = null;
+      Map<Object, CompletableFuture<InternalCacheEntry<K, V>>> loads = null;
+      for (Object key : keys) {
+         int segment = SegmentSpecificCommand.extractSegment(cmd, key, partitioner);
+         if (skipLoad(ctx, key, segment, cmd)) {
+            continue;
+         }
+         CompletionStage<?> innerStage;
+         if (dataContainer.peek(segment, key) != null) {
+            // Present or expired in memory, which the single key load already handles
+            innerStage = loadInContext(ctx, key, segment, cmd);
+         } else {
+            CompletableFuture<InternalCacheEntry<K, V>> cf = new CompletableFuture<>();
+            CompletionStage<InternalCacheEntry<K, V>> otherCF = pendingLoads.putIfAbsent(key, cf);
+            if (otherCF != null) {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Piggybacking on concurrent load for key %s", key);
+               }
+               innerStage = otherCF.thenAcceptAsync(entry -> putInContext(ctx, key, cmd, entry), nonBlockingExecutor);
+            } else {
+               if (loads == null) {
+                  keysBySegment = new HashMap<>();
+                  loads = new HashMap<>();
+               }
+               keysBySegment.computeIfAbsent(segment, s -> new ArrayList<>()).add(key);
+               loads.put(key, cf);
+               innerStage = cf;
+            }
+         }
+         if (!CompletionStages.isCompletedSuccessfully(innerStage)) {
+            if (stage == null) {
+               stage = CompletionStages.aggregateCompletionStage();
+            }
+            stage.dependsOn(innerStage);
+         }
+      }
+      if (loads != null) {
+         loadAllInContext(ctx, keysBySegment, loads, cmd);
+      }
+      return stage != null ? stage.freeze() : null;
+   }
+
+   private void loadAllInContext(InvocationContext ctx, Map<Integer, List<Object>> keysBySegment,
+                                 Map<Object, CompletableFuture<InternalCacheEntry<K, V>>> loads, FlagAffectedCommand cmd) {
+      try {
+         CompletionStage<Map<Object, InternalCacheEntry<K, V>>> result = loadAllAndStoreInDataContainer(ctx, keysBySegment, cmd);
+         if (CompletionStages.isCompletedSuccessfully(result)) {
+            finishLoadAllInContext(ctx, loads, cmd, CompletionStages.join(result), null);
+         } else {
+            result.whenComplete((entries, throwable) -> finishLoadAllInContext(ctx, loads, cmd, entries, throwable));
+         }
+      } catch (Throwable t) {
+         finishLoadAllInContext(ctx, loads, cmd, null, t);
+      }
+   }
+
+   private void finishLoadAllInContext(InvocationContext ctx, Map<Object, CompletableFuture<InternalCacheEntry<K, V>>> loads,
+                                       FlagAffectedCommand cmd, Map<Object, InternalCacheEntry<K, V>> entries, Throwable throwable) {
+      for (Map.Entry<Object, CompletableFuture<InternalCacheEntry<K, V>>> load : loads.entrySet()) {
+         InternalCacheEntry<K, V> value = throwable == null ? entries.get(load.getKey()) : null;
+         finishLoadInContext(ctx, load.getKey(), cmd, load.getValue(), value, throwable);
+      }
+   }
+
    private void finishLoadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd, CompletableFuture<InternalCacheEntry<K, V>> cf, InternalCacheEntry<K, V> value, Throwable throwable) {
       // Make sure we clean up our pendingLoads properly and before completing any responses
       pendingLoads.remove(key);
@@ -383,56 +462,128 @@ public CompletionStage<InternalCacheEntry<K, V>> loadAndStoreInDataContainer(Inv
          log.tracef("Loading entry for key %s", key);
       }
       CompletionStage<InternalCacheEntry<K, V>> resultStage = persistenceManager.<K, V>loadFromAllStores(key, segment,
-            ctx.isOriginLocal(), includeStores).thenApply(me -> {
-         if (me != null) {
-            InternalCacheEntry<K, V> ice = PersistenceUtil.convert(me, iceFactory);
-            if (getStatisticsEnabled()) {
-               cacheLoads.incrementAndGet();
-            }
-            if (log.isTraceEnabled()) {
-               log.tracef("Loaded entry: %s for key %s from store and attempting to insert into data container",
-                     ice, key);
+            ctx.isOriginLocal(), includeStores).thenApply(me -> storeInDataContainer(key, segment, me));
+
+      if (notifier.hasListener(CacheEntryLoaded.class) || notifier.hasListener(CacheEntryActivated.class)) {
+         return resultStage.thenCompose(ice -> {
+            if (ice != null) {
+               return notifyLoaded(ctx, key, ice.getValue(), cmd).thenApply(ignore -> ice);
+            } else {
+               return CompletableFutures.completedNull();
             }
+         });
+      }
+      return resultStage;
+   }
 
-            DataContainer.ComputeAction<K, V> putIfAbsentOrExpired = (k, oldEntry, factory) -> {
-               if (oldEntry != null &&
-                     (!oldEntry.canExpire() || !oldEntry.isExpired(timeService.wallClockTime()))) {
-                  return oldEntry;
-               }
-               if (ice.canExpire()) {
-                  ice.touch(timeService.wallClockTime());
+   /**
+    * Loads the entries for the given keys with a single bulk read of every store and inserts them into the data
+    * container. The keys must not have an entry in the data container.
+    * <p>
+    * With passivation every load must be ordered with the concurrent writes of its key by
+    * {@link #loadAndStoreInDataContainer(InvocationContext, Object, int, FlagAffectedCommand)}, so the keys are then
+    * loaded one by one instead.
+    * @param ctx context for this invocation
+    * @param keysBySegment the keys to load, grouped by segment
+    * @param cmd the command that initiated this load
+    * @return a stage that when complete will have the entries that were found, mapped by key
+    */
+   protected CompletionStage<Map<Object, InternalCacheEntry<K, V>>> loadAllAndStoreInDataContainer(InvocationContext ctx,
+         Map<Integer, List<Object>> keysBySegment, FlagAffectedCommand cmd) {
+      if (activation) {
+         return loadEachAndStoreInDataContainer(ctx, keysBySegment, cmd);
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Loading entries for keys %s", keysBySegment.values());
+      }
+      CompletionStage<Map<Object, InternalCacheEntry<K, V>>> resultStage = persistenceManager.<K, V>loadAllFromAllStores(
+            keysBySegment, ctx.isOriginLocal(), true).thenApply(loaded -> {
+         Map<Object, InternalCacheEntry<K, V>> entries = new HashMap<>();
+         for (Map.Entry<Integer, List<Object>> segmentKeys : keysBySegment.entrySet()) {
+            int segment = segmentKeys.getKey();
+            for (Object key : segmentKeys.getValue()) {
+               InternalCacheEntry<K, V> ice = storeInDataContainer(key, segment, loaded.get(key));
+               if (ice != null) {
+                  entries.put(key, ice);
                }
-               return ice;
-            };
-
-            dataContainer.compute(segment, (K) key, putIfAbsentOrExpired);
-            return ice;
-         } else {
-            if (log.isTraceEnabled()) {
-               log.tracef("Missed entry load for key %s from store", key);
-            }
-            if (getStatisticsEnabled()) {
-               cacheMisses.incrementAndGet();
             }
-            return null;
          }
+         return entries;
       });
 
       if (notifier.hasListener(CacheEntryLoaded.class) || notifier.hasListener(CacheEntryActivated.class)) {
-         return resultStage.thenCompose(ice -> {
-            if (ice != null) {
-               V value = ice.getValue();
-               CompletionStage<Void> notificationStage = sendNotification(key, value, true, ctx, cmd);
-               notificationStage = notificationStage.thenCompose(v -> sendNotification(key, value, false, ctx, cmd));
-               return notificationStage.thenApply(ignore -> ice);
-            } else {
-               return CompletableFutures.completedNull();
+         return resultStage.thenCompose(entries -> {
+            AggregateCompletionStage<Map<Object, InternalCacheEntry<K, V>>> notificationStage =
+                  CompletionStages.aggregateCompletionStage(entries);
+            for (Map.Entry<Object, InternalCacheEntry<K, V>> entry : entries.entrySet()) {
+               notificationStage.dependsOn(notifyLoaded(ctx, entry.getKey(), entry.getValue().getValue(), cmd));
             }
+            return notificationStage.freeze();
          });
       }
       return resultStage;
    }
 
+   // The single key load orders the key with the DataOperationOrderer when passivation is enabled. Ordering the keys
+   // of a bulk load together could deadlock with another bulk load ordering them differently, so every key is ordered
+   // and loaded on its own
+   private CompletionStage<Map<Object, InternalCacheEntry<K, V>>> loadEachAndStoreInDataContainer(InvocationContext ctx,
+         Map<Integer, List<Object>> keysBySegment, FlagAffectedCommand cmd) {
+      Map<Object, InternalCacheEntry<K, V>> entries = new ConcurrentHashMap<>();
+      AggregateCompletionStage<Map<Object, InternalCacheEntry<K, V>>> stage = CompletionStages.aggregateCompletionStage(entries);
+      for (Map.Entry<Integer, List<Object>> segmentKeys : keysBySegment.entrySet()) {
+         int segment = segmentKeys.getKey();
+         for (Object key : segmentKeys.getValue()) {
+            stage.dependsOn(loadAndStoreInDataContainer(ctx, key, segment, cmd).thenAccept(ice -> {
+               if (ice != null) {
+                  entries.put(key, ice);
+               }
+            }));
+         }
+      }
+      return stage.freeze();
+   }
+
+   private InternalCacheEntry<K, V> storeInDataContainer(Object key, int segment, MarshallableEntry<K, V> me) {
+      if (me != null) {
+         InternalCacheEntry<K, V> ice = PersistenceUtil.convert(me, iceFactory);
+         if (getStatisticsEnabled()) {
+            cacheLoads.incrementAndGet();
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Loaded entry: %s for key %s from store and attempting to insert into data container",
+                  ice, key);
+         }
+
+         DataContainer.ComputeAction<K, V> putIfAbsentOrExpired = (k, oldEntry, factory) -> {
+            if (oldEntry != null &&
+                  (!oldEntry.canExpire() || !oldEntry.isExpired(timeService.wallClockTime()))) {
+               return oldEntry;
+            }
+            if (ice.canExpire()) {
+               ice.touch(timeService.wallClockTime());
+            }
+            return ice;
+         };
+
+         dataContainer.compute(segment, (K) key, putIfAbsentOrExpired);
+         return ice;
+      } else {
+         if (log.isTraceEnabled()) {
+            log.tracef("Missed entry load for key %s from store", key);
+         }
+         if (getStatisticsEnabled()) {
+            cacheMisses.incrementAndGet();
+         }
+         return null;
+      }
+   }
+
+   private CompletionStage<Void> notifyLoaded(InvocationContext ctx, Object key, V value, FlagAffectedCommand cmd) {
+      CompletionStage<Void> notificationStage = sendNotification(key, value, true, ctx, cmd);
+      return notificationStage.thenCompose(v -> sendNotification(key, value, false, ctx, cmd));
+   }
+
    private boolean skipLoad(InvocationContext ctx, Object key, int segment, FlagAffectedCommand cmd) {
       CacheEntry<?, ?> e = ctx.lookupEntry(key);
       if (e == null) {
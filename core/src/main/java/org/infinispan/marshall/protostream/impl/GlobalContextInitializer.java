@@ -63,6 +63,7 @@
             org.infinispan.commands.remote.CheckTransactionRpcCommand.class,
             org.infinispan.commands.remote.ClusteredGetAllCommand.class,
             org.infinispan.commands.remote.ClusteredGetCommand.class,
+            org.infinispan.commands.remote.RemoveExpiredKeysCommand.class,
             org.infinispan.commands.remote.recovery.CompleteTransactionCommand.class,
             org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand.class,
             org.infinispan.commands.remote.recovery.GetInDoubtTxInfoCommand.class,
@@ -70,6 +71,7 @@
             org.infinispan.commands.statetransfer.ConflictResolutionStartCommand.class,
             org.infinispan.commands.statetransfer.StateResponseCommand.class,
             org.infinispan.commands.statetransfer.StateTransferCancelCommand.class,
+            org.infinispan.commands.statetransfer.StateTransferGetChecksumsCommand.class,
             org.infinispan.commands.statetransfer.StateTransferGetListenersCommand.class,
             org.infinispan.commands.statetransfer.StateTransferGetTransactionsCommand.class,
             org.infinispan.commands.statetransfer.StateTransferStartCommand.class,
@@ -274,6 +276,7 @@
             org.infinispan.remoting.responses.SuccessfulTransientMortalCacheValueResponse.class,
             org.infinispan.remoting.responses.UnsuccessfulResponse.class,
             org.infinispan.remoting.responses.UnsureResponse.class,
+            org.infinispan.remoting.transport.jgroups.CommandBatch.class,
             org.infinispan.statetransfer.StateChunk.class,
             org.infinispan.statetransfer.TransactionInfo.class,
             org.infinispan.stats.impl.ClusterCacheStatsImpl.DistributedCacheStatsCallable.class,
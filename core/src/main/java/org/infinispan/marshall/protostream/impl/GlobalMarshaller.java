@@ -2,6 +2,9 @@
 
 import static org.infinispan.util.logging.Log.CONTAINER;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.marshall.ImmutableProtoStreamMarshaller;
 import org.infinispan.factories.GlobalComponentRegistry;
@@ -93,6 +96,11 @@ public byte[] objectToByteBuffer(Object obj, int estimatedSize) {
       return super.objectToByteBuffer(wrap(obj), estimatedSize);
    }
 
+   @Override
+   public void writeObject(Object o, OutputStream out) throws IOException {
+      super.writeObject(wrap(o), out);
+   }
+
    private Object wrap(Object obj) {
       if (obj == null)
          return null;
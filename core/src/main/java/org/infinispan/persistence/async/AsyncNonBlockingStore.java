@@ -2,14 +2,19 @@
 
 import java.lang.invoke.MethodHandles;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
@@ -19,6 +24,9 @@
 import org.infinispan.commons.IllegalLifecycleStateException;
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.reactive.RxJavaInterop;
+import org.infinispan.commons.stat.MetricInfo;
+import org.infinispan.commons.stat.TimerTracker;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
@@ -26,7 +34,12 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.configuration.global.GlobalMetricsConfiguration;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.metrics.Constants;
+import org.infinispan.metrics.impl.MetricUtils;
+import org.infinispan.metrics.impl.MetricsCollector;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
@@ -56,6 +69,11 @@
  * subsequent write will be added to the queue, but the returned Stage will not complete until the current batch completes
  * in an attempt to provide some backpressure to slow writes.
  * <p>
+ * When a flush interval is configured, a batch is not started immediately, but after the interval elapses from the
+ * first pending write, so that repeated writes to the same key during the interval only reach the delegate store once.
+ * The batch is started earlier if the estimated size of the pending writes reaches the configured flush max bytes, if
+ * the number of pending writes reaches the modification queue size or if a clear is pending.
+ * <p>
  * Read operations may be resolved by this store immediately if the given key is still being updated in the
  * delegate store or if it is enqueued for the next batch. If the key is in neither it will query the underlying store
  * to acquire it.
@@ -71,6 +89,9 @@
    private Executor nonBlockingExecutor;
    private int segmentCount;
    private int modificationQueueSize;
+   private long flushInterval;
+   private int flushMaxBytes;
+   private TimeService timeService;
    private PersistenceConfiguration persistenceConfiguration;
    private AsyncStoreConfiguration asyncConfiguration;
 
@@ -104,6 +125,23 @@
    // True if there is an outstanding clear that is being ran on the delegating store
    @GuardedBy("this")
    private boolean isReplicatingClear;
+   // Estimated size of the pending modifications, only tracked when a flush interval is configured
+   @GuardedBy("this")
+   private long pendingBytes;
+   // Time in nanoseconds when the first of the pending modifications was submitted
+   @GuardedBy("this")
+   private long pendingSince;
+   // Non null while the next batch is waiting for the flush interval to elapse
+   @GuardedBy("this")
+   private ScheduledFuture<?> scheduledFlush;
+   @GuardedBy("this")
+   private long submittedModifications;
+   // Modifications that replaced a pending modification for the same key and were never written by themselves
+   @GuardedBy("this")
+   private long coalescedModifications;
+   private volatile TimerTracker flushTimes = TimerTracker.NO_OP;
+   private Set<Object> metricIds;
+   private InitializationContext ctx;
    private volatile boolean stopped = true;
 
    public AsyncNonBlockingStore(NonBlockingStore<K, V> actual) {
@@ -128,9 +166,77 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       segmentCount = storeConfiguration.segmented() ? cacheConfiguration.clustering().hash().numSegments() : 1;
       asyncConfiguration = storeConfiguration.async();
       modificationQueueSize = asyncConfiguration.modificationQueueSize();
+      flushInterval = asyncConfiguration.flushInterval();
+      flushMaxBytes = asyncConfiguration.flushMaxBytes();
       nonBlockingExecutor = ctx.getNonBlockingExecutor();
+      timeService = ctx.getTimeService();
+      this.ctx = ctx;
       stopped = false;
-      return actual.start(ctx);
+      return actual.start(ctx).thenRun(this::registerMetrics);
+   }
+
+   private void registerMetrics() {
+      MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+      if (metricsCollector == null) {
+         return;
+      }
+      Map<String, String> tags = Map.of("store", actual.getClass().getSimpleName());
+      Collection<MetricInfo> metrics = metrics(ctx.getGlobalConfiguration().metrics(), tags);
+      metricIds = new HashSet<>(metricsCollector.registerMetrics(this, metrics,
+            Constants.INFINISPAN_PREFIX + "write_behind_", ctx.getCache().getName()));
+   }
+
+   private void unregisterMetrics() {
+      if (metricIds != null) {
+         MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+         metricIds.forEach(metricsCollector::unregisterMetric);
+         metricIds = null;
+      }
+   }
+
+   static Collection<MetricInfo> metrics(GlobalMetricsConfiguration configuration, Map<String, String> tags) {
+      String flushDescription = "Time spent writing a batch of modifications to the delegate store";
+      return List.of(
+            MetricUtils.<AsyncNonBlockingStore<?, ?>>createGauge("QueueSize",
+                  "Number of modifications waiting to be written or being written to the delegate store",
+                  AsyncNonBlockingStore::getQueueSize, tags),
+            MetricUtils.<AsyncNonBlockingStore<?, ?>>createGauge("PendingBytes",
+                  "Estimated size of the modifications waiting for the flush interval to elapse",
+                  AsyncNonBlockingStore::getPendingBytes, tags),
+            MetricUtils.<AsyncNonBlockingStore<?, ?>>createGauge("Modifications",
+                  "Number of write and remove operations submitted to the write-behind queue",
+                  AsyncNonBlockingStore::getSubmittedModifications, tags),
+            MetricUtils.<AsyncNonBlockingStore<?, ?>>createGauge("CoalescedModifications",
+                  "Number of write and remove operations replaced by a later operation on the same key before being written",
+                  AsyncNonBlockingStore::getCoalescedModifications, tags),
+            MetricUtils.<AsyncNonBlockingStore<?, ?>>createGauge("CoalescingRatio",
+                  "Ratio of the submitted write and remove operations that were never written to the delegate store",
+                  AsyncNonBlockingStore::getCoalescingRatio, tags),
+            configuration.histograms() ?
+                  MetricUtils.<AsyncNonBlockingStore<?, ?>>createTimer("FlushTimes", flushDescription,
+                        (store, tracker) -> store.flushTimes = tracker, tags) :
+                  MetricUtils.<AsyncNonBlockingStore<?, ?>>createFunctionTimer("FlushTimes", flushDescription,
+                        (store, tracker) -> store.flushTimes = tracker, tags));
+   }
+
+   synchronized int getQueueSize() {
+      return pendingModifications.size() + replicatingModifications.size();
+   }
+
+   synchronized long getPendingBytes() {
+      return pendingBytes;
+   }
+
+   synchronized long getSubmittedModifications() {
+      return submittedModifications;
+   }
+
+   synchronized long getCoalescedModifications() {
+      return coalescedModifications;
+   }
+
+   synchronized double getCoalescingRatio() {
+      return submittedModifications == 0 ? 0 : (double) coalescedModifications / submittedModifications;
    }
 
    @Override
@@ -145,6 +251,7 @@ public CompletionStage<Void> stop() {
             log.tracef("Stopping store %s from async store", actual);
          }
          stopped = true;
+         unregisterMetrics();
          return actual.stop();
       });
    }
@@ -154,8 +261,14 @@ public CompletionStage<Void> stop() {
     */
    private CompletionStage<Void> awaitQuiescence() {
       CompletionStage<Void> stage;
+      boolean flushNow;
       synchronized (this) {
          stage = batchFuture;
+         // Don't wait for the flush interval to elapse
+         flushNow = cancelScheduledFlush();
+      }
+      if (flushNow) {
+         submitTask();
       }
       if (stage == null) {
          return CompletableFutures.completedNull();
@@ -167,14 +280,67 @@ private CompletionStage<Void> awaitQuiescence() {
    }
 
    void putModification(Object key, Modification modification) {
-      pendingModifications.put(key, modification);
+      if (pendingModifications.isEmpty()) {
+         pendingSince = timeService.time();
+      }
+      Modification previous = pendingModifications.put(key, modification);
+      submittedModifications++;
+      if (previous != null) {
+         coalescedModifications++;
+      }
+      if (flushInterval > 0) {
+         pendingBytes += modification.estimateSize() - (previous != null ? previous.estimateSize() : 0);
+      }
    }
 
    void putClearModification() {
       pendingModifications.clear();
+      pendingBytes = 0;
       hasPendingClear = true;
    }
 
+   /**
+    * @return true if the pending modifications should wait for the flush interval to elapse before being written
+    */
+   @GuardedBy("this")
+   private boolean shouldDelayFlush() {
+      return flushInterval > 0 && !hasPendingClear && pendingBytes < flushMaxBytes &&
+            pendingModifications.size() < modificationQueueSize;
+   }
+
+   @GuardedBy("this")
+   private void scheduleFlush() {
+      long delay = Math.max(0, flushInterval - timeService.timeDuration(pendingSince, TimeUnit.MILLISECONDS));
+      if (log.isTraceEnabled()) {
+         log.tracef("Delaying batch %s by %d ms", System.identityHashCode(pendingModifications), delay);
+      }
+      // The scheduled task can't run before the field is set, as it needs the lock we are holding
+      scheduledFlush = scheduler.schedule(this::runScheduledFlush, delay, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * @return true if the scheduled flush was cancelled before running, in which case the caller must submit the batch
+    */
+   @GuardedBy("this")
+   private boolean cancelScheduledFlush() {
+      if (scheduledFlush != null && scheduledFlush.cancel(false)) {
+         scheduledFlush = null;
+         return true;
+      }
+      return false;
+   }
+
+   private void runScheduledFlush() {
+      synchronized (this) {
+         if (scheduledFlush == null) {
+            // Flushed early by a writer or by stop
+            return;
+         }
+         scheduledFlush = null;
+      }
+      submitTask();
+   }
+
    /**
     * This method submits a batch of modifications to the underlying store and completes {@code batchFuture}
     * when the modifications are done.
@@ -202,6 +368,7 @@ private void submitTask() {
          isReplicatingClear = hasPendingClear;
          ourClearToReplicate = hasPendingClear;
          hasPendingClear = false;
+         pendingBytes = 0;
       }
 
       CompletionStage<Void> asyncBatchStage;
@@ -224,8 +391,10 @@ private void submitTask() {
                log.tracef("Sending batch of %d write/remove operations to underlying store with id %s", ourModificationsToReplicate.size(),
                      System.identityHashCode(ourModificationsToReplicate));
             }
+            long start = timeService.time();
             return retry(() -> replicateModifications(ourModificationsToReplicate), persistenceConfiguration.connectionAttempts())
                   .whenComplete((ignore2, t) -> {
+               flushTimes.update(timeService.timeDuration(start, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
                synchronized (this) {
                   replicatingModifications = Collections.emptyMap();
                }
@@ -240,9 +409,13 @@ private void submitTask() {
          boolean submitNewBatch;
          CompletableFuture<Void> future;
          synchronized (this) {
-            submitNewBatch = !pendingModifications.isEmpty() || hasPendingClear;
+            boolean hasPending = !pendingModifications.isEmpty() || hasPendingClear;
             future = batchFuture;
-            batchFuture = submitNewBatch ? new CompletableFuture<>() : null;
+            batchFuture = hasPending ? new CompletableFuture<>() : null;
+            submitNewBatch = hasPending && !shouldDelayFlush();
+            if (hasPending && !submitNewBatch) {
+               scheduleFlush();
+            }
          }
          if (t != null) {
             future.completeExceptionally(t);
@@ -421,6 +594,38 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return actual.load(segment, key);
    }
 
+   @Override
+   public CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+      assertNotStopped();
+      Map<Object, MarshallableEntry<K, V>> pendingEntries = new HashMap<>();
+      Map<Integer, List<Object>> keysToLoad = new HashMap<>();
+      for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+         for (Object key : segmentKeys.getValue()) {
+            CompletionStage<MarshallableEntry<K, V>> pendingStage = getStageFromPending(key);
+            if (pendingStage != null) {
+               // Pending modifications are always completed stages
+               MarshallableEntry<K, V> entry = CompletionStages.join(pendingStage);
+               if (entry != null) {
+                  pendingEntries.put(key, entry);
+               }
+            } else {
+               keysToLoad.computeIfAbsent(segmentKeys.getKey(), ignore -> new ArrayList<>()).add(key);
+            }
+         }
+      }
+      if (keysToLoad.isEmpty()) {
+         return CompletableFuture.completedFuture(pendingEntries);
+      }
+      return actual.loadAll(keysToLoad).thenApply(entries -> {
+         if (pendingEntries.isEmpty()) {
+            return entries;
+         }
+         Map<Object, MarshallableEntry<K, V>> allEntries = new HashMap<>(entries);
+         allEntries.putAll(pendingEntries);
+         return allEntries;
+      });
+   }
+
    private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key) {
       Object wrappedKey = wrapKeyIfNeeded(key);
       Map<Object, Modification> modificationsToReplicate;
@@ -472,7 +677,7 @@ public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublis
                   .concatMapCompletable(key -> Completable.fromCompletionStage(submitModification(new RemoveModification(segmentToUse(sp.getSegment()), key))), publisherCount));
       Completable modifyCompletable = Flowable.fromPublisher(writePublisher)
             .flatMapCompletable(sp -> Flowable.fromPublisher(sp)
-                  .concatMapCompletable(me -> Completable.fromCompletionStage(submitModification(new PutModification(segmentToUse(sp.getSegment()), me))), publisherCount));
+                  .concatMapCompletable(me -> Completable.fromCompletionStage(submitModification(new PutModification(segmentToUse(sp.getSegment()), me, flushInterval > 0))), publisherCount));
       return removeCompletable.mergeWith(modifyCompletable)
             .toCompletionStage(null);
    }
@@ -492,9 +697,15 @@ CompletionStage<Void> submitModification(Modification modification) {
          }
          modification.apply(this);
 
-         startNewBatch = batchFuture == null;
-         if (startNewBatch) {
+         if (batchFuture == null) {
             batchFuture = new CompletableFuture<>();
+            startNewBatch = !shouldDelayFlush();
+            if (!startNewBatch) {
+               scheduleFlush();
+            }
+         } else {
+            // Flush early once the pending modifications are over the thresholds
+            startNewBatch = !shouldDelayFlush() && cancelScheduledFlush();
          }
 
          int queueSize = pendingModifications.size() + replicatingModifications.size();
@@ -515,7 +726,7 @@ CompletionStage<Void> submitModification(Modification modification) {
    @Override
    public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> entry) {
       assertNotStopped();
-      return submitModification(new PutModification(segmentToUse(segment), entry));
+      return submitModification(new PutModification(segmentToUse(segment), entry, flushInterval > 0));
    }
 
    @Override
@@ -553,6 +764,12 @@ public CompletionStage<Void> removeSegments(IntSet segments) {
       assertNotStopped();
       synchronized (this) {
          pendingModifications.values().removeIf(modification -> segments.contains(modification.getSegment()));
+         if (flushInterval > 0) {
+            pendingBytes = 0;
+            for (Modification modification : pendingModifications.values()) {
+               pendingBytes += modification.estimateSize();
+            }
+         }
       }
       return actual.removeSegments(segments);
    }
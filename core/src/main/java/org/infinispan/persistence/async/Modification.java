@@ -29,4 +29,13 @@ interface Modification {
     * @return a stage that represents the modification
     */
    <K, V> CompletionStage<MarshallableEntry<K, V>> asStage();
+
+   /**
+    * Returns an estimate of the number of bytes written to the store by this modification. It is invoked while the
+    * store lock is held, so it must not do any expensive work such as marshalling.
+    * @return the estimated size in bytes
+    */
+   default int estimateSize() {
+      return 0;
+   }
 }
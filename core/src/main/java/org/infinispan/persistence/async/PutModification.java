@@ -3,15 +3,27 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
+import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.persistence.spi.MarshallableEntry;
 
 class PutModification implements Modification {
    private final int segment;
    private final MarshallableEntry entry;
+   private final int size;
 
-   PutModification(int segment, MarshallableEntry entry) {
+   /**
+    * @param segment the segment of the entry
+    * @param entry the entry to write
+    * @param estimateSize whether the size of the entry is needed, which is only the case when the store coalesces
+    *                     writes for a flush interval. Otherwise {@link #estimateSize()} returns 0.
+    */
+   PutModification(int segment, MarshallableEntry entry, boolean estimateSize) {
       this.segment = segment;
       this.entry = entry;
+      // Estimated here as it may marshall the entry, which must not happen while the modification is queued under
+      // the store lock. The entry keeps the marshalled form, so a store writing it doesn't marshall it again.
+      this.size = estimateSize ? length(entry.getKeyBytes()) + length(entry.getValueBytes()) +
+            length(entry.getMetadataBytes()) + length(entry.getInternalMetadataBytes()) : 0;
    }
 
    @Override
@@ -30,6 +42,15 @@ public <K, V> CompletionStage<MarshallableEntry<K, V>> asStage() {
       return CompletableFuture.completedFuture(entry);
    }
 
+   @Override
+   public int estimateSize() {
+      return size;
+   }
+
+   private static int length(ByteBuffer buffer) {
+      return buffer != null ? buffer.getLength() : 0;
+   }
+
    @SuppressWarnings("unchecked")
    public <K, V> MarshallableEntry<K, V> getEntry() {
       return entry;
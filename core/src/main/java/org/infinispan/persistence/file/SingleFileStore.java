@@ -13,6 +13,8 @@
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -23,11 +25,14 @@
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -37,6 +42,7 @@
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.spi.OffHeapMemory;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.IntSet;
@@ -45,8 +51,11 @@
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.AbstractSegmentedStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.TransactionConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.container.versioning.SimpleClusteredVersion;
 import org.infinispan.container.versioning.irac.IracEntryVersion;
 import org.infinispan.container.versioning.irac.TopologyIracVersion;
@@ -93,6 +102,9 @@
  * is used as a cache where loss of data in the cache store does not lead to
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
+  * Alternatively, the index can be kept off-heap with {@link SingleFileStoreConfigurationBuilder#indexStorage(StorageType)},
+ * in which case only the serialized keys and the file positions are kept, in native memory, and the keys are
+ * deserialized only when iterating.
   * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -153,6 +165,10 @@
    private BlockingManager blockingManager;
    private boolean segmented;
    private int actualNumSegments;
+   private boolean offHeapIndex;
+   private OffHeapMemoryAllocator allocator;
+   // The FileEntry instances of the off-heap index with readers, so that all readers lock the same instance
+   private ConcurrentMap<Long, FileEntry> lockedEntries;
 
    public static File getStoreFile(String directoryPath, String cacheName) {
       return new File(new File(directoryPath), cacheName + ".dat");
@@ -174,6 +190,11 @@ public CompletionStage<Void> start(InitializationContext ctx) {
          actualNumSegments = 1;
       }
 
+      offHeapIndex = configuration.indexStorage() == StorageType.OFF_HEAP;
+      if (offHeapIndex) {
+         allocator = new UnpooledOffHeapMemoryAllocator();
+         lockedEntries = new ConcurrentHashMap<>();
+      }
       entries = new Map[actualNumSegments];
       freeList = Collections.synchronizedSortedSet(new TreeSet<>());
 
@@ -329,6 +350,9 @@ private void blockingStop() {
             // reset state
             channel.close();
             channel = null;
+            for (Map<K, FileEntry> segmentEntries : entries) {
+               disposeIndex(segmentEntries);
+            }
             entries = null;
             freeList = null;
          }
@@ -968,7 +992,13 @@ private void write(int segment, MarshallableEntry<? extends K, ? extends V> mars
             log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
 
          // add the new entry to in-memory index
-         FileEntry oldEntry = segmentEntries.put(marshalledEntry.getKey(), newEntry);
+         FileEntry oldEntry;
+         if (segmentEntries instanceof OffHeapEntries offHeapEntries) {
+            // Reuse the serialized key instead of serializing it again
+            oldEntry = offHeapEntries.put(marshalledEntry.getKey(), key, newEntry);
+         } else {
+            oldEntry = segmentEntries.put(marshalledEntry.getKey(), newEntry);
+         }
          // in case we replaced an entry, add to freeList
          free(oldEntry);
       } catch (Exception e) {
@@ -1576,8 +1606,12 @@ private void blockingAddSegments(IntSet segments) {
          for (int segment : segments) {
             if (entries[segment] != null)
                continue;
-            Map<K, FileEntry> entryMap = new HashMap<>();
-            entries[segment] = Collections.synchronizedMap(entryMap);
+            if (offHeapIndex) {
+               entries[segment] = new OffHeapEntries();
+            } else {
+               Map<K, FileEntry> entryMap = new HashMap<>();
+               entries[segment] = Collections.synchronizedMap(entryMap);
+            }
          }
       } finally {
          resizeLock.unlockWrite(stamp);
@@ -1612,6 +1646,7 @@ private void blockingRemoveSegments(IntSet segments) {
             for (FileEntry fileEntry : removedSegment.values()) {
                free(fileEntry);
             }
+            disposeIndex(removedSegment);
          }
       } catch (IOException e) {
          throw new PersistenceException(e);
@@ -1621,6 +1656,373 @@ private void blockingRemoveSegments(IntSet segments) {
       processFreeEntries();
    }
 
+   private void disposeIndex(Map<K, FileEntry> segmentEntries) {
+      if (offHeapIndex && segmentEntries != null) {
+         ((OffHeapEntries) segmentEntries).dispose();
+      }
+   }
+
+   long getIndexOffHeapMemory() {
+      return allocator != null ? allocator.getAllocatedAmount() : 0;
+   }
+
+   /**
+    * Index of a segment kept in native memory, as an open addressing hash table with linear probing.
+    * <p>
+    * Every key is stored in a separately allocated record with its {@link Object#hashCode()}, its serialized form and
+    * the fields of its {@link FileEntry}, and the table holds the addresses of the records. Lookups first compare the
+    * hash codes, and only serialize the key to compare it with a record that has the same hash code, so a lookup of a
+    * missing key rarely serializes it. Writes pass the serialized key they already have. Keys are only deserialized
+    * when iterating the entries, in {@link Map.Entry#getKey()}.
+    * <p>
+    * Like {@link Collections#synchronizedMap(Map)}, the map is synchronized on itself and iterating requires holding
+    * its monitor.
+    */
+   private class OffHeapEntries extends AbstractMap<K, FileEntry> {
+      private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
+      private static final int INITIAL_CAPACITY = 64;
+
+      /*
+       * 8 bytes - file offset
+       * 8 bytes - expiration time
+       * 4 bytes - hash code of the key
+       * 4 bytes - serialized key length
+       * 4 bytes - entry size
+       * 4 bytes - key length in the file
+       * 4 bytes - value length
+       * 4 bytes - metadata length
+       * 4 bytes - internal metadata length
+       * serialized key
+       */
+      private static final int FILE_OFFSET_OFFSET = 0;
+      private static final int EXPIRY_TIME_OFFSET = 8;
+      private static final int HASH_OFFSET = 16;
+      private static final int KEY_BYTES_LENGTH_OFFSET = 20;
+      private static final int SIZE_OFFSET = 24;
+      private static final int KEY_LENGTH_OFFSET = 28;
+      private static final int DATA_LENGTH_OFFSET = 32;
+      private static final int METADATA_LENGTH_OFFSET = 36;
+      private static final int INTERNAL_METADATA_LENGTH_OFFSET = 40;
+      private static final int KEY_BYTES_OFFSET = 44;
+
+      private long table;
+      private int capacity;
+      private int size;
+
+      OffHeapEntries() {
+         allocateTable(INITIAL_CAPACITY);
+      }
+
+      private void allocateTable(int capacity) {
+         this.capacity = capacity;
+         table = allocator.allocate((long) capacity * Long.BYTES);
+         MEMORY.setMemory(table, (long) capacity * Long.BYTES, (byte) 0);
+      }
+
+      private long address(int slot) {
+         return MEMORY.getLong(table, (long) slot * Long.BYTES);
+      }
+
+      private void setAddress(int slot, long address) {
+         MEMORY.putLong(table, (long) slot * Long.BYTES, address);
+      }
+
+      private int home(int hash) {
+         return hash & (capacity - 1);
+      }
+
+      private org.infinispan.commons.io.ByteBuffer toBytes(Object key) {
+         try {
+            return ctx.getPersistenceMarshaller().objectToBuffer(key);
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         }
+      }
+
+      /**
+       * @param keyBytes the serialized key, or {@code null} to serialize it only if a record has the same hash code
+       * @return the slot of the key, or the complement of the empty slot where it should be inserted
+       */
+      private int find(Object key, org.infinispan.commons.io.ByteBuffer keyBytes) {
+         int hash = key.hashCode();
+         for (int slot = home(hash); ; slot = (slot + 1) & (capacity - 1)) {
+            long address = address(slot);
+            if (address == 0)
+               return ~slot;
+            if (MEMORY.getInt(address, HASH_OFFSET) == hash) {
+               if (keyBytes == null) {
+                  keyBytes = toBytes(key);
+               }
+               if (keyEquals(address, keyBytes))
+                  return slot;
+            }
+         }
+      }
+
+      private boolean keyEquals(long address, org.infinispan.commons.io.ByteBuffer keyBytes) {
+         int length = keyBytes.getLength();
+         if (MEMORY.getInt(address, KEY_BYTES_LENGTH_OFFSET) != length)
+            return false;
+         byte[] buf = keyBytes.getBuf();
+         int offset = keyBytes.getOffset();
+         for (int i = 0; i < length; ++i) {
+            if (MEMORY.getByte(address, KEY_BYTES_OFFSET + i) != buf[offset + i])
+               return false;
+         }
+         return true;
+      }
+
+      private FileEntry fileEntry(long address) {
+         long offset = MEMORY.getLong(address, FILE_OFFSET_OFFSET);
+         // A reader may hold the lock of an instance created by a previous lookup
+         FileEntry locked = lockedEntries.get(offset);
+         if (locked != null)
+            return locked;
+         return new FileEntry(offset, MEMORY.getInt(address, SIZE_OFFSET), MEMORY.getInt(address, KEY_LENGTH_OFFSET),
+               MEMORY.getInt(address, DATA_LENGTH_OFFSET), MEMORY.getInt(address, METADATA_LENGTH_OFFSET),
+               MEMORY.getInt(address, INTERNAL_METADATA_LENGTH_OFFSET), MEMORY.getLong(address, EXPIRY_TIME_OFFSET),
+               lockedEntries);
+      }
+
+      private void writeFileEntry(long address, FileEntry fe) {
+         MEMORY.putLong(address, FILE_OFFSET_OFFSET, fe.offset);
+         MEMORY.putInt(address, SIZE_OFFSET, fe.size);
+         MEMORY.putInt(address, KEY_LENGTH_OFFSET, fe.keyLen);
+         MEMORY.putInt(address, DATA_LENGTH_OFFSET, fe.dataLen);
+         MEMORY.putInt(address, METADATA_LENGTH_OFFSET, fe.metadataLen);
+         MEMORY.putInt(address, INTERNAL_METADATA_LENGTH_OFFSET, fe.internalMetadataLen);
+         MEMORY.putLong(address, EXPIRY_TIME_OFFSET, fe.expiryTime);
+      }
+
+      private K readKey(long address) {
+         byte[] keyBytes = new byte[MEMORY.getInt(address, KEY_BYTES_LENGTH_OFFSET)];
+         MEMORY.getBytes(address, KEY_BYTES_OFFSET, keyBytes, 0, keyBytes.length);
+         try {
+            return (K) ctx.getPersistenceMarshaller().objectFromByteBuffer(keyBytes);
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         }
+      }
+
+      private void deallocate(long address) {
+         allocator.deallocate(address, KEY_BYTES_OFFSET + MEMORY.getInt(address, KEY_BYTES_LENGTH_OFFSET));
+      }
+
+      @Override
+      public synchronized FileEntry get(Object key) {
+         int slot = find(key, null);
+         return slot >= 0 ? fileEntry(address(slot)) : null;
+      }
+
+      @Override
+      public synchronized boolean containsKey(Object key) {
+         return find(key, null) >= 0;
+      }
+
+      @Override
+      public FileEntry put(K key, FileEntry fe) {
+         return put(key, toBytes(key), fe);
+      }
+
+      /**
+       * Same as {@link #put(Object, FileEntry)}, with the key already serialized by the persistence marshaller.
+       */
+      synchronized FileEntry put(K key, org.infinispan.commons.io.ByteBuffer keyBytes, FileEntry fe) {
+         int slot = find(key, keyBytes);
+         if (slot >= 0) {
+            // The key doesn't change, so the record can be updated in place
+            long address = address(slot);
+            FileEntry previous = fileEntry(address);
+            writeFileEntry(address, fe);
+            return previous;
+         }
+
+         int length = keyBytes.getLength();
+         long address = allocator.allocate(KEY_BYTES_OFFSET + length);
+         MEMORY.putInt(address, HASH_OFFSET, key.hashCode());
+         MEMORY.putInt(address, KEY_BYTES_LENGTH_OFFSET, length);
+         MEMORY.putBytes(keyBytes.getBuf(), keyBytes.getOffset(), address, KEY_BYTES_OFFSET, length);
+         writeFileEntry(address, fe);
+         setAddress(~slot, address);
+         if (++size > capacity * 3L / 4) {
+            resize(capacity * 2);
+         }
+         return null;
+      }
+
+      private void resize(int newCapacity) {
+         long oldTable = table;
+         int oldCapacity = capacity;
+         allocateTable(newCapacity);
+         for (int i = 0; i < oldCapacity; ++i) {
+            long address = MEMORY.getLong(oldTable, (long) i * Long.BYTES);
+            if (address != 0) {
+               int slot = home(MEMORY.getInt(address, HASH_OFFSET));
+               while (address(slot) != 0) {
+                  slot = (slot + 1) & (capacity - 1);
+               }
+               setAddress(slot, address);
+            }
+         }
+         allocator.deallocate(oldTable, (long) oldCapacity * Long.BYTES);
+      }
+
+      @Override
+      public synchronized FileEntry remove(Object key) {
+         int slot = find(key, null);
+         if (slot < 0)
+            return null;
+
+         long address = address(slot);
+         FileEntry previous = fileEntry(address);
+         removeSlot(slot);
+         return previous;
+      }
+
+      private void removeSlot(int slot) {
+         deallocate(address(slot));
+         size--;
+         // Shift back the following records of the cluster that can't be found any more with the slot empty
+         int mask = capacity - 1;
+         int empty = slot;
+         for (int next = (slot + 1) & mask; ; next = (next + 1) & mask) {
+            long address = address(next);
+            if (address == 0)
+               break;
+            int home = home(MEMORY.getInt(address, HASH_OFFSET));
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+               setAddress(empty, address);
+               empty = next;
+            }
+         }
+         setAddress(empty, 0);
+      }
+
+      @Override
+      public synchronized int size() {
+         return size;
+      }
+
+      @Override
+      public synchronized void clear() {
+         for (int i = 0; i < capacity; ++i) {
+            long address = address(i);
+            if (address != 0) {
+               deallocate(address);
+            }
+         }
+         allocator.deallocate(table, (long) capacity * Long.BYTES);
+         allocateTable(INITIAL_CAPACITY);
+         size = 0;
+      }
+
+      /**
+       * Releases the native memory, the map can't be used afterwards.
+       */
+      synchronized void dispose() {
+         if (table == 0)
+            return;
+         clear();
+         allocator.deallocate(table, (long) capacity * Long.BYTES);
+         table = 0;
+      }
+
+      @Override
+      public Set<Entry<K, FileEntry>> entrySet() {
+         return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, FileEntry>> iterator() {
+               return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+               return OffHeapEntries.this.size();
+            }
+         };
+      }
+
+      /**
+       * Iterates the slots starting after an empty one. Removing a record only shifts back records of its cluster, and
+       * clusters end before an empty slot, so the removal doesn't move records that were already returned.
+       */
+      private class EntryIterator implements Iterator<Entry<K, FileEntry>> {
+         private final int start;
+         private int position = 1;
+         private OffHeapEntry current;
+
+         EntryIterator() {
+            int slot = 0;
+            while (address(slot) != 0) {
+               slot++;
+            }
+            start = slot;
+         }
+
+         private int slot(int position) {
+            return (start + position) & (capacity - 1);
+         }
+
+         @Override
+         public boolean hasNext() {
+            while (position < capacity && address(slot(position)) == 0) {
+               position++;
+            }
+            return position < capacity;
+         }
+
+         @Override
+         public Entry<K, FileEntry> next() {
+            if (!hasNext())
+               throw new NoSuchElementException();
+            current = new OffHeapEntry(address(slot(position)));
+            position++;
+            return current;
+         }
+
+         @Override
+         public void remove() {
+            if (current == null)
+               throw new IllegalStateException();
+            // The key can't be read once the record is released
+            current.getKey();
+            // A record of the cluster may have been shifted to the slot of the removed one
+            position--;
+            removeSlot(slot(position));
+            current = null;
+         }
+      }
+
+      private class OffHeapEntry implements Entry<K, FileEntry> {
+         private final long address;
+         private final FileEntry value;
+         private K key;
+
+         OffHeapEntry(long address) {
+            this.address = address;
+            this.value = fileEntry(address);
+         }
+
+         @Override
+         public K getKey() {
+            if (key == null) {
+               key = readKey(address);
+            }
+            return key;
+         }
+
+         @Override
+         public FileEntry getValue() {
+            return value;
+         }
+
+         @Override
+         public FileEntry setValue(FileEntry value) {
+            throw new UnsupportedOperationException();
+         }
+      }
+   }
+
    /**
     * Helper class to represent an entry in the cache file.
         * The format of a FileEntry on disk is as follows:
@@ -1676,6 +2078,11 @@ private static class FileEntry implements Comparable<FileEntry> {
        */
       transient int readers = 0;
 
+      /**
+       * The instances with readers, when the entry is created by an off-heap index, or {@code null}.
+       */
+      final ConcurrentMap<Long, FileEntry> lockedEntries;
+
       FileEntry(long offset, ByteBuffer buf) {
          this.offset = offset;
          this.size = buf.getInt();
@@ -1684,6 +2091,7 @@ private static class FileEntry implements Comparable<FileEntry> {
          this.metadataLen = buf.getInt();
          this.internalMetadataLen = buf.getInt();
          this.expiryTime = buf.getLong();
+         this.lockedEntries = null;
       }
 
       FileEntry(long offset, int size) {
@@ -1691,6 +2099,11 @@ private static class FileEntry implements Comparable<FileEntry> {
       }
 
       FileEntry(long offset, int size, int keyLen, int dataLen, int metadataLen, int internalMetadataLen, long expiryTime) {
+         this(offset, size, keyLen, dataLen, metadataLen, internalMetadataLen, expiryTime, null);
+      }
+
+      FileEntry(long offset, int size, int keyLen, int dataLen, int metadataLen, int internalMetadataLen, long expiryTime,
+                ConcurrentMap<Long, FileEntry> lockedEntries) {
          this.offset = offset;
          this.size = size;
          this.keyLen = keyLen;
@@ -1698,6 +2111,7 @@ private static class FileEntry implements Comparable<FileEntry> {
          this.metadataLen = metadataLen;
          this.internalMetadataLen = internalMetadataLen;
          this.expiryTime = expiryTime;
+         this.lockedEntries = lockedEntries;
       }
 
       synchronized boolean isLocked() {
@@ -1706,12 +2120,17 @@ synchronized boolean isLocked() {
 
       synchronized void lock() {
          readers++;
+         if (readers == 1 && lockedEntries != null)
+            lockedEntries.put(offset, this);
       }
 
       synchronized void unlock() {
          readers--;
-         if (readers == 0)
+         if (readers == 0) {
+            if (lockedEntries != null)
+               lockedEntries.remove(offset, this);
             notifyAll();
+         }
       }
 
       synchronized void waitUnlocked() {
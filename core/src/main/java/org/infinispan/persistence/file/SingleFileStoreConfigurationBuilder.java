@@ -1,6 +1,7 @@
 package org.infinispan.persistence.file;
 
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
+import static org.infinispan.persistence.file.SingleFileStoreConfiguration.INDEX_STORAGE;
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.LOCATION;
 
 import org.infinispan.commons.configuration.Builder;
@@ -8,6 +9,7 @@
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.persistence.PersistenceUtil;
 
@@ -55,6 +57,16 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Where the index of the keys and their positions in the file is kept. With {@link StorageType#HEAP}, the default,
+    * the keys are kept as objects in a map. With {@link StorageType#OFF_HEAP} only the serialized keys and the
+    * positions are kept, in native memory, so the number of entries is not limited by the size of the heap.
+    */
+   public SingleFileStoreConfigurationBuilder indexStorage(StorageType indexStorage) {
+      attributes.attribute(INDEX_STORAGE).set(indexStorage);
+      return this;
+   }
+
    @Override
    public void validate(GlobalConfiguration globalConfig) {
       PersistenceUtil.validateGlobalStateStoreLocation(globalConfig, SingleFileStore.class.getSimpleName(), attributes.attribute(LOCATION));
@@ -1,9 +1,12 @@
 package org.infinispan.persistence.manager;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -72,6 +75,37 @@ public <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return super.loadFromAllStores(key, localInvocation, includeStores);
    }
 
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Integer, ? extends Collection<?>> keysBySegment,
+                                                                                       boolean localInvocation, boolean includeStores) {
+      if (map.isEmpty()) {
+         return super.loadAllFromAllStores(keysBySegment, localInvocation, includeStores);
+      }
+      Map<Object, MarshallableEntry<K, V>> passivatingEntries = new HashMap<>();
+      Map<Integer, List<Object>> keysToLoad = new HashMap<>();
+      for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+         for (Object key : segmentKeys.getValue()) {
+            MarshallableEntry entry = map.get(key);
+            if (entry != null) {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Retrieved entry for key %s from temporary passivation map", key);
+               }
+               passivatingEntries.put(key, entry);
+            } else {
+               keysToLoad.computeIfAbsent(segmentKeys.getKey(), ignore -> new ArrayList<>()).add(key);
+            }
+         }
+      }
+      if (keysToLoad.isEmpty()) {
+         return CompletableFuture.completedFuture(passivatingEntries);
+      }
+      return super.<K, V>loadAllFromAllStores(keysToLoad, localInvocation, includeStores).thenApply(entries -> {
+         Map<Object, MarshallableEntry<K, V>> allEntries = new HashMap<>(entries);
+         allEntries.putAll(passivatingEntries);
+         return allEntries;
+      });
+   }
+
    @Override
    public <K> Publisher<K> publishKeys(Predicate<? super K> filter, Predicate<? super StoreConfiguration> predicate) {
       if (map.isEmpty()) {
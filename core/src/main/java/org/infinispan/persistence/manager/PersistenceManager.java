@@ -1,8 +1,10 @@
 package org.infinispan.persistence.manager;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
@@ -10,7 +12,9 @@
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.api.Lifecycle;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.container.entries.MVCCEntry;
 import org.infinispan.context.InvocationContext;
@@ -47,6 +51,17 @@ public interface PersistenceManager extends Lifecycle {
     */
    Flowable<MarshallableEntry<Object, Object>> preloadPublisher();
 
+   /**
+    * Loads the data of the given segments from the external store into memory during cache startup.
+    */
+   Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments);
+
+   /**
+    * Returns whether the store used for preloading is segmented, and so it can publish the entries of some segments
+    * without reading the entries of the others.
+    */
+   boolean isPreloadSegmented();
+
    /**
     * Marks the given storage as disabled.
     */
@@ -195,6 +210,32 @@ default <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return loadFromAllStores(key, localInvocation, includeStores);
    }
 
+   /**
+    * Same as {@link #loadFromAllStores(Object, int, boolean, boolean)} for multiple keys, which are loaded in bulk
+    * from each store. The keys that are not found in a store are loaded from the next one.
+    * @param keysBySegment the keys to read the entries from, grouped by the segment they map to
+    * @param localInvocation whether this invocation is a local invocation. Some loaders may be ignored if it is not local
+    * @param includeStores if a loader that is also a store can be loaded from
+    * @return the entries found, mapped by the requested key instances
+    * default implementation invokes {@link #loadFromAllStores(Object, int, boolean, boolean)} for every key
+    */
+   default <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Integer, ? extends Collection<?>> keysBySegment,
+                                                                                        boolean localInvocation, boolean includeStores) {
+      Map<Object, MarshallableEntry<K, V>> entries = new ConcurrentHashMap<>();
+      AggregateCompletionStage<Map<Object, MarshallableEntry<K, V>>> stage = CompletionStages.aggregateCompletionStage(entries);
+      for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+         int segment = segmentKeys.getKey();
+         for (Object key : segmentKeys.getValue()) {
+            stage.dependsOn(this.<K, V>loadFromAllStores(key, segment, localInvocation, includeStores).thenAccept(entry -> {
+               if (entry != null) {
+                  entries.put(key, entry);
+               }
+            }));
+         }
+      }
+      return stage.freeze();
+   }
+
    /**
     * Returns an approximate count of how many entries are persisted in the given segments.
     * If no store can handle the request for the given mode, a value of <b>-1</b> is returned instead.
@@ -363,6 +404,15 @@ CompletionStage<Long> performBatch(TxInvocationContext<AbstractCacheTransaction>
    <K, V> CompletionStage<Void> writeEntries(Iterable<MarshallableEntry<K, V>> iterable,
          Predicate<? super StoreConfiguration> predicate);
 
+   /**
+    * Removes the given keys from the stores that pass the given predicate, using a single
+    * {@link NonBlockingStore#batch(int, Publisher, Publisher)} invocation per store
+    * @param keys keys to remove
+    * @param predicate predicate to test for a store
+    * @return a stage that when complete the keys were removed
+    */
+   CompletionStage<Void> deleteBatchFromAllStores(Iterable<?> keys, Predicate<? super StoreConfiguration> predicate);
+
    /**
     * @return true if all configured stores are available and ready for read/write operations.
     */
@@ -9,9 +9,11 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -533,19 +535,34 @@ public boolean hasStore(Predicate<StoreConfiguration> test) {
 
    @Override
    public Flowable<MarshallableEntry<Object, Object>> preloadPublisher() {
+      return preloadPublisher(IntSets.immutableRangeSet(segmentCount));
+   }
+
+   @Override
+   public Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments) {
       long stamp = acquireReadLock();
       NonBlockingStore<Object, Object> nonBlockingStore = getStoreLocked(status -> status.config.preload());
       if (nonBlockingStore == null) {
          releaseReadLock(stamp);
          return Flowable.empty();
       }
-      Publisher<MarshallableEntry<Object, Object>> publisher = nonBlockingStore.publishEntries(
-            IntSets.immutableRangeSet(segmentCount), null, true);
+      Publisher<MarshallableEntry<Object, Object>> publisher = nonBlockingStore.publishEntries(segments, null, true);
 
       return Flowable.fromPublisher(publisher)
                      .doFinally(() -> releaseReadLock(stamp));
    }
 
+   @Override
+   public boolean isPreloadSegmented() {
+      long stamp = acquireReadLock();
+      try {
+         StoreStatus storeStatus = getStoreStatusLocked(status -> status.config.preload());
+         return storeStatus != null && storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE);
+      } finally {
+         releaseReadLock(stamp);
+      }
+   }
+
    @Override
    public void addStoreListener(StoreChangeListener listener) {
       listeners.add(listener);
@@ -984,6 +1001,78 @@ private <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromStoresIterator(O
       return CompletableFutures.completedNull();
    }
 
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Integer, ? extends Collection<?>> keysBySegment,
+                                                                                       boolean localInvocation, boolean includeStores) {
+      long stamp = acquireReadLock();
+      boolean release = true;
+      try {
+         if (!checkStoreAvailability()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+         }
+         if (log.isTraceEnabled()) {
+            log.tracef("Loading entries for keys %s", keysBySegment);
+         }
+         CompletionStage<Map<Object, MarshallableEntry<K, V>>> stage =
+               loadAllFromStoresIterator(keysBySegment, stores.iterator(), includeStores, new HashMap<>());
+         if (CompletionStages.isCompletedSuccessfully(stage)) {
+            return stage;
+         }
+         release = false;
+         return deferReadLockRelease(stage, stamp);
+      } finally {
+         if (release) {
+            releaseReadLock(stamp);
+         }
+      }
+   }
+
+   private <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromStoresIterator(Map<Integer, ? extends Collection<?>> keysBySegment,
+                                                                                             Iterator<StoreStatus> iterator,
+                                                                                             boolean includeStores,
+                                                                                             Map<Object, MarshallableEntry<K, V>> entries) {
+      while (iterator.hasNext()) {
+         StoreStatus storeStatus = iterator.next();
+         NonBlockingStore<K, V> store = storeStatus.store();
+         if (!allowLoad(storeStatus, includeStores)) {
+            continue;
+         }
+         return store.loadAll(keysForStore(storeStatus, keysBySegment)).thenCompose(loaded -> {
+            Map<Integer, List<Object>> missingKeys = new HashMap<>();
+            for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+               for (Object key : segmentKeys.getValue()) {
+                  MarshallableEntry<K, V> e = loaded.get(key);
+                  if (e == null) {
+                     missingKeys.computeIfAbsent(segmentKeys.getKey(), ignore -> new ArrayList<>()).add(key);
+                     continue;
+                  }
+                  // Same as loadFromStoresIterator
+                  if (storeStatus.hasCharacteristic(Characteristic.READ_ONLY) && configuration.expiration().lifespan() > 0) {
+                     e = marshallableEntryFactory.cloneWithExpiration((MarshallableEntry) e, timeService.wallClockTime(),
+                           configuration.expiration().lifespan());
+                  }
+                  entries.put(key, e);
+               }
+            }
+            if (missingKeys.isEmpty()) {
+               return CompletableFuture.completedFuture(entries);
+            }
+            return loadAllFromStoresIterator(missingKeys, iterator, includeStores, entries);
+         });
+      }
+      return CompletableFuture.completedFuture(entries);
+   }
+
+   private Map<Integer, ? extends Collection<?>> keysForStore(StoreStatus storeStatus,
+                                                             Map<Integer, ? extends Collection<?>> keysBySegment) {
+      if (storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE) || keysBySegment.size() <= 1 && keysBySegment.containsKey(0)) {
+         return keysBySegment;
+      }
+      List<Object> keys = new ArrayList<>();
+      keysBySegment.values().forEach(keys::addAll);
+      return Map.of(0, keys);
+   }
+
    private boolean allowLoad(StoreStatus storeStatus, boolean includeStores) {
       return !storeStatus.hasCharacteristic(Characteristic.WRITE_ONLY) &&
             (includeStores || storeStatus.hasCharacteristic(Characteristic.READ_ONLY) ||
@@ -1247,6 +1336,38 @@ public <K, V> CompletionStage<Void> writeEntries(Iterable<MarshallableEntry<K, V
       ).toCompletionStage(null);
    }
 
+   @Override
+   public CompletionStage<Void> deleteBatchFromAllStores(Iterable<?> keys, Predicate<? super StoreConfiguration> predicate) {
+      return Completable.using(
+            this::acquireReadLock,
+            ignore -> {
+               if (!checkStoreAvailability()) {
+                  return Completable.complete();
+               }
+               if (log.isTraceEnabled()) {
+                  log.trace("Deleting entries from stores");
+               }
+               return Flowable.fromIterable(stores)
+                     .filter(storeStatus -> shouldWrite(storeStatus, predicate))
+                     // Let the removal work in parallel across the stores
+                     .flatMapCompletable(storeStatus -> {
+                        boolean segmented = storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE);
+                        Flowable<NonBlockingStore.SegmentedPublisher<Object>> flowable;
+                        if (segmented) {
+                           flowable = Flowable.<Object>fromIterable(keys)
+                                 .groupBy(this.<Object>groupingFunction(key -> key))
+                                 .map(SegmentPublisherWrapper::wrap);
+                        } else {
+                           flowable = Flowable.just(SingleSegmentPublisher.singleSegment(Flowable.fromIterable(keys)));
+                        }
+                        return Completable.fromCompletionStage(storeStatus.store().batch(segmentCount(segmented),
+                              flowable, Flowable.empty()));
+                     });
+            },
+            this::releaseReadLock
+      ).toCompletionStage(null);
+   }
+
    @Override
    public CompletionStage<Long> writeMapCommand(PutMapCommand putMapCommand, InvocationContext ctx,
          BiPredicate<? super PutMapCommand, Object> commandKeyPredicate) {
@@ -4,6 +4,8 @@
 
 import java.lang.invoke.MethodHandles;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.cache.impl.InvocationHelper;
@@ -11,10 +13,14 @@
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.ProcessorInfo;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.FlagBitSets;
@@ -26,6 +32,10 @@
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.PersistenceException;
@@ -35,7 +45,6 @@
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
-import org.reactivestreams.Publisher;
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
@@ -45,7 +54,10 @@
 
 /**
  * Separate the preload into its own component
+ * <p>
+ * When the preload store is segmented, the segments are split in groups that are read and inserted in parallel.
  */
+@MBean(objectName = "PreloadManager", description = "Component that loads the entries of the store on startup")
 @Scope(Scopes.NAMED_CACHE)
 public class PreloadManager {
    public static final long PRELOAD_FLAGS = FlagBitSets.CACHE_MODE_LOCAL |
@@ -71,8 +83,13 @@ public class PreloadManager {
    @Inject TransactionCoordinator transactionCoordinator;
    @Inject TransactionManager transactionManager;
    @Inject TransactionTable transactionTable;
+   @Inject InternalDataContainer<?, ?> dataContainer;
 
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private volatile boolean preloading;
    private volatile boolean fullyPreloaded;
+   private volatile long preloadStart;
+   private volatile long preloadEnd;
 
    @Start
    public void start() {
@@ -81,33 +98,75 @@ public void start() {
    }
 
    private CompletionStage<Void> doPreload() {
-      Publisher<MarshallableEntry<Object, Object>> publisher = persistenceManager.preloadPublisher();
-
-      long start = timeService.time();
-
       final long maxEntries = getMaxEntries();
       final long flags = getFlagsForStateInsertion();
       AdvancedCache<?,?> tmpCache = this.cache.wired().withStorageMediaType();
       DataConversion keyDataConversion = tmpCache.getKeyDataConversion();
       DataConversion valueDataConversion = tmpCache.getValueDataConversion();
 
+      preloadedEntries.set(0);
+      preloadStart = timeService.time();
+      preloading = true;
       Transaction outerTransaction = suspendIfNeeded();
       try {
-         return Flowable.fromPublisher(publisher)
-                        .take(maxEntries)
-                        .concatMapSingle(me -> preloadEntry(flags, me, keyDataConversion, valueDataConversion))
-                        .count()
+         return Flowable.fromIterable(segmentGroups())
+                        .flatMapSingle(segments -> persistenceManager.preloadPublisher(segments)
+                                    // Stop reading once the memory limit is reached
+                                    .takeWhile(me -> admitEntry(maxEntries))
+                                    .concatMapSingle(me -> preloadEntry(flags, me, keyDataConversion, valueDataConversion))
+                                    .count(),
+                              false, ProcessorInfo.availableProcessors())
+                        .reduce(0L, Long::sum)
                         .toCompletionStage()
+                        .whenComplete((insertAmount, t) -> {
+                           preloadEnd = timeService.time();
+                           preloading = false;
+                        })
                         .thenAccept(insertAmount -> {
-                           this.fullyPreloaded = insertAmount < maxEntries;
+                           this.fullyPreloaded = insertAmount < maxEntries && !isContainerFull();
                            log.debugf("Preloaded %d keys in %s", insertAmount,
-                                      Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+                                      Util.prettyPrintTime(timeService.timeDuration(preloadStart, preloadEnd, MILLISECONDS)));
                         });
       } finally {
          resumeIfNeeded(outerTransaction);
       }
    }
 
+   /**
+    * Splits the segments in groups that are preloaded in parallel, if the store is segmented.
+    */
+   private IntSet[] segmentGroups() {
+      int numSegments = configuration.clustering().hash().numSegments();
+      int numGroups = Math.min(ProcessorInfo.availableProcessors(), numSegments);
+      if (numGroups <= 1 || !persistenceManager.isPreloadSegmented()) {
+         return new IntSet[]{IntSets.immutableRangeSet(numSegments)};
+      }
+      IntSet[] groups = new IntSet[numGroups];
+      for (int i = 0; i < numGroups; i++) {
+         groups[i] = IntSets.mutableEmptySet(numSegments);
+      }
+      for (int segment = 0; segment < numSegments; segment++) {
+         groups[segment % numGroups].set(segment);
+      }
+      return groups;
+   }
+
+   private boolean admitEntry(long maxEntries) {
+      if (isContainerFull())
+         return false;
+      if (preloadedEntries.incrementAndGet() > maxEntries) {
+         preloadedEntries.decrementAndGet();
+         return false;
+      }
+      return true;
+   }
+
+   private boolean isContainerFull() {
+      // The count is limited by maxEntries, only the memory size has to be checked
+      return configuration.memory().isEvictionEnabled() && configuration.memory().maxSizeBytes() > 0 &&
+            dataContainer.evictionSize() >= dataContainer.capacity();
+   }
+
    private Single<?> preloadEntry(long flags, MarshallableEntry<Object, Object> me, DataConversion keyDataConversion, DataConversion valueDataConversion) {
       // CallInterceptor will preserve the timestamps if the metadata is an InternalMetadataImpl instance
       InternalMetadataImpl metadata = new InternalMetadataImpl(me.getMetadata(), me.created(), me.lastUsed());
@@ -187,6 +246,30 @@ private long getFlagsForStateInsertion() {
       }
    }
 
+   @ManagedAttribute(description = "Whether the entries of the store are being loaded", displayName = "Is preload in progress?", dataType = DataType.TRAIT)
+   public boolean isPreloading() {
+      return preloading;
+   }
+
+   @ManagedAttribute(description = "Number of entries loaded from the store on startup", displayName = "Preloaded entries", dataType = DataType.MEASUREMENT)
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @ManagedAttribute(description = "Time spent loading the entries of the store, so far if the preload is in progress", displayName = "Preload time", units = Units.MILLISECONDS, dataType = DataType.MEASUREMENT)
+   public long getPreloadTime() {
+      long start = preloadStart;
+      if (start == 0)
+         return 0;
+      return timeService.timeDuration(start, preloading ? timeService.time() : preloadEnd, MILLISECONDS);
+   }
+
+   @ManagedAttribute(description = "Number of entries loaded from the store per second", displayName = "Preload throughput", units = Units.PER_SECOND, dataType = DataType.MEASUREMENT)
+   public long getPreloadThroughput() {
+      long time = getPreloadTime();
+      return time > 0 ? preloadedEntries.get() * TimeUnit.SECONDS.toMillis(1) / time : 0;
+   }
+
    /**
     * @return true if all entries from the store have been inserted to the cache. If the persistence/preload
     * is disabled or eviction limit was reached when preloading, returns false.
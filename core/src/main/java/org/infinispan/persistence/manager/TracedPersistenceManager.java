@@ -1,5 +1,7 @@
 package org.infinispan.persistence.manager;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -69,6 +71,11 @@ public <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return decorateCommand("loadFromAllStores", () -> super.loadFromAllStores(key, segment, localInvocation, includeStores));
    }
 
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Integer, ? extends Collection<?>> keysBySegment, boolean localInvocation, boolean includeStores) {
+      return decorateCommand("loadAllFromAllStores", () -> super.loadAllFromAllStores(keysBySegment, localInvocation, includeStores));
+   }
+
    @Override
    public CompletionStage<Long> approximateSize(Predicate<? super StoreConfiguration> predicate, IntSet segments) {
       return decorateCommand("approximateSize", () -> super.approximateSize(predicate, segments));
@@ -103,6 +110,11 @@ public <K, V> CompletionStage<Void> writeEntries(Iterable<MarshallableEntry<K, V
       return decorateCommand("writeEntries", () -> super.writeEntries(iterable, predicate));
    }
 
+   @Override
+   public CompletionStage<Void> deleteBatchFromAllStores(Iterable<?> keys, Predicate<? super StoreConfiguration> predicate) {
+      return decorateCommand("deleteBatchFromAllStores", () -> super.deleteBatchFromAllStores(keys, predicate));
+   }
+
    @Override
    public CompletionStage<Long> performBatch(TxInvocationContext<AbstractCacheTransaction> ctx,
                                              TriPredicate<? super WriteCommand, Object, MVCCEntry<?, ?>> commandKeyPredicate) {
@@ -0,0 +1,98 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.TimeService;
+
+/**
+ * Limits the number of bytes per second the {@link Compactor} reads and rewrites. The compactor charges the limiter
+ * for every chunk it processed and waits the returned amount of time before processing the next one.
+ * <p>
+ * The {@link LogAppender} reports the latency of every foreground write. Whenever the recent latency rises well above
+ * its long term average the allowed rate is halved, down to 1/16th of the configured rate, and then recovers
+ * gradually once the write latency settles.
+ */
+class CompactionRateLimiter {
+   // Allow roughly 10 chunks per second, so that compaction can be interrupted and throttled in small steps
+   private static final int CHUNKS_PER_SECOND = 10;
+   private static final int MIN_CHUNK_SIZE = 64 * 1024;
+   private static final int MIN_RATE_DIVISOR = 16;
+   // Back off when the recent write latency is this many times higher than the long term average
+   private static final int LATENCY_RISE_FACTOR = 2;
+
+   private final long maxRate;
+   private final TimeService timeService;
+   // Only updated by the compactor thread
+   private volatile long rate;
+   private long nextFreeTime;
+
+   // Exponentially weighted moving averages of the write latency in nanoseconds, only updated by the log appender thread
+   private volatile long recentWriteLatency;
+   private volatile long averageWriteLatency;
+
+   CompactionRateLimiter(long maxRate, TimeService timeService) {
+      assert maxRate > 0;
+      this.maxRate = maxRate;
+      this.timeService = timeService;
+      this.rate = maxRate;
+      this.nextFreeTime = timeService.time();
+   }
+
+   /**
+    * @return how many bytes the compactor should process before calling {@link #acquire(long)}
+    */
+   int chunkSize() {
+      return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CHUNK_SIZE, maxRate / CHUNKS_PER_SECOND));
+   }
+
+   /**
+    * @return the number of bytes per second the compactor is currently allowed to process
+    */
+   long currentRate() {
+      return rate;
+   }
+
+   /**
+    * Charges the limiter for the given amount of processed bytes. This method must only be invoked from the
+    * compactor thread.
+    *
+    * @param bytes the number of bytes read and written by the compactor since the last invocation
+    * @return how many nanoseconds the compactor must wait before processing more bytes
+    */
+   long acquire(long bytes) {
+      adjustRate();
+      long now = timeService.time();
+      long start = Math.max(now, nextFreeTime);
+      nextFreeTime = start + TimeUnit.SECONDS.toNanos(bytes) / rate;
+      return nextFreeTime - now;
+   }
+
+   /**
+    * Records the latency of a single write, from the moment it was submitted until it was appended to the log file.
+    * This method must only be invoked from the log appender thread.
+    */
+   void recordWriteLatency(long nanos) {
+      long recent = recentWriteLatency;
+      long average = averageWriteLatency;
+      if (average == 0) {
+         recentWriteLatency = nanos;
+         averageWriteLatency = nanos;
+      } else {
+         recentWriteLatency = recent + (nanos - recent) / 8;
+         averageWriteLatency = average + (nanos - average) / 256;
+      }
+   }
+
+   private void adjustRate() {
+      long average = averageWriteLatency;
+      long current = rate;
+      if (average > 0 && recentWriteLatency > LATENCY_RISE_FACTOR * average) {
+         rate = Math.max(maxRate / MIN_RATE_DIVISOR, current / 2);
+      } else if (current < maxRate) {
+         rate = Math.min(maxRate, current + Math.max(1, maxRate / MIN_RATE_DIVISOR));
+      }
+      if (rate <= 0) {
+         rate = 1;
+      }
+   }
+}
@@ -2,6 +2,7 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -12,12 +13,16 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferImpl;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.stat.MetricInfo;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.Util;
@@ -26,6 +31,7 @@
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.metrics.impl.MetricUtils;
 import org.infinispan.util.concurrent.NonBlockingManager;
 
 import io.reactivex.rxjava3.core.Completable;
@@ -38,6 +44,9 @@
  * Component keeping the data about log file usage - as soon as entries from some file are overwritten so that the file
  * becomes cluttered with old records, the valid records are moved to another file and the old ones are dropped.
  * Expired records are moved as tombstones without values (records of entry removal).
+ * <p>
+ * When a {@link CompactionRateLimiter} is provided files are compacted in chunks, the compaction of a file being
+ * resumed from the offset where the previous chunk ended once the limiter allows more I/O.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -54,6 +63,8 @@ class Compactor {
    private final int maxFileSize;
    private final double compactionThreshold;
    private final Executor blockingExecutor;
+   private final CompactionRateLimiter rateLimiter;
+   private final ScheduledExecutorService scheduledExecutor;
 
    // Initialize so we can enqueue operations until start begins
    private FlowableProcessor<CompletableFuture<Void>> processor = UnicastProcessor.<CompletableFuture<Void>>create().toSerialized();
@@ -62,6 +73,9 @@ class Compactor {
    // as processing single scheduled compaction takes a lot of time, we don't use the queue to signalize
    private final AtomicBoolean clearSignal = new AtomicBoolean();
    private volatile boolean terminateSignal = false;
+   // A rate limited compaction waiting to compact its next chunk, guarded by this
+   private CompactionRequest pausedRequest;
+   private ScheduledFuture<?> nextChunk;
    // variable used to denote running (not null but not complete) and stopped (not null but complete)
    // This variable is never to be null
    private volatile CompletableFuture<?> stopped = CompletableFutures.completedNull();
@@ -75,9 +89,14 @@ class Compactor {
    long nextExpirationTime = -1;
    int currentOffset = 0;
 
+   // Only updated by the compactor thread
+   private volatile long rewrittenBytes;
+   private volatile long compactedFiles;
+
    public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvider, TemporaryTable temporaryTable,
          Marshaller marshaller, TimeService timeService, KeyPartitioner keyPartitioner, int maxFileSize,
-         double compactionThreshold, Executor blockingExecutor) {
+         double compactionThreshold, Executor blockingExecutor, CompactionRateLimiter rateLimiter,
+         ScheduledExecutorService scheduledExecutor) {
       this.nonBlockingManager = nonBlockingManager;
       this.fileProvider = fileProvider;
       this.temporaryTable = temporaryTable;
@@ -87,6 +106,8 @@ public Compactor(NonBlockingManager nonBlockingManager, FileProvider fileProvide
       this.maxFileSize = maxFileSize;
       this.compactionThreshold = compactionThreshold;
       this.blockingExecutor = blockingExecutor;
+      this.rateLimiter = rateLimiter;
+      this.scheduledExecutor = scheduledExecutor;
    }
 
    public void setIndex(Index index) {
@@ -286,6 +307,94 @@ Set<Integer> getFiles() {
       return fileStats.keySet();
    }
 
+   /**
+    * @return the number of bytes occupied by overwritten or removed records in all data files
+    */
+   long getFreeBytes() {
+      long free = 0;
+      for (Stats stats : fileStats.values()) {
+         free += stats.getFree();
+      }
+      return free;
+   }
+
+   /**
+    * @return the size of all data files known to the compactor
+    */
+   long getTotalBytes() {
+      long total = 0;
+      for (Stats stats : fileStats.values()) {
+         total += Math.max(stats.getTotal(), 0);
+      }
+      return total;
+   }
+
+   /**
+    * @return the number of files scheduled for compaction that were not compacted yet
+    */
+   int getBacklogFiles() {
+      int backlog = 0;
+      for (Stats stats : fileStats.values()) {
+         if (stats.isScheduled() && !stats.markedForDeletion()) {
+            backlog++;
+         }
+      }
+      return backlog;
+   }
+
+   /**
+    * @return the size of the files scheduled for compaction that were not compacted yet
+    */
+   long getBacklogBytes() {
+      long backlog = 0;
+      for (Stats stats : fileStats.values()) {
+         if (stats.isScheduled() && !stats.markedForDeletion()) {
+            backlog += Math.max(stats.getTotal(), 0);
+         }
+      }
+      return backlog;
+   }
+
+   long getRewrittenBytes() {
+      return rewrittenBytes;
+   }
+
+   long getCompactedFiles() {
+      return compactedFiles;
+   }
+
+   /**
+    * @return the number of bytes per second the compactor may currently process, -1 when unlimited
+    */
+   long getCompactionRate() {
+      return rateLimiter != null ? rateLimiter.currentRate() : -1;
+   }
+
+   static Collection<MetricInfo> metrics() {
+      return List.of(
+            MetricUtils.<Compactor>createGauge("CompactionFreeBytes",
+                  "Bytes occupied by overwritten or removed records in the data files",
+                  Compactor::getFreeBytes, null),
+            MetricUtils.<Compactor>createGauge("CompactionTotalBytes",
+                  "Size of all the data files",
+                  Compactor::getTotalBytes, null),
+            MetricUtils.<Compactor>createGauge("CompactionBacklogFiles",
+                  "Number of data files waiting to be compacted",
+                  Compactor::getBacklogFiles, null),
+            MetricUtils.<Compactor>createGauge("CompactionBacklogBytes",
+                  "Size of the data files waiting to be compacted",
+                  Compactor::getBacklogBytes, null),
+            MetricUtils.<Compactor>createGauge("CompactionRewrittenBytes",
+                  "Bytes rewritten by the compactor into new data files",
+                  Compactor::getRewrittenBytes, null),
+            MetricUtils.<Compactor>createGauge("CompactionCompactedFiles",
+                  "Number of data files compacted and deleted",
+                  Compactor::getCompactedFiles, null),
+            MetricUtils.<Compactor>createGauge("CompactionRate",
+                  "Bytes per second the compactor is currently allowed to read and rewrite, -1 when unlimited",
+                  Compactor::getCompactionRate, null));
+   }
+
    private Stats getStats(int file, int currentSize, long expirationTime) {
       Stats stats = fileStats.get(file);
       if (stats == null) {
@@ -343,6 +452,8 @@ public CompletionStage<Void> clearAndPause() {
          throw new IllegalStateException("Clear signal was already set for compactor, clear cannot be invoked " +
                "concurrently with another!");
       }
+      // The pipeline only processes the clear once the current request completes, so don't wait for its next chunk
+      cancelNextChunk();
       ClearFuture clearFuture = new ClearFuture();
       // Make sure to do this before submitting to processor this is done in the blocking thread
       clearFuture.whenComplete((ignore, t) -> fileStats.clear());
@@ -368,6 +479,7 @@ public void stopOperations() {
       log.tracef("Stopping compactor");
       // This will short circuit any compactor call, so it can only process the entry it may be on currently
       terminateSignal = true;
+      cancelNextChunk();
       processor.onComplete();
       // The stopped CompletableFuture is completed in onComplete or onError callback for the processor, so this will
       // return after all compaction calls are completed
@@ -391,6 +503,12 @@ private static class CompactionRequest extends CompletableFuture<Void> {
       private final int fileId;
       private final boolean isLogFile;
       private final CompactionExpirationSubscriber subscriber;
+      // State of a partially compacted file, only accessed by the compactor thread
+      private long currentTimeMilliseconds;
+      private int offset;
+      private List<EntryPosition> expiredTemp;
+      private List<EntryRecord> expiredIndex;
+      private AggregateCompletionStage<Void> indexUpdates;
 
       private CompactionRequest(int fileId) {
          this(fileId, false, null);
@@ -444,7 +562,10 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
          return;
       }
 
-      CompactionRequest request = (CompactionRequest) stageRequest;
+      compactFile((CompactionRequest) stageRequest);
+   }
+
+   private void compactFile(CompactionRequest request) {
       try {
          // Any other type submitted has to be a positive integer
          Stats stats = fileStats.get(request.fileId);
@@ -452,7 +573,10 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
          // Double check that the file wasn't removed. If stats are null that means the file was previously removed
          // and also make sure the file wasn't marked for deletion, but hasn't yet
          if (stats != null && !stats.markedForDeletion()) {
-            compactSingleFile(request, timeService.wallClockTime());
+            if (!compactSingleFile(request, timeService.wallClockTime())) {
+               // Only a chunk of the file was compacted, the rest is compacted once the rate limiter allows
+               return;
+            }
             if (request.isLogFile) {
                // Unschedule the compaction for log file as we can't remove it
                stats.scheduled.set(false);
@@ -472,6 +596,54 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
       }
    }
 
+   private void scheduleNextChunk(CompactionRequest request, long delayNanos) {
+      log.tracef("Pausing compaction of file %d at offset %d for %d ns", request.fileId, request.offset, delayNanos);
+      // The compactor pipeline doesn't process other requests until this one completes
+      if (delayNanos > 0) {
+         synchronized (this) {
+            pausedRequest = request;
+            nextChunk = scheduledExecutor.schedule(() -> {
+               if (resumeNextChunk(request)) {
+                  blockingExecutor.execute(() -> compactFile(request));
+               }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+         }
+      } else {
+         blockingExecutor.execute(() -> compactFile(request));
+      }
+   }
+
+   /**
+    * @return whether the next chunk of the request must be compacted, false if it was cancelled
+    */
+   private synchronized boolean resumeNextChunk(CompactionRequest request) {
+      if (pausedRequest != request) {
+         return false;
+      }
+      pausedRequest = null;
+      nextChunk = null;
+      return true;
+   }
+
+   /**
+    * Cancels the next chunk of a rate limited compaction, if any, and completes its request right away. Like when the
+    * clear or terminate signal is seen between two chunks, the records already moved are just stale in the file.
+    */
+   private void cancelNextChunk() {
+      CompactionRequest request;
+      synchronized (this) {
+         request = pausedRequest;
+         if (request == null) {
+            return;
+         }
+         nextChunk.cancel(false);
+         pausedRequest = null;
+         nextChunk = null;
+      }
+      log.tracef("Cancelled the next chunk of the compaction of file %d", request.fileId);
+      completeFuture(request);
+   }
+
    /**
     * Compacts a single file into the current log file. This method has two modes of operation based on if the file
     * is a log file or not. If it is a log file non expired entries are ignored and only expired entries are "updated"
@@ -479,41 +651,63 @@ public void processRequest(CompletableFuture<Void> stageRequest) throws Throwabl
     * moved to the new log file and the current file is deleted afterwards. If an expired entry is found during compaction
     * of a non log file the expiration listener is notified and the entry is not moved, however if no expiration listener
     * is provided the expired entry is moved to the new file as is still expired.
+    * <p>
+    * When the compaction is rate limited only a chunk of the file is compacted, the position is stored in the request
+    * and the next chunk is scheduled once the rate limiter allows it.
     * @param compactionRequest the request containing the fileId and if it is a log file and optional subscriber
+    * @return whether the file was fully processed, false if only a chunk was compacted
     * @throws IOException            thrown if there was an issue with reading or writing to a file
     * @throws ClassNotFoundException thrown if there is an issue deserializing the key for an entry
     */
-   private void compactSingleFile(CompactionRequest compactionRequest,
-         long currentTimeMilliseconds) throws IOException, ClassNotFoundException {
+   private boolean compactSingleFile(CompactionRequest compactionRequest,
+         long now) throws IOException, ClassNotFoundException {
       int scheduledFile = compactionRequest.fileId;
       assert scheduledFile >= 0;
 
       if (clearSignal.get() || terminateSignal) {
+         // Note a partially compacted file is kept, the records that were already moved are just stale in it
          log.tracef("Not compacting file %d as either the terminate or clear signal were set", scheduledFile);
          completeFuture(compactionRequest);
-         return;
+         return true;
       }
 
       CompactionExpirationSubscriber subscriber = compactionRequest.subscriber;
       boolean isLogFile = compactionRequest.isLogFile;
-      if (subscriber == null) {
-         log.tracef("Compacting file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
-      } else {
-         log.tracef("Removing expired entries from file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
+      if (compactionRequest.indexUpdates == null) {
+         if (subscriber == null) {
+            log.tracef("Compacting file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
+         } else {
+            log.tracef("Removing expired entries from file %d isLogFile %b", scheduledFile, Boolean.valueOf(isLogFile));
+         }
+         compactionRequest.currentTimeMilliseconds = now;
+         // Store expired entries to remove after we update the index
+         compactionRequest.expiredTemp = subscriber != null ? new ArrayList<>() : null;
+         compactionRequest.expiredIndex = subscriber != null ? new ArrayList<>() : null;
+         compactionRequest.indexUpdates = CompletionStages.aggregateCompletionStage();
       }
-      int scheduledOffset = 0;
-      // Store expired entries to remove after we update the index
-      List<EntryPosition> expiredTemp = subscriber != null ? new ArrayList<>() : null;
-      List<EntryRecord> expiredIndex = subscriber != null ? new ArrayList<>() : null;
+      long currentTimeMilliseconds = compactionRequest.currentTimeMilliseconds;
+      int scheduledOffset = compactionRequest.offset;
+      int chunkOffset = scheduledOffset;
+      long chunkWritten = 0;
+      boolean chunkCompleted = false;
+      List<EntryPosition> expiredTemp = compactionRequest.expiredTemp;
+      List<EntryRecord> expiredIndex = compactionRequest.expiredIndex;
       FileProvider.Handle handle = fileProvider.getFile(scheduledFile);
       if (handle == null) {
          throw new IllegalStateException("Compactor should not get deleted file for compaction!");
       }
       try (handle) {
          long fileSize = handle.getFileSize();
-         AggregateCompletionStage<Void> aggregateCompletionStage = CompletionStages.aggregateCompletionStage();
+         AggregateCompletionStage<Void> aggregateCompletionStage = compactionRequest.indexUpdates;
          EntryHeader header;
-         while ((header = EntryRecord.readEntryHeader(handle, scheduledOffset)) != null) {
+         while (true) {
+            if (rateLimiter != null && scheduledOffset - chunkOffset + chunkWritten >= rateLimiter.chunkSize()) {
+               chunkCompleted = true;
+               break;
+            }
+            if ((header = EntryRecord.readEntryHeader(handle, scheduledOffset)) == null) {
+               break;
+            }
             long remainingBytes = fileSize - scheduledOffset;
             if (header.totalLength() > remainingBytes) {
                if (isLogFile) {
@@ -736,9 +930,19 @@ private void compactSingleFile(CompactionRequest compactionRequest,
                aggregateCompletionStage.dependsOn(index.handleRequest(indexRequest));
 
                currentOffset += writtenLength;
+               chunkWritten += writtenLength;
             }
             scheduledOffset += header.totalLength();
          }
+         rewrittenBytes += chunkWritten;
+         if (rateLimiter != null) {
+            long delayNanos = rateLimiter.acquire(scheduledOffset - chunkOffset + chunkWritten);
+            if (chunkCompleted) {
+               compactionRequest.offset = scheduledOffset;
+               scheduleNextChunk(compactionRequest, delayNanos);
+               return false;
+            }
+         }
          // Need to notify subscriber of expired entries before completing request
          if (subscriber != null) {
             log.tracef("Expired entries in temporary table %s and in index %s", expiredTemp, expiredIndex);
@@ -788,7 +992,9 @@ private void compactSingleFile(CompactionRequest compactionRequest,
             stats.markForDeletion();
          }
          fileDeletionStage.dependsOn(index.deleteFileAsync(scheduledFile));
+         compactedFiles++;
       }
+      return true;
    }
 
 
@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -24,6 +25,7 @@
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.infinispan.commons.jdkspecific.UnsafeHolder;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.ProgressTracker;
 import org.infinispan.persistence.sifs.pmem.PmemUtilWrapper;
@@ -31,6 +33,11 @@
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * When memory mapped reads are enabled, a file that is no longer appended to is mapped in memory the first time it is
+ * read, and all the reads through its handles are served from the mapping. The file is unmapped as soon as it is
+ * closed, which only happens once it has no open handle, so that the space of the files deleted by the compactor is
+ * returned to the file system right away instead of when the mapping is garbage collected.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
@@ -51,6 +58,7 @@ public class FileProvider {
    private final String prefix;
    private final int maxFileSize;
    private final boolean isIndex;
+   private final boolean memoryMappedReads;
 
    private boolean canTryPmem = true;
 
@@ -70,12 +78,18 @@ public class FileProvider {
 
    public FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize,
                        boolean isIndex) {
+      this(fileDirectory, openFileLimit, prefix, maxFileSize, isIndex, false);
+   }
+
+   public FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize,
+                       boolean isIndex, boolean memoryMappedReads) {
       this.openFileLimit = openFileLimit;
       this.recordQueue = new ArrayBlockingQueue<>(openFileLimit);
       this.directoryFile = fileDirectory.toFile();
       this.prefix = prefix;
       this.maxFileSize = maxFileSize;
       this.isIndex = isIndex;
+      this.memoryMappedReads = memoryMappedReads && !isIndex;
       try {
          Files.createDirectories(fileDirectory);
       } catch (IOException e) {
@@ -418,7 +432,18 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         MappedByteBuffer mapping = record.getMapping();
+         if (mapping == null) {
+            return record.getFileChannel().read(buffer, offset);
+         }
+         if (offset >= mapping.limit()) {
+            return -1;
+         }
+         int length = Math.min(buffer.remaining(), mapping.limit() - (int) offset);
+         // Absolute bulk get doesn't change the state of the mapping, so it can be shared by concurrent readers
+         buffer.put(buffer.position(), mapping, (int) offset, length);
+         buffer.position(buffer.position() + length);
+         return length;
       }
 
       @Override
@@ -458,6 +483,8 @@ private class Record {
       private FileChannel fileChannel;
       private int handleCount;
       private boolean deleteOnClose = false;
+      private volatile MappedByteBuffer mapping;
+      private boolean mappingFailed;
 
       private Record(FileChannel fileChannel, int fileId) {
          this.fileChannel = fileChannel;
@@ -468,6 +495,39 @@ FileChannel getFileChannel() {
          return fileChannel;
       }
 
+      /**
+       * @return the mapping of the whole file, or null if reads must use the file channel
+       */
+      MappedByteBuffer getMapping() {
+         MappedByteBuffer mapping = this.mapping;
+         // The file is only mapped once it can no longer be appended to, as the mapping doesn't grow with the file
+         if (mapping != null || !memoryMappedReads || mappingFailed || isLogFile(fileId)) {
+            return mapping;
+         }
+         synchronized (this) {
+            if (this.mapping == null && fileChannel != null && !mappingFailed) {
+               try {
+                  this.mapping = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+               } catch (IOException | UnsupportedOperationException e) {
+                  log.debugf(e, "Cannot map file %d, reading it from the channel instead", fileId);
+                  mappingFailed = true;
+               }
+            }
+            return this.mapping;
+         }
+      }
+
+      /**
+       * Invoked once the file has no open handle, so that no reader can use the mapping anymore
+       */
+      private void unmap() {
+         MappedByteBuffer mapping = this.mapping;
+         this.mapping = null;
+         if (mapping != null) {
+            FileProvider.unmap(mapping);
+         }
+      }
+
       void increaseHandleCount() {
          handleCount++;
       }
@@ -479,6 +539,7 @@ void decreaseHandleCount() throws IOException {
             // but physically close and delete the file
             fileChannel.close();
             fileChannel = null;
+            unmap();
             openFiles.remove(fileId, this);
             delete();
          }
@@ -499,6 +560,7 @@ public int getFileId() {
       public void close() throws IOException {
          fileChannel.close();
          fileChannel = null;
+         unmap();
          if (deleteOnClose) {
             delete();
          }
@@ -516,6 +578,7 @@ public void deleteOnClose() throws IOException {
                fileChannel.close();
                fileChannel = null;
             }
+            unmap();
             openFiles.remove(fileId, this);
             delete();
          } else {
@@ -552,4 +615,12 @@ public Integer next() {
          return diskFiles.hasNext() ? diskFiles.next() : addedFiles.poll();
       }
    }
+
+   private static void unmap(MappedByteBuffer mapping) {
+      try {
+         UnsafeHolder.invokeCleaner(mapping);
+      } catch (RuntimeException | LinkageError e) {
+         log.debugf(e, "Cannot unmap file, it will be unmapped when garbage collected");
+      }
+   }
 }
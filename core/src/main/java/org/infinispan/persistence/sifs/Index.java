@@ -9,27 +9,39 @@
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.PrimitiveIterator;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Function;
 
 import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.stat.MetricInfo;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.executors.LimitedExecutor;
+import org.infinispan.metrics.impl.MetricUtils;
 import org.infinispan.util.SoftBPlusTree;
 import org.infinispan.util.SoftBPlusTree.IndexNodeOutdatedException;
 import org.infinispan.util.concurrent.NonBlockingManager;
@@ -90,12 +102,29 @@ class Index {
    @GuardedBy("lock")
    private CompletionStage<Void> removeSegmentsStage = CompletableFutures.completedNull();
 
+   private final boolean checkpoints;
+   private final IndexCheckpoint checkpoint;
+   // Incremented whenever the checkpoint is invalidated, so that a checkpoint in progress is not written
+   @GuardedBy("checkpoint")
+   private int checkpointEpoch;
+   // Data files the index no longer references, but the last checkpoint may. They are only deleted once a newer
+   // checkpoint is durable
+   @GuardedBy("this")
+   private List<Integer> deferredDeletions = new ArrayList<>();
+   // Completed data files that were already forced to disk by a checkpoint
+   private final Set<Integer> durableFiles = ConcurrentHashMap.newKeySet();
+
+   private volatile long recoveryTime;
+   private volatile int recoveryReadFiles;
+   private volatile long checkpointCount;
+   private volatile long lastCheckpointTime;
+
    // Overwrite hooks have been inlined into Segment.accept()
 
    public Index(NonBlockingManager nonBlockingManager, FileProvider dataFileProvider, Path indexDir, int cacheSegments,
                 int minNodeSize, int maxNodeSize, TemporaryTable temporaryTable, Compactor compactor,
                 TimeService timeService, Executor executor, int maxOpenFiles,
-                double compactionThreshold) throws IOException {
+                double compactionThreshold, boolean checkpoints) throws IOException {
       this.nonBlockingManager = nonBlockingManager;
       this.dataFileProvider = dataFileProvider;
       this.compactor = compactor;
@@ -106,6 +135,8 @@ public Index(NonBlockingManager nonBlockingManager, FileProvider dataFileProvide
       this.sizePerSegment = new AtomicLongArray(cacheSegments);
       this.indexFileProvider = new FileProvider(indexDir, maxOpenFiles, "index.", Integer.MAX_VALUE, true);
       this.indexSizeFile = new File(indexDir.toFile(), "index-count");
+      this.checkpoints = checkpoints;
+      this.checkpoint = new IndexCheckpoint(indexDir);
 
       this.segments = new Segment[cacheSegments];
       this.flowableProcessors = new FlowableProcessor[cacheSegments];
@@ -261,12 +292,324 @@ public void reset() throws IOException {
       for (Segment segment : segments) {
          segment.reset();
       }
+      synchronized (checkpoint) {
+         checkpointEpoch++;
+         checkpoint.delete();
+      }
+      takeDeferredDeletions();
+      durableFiles.clear();
+   }
+
+   /**
+    * Restores the index from the last checkpoint, after the store was not stopped gracefully. The entries written
+    * after the checkpoint must then be read from the data files that are not part of it.
+    *
+    * @return the loaded checkpoint or null if there is no usable checkpoint
+    */
+   IndexCheckpoint.State loadCheckpoint() {
+      IndexCheckpoint.State state = checkpoint.read(segments.length, temporaryTable.getSegmentMax());
+      if (state == null) {
+         return null;
+      }
+      if (!attemptLoadCheckpoint(state)) {
+         compactor.getFileStats().clear();
+         for (int i = 0; i < sizePerSegment.length(); ++i) {
+            sizePerSegment.set(i, 0);
+         }
+         return null;
+      }
+      return state;
+   }
+
+   private boolean attemptLoadCheckpoint(IndexCheckpoint.State state) {
+      IntSet ownedSegments = IntSets.mutableEmptySet(segments.length);
+      for (int i = 0; i < segments.length; ++i) {
+         if (segments[i] != null && segments[i] != emptySegment) {
+            ownedSegments.add(i);
+         }
+      }
+      try {
+         for (IndexCheckpoint.SegmentState segmentState : state.segments()) {
+            int id = segmentState.id();
+            if (!ownedSegments.remove(id) || !segments[id].loadCheckpoint(segmentState.tree())) {
+               log.tracef("Unable to load segment %d from the index checkpoint", id);
+               return false;
+            }
+            sizePerSegment.set(id, segmentState.size());
+         }
+      } catch (IOException | RuntimeException e) {
+         log.trace("Exception encountered while loading the index checkpoint, assuming it is bad", e);
+         return false;
+      }
+      if (!ownedSegments.isEmpty()) {
+         log.tracef("Index checkpoint doesn't contain segments %s", ownedSegments);
+         return false;
+      }
+      for (IndexCheckpoint.FileState file : state.files()) {
+         if (!compactor.addFreeFile(file.file(), file.total(), file.free(), file.nextExpirationTime(), false)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Persists a checkpoint of the index, so that after a crash only the data files written after it have to be read
+    * to recover the index. The {@link LogAppender} must be paused while this method is invoked: the requests that
+    * capture the segments are submitted before it returns and the writes appended after that are not part of the
+    * checkpoint.
+    *
+    * @param seqId the sequence id of the next write appended to the log
+    */
+   CompletionStage<Void> checkpoint(long seqId) {
+      long start = timeService.time();
+      int epoch;
+      synchronized (checkpoint) {
+         epoch = checkpointEpoch;
+      }
+      // All the entries in files completed before the log appender was paused are reflected in the segments
+      Set<Integer> completedFiles = new HashSet<>();
+      for (Map.Entry<Integer, Compactor.Stats> entry : compactor.getFileStats().entrySet()) {
+         if (entry.getValue().isCompleted() && !entry.getValue().markedForDeletion()
+               && !dataFileProvider.isLogFile(entry.getKey())) {
+            completedFiles.add(entry.getKey());
+         }
+      }
+      List<Integer> deletions = takeDeferredDeletions();
+      Queue<Segment> checkpointedSegments = new ConcurrentLinkedQueue<>();
+      Queue<IndexCheckpoint.SegmentState> segmentStates = new ConcurrentLinkedQueue<>();
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      long stamp = lock.readLock();
+      try {
+         for (int i = 0; i < segments.length; ++i) {
+            Segment segment = segments[i];
+            if (segment == null || segment == emptySegment) {
+               continue;
+            }
+            IndexRequest request = IndexRequest.syncRequest(() -> {
+               // Don't fail the segment itself, the checkpoint is just discarded
+               try {
+                  segmentStates.add(segment.checkpoint());
+                  checkpointedSegments.add(segment);
+               } catch (Throwable t) {
+                  failure.set(t);
+               }
+            });
+            flowableProcessors[i].onNext(request);
+            stage.dependsOn(request);
+         }
+      } finally {
+         lock.unlockRead(stamp);
+      }
+      return stage.freeze()
+            .thenApplyAsync(ignore -> {
+               if (failure.get() != null) {
+                  throw CompletableFutures.asCompletionException(failure.get());
+               }
+               try {
+                  return writeCheckpoint(epoch, seqId, segmentStates, completedFiles, deletions);
+               } catch (IOException e) {
+                  throw CompletableFutures.asCompletionException(e);
+               }
+            }, executor)
+            .thenCompose(written -> {
+               if (!written) {
+                  log.tracef("Index checkpoint was invalidated while it was written");
+                  deferDeletions(deletions);
+                  return CompletableFutures.completedNull();
+               }
+               return checkpointCompleted(checkpointedSegments).thenRunAsync(() -> {
+                  deleteFiles(deletions);
+                  checkpointCount++;
+                  lastCheckpointTime = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+                  log.tracef("Index checkpoint with sequence id %d completed", seqId);
+               }, executor);
+            })
+            .whenComplete((ignore, t) -> {
+               if (t != null) {
+                  deferDeletions(deletions);
+               }
+            });
+   }
+
+   private boolean writeCheckpoint(int epoch, long seqId, Collection<IndexCheckpoint.SegmentState> segmentStates,
+                                   Set<Integer> completedFiles, List<Integer> deletions) throws IOException {
+      forceDataFiles();
+      Set<Integer> excluded = new HashSet<>(deletions);
+      synchronized (this) {
+         excluded.addAll(deferredDeletions);
+      }
+      List<IndexCheckpoint.FileState> files = new ArrayList<>(completedFiles.size());
+      for (int file : completedFiles) {
+         Compactor.Stats stats = compactor.getFileStats().get(file);
+         if (stats == null || excluded.contains(file) || !durableFiles.contains(file)) {
+            continue;
+         }
+         int total = stats.getTotal();
+         if (total == -1) {
+            total = (int) dataFileProvider.getFileSize(file);
+         }
+         // The free space is approximate, moves of entries out of the file may not be reflected yet
+         files.add(new IndexCheckpoint.FileState(file, total, stats.getFree(), stats.getNextExpirationTime()));
+      }
+      synchronized (checkpoint) {
+         if (epoch != checkpointEpoch) {
+            return false;
+         }
+         checkpoint.write(segments.length, temporaryTable.getSegmentMax(),
+               new IndexCheckpoint.State(seqId, new ArrayList<>(segmentStates), files));
+      }
+      return true;
+   }
+
+   // Makes sure all the entries referenced by the checkpoint are durable, completed files are immutable and thus only
+   // forced once
+   private void forceDataFiles() throws IOException {
+      try (CloseableIterator<Integer> iterator = dataFileProvider.getFileIterator(null)) {
+         while (iterator.hasNext()) {
+            int file = iterator.next();
+            if (durableFiles.contains(file)) {
+               continue;
+            }
+            Compactor.Stats stats = compactor.getFileStats().get(file);
+            boolean completed = stats != null && stats.isCompleted() && !dataFileProvider.isLogFile(file);
+            try (FileProvider.Handle handle = dataFileProvider.getFile(file)) {
+               if (handle == null) {
+                  continue;
+               }
+               handle.force(false);
+            }
+            if (completed) {
+               durableFiles.add(file);
+            }
+         }
+      }
+   }
+
+   private CompletionStage<Void> checkpointCompleted(Collection<Segment> checkpointedSegments) {
+      AggregateCompletionStage<Void> stage = CompletionStages.aggregateCompletionStage();
+      long stamp = lock.readLock();
+      try {
+         for (Segment segment : checkpointedSegments) {
+            // The segment may have been removed in the meantime, its blocks are then released with its index file
+            if (segments[segment.id] != segment) {
+               continue;
+            }
+            IndexRequest request = IndexRequest.syncRequest(() -> segment.tree.checkpointCompleted());
+            flowableProcessors[segment.id].onNext(request);
+            stage.dependsOn(request);
+         }
+      } finally {
+         lock.unlockRead(stamp);
+      }
+      return stage.freeze();
+   }
+
+   /**
+    * Deletes the last checkpoint, e.g. when the owned segments change or the store is stopped gracefully. The data
+    * files whose deletion was deferred are then deleted immediately.
+    */
+   void invalidateCheckpoint() {
+      if (!checkpoints) {
+         return;
+      }
+      synchronized (checkpoint) {
+         checkpointEpoch++;
+         checkpoint.delete();
+      }
+      deleteFiles(takeDeferredDeletions());
+   }
+
+   private synchronized List<Integer> takeDeferredDeletions() {
+      List<Integer> deletions = deferredDeletions;
+      deferredDeletions = new ArrayList<>();
+      return deletions;
+   }
+
+   private synchronized void deferDeletions(List<Integer> deletions) {
+      deferredDeletions.addAll(deletions);
+   }
+
+   private void deleteFiles(List<Integer> files) {
+      for (int file : files) {
+         durableFiles.remove(file);
+         dataFileProvider.deleteFile(file);
+         compactor.releaseStats(file);
+      }
+   }
+
+   void recoveryCompleted(long recoveryTime, int readFiles) {
+      this.recoveryTime = recoveryTime;
+      this.recoveryReadFiles = readFiles;
+   }
+
+   long getRecoveryTime() {
+      return recoveryTime;
+   }
+
+   int getRecoveryReadFiles() {
+      return recoveryReadFiles;
+   }
+
+   long getCheckpointCount() {
+      return checkpointCount;
+   }
+
+   long getLastCheckpointTime() {
+      return lastCheckpointTime;
+   }
+
+   static Collection<MetricInfo> metrics() {
+      return List.of(
+            MetricUtils.<Index>createGauge("IndexRecoveryTime",
+                  "Milliseconds spent loading, recovering or rebuilding the index when the store started",
+                  Index::getRecoveryTime, null),
+            MetricUtils.<Index>createGauge("IndexRecoveryReadFiles",
+                  "Number of data files read to recover or rebuild the index when the store started",
+                  Index::getRecoveryReadFiles, null),
+            MetricUtils.<Index>createGauge("IndexCheckpoints",
+                  "Number of index checkpoints written since the store started",
+                  Index::getCheckpointCount, null),
+            MetricUtils.<Index>createGauge("IndexLastCheckpointTime",
+                  "Milliseconds spent writing the last index checkpoint",
+                  Index::getLastCheckpointTime, null));
    }
 
    public EntryRecord getRecord(Object key, int cacheSegment, org.infinispan.commons.io.ByteBuffer serializedKey) throws IOException {
       return getRecord(cacheSegment, toIndexKey(serializedKey), true);
    }
 
+   /**
+    * Same as {@link #getRecord(Object, int, org.infinispan.commons.io.ByteBuffer)} for multiple keys. All the keys are
+    * looked up in the index first and the records are then read in file and offset order, so that the data files
+    * are read sequentially.
+    * @return the record of every key, in the order of the given keys, or null if it is missing or expired
+    */
+   public EntryRecord[] getRecords(int[] cacheSegments, org.infinispan.commons.io.ByteBuffer[] serializedKeys) throws IOException {
+      EntryRecord[] records = new EntryRecord[serializedKeys.length];
+      IndexEntry[] entries = new IndexEntry[serializedKeys.length];
+      List<Integer> found = new ArrayList<>(serializedKeys.length);
+      long stamp = lock.readLock();
+      try {
+         for (int i = 0; i < serializedKeys.length; ++i) {
+            entries[i] = segments[cacheSegments[i]].tree.get(toIndexKey(serializedKeys[i]));
+            if (entries[i] != null) {
+               found.add(i);
+            }
+         }
+         found.sort(Comparator.<Integer>comparingInt(i -> entries[i].file)
+               .thenComparingInt(i -> entries[i].offset < 0 ? ~entries[i].offset : entries[i].offset));
+         long wallClockTime = timeService.wallClockTime();
+         for (int i : found) {
+            records[i] = entries[i].loadRecord(dataFileProvider, wallClockTime, true, true);
+         }
+      } finally {
+         lock.unlockRead(stamp);
+      }
+      return records;
+   }
+
    public EntryRecord getRecordEvenIfExpired(Object key, int cacheSegment, byte[] serializedKey) throws IOException {
       return getRecord(cacheSegment, serializedKey, false);
    }
@@ -320,6 +663,9 @@ public EntryInfo getInfo(Object key, int cacheSegment, byte[] serializedKey) thr
 
    public CompletionStage<Void> clear() {
       log.tracef("Clearing index");
+      // The data files are deleted with all the others
+      takeDeferredDeletions();
+      durableFiles.clear();
       long stamp;
       if ((stamp = lock.tryWriteLock()) != 0) {
          // actualSubmitClear handles all the lock release calls
@@ -389,6 +735,13 @@ public CompletionStage<Void> ensureRunOnLast(Runnable runnable) {
 
    public CompletionStage<Void> deleteFileAsync(int fileId) {
       return ensureRunOnLast(() -> {
+         if (checkpoints) {
+            // The last checkpoint may still reference entries in this file
+            synchronized (this) {
+               deferredDeletions.add(fileId);
+            }
+            return;
+         }
          // After all indexes have ensured they have processed all requests - the last one will delete the file
          // This guarantees that the index can't see an outdated value
          dataFileProvider.deleteFile(fileId);
@@ -397,6 +750,8 @@ public CompletionStage<Void> deleteFileAsync(int fileId) {
    }
 
    public CompletionStage<Void> stop(long maxSeqId) throws InterruptedException {
+      // The index is persisted gracefully, so the checkpoint is no longer needed
+      invalidateCheckpoint();
       AggregateCompletionStage<Void> aggregateCompletionStage;
       long stamp = lock.readLock();
       try {
@@ -799,8 +1154,16 @@ private Segment(Index index, int id, TemporaryTable temporaryTable) {
          this.id = id;
          this.nodeStore = new IndexFileNodeStore(index.indexFileProvider, id);
          this.keyLoader = value -> (value).loadKey(index.dataFileProvider);
-         this.tree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize, nodeStore,
+         this.tree = newTree();
+      }
+
+      private SoftBPlusTree<IndexEntry> newTree() {
+         SoftBPlusTree<IndexEntry> softTree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize, nodeStore,
                INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE);
+         if (index.checkpoints) {
+            softTree.enableCheckpoints();
+         }
+         return softTree;
       }
 
       public int getId() {
@@ -820,8 +1183,7 @@ boolean load() throws IOException {
             }
             if (header.getInt(0) != GRACEFULLY || header.getInt(4) != segmentMax) {
                handle.truncate(0);
-               tree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize, nodeStore,
-                     INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE);
+               tree = newTree();
                return false;
             }
             long rootOffset = header.getLong(8);
@@ -834,8 +1196,7 @@ boolean load() throws IOException {
             if (rootOffset == 0) {
                return true;
             }
-            SoftBPlusTree<IndexEntry> softTree = new SoftBPlusTree<>(index.minNodeSize, index.maxNodeSize,
-                  nodeStore, INDEX_ENTRY_SERIALIZER, keyLoader, BLOCK_ALIGNMENT, INDEX_FILE_HEADER_SIZE);
+            SoftBPlusTree<IndexEntry> softTree = newTree();
             softTree.setStoreSize(freeBlocksOffset);
             // Restore free-block state from freeBlocksOffset
             int freeBlocksLen = (int) (handle.getFileSize() - freeBlocksOffset);
@@ -852,6 +1213,26 @@ boolean load() throws IOException {
          }
       }
 
+      boolean loadCheckpoint(SoftBPlusTree.Checkpoint checkpoint) throws IOException {
+         try (FileProvider.Handle handle = index.indexFileProvider.getFile(id)) {
+            if (handle.getFileSize() < checkpoint.storeSize()) {
+               return false;
+            }
+         }
+         SoftBPlusTree<IndexEntry> softTree = newTree();
+         softTree.loadCheckpoint(checkpoint);
+         tree = softTree;
+         return true;
+      }
+
+      IndexCheckpoint.SegmentState checkpoint() throws IOException {
+         SoftBPlusTree.Checkpoint treeCheckpoint = tree.checkpoint();
+         try (FileProvider.Handle handle = index.indexFileProvider.getFile(id)) {
+            handle.force(false);
+         }
+         return new IndexCheckpoint.SegmentState(id, index.sizePerSegment.get(id), treeCheckpoint);
+      }
+
       void delete() {
          if (id >= 0) {
             log.tracef("Deleting file for index %s", id);
@@ -997,6 +1378,10 @@ private int loadTotalLength(IndexEntry entry) throws IOException {
       @Override
       public void run() throws IOException {
          try {
+            if (index.checkpoints) {
+               // The checkpoint was deleted, so the blocks it occupied can be reused
+               tree.releaseCheckpoints();
+            }
             SoftBPlusTree.NodeSpace rootSpace = tree.saveTree();
             try (FileProvider.Handle handle = index.indexFileProvider.getFile(id)) {
                // Write free blocks at current end of node data
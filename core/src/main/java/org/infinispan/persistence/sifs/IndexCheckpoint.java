@@ -0,0 +1,166 @@
+package org.infinispan.persistence.sifs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.infinispan.commons.util.OS;
+import org.infinispan.util.SoftBPlusTree;
+
+/**
+ * The last checkpoint of the {@link Index}, persisted in a single file of the index directory. It references the
+ * index trees persisted in the index files of every segment, the statistics of the data files whose entries are
+ * all reflected in those trees and the sequence id of the first write that is not.
+ * <p>
+ * The file is replaced atomically and ends with a checksum, so a crash while it is written leaves the previous
+ * checkpoint in place. The index directory is synced after the replacement, so that a crash after the write returns
+ * can't bring back the previous checkpoint.
+ */
+class IndexCheckpoint {
+   private static final Log log = Log.getLog(IndexCheckpoint.class);
+   private static final int MAGIC = 0x1DC4EC27;
+
+   private final Path file;
+   private final Path tmpFile;
+
+   IndexCheckpoint(Path indexDir) {
+      this.file = indexDir.resolve("index.checkpoint");
+      this.tmpFile = indexDir.resolve("index.checkpoint.tmp");
+   }
+
+   record SegmentState(int id, long size, SoftBPlusTree.Checkpoint tree) { }
+
+   record FileState(int file, int total, int free, long nextExpirationTime) { }
+
+   /**
+    * @param seqId    the sequence id of the first write that is not reflected in the segments
+    * @param segments the index tree of every owned segment
+    * @param files    the data files whose entries are all reflected in the segments
+    */
+   record State(long seqId, List<SegmentState> segments, List<FileState> files) { }
+
+   void write(int cacheSegments, int segmentMax, State state) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream output = new DataOutputStream(bytes);
+      output.writeInt(MAGIC);
+      output.writeInt(cacheSegments);
+      output.writeInt(segmentMax);
+      output.writeLong(state.seqId());
+      output.writeInt(state.segments().size());
+      for (SegmentState segment : state.segments()) {
+         SoftBPlusTree.Checkpoint tree = segment.tree();
+         output.writeInt(segment.id());
+         output.writeLong(segment.size());
+         output.writeLong(tree.root() != null ? tree.root().offset() : -1);
+         output.writeShort(tree.root() != null ? tree.root().occupiedSpace() : 0);
+         output.writeLong(tree.storeSize());
+         ByteBuffer freeBlocks = tree.freeBlocks().duplicate();
+         output.writeInt(freeBlocks.remaining());
+         output.write(freeBlocks.array(), freeBlocks.arrayOffset() + freeBlocks.position(), freeBlocks.remaining());
+      }
+      output.writeInt(state.files().size());
+      for (FileState fileState : state.files()) {
+         output.writeInt(fileState.file());
+         output.writeInt(fileState.total());
+         output.writeInt(fileState.free());
+         output.writeLong(fileState.nextExpirationTime());
+      }
+      CRC32 crc = new CRC32();
+      crc.update(bytes.toByteArray());
+      output.writeLong(crc.getValue());
+      output.flush();
+
+      try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+         ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+         while (buffer.hasRemaining()) {
+            channel.write(buffer);
+         }
+         channel.force(true);
+      }
+      Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      // The rename is only durable once the directory is synced, and the caller frees the index blocks and deletes
+      // the data files that the previous checkpoint may still reference once this method returns
+      syncDirectory(file.getParent());
+   }
+
+   private static void syncDirectory(Path dir) throws IOException {
+      // Directories can't be opened on Windows, where the rename is durable anyway
+      if (OS.getCurrentOs() == OS.WINDOWS) {
+         return;
+      }
+      try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+         channel.force(true);
+      }
+   }
+
+   /**
+    * @return the last checkpoint or null if there is none or it doesn't match the given segment configuration
+    */
+   State read(int cacheSegments, int segmentMax) {
+      byte[] content;
+      try {
+         content = Files.readAllBytes(file);
+      } catch (NoSuchFileException e) {
+         return null;
+      } catch (IOException e) {
+         log.debugf(e, "Unable to read index checkpoint %s", file);
+         return null;
+      }
+      try {
+         ByteBuffer buffer = ByteBuffer.wrap(content);
+         CRC32 crc = new CRC32();
+         crc.update(content, 0, content.length - Long.BYTES);
+         if (buffer.getLong(content.length - Long.BYTES) != crc.getValue() || buffer.getInt() != MAGIC) {
+            log.debugf("Index checkpoint %s is corrupted, ignoring it", file);
+            return null;
+         }
+         if (buffer.getInt() != cacheSegments || buffer.getInt() != segmentMax) {
+            log.debugf("Index checkpoint %s was written with a different segment configuration, ignoring it", file);
+            return null;
+         }
+         long seqId = buffer.getLong();
+         int numSegments = buffer.getInt();
+         List<SegmentState> segments = new ArrayList<>(numSegments);
+         for (int i = 0; i < numSegments; ++i) {
+            int id = buffer.getInt();
+            long size = buffer.getLong();
+            long rootOffset = buffer.getLong();
+            short rootOccupiedSpace = buffer.getShort();
+            long storeSize = buffer.getLong();
+            int freeBlocksLength = buffer.getInt();
+            ByteBuffer freeBlocks = buffer.slice(buffer.position(), freeBlocksLength);
+            buffer.position(buffer.position() + freeBlocksLength);
+            SoftBPlusTree.NodeSpace root = rootOffset >= 0 ? new SoftBPlusTree.NodeSpace(rootOffset, rootOccupiedSpace) : null;
+            segments.add(new SegmentState(id, size, new SoftBPlusTree.Checkpoint(root, storeSize, freeBlocks)));
+         }
+         int numFiles = buffer.getInt();
+         List<FileState> files = new ArrayList<>(numFiles);
+         for (int i = 0; i < numFiles; ++i) {
+            files.add(new FileState(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong()));
+         }
+         return new State(seqId, segments, files);
+      } catch (RuntimeException e) {
+         log.debugf(e, "Index checkpoint %s is corrupted, ignoring it", file);
+         return null;
+      }
+   }
+
+   void delete() {
+      try {
+         Files.deleteIfExists(file);
+      } catch (IOException e) {
+         log.debugf(e, "Unable to delete index checkpoint %s", file);
+      }
+   }
+}
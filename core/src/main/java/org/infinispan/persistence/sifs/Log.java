@@ -107,4 +107,17 @@ static Log getLog(Class<?> clazz) {
 
    @Message(value = "Failed acquiring lock '%s' for SIFS", id = 29025)
    PersistenceException failedAcquiringLockFile(@Cause Throwable cause, FileSystemLock lock);
+
+   @Message(value = "Sync writes window (%d) must not be negative and sync writes max bytes (%d) must be positive.", id = 29026)
+   CacheConfigurationException invalidSyncWritesBatch(long window, int maxBytes);
+
+   @Message(value = "Compaction rate (%d) must not be negative.", id = 29027)
+   CacheConfigurationException invalidCompactionRate(long value);
+
+   @Message(value = "Index checkpoint interval (%d) must not be negative.", id = 29028)
+   CacheConfigurationException invalidCheckpointInterval(long value);
+
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(value = "Failed to checkpoint the index, the whole index will be rebuilt after a crash", id = 29029)
+   void indexCheckpointFailed(@Cause Throwable t);
 }
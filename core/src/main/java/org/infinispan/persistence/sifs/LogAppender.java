@@ -1,17 +1,27 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.stat.DistributionSummaryTracker;
+import org.infinispan.commons.stat.MetricInfo;
+import org.infinispan.commons.stat.TimerTracker;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.global.GlobalMetricsConfiguration;
 import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.metrics.impl.MetricUtils;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.util.concurrent.NonBlockingManager;
 
@@ -22,6 +32,8 @@
 
 public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private static final Log log = Log.getLog(LogAppender.class);
+   // The maximum number of writes that can share a single fsync
+   private static final int MAX_SYNC_REQUESTS = 1000;
 
    private final NonBlockingManager nonBlockingManager;
    private final Index index;
@@ -30,6 +42,12 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private final FileProvider fileProvider;
    private final boolean syncWrites;
    private final int maxFileSize;
+   private final long syncWritesWindowNanos;
+   private final int syncWritesMaxBytes;
+   private final ScheduledExecutorService scheduledExecutor;
+   private final TimeService timeService;
+   // Notified of the latency of every write so that compaction can back off, null when compaction is not rate limited
+   private final CompactionRateLimiter compactionRateLimiter;
    // Used to keep track of how many log requests have been submitted. This way if the blocking thread has consumed
    // the same number of log requests it can immediately flush.
    private final AtomicInteger submittedCount = new AtomicInteger();
@@ -49,6 +67,16 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private List<LogRequest> delayedLogRequests;
    private FileProvider.Log logFile;
    private long nextExpirationTime = -1;
+   // How many bytes were written since the last fsync and when the first of those writes was done
+   private int pendingSyncBytes;
+   private long syncBatchStart;
+   private boolean flushScheduled;
+   // The sequence id of the next write at the time of the last checkpoint request
+   private volatile long checkpointSeqId;
+
+   // These are replaced when metrics are registered
+   private volatile DistributionSummaryTracker syncBatchSizes = DistributionSummaryTracker.NO_OP;
+   private volatile TimerTracker syncTimes = TimerTracker.NO_OP;
 
    // This is volatile as it can be read from different threads when submitting
    private volatile FlowableProcessor<LogRequest> requestProcessor;
@@ -61,7 +89,9 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
 
    public LogAppender(NonBlockingManager nonBlockingManager, Index index,
                       TemporaryTable temporaryTable, Compactor compactor,
-                      FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+                      FileProvider fileProvider, boolean syncWrites, int maxFileSize, long syncWritesWindow,
+                      int syncWritesMaxBytes, ScheduledExecutorService scheduledExecutor, TimeService timeService,
+                      CompactionRateLimiter compactionRateLimiter) {
       this.nonBlockingManager = nonBlockingManager;
       this.index = index;
       this.temporaryTable = temporaryTable;
@@ -69,6 +99,11 @@ public LogAppender(NonBlockingManager nonBlockingManager, Index index,
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
+      this.syncWritesWindowNanos = TimeUnit.MILLISECONDS.toNanos(syncWritesWindow);
+      this.syncWritesMaxBytes = syncWritesMaxBytes;
+      this.scheduledExecutor = scheduledExecutor;
+      this.timeService = timeService;
+      this.compactionRateLimiter = compactionRateLimiter;
 
       this.toSyncLogRequests = syncWrites ? new ArrayList<>() : null;
    }
@@ -90,6 +125,12 @@ public synchronized void start(Executor executor) {
       writeProcessor.observeOn(Schedulers.from(executor))
             .subscribe(this, e -> log.warn("Exception encountered while performing write log request ", e), () -> {
                if (logFile != null) {
+                  try {
+                     syncPendingLogRequests();
+                  } catch (IOException e) {
+                     log.warn("Exception encountered while forcing the log file on shutdown", e);
+                     completePendingLogRequests();
+                  }
                   Util.close(logFile);
                   // add the current appended file - note this method will fail if it is already present, which will
                   // happen if there are some free entries
@@ -131,6 +172,8 @@ static class WriteOperation implements Consumer<LogAppender> {
       private final java.nio.ByteBuffer serializedMetadata;
       private final java.nio.ByteBuffer serializedValue;
       private final java.nio.ByteBuffer serializedInternalMetadata;
+      // Only set when the write latency is reported to the compaction rate limiter
+      private long submitted;
 
       private WriteOperation(LogRequest logRequest, java.nio.ByteBuffer serializedKey,
             java.nio.ByteBuffer serializedMetadata, java.nio.ByteBuffer serializedValue,
@@ -182,6 +225,19 @@ public CompletionStage<Void> pause() {
       return pauseRequest;
    }
 
+   /**
+    * Pauses the appender like {@link #pause()}, after all the writes submitted before were written and their index
+    * updates were submitted to the index. Writes with a lower sequence id than the returned one are therefore
+    * processed by the index before any request submitted to the index after the returned stage completes.
+    * @return a stage that when complete contains the sequence id of the next write
+    */
+   public CompletionStage<Long> checkpointAndPause() {
+      log.tracef("Pausing LogAppender for a checkpoint");
+      LogRequest checkpointRequest = LogRequest.checkpointRequest();
+      requestProcessor.onNext(checkpointRequest);
+      return checkpointRequest.thenApply(ignore -> checkpointSeqId);
+   }
+
    public CompletionStage<Void> resume() {
       log.tracef("Resuming LogAppender");
       LogRequest resumeRequest = LogRequest.resumeRequest();
@@ -207,12 +263,16 @@ private static <I> CompletionStage<I> cast(CompletionStage stage) {
 
    /**
     * This method is invoked for every request sent via {@link #storeRequest(int, MarshallableEntry)},
-    * {@link #deleteRequest(int, Object, ByteBuffer)} and {@link #clearAndPause()}. Note this method is only invoked
-    * by one thread at any time and has visibility guaranatees as provided by rxjava.
+    * {@link #deleteRequest(int, Object, ByteBuffer)}, {@link #clearAndPause()} and {@link #checkpointAndPause()}.
+    * Note this method is only invoked by one thread at any time and has visibility guaranatees as provided by rxjava.
     * @param request the log request
     */
    private void callerAccept(LogRequest request) {
-      if (request.isPause()) {
+      if (request.isFlush()) {
+         // Writes delayed by a pause were not written yet, but the ones waiting for a flush must not wait for a resume
+         sendToWriteProcessor(request);
+         return;
+      } else if (request.isPause()) {
          delayedLogRequests = new ArrayList<>();
          // This request is created in the same thread - so there can be no dependents
          request.complete(null);
@@ -223,7 +283,7 @@ private void callerAccept(LogRequest request) {
          // This request is created in the same thread - so there can be no dependents
          request.complete(null);
          return;
-      } else if (request.isClear()) {
+      } else if (request.isClear() || request.isCheckpoint()) {
          assert delayedLogRequests == null;
          delayedLogRequests = new ArrayList<>();
       } else if (delayedLogRequests != null) {
@@ -241,13 +301,31 @@ private void sendToWriteProcessor(LogRequest request) {
          submittedCount.incrementAndGet();
       }
 
-      writeProcessor.onNext(WriteOperation.fromLogRequest(request));
+      WriteOperation writeOperation = WriteOperation.fromLogRequest(request);
+      if (compactionRateLimiter != null) {
+         writeOperation.submitted = timeService.time();
+      }
+      writeProcessor.onNext(writeOperation);
    }
 
    @Override
    public void accept(WriteOperation writeOperation) {
       LogRequest actualRequest = writeOperation.logRequest;
       try {
+         if (actualRequest.isFlush()) {
+            flushScheduled = false;
+            syncPendingLogRequests();
+            // This request is only ever created by the scheduled flush - so there can be no dependents
+            actualRequest.complete(null);
+            return;
+         }
+         if (actualRequest.isCheckpoint()) {
+            syncPendingLogRequests();
+            checkpointSeqId = seqId;
+            // Same as clear, the index updates of all the previous writes are submitted before this completes
+            completionProcessor.onNext(ignore -> completeRequest(actualRequest));
+            return;
+         }
          if (logFile == null) {
             logFile = fileProvider.getFileForLog();
             log.tracef("Appending records to %s", logFile.fileId);
@@ -294,15 +372,31 @@ public void accept(WriteOperation writeOperation) {
                actualRequest.getLastUsed());
          actualRequest.setFile(logFile.fileId);
          actualRequest.setFileOffset(currentOffset);
+         if (compactionRateLimiter != null) {
+            compactionRateLimiter.recordWriteLatency(timeService.timeDuration(writeOperation.submitted, TimeUnit.NANOSECONDS));
+         }
 
          if (!syncWrites) {
             completionProcessor.onNext(writeOperation);
          } else {
             // This cannot be null when sync writes is true
             toSyncLogRequests.add(la -> la.handleRequestCompletion(actualRequest));
-            if (submittedCount.get() == ++receivedCount || toSyncLogRequests.size() == 1000) {
-               logFile.fileChannel.force(false);
-               completePendingLogRequests();
+            if (toSyncLogRequests.size() == 1) {
+               syncBatchStart = timeService.time();
+            }
+            pendingSyncBytes += actualLength;
+            boolean drained = submittedCount.get() == ++receivedCount;
+            if (pendingSyncBytes >= syncWritesMaxBytes || toSyncLogRequests.size() == MAX_SYNC_REQUESTS) {
+               syncPendingLogRequests();
+            } else if (drained) {
+               // No other write is queued, so give concurrent writers the rest of the window to share the fsync
+               long remaining = syncWritesWindowNanos - timeService.timeDuration(syncBatchStart, TimeUnit.NANOSECONDS);
+               if (remaining <= 0) {
+                  syncPendingLogRequests();
+               } else if (!flushScheduled) {
+                  flushScheduled = true;
+                  scheduledExecutor.schedule(this::requestFlush, remaining, TimeUnit.NANOSECONDS);
+               }
             }
          }
          currentOffset += actualLength;
@@ -316,10 +410,34 @@ public void complete(Consumer<LogAppender> consumer) throws Throwable {
       consumer.accept(this);
    }
 
+   private void requestFlush() {
+      FlowableProcessor<LogRequest> processor = requestProcessor;
+      // The appender may have been stopped in the meantime, in which case the pending writes were already forced
+      if (processor != null) {
+         processor.onNext(LogRequest.flushRequest());
+      }
+   }
+
+   /**
+    * Forces the current log file to disk and completes all the writes waiting for it. Must only be invoked by
+    * {@link #accept(WriteOperation)} method.
+    */
+   private void syncPendingLogRequests() throws IOException {
+      if (toSyncLogRequests == null || toSyncLogRequests.isEmpty()) {
+         return;
+      }
+      long start = timeService.time();
+      logFile.fileChannel.force(false);
+      syncTimes.update(timeService.timeDuration(start, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+      syncBatchSizes.record(toSyncLogRequests.size());
+      completePendingLogRequests();
+   }
+
    /**
     * Must only be invoked by {@link #accept(WriteOperation)} method.
     */
    private void completePendingLogRequests() {
+      pendingSyncBytes = 0;
       if (toSyncLogRequests != null) {
          for (Iterator<Consumer<LogAppender>> iter = toSyncLogRequests.iterator(); iter.hasNext(); ) {
             Consumer<LogAppender> consumer = iter.next();
@@ -329,6 +447,25 @@ private void completePendingLogRequests() {
       }
    }
 
+   /**
+    * The histograms of how many writes share a single fsync and of how long the fsync takes, only recorded when sync
+    * writes are enabled.
+    */
+   static Collection<MetricInfo> syncWritesMetrics(GlobalMetricsConfiguration configuration) {
+      if (!configuration.histograms()) {
+         return List.of(MetricUtils.<LogAppender>createFunctionTimer("SyncWritesTimes",
+               "Time spent forcing the log file to disk",
+               (appender, tracker) -> appender.syncTimes = tracker, null));
+      }
+      return List.of(
+            MetricUtils.<LogAppender>createDistributionSummary("SyncWritesBatchSize",
+                  "Number of writes forced to disk by a single fsync",
+                  (appender, tracker) -> appender.syncBatchSizes = tracker, null),
+            MetricUtils.<LogAppender>createTimer("SyncWritesTimes",
+                  "Time spent forcing the log file to disk",
+                  (appender, tracker) -> appender.syncTimes = tracker, null));
+   }
+
    public void setSeqId(long seqId) {
       this.seqId = seqId;
    }
@@ -18,7 +18,9 @@ enum Type {
       DELETE,
       CLEAR_ALL,
       PAUSE,
-      RESUME
+      RESUME,
+      FLUSH,
+      CHECKPOINT
    }
 
    private final Type type;
@@ -74,6 +76,14 @@ public static LogRequest resumeRequest() {
       return new LogRequest(Type.RESUME);
    }
 
+   public static LogRequest flushRequest() {
+      return new LogRequest(Type.FLUSH);
+   }
+
+   public static LogRequest checkpointRequest() {
+      return new LogRequest(Type.CHECKPOINT);
+   }
+
    public int length() {
       return EntryHeader.HEADER_SIZE_11_0 + serializedKey.getLength()
             + (serializedValue != null ? serializedValue.getLength() : 0)
@@ -129,6 +139,14 @@ public boolean isResume() {
       return type == Type.RESUME;
    }
 
+   public boolean isFlush() {
+      return type == Type.FLUSH;
+   }
+
+   public boolean isCheckpoint() {
+      return type == Type.CHECKPOINT;
+   }
+
    public void setIndexRequest(IndexRequest indexRequest) {
       this.indexRequest = indexRequest;
    }
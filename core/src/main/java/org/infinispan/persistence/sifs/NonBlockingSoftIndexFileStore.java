@@ -6,8 +6,12 @@
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -15,7 +19,9 @@
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
@@ -27,6 +33,7 @@
 import org.infinispan.commons.io.ByteBufferImpl;
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.MarshallingException;
+import org.infinispan.commons.stat.MetricInfo;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.AbstractIterator;
 import org.infinispan.commons.util.ByRef;
@@ -44,6 +51,8 @@
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
+import org.infinispan.metrics.Constants;
+import org.infinispan.metrics.impl.MetricsCollector;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.InitializationContext;
@@ -159,9 +168,14 @@
    private KeyPartitioner keyPartitioner;
    private InitializationContext ctx;
    private ProgressTracker progressTracker;
+   // Ids of the compactor and sync writes metrics, only registered when metrics are enabled
+   private Set<Object> metricIds;
    // This is only initialized when segmentation is disabled to both signal such and also to be used for multi segment operations
    private IntSet singleSegmentSet;
 
+   private ScheduledFuture<?> checkpointTask;
+   private final AtomicBoolean checkpointInProgress = new AtomicBoolean();
+
    private int segmentUsed(int segment) {
       return singleSegmentSet == null ? segment : 0;
    }
@@ -177,14 +191,26 @@ public Set<Characteristic> characteristics() {
 
    @Override
    public CompletionStage<Void> addSegments(IntSet segments) {
-      temporaryTable.addSegments(segments);
-      return index.addSegments(segments);
+      return invalidateCheckpoint().thenCompose(ignore -> {
+         temporaryTable.addSegments(segments);
+         return index.addSegments(segments);
+      });
    }
 
    @Override
    public CompletionStage<Void> removeSegments(IntSet segments) {
-      temporaryTable.removeSegments(segments);
-      return index.removeSegments(segments);
+      return invalidateCheckpoint().thenCompose(ignore -> {
+         temporaryTable.removeSegments(segments);
+         return index.removeSegments(segments);
+      });
+   }
+
+   private CompletionStage<Void> invalidateCheckpoint() {
+      if (configuration.checkpointInterval() <= 0) {
+         return CompletableFutures.completedNull();
+      }
+      // The checkpoint only covers the segments owned when it was written
+      return blockingManager.runBlocking(index::invalidateCheckpoint, "soft-index-invalidate-checkpoint");
    }
 
    @Override
@@ -232,31 +258,37 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }
 
       fileProvider = new FileProvider(getDataLocation(), maxOpenDataFiles, PREFIX_LATEST,
-            configuration.maxFileSize(), false);
+            configuration.maxFileSize(), false, configuration.memoryMappedReads());
+      ScheduledExecutorService timeoutExecutor = ComponentRegistry.componentOf(ctx.getCache(), ScheduledExecutorService.class, TIMEOUT_SCHEDULE_EXECUTOR);
+      CompactionRateLimiter compactionRateLimiter = configuration.compactionRate() > 0 ?
+            new CompactionRateLimiter(configuration.compactionRate(), timeService) : null;
       compactor = new Compactor(ctx.getNonBlockingManager(), fileProvider, temporaryTable, marshaller, timeService,
             keyPartitioner, configuration.maxFileSize(), configuration.compactionThreshold(),
-            blockingManager.asExecutor("sifs-compactor"));
+            blockingManager.asExecutor("sifs-compactor"), compactionRateLimiter, timeoutExecutor);
       try {
          index = new Index(ctx.getNonBlockingManager(), fileProvider, getIndexLocation(), cacheSegments,
                configuration.minNodeSize(), configuration.maxNodeSize(), temporaryTable, compactor,
                timeService, blockingManager.asExecutor("sifs-index"), maxOpenIndexFiles,
-               configuration.compactionThreshold());
+               configuration.compactionThreshold(), configuration.checkpointInterval() > 0);
       } catch (IOException e) {
          throw log.cannotOpenIndex(configuration.indexLocation(), e);
       }
       compactor.setIndex(index);
       logAppender = new LogAppender(ctx.getNonBlockingManager(), index, temporaryTable, compactor, fileProvider,
-            configuration.syncWrites(), configuration.maxFileSize());
+            configuration.syncWrites(), configuration.maxFileSize(), configuration.syncWritesWindow(),
+            configuration.syncWritesMaxBytes(), timeoutExecutor, timeService, compactionRateLimiter);
+      registerMetrics();
       logAppender.start(blockingManager.asExecutor("sifs-log-processor"));
       startIndex(segments);
       final AtomicLong maxSeqId = new AtomicLong(0);
       TimeService ts = ComponentRegistry.componentOf(ctx.getCache(), TimeService.class);
-      ScheduledExecutorService timeoutExecutor = ComponentRegistry.componentOf(ctx.getCache(), ScheduledExecutorService.class, TIMEOUT_SCHEDULE_EXECUTOR);
       Configuration cfg = ComponentRegistry.of(ctx.getCache()).getConfiguration();
       long timeout = cfg.clustering().remoteTimeout();
       progressTracker = new ProgressTracker("sifs-task-" + ctx.getCache().getName(), timeoutExecutor, ts, timeout, TimeUnit.MILLISECONDS);
 
       return blockingManager.runBlocking(() -> {
+         long recoveryStart = timeService.time();
+         int readFiles = 0;
          boolean migrateData = false;
          // we don't destroy the data on startup
          // get the old files
@@ -299,23 +331,50 @@ public CompletionStage<Void> start(InitializationContext ctx) {
                   buildIndex(maxSeqId);
                }
             } else {
-               log.debug("Building the index");
-               try {
-                  index.reset();
-               } catch (IOException e) {
-                  throw PERSISTENCE.issueEncounteredResettingIndex(ctx.getCache().getName(), e);
+               IndexCheckpoint.State checkpoint = configuration.checkpointInterval() > 0 ? index.loadCheckpoint() : null;
+               if (checkpoint != null) {
+                  log.debug("Recovering the index from the last checkpoint");
+                  readFiles = replayIndex(checkpoint, maxSeqId);
+               } else {
+                  log.debug("Building the index");
+                  try {
+                     index.reset();
+                  } catch (IOException e) {
+                     throw PERSISTENCE.issueEncounteredResettingIndex(ctx.getCache().getName(), e);
+                  }
+                  readFiles = buildIndex(maxSeqId);
                }
-               buildIndex(maxSeqId);
             }
          }
+         index.recoveryCompleted(timeService.timeDuration(recoveryStart, TimeUnit.MILLISECONDS), readFiles);
          if (!migrateData) {
             logAppender.setSeqId(maxSeqId.get() + 1);
          }
          // Compactor may have to write to the index, so it can't be started until after Index has been fully started
          compactor.start();
+         long checkpointInterval = configuration.checkpointInterval();
+         if (checkpointInterval > 0) {
+            checkpointTask = timeoutExecutor.scheduleWithFixedDelay(this::checkpointIndex, checkpointInterval,
+                  checkpointInterval, TimeUnit.MILLISECONDS);
+         }
       }, "soft-index-start");
    }
 
+   private void registerMetrics() {
+      MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+      if (metricsCollector == null) {
+         return;
+      }
+      String prefix = Constants.INFINISPAN_PREFIX + "sifs_";
+      String cacheName = ctx.getCache().getName();
+      metricIds = new HashSet<>(metricsCollector.registerMetrics(compactor, Compactor.metrics(), prefix, cacheName));
+      metricIds.addAll(metricsCollector.registerMetrics(index, Index.metrics(), prefix, cacheName));
+      if (configuration.syncWrites()) {
+         Collection<MetricInfo> metrics = LogAppender.syncWritesMetrics(ctx.getGlobalConfiguration().metrics());
+         metricIds.addAll(metricsCollector.registerMetrics(logAppender, metrics, prefix, cacheName));
+      }
+   }
+
    @Override
    public Publisher<MarshallableEntry<K, V>> purgeExpired() {
       return Flowable.defer(() -> {
@@ -432,7 +491,122 @@ private <T> T unmarshallLegacy(ByteBuffer buf, boolean allowInternal) throws Cla
       }
    }
 
-   private void buildIndex(final AtomicLong maxSeqId) {
+   /**
+    * Persists a checkpoint of the index. The log appender is paused until the checkpoint requests are submitted to
+    * the index segments, the rest of the checkpoint is written concurrently with new writes.
+    */
+   CompletionStage<Void> checkpointIndex() {
+      // Skip this checkpoint if the previous one is still running
+      if (!checkpointInProgress.compareAndSet(false, true)) {
+         return CompletableFutures.completedNull();
+      }
+      return sizeAndClearSequencer.orderOnKey(this, () ->
+                  logAppender.checkpointAndPause().thenCompose(seqId -> {
+                     // Submits the checkpoint requests synchronously, but makes sure the log appender is resumed
+                     // even if that fails
+                     CompletionStage<Void> checkpointStage = CompletableFuture.completedFuture(seqId)
+                           .thenCompose(index::checkpoint);
+                     // Writes appended from now on are not part of the checkpoint
+                     return logAppender.resume().thenCompose(ignore -> checkpointStage);
+                  }))
+            .whenComplete((ignore, t) -> {
+               checkpointInProgress.set(false);
+               if (t != null) {
+                  log.indexCheckpointFailed(t);
+               }
+            });
+   }
+
+   /**
+    * Recovers the index restored from a checkpoint, by reading only the data files that are not part of it.
+    *
+    * @return the number of data files read
+    */
+   private int replayIndex(IndexCheckpoint.State checkpoint, AtomicLong maxSeqId) {
+      Set<Integer> checkpointedFiles = new HashSet<>();
+      for (IndexCheckpoint.FileState file : checkpoint.files()) {
+         checkpointedFiles.add(file.file());
+      }
+      AtomicInteger readFiles = new AtomicInteger();
+      CompletionStage<Void> stage = filePublisher().flatMap(outerFile -> {
+         if (checkpointedFiles.contains(outerFile)) {
+            progressTracker.removeTasks(1);
+            return Flowable.empty();
+         }
+         ByRef.Long nextExpirationTime = new ByRef.Long(-1);
+         return handleFilePublisher(outerFile, false, false,
+               (file, offset, size, serializedKey, entryMetadata, serializedValue, serializedInternalMetadata, seqId, expiration) -> {
+                  long prevSeqId;
+                  while (seqId > (prevSeqId = maxSeqId.get()) && !maxSeqId.compareAndSet(prevSeqId, seqId)) {
+                  }
+                  Object key = marshaller.objectFromByteBuffer(serializedKey);
+                  if (log.isTraceEnabled()) {
+                     log.tracef("Replaying %d:%d (seqId %d, expiration %d)", file, offset, seqId, expiration);
+                  }
+                  nextExpirationTime.set(ExpiryHelper.mostRecentExpirationTime(nextExpirationTime.get(), expiration));
+                  replayEntry(checkpoint.seqId(), keyPartitioner.getSegment(key), key, serializedKey, file, offset,
+                        size, seqId);
+                  return null;
+               }).doOnComplete(() -> {
+                  readFiles.incrementAndGet();
+                  progressTracker.removeTasks(1);
+                  compactor.completeFile(outerFile, -1, nextExpirationTime.get(), false);
+               });
+      }).ignoreElements().toCompletionStage(null);
+      CompletionStages.join(stage);
+      // Writes before the checkpoint may have been compacted away
+      maxSeqId.accumulateAndGet(checkpoint.seqId() - 1, Math::max);
+      return readFiles.get();
+   }
+
+   private void replayEntry(long checkpointSeqId, int segment, Object key, byte[] serializedKey, int file, int offset,
+                            int size, long seqId) throws IOException {
+      for (; ; ) {
+         EntryPosition entry = temporaryTable.get(segment, key);
+         if (entry == null) {
+            entry = index.getInfo(key, segment, serializedKey);
+         }
+         if (entry == null) {
+            if (seqId < checkpointSeqId) {
+               // The key was dropped by the compactor before the checkpoint
+               compactor.free(file, size);
+            } else if (temporaryTable.set(segment, key, file, offset)) {
+               index.handleRequest(IndexRequest.update(segment, key, ByteBufferImpl.create(serializedKey), file, offset, size));
+            }
+            return;
+         }
+         if (entry.file == file && (entry.offset == offset || entry.offset == ~offset)) {
+            // The entry the index points to
+            return;
+         }
+         FileProvider.Handle handle = fileProvider.getFile(entry.file);
+         if (handle == null) {
+            // the file was deleted after we've looked up temporary table/index
+            continue;
+         }
+         long currentSeqId;
+         try (handle) {
+            int entryOffset = entry.offset < 0 ? ~entry.offset : entry.offset;
+            EntryHeader header = EntryRecord.readEntryHeader(handle, entryOffset);
+            if (header == null) {
+               throw new IOException("Cannot read " + entry.file + ":" + entryOffset);
+            }
+            currentSeqId = header.seqId();
+         }
+         if (seqId < checkpointSeqId || seqId == currentSeqId) {
+            // The record is already accounted for by the checkpoint or it is a copy left behind by the compactor
+            compactor.free(file, size);
+         } else if (seqId < currentSeqId) {
+            index.handleRequest(IndexRequest.foundOld(segment, key, ByteBufferImpl.create(serializedKey), file, offset, size));
+         } else if (temporaryTable.set(segment, key, file, offset)) {
+            index.handleRequest(IndexRequest.update(segment, key, ByteBufferImpl.create(serializedKey), file, offset, size));
+         }
+         return;
+      }
+   }
+
+   private int buildIndex(final AtomicLong maxSeqId) {
+      AtomicInteger readFiles = new AtomicInteger();
       Flowable<Integer> filePublisher = filePublisher();
       CompletionStage<Void> stage = filePublisher.flatMap(outerFile -> {
          ByRef.Long nextExpirationTime = new ByRef.Long(-1);
@@ -458,11 +632,13 @@ private void buildIndex(final AtomicLong maxSeqId) {
                   }
                   return null;
                }).doOnComplete(() -> {
+                  readFiles.incrementAndGet();
                   progressTracker.removeTasks(1);
                   compactor.completeFile(outerFile, -1, nextExpirationTime.get(), false);
                });
       }).ignoreElements().toCompletionStage(null);
       CompletionStages.join(stage);
+      return readFiles.get();
    }
 
    private Path getDataCacheRootLocation() {
@@ -520,7 +696,18 @@ protected void startIndex(IntSet segments) {
    public CompletionStage<Void> stop() {
       return blockingManager.runBlocking(() -> {
          try {
+            if (checkpointTask != null) {
+               checkpointTask.cancel(false);
+               checkpointTask = null;
+               // Wait for a checkpoint in progress, as it needs the log appender
+               CompletionStages.join(sizeAndClearSequencer.orderOnKey(this, CompletableFutures::completedNull));
+            }
             long maxSeqId = CompletionStages.join(logAppender.stop());
+            if (metricIds != null) {
+               MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+               metricIds.forEach(metricsCollector::unregisterMetric);
+               metricIds = null;
+            }
             compactor.stopOperations();
             compactor = null;
             CompletionStages.join(index.stop(maxSeqId));
@@ -548,7 +735,8 @@ public CompletionStage<Boolean> isAvailable() {
    @Override
    public CompletionStage<Void> clear() {
       return sizeAndClearSequencer.orderOnKey(this, () -> {
-         CompletionStage<Void> chainedStage = logAppender.clearAndPause();
+         // The checkpoint would reference deleted data files
+         CompletionStage<Void> chainedStage = invalidateCheckpoint().thenCompose(ignore -> logAppender.clearAndPause());
          chainedStage = chainedStage.thenCompose(ignore -> compactor.clearAndPause());
          chainedStage = chainedStage.thenCompose(ignore -> index.clear());
 
@@ -663,33 +851,89 @@ public CompletionStage<Boolean> containsKey(int segment, Object key) {
    @Override
    public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       int segmentUsed = segmentUsed(segment);
+      return blockingManager.supplyBlocking(() -> loadBlocking(segmentUsed, key), "soft-index-load");
+   }
+
+   private MarshallableEntry<K, V> loadBlocking(int segmentUsed, Object key) {
+      log.tracef("Loading key %s for segment %d", key, segmentUsed);
+      try {
+         for (;;) {
+            EntryPosition entry = temporaryTable.get(segmentUsed, key);
+            if (entry != null) {
+               if (entry.offset < 0) {
+                  log.tracef("Entry for key=%s found in temporary table on %d:%d but it is a tombstone", key, entry.file, entry.offset);
+                  return null;
+               }
+               MarshallableEntry<K, V> marshallableEntry = readValueFromFileOffset(key, entry);
+               if (marshallableEntry != null) {
+                  return marshallableEntry;
+               }
+            } else {
+               EntryRecord record = index.getRecord(key, segmentUsed, marshaller.objectToBuffer(key));
+               if (record == null) {
+                  log.tracef("Entry for key=%s not found in index, returning null", key);
+                  return null;
+               }
+               return entryFromRecord(record);
+            }
+         }
+      } catch (Exception e) {
+         throw log.cannotLoadKeyFromIndex(key, e);
+      }
+   }
+
+   @Override
+   public CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
       return blockingManager.supplyBlocking(() -> {
-         log.tracef("Loading key %s for segment %d", key, segmentUsed);
-         try {
-            for (;;) {
+         Map<Object, MarshallableEntry<K, V>> entries = new HashMap<>();
+         List<Object> indexKeys = new ArrayList<>();
+         List<Integer> indexSegments = new ArrayList<>();
+         for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+            int segmentUsed = segmentUsed(segmentKeys.getKey());
+            for (Object key : segmentKeys.getValue()) {
                EntryPosition entry = temporaryTable.get(segmentUsed, key);
-               if (entry != null) {
-                  if (entry.offset < 0) {
-                     log.tracef("Entry for key=%s found in temporary table on %d:%d but it is a tombstone", key, entry.file, entry.offset);
-                     return null;
-                  }
-                  MarshallableEntry<K, V> marshallableEntry = readValueFromFileOffset(key, entry);
-                  if (marshallableEntry != null) {
-                     return marshallableEntry;
-                  }
+               MarshallableEntry<K, V> marshallableEntry;
+               if (entry == null) {
+                  indexKeys.add(key);
+                  indexSegments.add(segmentUsed);
+                  continue;
+               } else if (entry.offset < 0) {
+                  marshallableEntry = null;
                } else {
-                  EntryRecord record = index.getRecord(key, segmentUsed, marshaller.objectToBuffer(key));
-                  if (record == null) {
-                     log.tracef("Entry for key=%s not found in index, returning null", key);
-                     return null;
-                  }
-                  return entryFromRecord(record);
+                  // The entry may have been moved since, in which case it is loaded again
+                  marshallableEntry = loadBlocking(segmentUsed, key);
+               }
+               if (marshallableEntry != null) {
+                  entries.put(key, marshallableEntry);
                }
             }
+         }
+         if (indexKeys.isEmpty()) {
+            return entries;
+         }
+         log.tracef("Loading keys %s from index", indexKeys);
+         org.infinispan.commons.io.ByteBuffer[] serializedKeys = new org.infinispan.commons.io.ByteBuffer[indexKeys.size()];
+         EntryRecord[] records;
+         try {
+            for (int i = 0; i < serializedKeys.length; ++i) {
+               serializedKeys[i] = marshaller.objectToBuffer(indexKeys.get(i));
+            }
+            records = index.getRecords(indexSegments.stream().mapToInt(Integer::intValue).toArray(), serializedKeys);
          } catch (Exception e) {
-            throw log.cannotLoadKeyFromIndex(key, e);
+            // A data file was removed by the compactor during the bulk read, load the keys one by one instead
+            log.tracef(e, "Bulk load from index failed, loading keys %s individually", indexKeys);
+            records = null;
+         }
+         for (int i = 0; i < indexKeys.size(); ++i) {
+            MarshallableEntry<K, V> marshallableEntry = records != null ?
+                  (records[i] != null ? entryFromRecord(records[i]) : null) :
+                  loadBlocking(indexSegments.get(i), indexKeys.get(i));
+            if (marshallableEntry != null) {
+               entries.put(indexKeys.get(i), marshallableEntry);
+            }
          }
-      }, "soft-index-load");
+         return entries;
+      }, "soft-index-load-all");
    }
 
    private MarshallableEntry<K, V> entryFromRecord(EntryRecord record) {
@@ -3,6 +3,7 @@
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.attributes.ConfigurationElement;
+import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.parsing.Attribute;
 import org.infinispan.configuration.parsing.Element;
 
@@ -10,9 +11,13 @@ public class DataConfiguration extends ConfigurationElement<DataConfiguration> {
    public static final AttributeDefinition<String> DATA_LOCATION = AttributeDefinition.builder(Attribute.PATH, null, String.class).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_FILE_SIZE = AttributeDefinition.builder(Attribute.MAX_FILE_SIZE, 16 * 1024 * 1024).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder(Attribute.SYNC_WRITES, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<TimeQuantity> SYNC_WRITES_WINDOW = AttributeDefinition.builder(Attribute.SYNC_WRITES_WINDOW, TimeQuantity.valueOf(0))
+         .parser(TimeQuantity.PARSER).immutable().autoPersist(false).since(16, 3).build();
+   public static final AttributeDefinition<Boolean> MEMORY_MAPPED_READS = AttributeDefinition.builder(Attribute.MEMORY_MAPPED_READS, false).immutable().autoPersist(false).since(16, 3).build();
+   public static final AttributeDefinition<Integer> SYNC_WRITES_MAX_BYTES = AttributeDefinition.builder(Attribute.SYNC_WRITES_MAX_BYTES, 4 * 1024 * 1024).immutable().autoPersist(false).since(16, 3).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES);
+      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES, SYNC_WRITES_WINDOW, SYNC_WRITES_MAX_BYTES, MEMORY_MAPPED_READS);
    }
 
    DataConfiguration(AttributeSet attributes) {
@@ -27,6 +32,31 @@ public boolean syncWrites() {
       return attributes.attribute(SYNC_WRITES).get();
    }
 
+   /**
+    * How long, in milliseconds, the store waits for more writes before forcing the data file to disk when
+    * {@link #syncWrites()} is enabled. All the writes received in the meantime share a single fsync.
+    * 0 means the data file is forced as soon as there are no more pending writes.
+    */
+   public long syncWritesWindow() {
+      return attributes.attribute(SYNC_WRITES_WINDOW).get().longValue();
+   }
+
+   /**
+    * The number of bytes written after which the data file is forced to disk when {@link #syncWrites()} is enabled,
+    * regardless of {@link #syncWritesWindow()}.
+    */
+   public int syncWritesMaxBytes() {
+      return attributes.attribute(SYNC_WRITES_MAX_BYTES).get();
+   }
+
+   /**
+    * Whether entries are read from data files that are no longer written to through a memory mapping of the whole
+    * file, instead of positional reads of the file channel.
+    */
+   public boolean memoryMappedReads() {
+      return attributes.attribute(MEMORY_MAPPED_READS).get();
+   }
+
    public String dataLocation() {
       return attributes.attribute(DATA_LOCATION).get();
    }
@@ -2,11 +2,17 @@
 
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.DATA_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MAX_FILE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MEMORY_MAPPED_READS;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_WRITES;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_WRITES_MAX_BYTES;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_WRITES_WINDOW;
+
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.TimeQuantity;
 
 public class DataConfigurationBuilder implements Builder<DataConfiguration> {
 
@@ -35,6 +41,26 @@ public DataConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   public DataConfigurationBuilder syncWritesWindow(long syncWritesWindow, TimeUnit unit) {
+      attributes.attribute(SYNC_WRITES_WINDOW).set(TimeQuantity.valueOf(unit.toMillis(syncWritesWindow)));
+      return this;
+   }
+
+   public DataConfigurationBuilder syncWritesWindow(String syncWritesWindow) {
+      attributes.attribute(SYNC_WRITES_WINDOW).set(TimeQuantity.valueOf(syncWritesWindow));
+      return this;
+   }
+
+   public DataConfigurationBuilder syncWritesMaxBytes(int syncWritesMaxBytes) {
+      attributes.attribute(SYNC_WRITES_MAX_BYTES).set(syncWritesMaxBytes);
+      return this;
+   }
+
+   public DataConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      attributes.attribute(MEMORY_MAPPED_READS).set(memoryMappedReads);
+      return this;
+   }
+
    @Override
    public DataConfiguration create() {
       return new DataConfiguration(attributes.protect());
@@ -3,6 +3,7 @@
 import org.infinispan.commons.configuration.attributes.AttributeDefinition;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.configuration.attributes.ConfigurationElement;
+import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.configuration.parsing.Attribute;
 import org.infinispan.configuration.parsing.Element;
 
@@ -13,9 +14,11 @@ public class IndexConfiguration extends ConfigurationElement<IndexConfiguration>
    public static final AttributeDefinition<Integer> INDEX_SEGMENTS = AttributeDefinition.builder(Attribute.SEGMENTS, 3).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MIN_NODE_SIZE = AttributeDefinition.builder(Attribute.MIN_NODE_SIZE, 0).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_NODE_SIZE = AttributeDefinition.builder(Attribute.MAX_NODE_SIZE, 4096).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<TimeQuantity> CHECKPOINT_INTERVAL = AttributeDefinition.builder(Attribute.CHECKPOINT_INTERVAL, TimeQuantity.valueOf(0))
+         .parser(TimeQuantity.PARSER).immutable().autoPersist(false).since(16, 3).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE);
+      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE, CHECKPOINT_INTERVAL);
    }
 
    public IndexConfiguration(AttributeSet attributes) {
@@ -49,4 +52,13 @@ public int maxNodeSize() {
    public int indexQueueLength() {
       return attributes.attribute(INDEX_QUEUE_LENGTH).get();
    }
+
+   /**
+    * How often, in milliseconds, the index is checkpointed while the store is running, so that after a crash only
+    * the data files written after the last checkpoint have to be read again. 0 means the index is only persisted on
+    * shutdown and is rebuilt from all the data files after a crash.
+    */
+   public long checkpointInterval() {
+      return attributes.attribute(CHECKPOINT_INTERVAL).get().longValue();
+   }
 }
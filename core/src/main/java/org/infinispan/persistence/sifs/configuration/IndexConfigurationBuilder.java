@@ -1,14 +1,18 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.CHECKPOINT_INTERVAL;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_LOCATION;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_QUEUE_LENGTH;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_SEGMENTS;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MAX_NODE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MIN_NODE_SIZE;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.TimeQuantity;
 import org.infinispan.persistence.sifs.Log;
 
 /**
@@ -55,6 +59,16 @@ public IndexConfigurationBuilder indexQueueLength(int indexQueueLength) {
       return this;
    }
 
+   public IndexConfigurationBuilder checkpointInterval(long checkpointInterval, TimeUnit unit) {
+      attributes.attribute(CHECKPOINT_INTERVAL).set(TimeQuantity.valueOf(unit.toMillis(checkpointInterval)));
+      return this;
+   }
+
+   public IndexConfigurationBuilder checkpointInterval(String checkpointInterval) {
+      attributes.attribute(CHECKPOINT_INTERVAL).set(TimeQuantity.valueOf(checkpointInterval));
+      return this;
+   }
+
    @Override
    public IndexConfiguration create() {
       return new IndexConfiguration(attributes.protect());
@@ -75,6 +89,10 @@ public void validate() {
       } else if (minNodeSize < 0 || minNodeSize > maxNodeSize) {
          throw log.minNodeSizeMustBeLessOrEqualToMax(minNodeSize, maxNodeSize);
       }
+      long checkpointInterval = attributes.attribute(CHECKPOINT_INTERVAL).get().longValue();
+      if (checkpointInterval < 0) {
+         throw log.invalidCheckpointInterval(checkpointInterval);
+      }
    }
 
    @Override
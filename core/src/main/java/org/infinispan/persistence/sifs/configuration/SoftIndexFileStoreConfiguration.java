@@ -19,11 +19,12 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration<
 
    public static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder(Attribute.OPEN_FILES_LIMIT, 1000).immutable().build();
    public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder(Attribute.COMPACTION_THRESHOLD, 0.5d).immutable().build();
+   public static final AttributeDefinition<Long> COMPACTION_RATE = AttributeDefinition.builder(Attribute.COMPACTION_RATE, 0L).immutable().build();
    private final IndexConfiguration index;
    private final DataConfiguration data;
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD, COMPACTION_RATE);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes,
@@ -67,10 +68,26 @@ public int indexQueueLength() {
       return index.indexQueueLength();
    }
 
+   public long checkpointInterval() {
+      return index.checkpointInterval();
+   }
+
    public boolean syncWrites() {
       return data.syncWrites();
    }
 
+   public long syncWritesWindow() {
+      return data.syncWritesWindow();
+   }
+
+   public int syncWritesMaxBytes() {
+      return data.syncWritesMaxBytes();
+   }
+
+   public boolean memoryMappedReads() {
+      return data.memoryMappedReads();
+   }
+
    /**
     * The maximum number of files that will be open at a given time for all the data and index files, which does
     * not include compactor and current log file (which will always be 2).
@@ -89,6 +106,13 @@ public double compactionThreshold() {
       return attributes.attribute(COMPACTION_THRESHOLD).get();
    }
 
+   /**
+    * @return the maximum number of bytes per second the compactor reads and rewrites, 0 when unlimited
+    */
+   public long compactionRate() {
+      return attributes.attribute(COMPACTION_RATE).get();
+   }
+
    public IndexConfiguration index() {
       return index;
    }
@@ -1,8 +1,11 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_RATE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
@@ -107,6 +110,26 @@ public SoftIndexFileStoreConfigurationBuilder indexQueueLength(int indexQueueLen
       return this;
    }
 
+   /**
+    * Sets how often the index is checkpointed while the store is running. After a crash the store then loads the
+    * last checkpoint and only reads the data files written after it, instead of rebuilding the whole index.
+    * <p>
+    * Defaults to <code>0</code>, so the index is only persisted on shutdown.
+    */
+   public SoftIndexFileStoreConfigurationBuilder checkpointInterval(long checkpointInterval, TimeUnit unit) {
+      index.checkpointInterval(checkpointInterval, unit);
+      return this;
+   }
+
+   /**
+    * Same as {@link #checkpointInterval(long, TimeUnit)}, with an optional unit: ms (milliseconds), s (seconds),
+    * m (minutes), h (hours), d (days).
+    */
+   public SoftIndexFileStoreConfigurationBuilder checkpointInterval(String checkpointInterval) {
+      index.checkpointInterval(checkpointInterval);
+      return this;
+   }
+
    /**
     * Sets whether writes shoud wait to be fsynced to disk.
     * <p>
@@ -117,6 +140,50 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * Sets how long the store waits for more writes before forcing them to disk together, when
+    * {@link #syncWrites(boolean)} is enabled. A longer window lets concurrent writes share a single fsync, at the cost
+    * of the latency of the individual writes.
+    * <p>
+    * Defaults to <code>0</code>, so writes are only grouped with the ones that are already queued.
+    */
+   public SoftIndexFileStoreConfigurationBuilder syncWritesWindow(long syncWritesWindow, TimeUnit unit) {
+      data.syncWritesWindow(syncWritesWindow, unit);
+      return this;
+   }
+
+   /**
+    * Same as {@link #syncWritesWindow(long, TimeUnit)}, with an optional unit: ms (milliseconds), s (seconds),
+    * m (minutes), h (hours), d (days).
+    */
+   public SoftIndexFileStoreConfigurationBuilder syncWritesWindow(String syncWritesWindow) {
+      data.syncWritesWindow(syncWritesWindow);
+      return this;
+   }
+
+   /**
+    * Sets how many bytes can be written before they are forced to disk, regardless of the
+    * {@link #syncWritesWindow(long, TimeUnit)}, when {@link #syncWrites(boolean)} is enabled.
+    * <p>
+    * Defaults to <code>4194304</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder syncWritesMaxBytes(int syncWritesMaxBytes) {
+      data.syncWritesMaxBytes(syncWritesMaxBytes);
+      return this;
+   }
+
+   /**
+    * Sets whether entries are read through a memory mapping of the data files that are no longer appended to, instead
+    * of reading them from the file channel. This avoids a system call per read for caches that mostly read from a
+    * large store, at the cost of address space for every mapped file.
+    * <p>
+    * Defaults to <code>false</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      data.memoryMappedReads(memoryMappedReads);
+      return this;
+   }
+
    /**
     * Sets the maximum number of open files.
     * <p>
@@ -137,6 +204,17 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   /**
+    * Limits the I/O performed by the compactor to the given number of bytes per second. Files are then compacted in
+    * chunks and the rate is temporarily lowered while the latency of writes to the store rises.
+    * <p>
+    * Defaults to <code>0</code> (unlimited).
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionRate(long bytesPerSecond) {
+      attributes.attribute(COMPACTION_RATE).set(bytesPerSecond);
+      return this;
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(), async.create(), index.create(), data.create());
@@ -163,6 +241,15 @@ public void validate() {
       if (compactionThreshold <= 0 || compactionThreshold > 1) {
          throw log.invalidCompactionThreshold(compactionThreshold);
       }
+      long compactionRate = attributes.attribute(COMPACTION_RATE).get();
+      if (compactionRate < 0) {
+         throw log.invalidCompactionRate(compactionRate);
+      }
+      long syncWritesWindow = data.attributes().attribute(DataConfiguration.SYNC_WRITES_WINDOW).get().longValue();
+      int syncWritesMaxBytes = data.attributes().attribute(DataConfiguration.SYNC_WRITES_MAX_BYTES).get();
+      if (syncWritesWindow < 0 || syncWritesMaxBytes <= 0) {
+         throw log.invalidSyncWritesBatch(syncWritesWindow, syncWritesMaxBytes);
+      }
    }
 
    @Override
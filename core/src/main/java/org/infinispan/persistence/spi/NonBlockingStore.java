@@ -1,10 +1,13 @@
 package org.infinispan.persistence.spi;
 
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -12,7 +15,9 @@
 import org.infinispan.Cache;
 import org.infinispan.commons.util.Experimental;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.concurrent.AggregateCompletionStage;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
@@ -274,6 +279,39 @@ default CompletionStage<Boolean> isAvailable() {
     */
    CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key);
 
+   /**
+    * Returns a stage that will contain the values loaded from the store for multiple keys. Stores that can look up
+    * many keys more efficiently than one by one, for example by reading them in the order they are stored, should
+    * override this method.
+    * <p>
+    * The characteristics affect this method in the same way as {@link #load(int, Object)}.
+    * <p>
+    * The default implementation invokes {@link #load(int, Object)} for every key.
+    * <p>
+    * If a problem is encountered, it is recommended to wrap any created/caught Throwable in a
+    * {@link PersistenceException} and the stage be completed exceptionally.
+    * @param keysBySegment the keys to load, grouped by their segment if segmentation is enabled, otherwise all in
+    *                      segment 0.
+    * @return a stage that, when complete, contains the loaded values mapped by the requested key instances. Keys not
+    * present in the store are not in the map.
+    * @since 16.3
+    */
+   default CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+      Map<Object, MarshallableEntry<K, V>> entries = new ConcurrentHashMap<>();
+      AggregateCompletionStage<Map<Object, MarshallableEntry<K, V>>> stage = CompletionStages.aggregateCompletionStage(entries);
+      for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+         int segment = segmentKeys.getKey();
+         for (Object key : segmentKeys.getValue()) {
+            stage.dependsOn(load(segment, key).thenAccept(entry -> {
+               if (entry != null) {
+                  entries.put(key, entry);
+               }
+            }));
+         }
+      }
+      return stage.freeze();
+   }
+
    /**
     * Returns a stage that will contain whether the value can be found in the store.
     * <h4>Summary of Characteristics Effects</h4>
@@ -1,5 +1,7 @@
 package org.infinispan.persistence.support;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
@@ -40,6 +42,11 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return delegate().load(segment, key);
    }
 
+   @Override
+   public CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+      return delegate().loadAll(keysBySegment);
+   }
+
    @Override
    public CompletionStage<Boolean> containsKey(int segment, Object key) {
       return delegate().containsKey(segment, key);
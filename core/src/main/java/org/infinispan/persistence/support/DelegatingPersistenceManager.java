@@ -1,6 +1,7 @@
 package org.infinispan.persistence.support;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.BiPredicate;
@@ -79,6 +80,16 @@ public Flowable<MarshallableEntry<Object, Object>> preloadPublisher() {
       return persistenceManager.preloadPublisher();
    }
 
+   @Override
+   public Flowable<MarshallableEntry<Object, Object>> preloadPublisher(IntSet segments) {
+      return persistenceManager.preloadPublisher(segments);
+   }
+
+   @Override
+   public boolean isPreloadSegmented() {
+      return persistenceManager.isPreloadSegmented();
+   }
+
    @Override
    public CompletionStage<Void> disableStore(String storeType) {
       return persistenceManager.disableStore(storeType);
@@ -200,6 +211,11 @@ public <K, V> CompletionStage<Void> writeEntries(Iterable<MarshallableEntry<K, V
       return persistenceManager.writeEntries(iterable, predicate);
    }
 
+   @Override
+   public CompletionStage<Void> deleteBatchFromAllStores(Iterable<?> keys, Predicate<? super StoreConfiguration> predicate) {
+      return persistenceManager.deleteBatchFromAllStores(keys, predicate);
+   }
+
    @Override
    public CompletionStage<Long> performBatch(TxInvocationContext<AbstractCacheTransaction> invocationContext,
                                              TriPredicate<? super WriteCommand, Object, MVCCEntry<?, ?>> commandKeyPredicate) {
@@ -228,6 +244,13 @@ public <K, V> CompletionStage<MarshallableEntry<K, V>> loadFromAllStores(Object
       return persistenceManager.loadFromAllStores(key, segment, localInvocation, includeStores);
    }
 
+   @Override
+   public <K, V> CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAllFromAllStores(Map<Integer, ? extends Collection<?>> keysBySegment,
+                                                                                       boolean localInvocation,
+                                                                                       boolean includeStores) {
+      return persistenceManager.loadAllFromAllStores(keysBySegment, localInvocation, includeStores);
+   }
+
    @Override
    public CompletionStage<Long> approximateSize(Predicate<? super StoreConfiguration> predicate, IntSet segments) {
       return persistenceManager.approximateSize(predicate, segments);
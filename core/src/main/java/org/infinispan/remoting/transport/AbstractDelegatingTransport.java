@@ -159,6 +159,16 @@ public Collection<Address> getRelayNodesAddress() {
       return actual.getRelayNodesAddress();
    }
 
+   @Override
+   public long getRecentResponseTime() {
+      return actual.getRecentResponseTime();
+   }
+
+   @Override
+   public long getAverageResponseTime() {
+      return actual.getAverageResponseTime();
+   }
+
    @Override
    public <T> CompletionStage<T> invokeCommand(Address target, ReplicableCommand command,
                                                ResponseCollector<Address, T> collector, DeliverOrder deliverOrder,
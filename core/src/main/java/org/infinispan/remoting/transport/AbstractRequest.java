@@ -24,9 +24,11 @@
    protected final ResponseCollector<S, T> responseCollector;
    protected final long requestId;
    protected final RequestRepository repository;
+   private final long startNanos = System.nanoTime();
 
    private volatile Future<?> timeoutFuture = null;
    private volatile long timeoutMs = -1;
+   private volatile boolean recordResponseTime = true;
 
    protected AbstractRequest(long requestId, ResponseCollector<S, T> responseCollector, RequestRepository repository) {
       this.responseCollector = responseCollector;
@@ -57,6 +59,14 @@ public void setTimeout(ScheduledExecutorService timeoutExecutor, long timeout, T
       setTimeoutFuture(timeoutFuture, unit.toMillis(timeout));
    }
 
+   /**
+    * Do not include this request in the response times of the {@link RequestRepository}, e.g. because it transfers
+    * a lot more data than a regular request.
+    */
+   public void skipResponseTime() {
+      recordResponseTime = false;
+   }
+
    public void cancel(Exception exception) {
       completeExceptionally(exception);
    }
@@ -66,6 +76,9 @@ public void cancel(Exception exception) {
    public boolean complete(T value) {
       cancelTimeoutTask();
       repository.removeRequest(requestId);
+      if (recordResponseTime && !isDone()) {
+         repository.recordResponseTime(System.nanoTime() - startNanos);
+      }
       return super.complete(value);
    }
 
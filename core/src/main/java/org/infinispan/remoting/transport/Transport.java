@@ -212,6 +212,22 @@ default boolean isPrimaryRelayNode() {
       return !relayNodeList.isEmpty() && relayNodeList.iterator().next().equals(getAddress());
    }
 
+   /**
+    * @return The response time of the most recent synchronous requests sent by this node, in nanoseconds, or {@code 0}
+    * if it is not tracked.
+    */
+   default long getRecentResponseTime() {
+      return 0;
+   }
+
+   /**
+    * @return The long term average response time of the synchronous requests sent by this node, in nanoseconds, or
+    * {@code 0} if it is not tracked.
+    */
+   default long getAverageResponseTime() {
+      return 0;
+   }
+
    /**
     * Invoke a command on a single node and pass the response to a {@link ResponseCollector}.
     * <p>
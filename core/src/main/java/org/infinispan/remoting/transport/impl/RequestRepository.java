@@ -18,6 +18,9 @@ public class RequestRepository {
 
    private final ConcurrentHashMap<Long, Request<?, ?>> requests;
    private final AtomicLong nextRequestId = new AtomicLong(1);
+   // Exponentially weighted moving averages of the response time in nanoseconds
+   private volatile long recentResponseTime;
+   private volatile long averageResponseTime;
 
    public RequestRepository() {
       requests = new ConcurrentHashMap<>();
@@ -54,6 +57,37 @@ public void removeRequest(long requestId) {
       requests.remove(requestId);
    }
 
+   /**
+    * Records the time between sending a request and receiving its last response.
+    * <p>
+    * The updates are not atomic, a sample lost because of a concurrent update does not change the averages much.
+    */
+   public void recordResponseTime(long nanos) {
+      long average = averageResponseTime;
+      if (average == 0) {
+         recentResponseTime = nanos;
+         averageResponseTime = nanos;
+      } else {
+         long recent = recentResponseTime;
+         recentResponseTime = recent + (nanos - recent) / 8;
+         averageResponseTime = average + (nanos - average) / 256;
+      }
+   }
+
+   /**
+    * @return The response time of the last few requests, in nanoseconds, or {@code 0} if no request completed yet.
+    */
+   public long getRecentResponseTime() {
+      return recentResponseTime;
+   }
+
+   /**
+    * @return The long term average response time, in nanoseconds, or {@code 0} if no request completed yet.
+    */
+   public long getAverageResponseTime() {
+      return averageResponseTime;
+   }
+
    public void forEach(Consumer<Request<?, ?>> consumer) {
       requests.forEach((id, request) -> consumer.accept(request));
    }
@@ -0,0 +1,60 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import java.util.List;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.marshall.protostream.impl.MarshallableList;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.NodeVersion;
+
+/**
+ * Several asynchronous commands sent to the same node in a single message by the {@link CommandBatcher}. The receiver
+ * handles the commands in order, as if they had been received in separate messages.
+ *
+ * @since 16.3
+ */
+@ProtoTypeId(ProtoStreamTypeIds.COMMAND_BATCH)
+public class CommandBatch implements ReplicableCommand {
+
+   public static final NodeVersion SUPPORTED_SINCE = NodeVersion.from((byte) 16, (byte) 3, (byte) 0);
+
+   private final List<ReplicableCommand> commands;
+
+   public CommandBatch(List<ReplicableCommand> commands) {
+      this.commands = commands;
+   }
+
+   @ProtoFactory
+   CommandBatch(MarshallableList<ReplicableCommand> wrappedCommands) {
+      this(MarshallableList.unwrap(wrappedCommands));
+   }
+
+   @ProtoField(number = 1, name = "commands")
+   MarshallableList<ReplicableCommand> getWrappedCommands() {
+      return MarshallableList.create(commands);
+   }
+
+   public List<ReplicableCommand> getCommands() {
+      return commands;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public NodeVersion supportedSince() {
+      return SUPPORTED_SINCE;
+   }
+
+   @Override
+   public String toString() {
+      return "CommandBatch{" +
+            "commands=" + commands +
+            '}';
+   }
+}
@@ -0,0 +1,121 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Aggregates the asynchronous {@link DeliverOrder#PER_SENDER} commands sent to each node into {@link CommandBatch}es.
+ * <p>
+ * The batch of a node is sent when the estimated size of its commands reaches the maximum, or when its first command
+ * has waited for the maximum delay. Any other {@code PER_SENDER} message to the node must {@link #flush(Address)} the
+ * batch before it is sent, so the node still receives all the messages in the order they were sent.
+ *
+ * @since 16.3
+ */
+class CommandBatcher {
+   private static final Log log = LogFactory.getLog(CommandBatcher.class);
+
+   private final JGroupsTransport transport;
+   private final Marshaller marshaller;
+   private final JGroupsMetricsManager metricsManager;
+   private final TimeService timeService;
+   private final ScheduledExecutorService timeoutExecutor;
+   private final Executor executor;
+   private final long maxDelayNanos;
+   private final int maxBytes;
+   private final ConcurrentMap<Address, Batch> batches = new ConcurrentHashMap<>();
+
+   CommandBatcher(JGroupsTransport transport, Marshaller marshaller, JGroupsMetricsManager metricsManager,
+                  TimeService timeService, ScheduledExecutorService timeoutExecutor, Executor executor,
+                  long maxDelayNanos, int maxBytes) {
+      this.transport = transport;
+      this.marshaller = marshaller;
+      this.metricsManager = metricsManager;
+      this.timeService = timeService;
+      this.timeoutExecutor = timeoutExecutor;
+      this.executor = executor;
+      this.maxDelayNanos = maxDelayNanos;
+      this.maxBytes = maxBytes;
+   }
+
+   void add(Address destination, ReplicableCommand command) {
+      batches.computeIfAbsent(destination, Batch::new).add(command);
+   }
+
+   /**
+    * Sends the pending commands for the destination, if any.
+    */
+   void flush(Address destination) {
+      Batch batch = batches.get(destination);
+      if (batch != null) {
+         batch.flush();
+      }
+   }
+
+   void flushAll() {
+      batches.values().forEach(Batch::flush);
+   }
+
+   private class Batch {
+      private final Address destination;
+      private List<ReplicableCommand> commands = new ArrayList<>();
+      private int bytes;
+      private long startNanos;
+      private ScheduledFuture<?> timeout;
+
+      Batch(Address destination) {
+         this.destination = destination;
+      }
+
+      synchronized void add(ReplicableCommand command) {
+         if (commands.isEmpty()) {
+            startNanos = timeService.time();
+            // Sending can block, so it must not happen on the timeout thread
+            timeout = timeoutExecutor.schedule(() -> executor.execute(this::flushOnTimeout), maxDelayNanos, NANOSECONDS);
+         }
+         commands.add(command);
+         bytes += marshaller.getBufferSizePredictor(command).nextSize(command);
+         if (bytes >= maxBytes) {
+            flush();
+         }
+      }
+
+      private void flushOnTimeout() {
+         try {
+            flush();
+         } catch (Throwable t) {
+            log.errorf(t, "Failed to send batched commands to %s", destination);
+         }
+      }
+
+      // Sending while holding the lock keeps the batches to the same destination in order
+      synchronized void flush() {
+         if (commands.isEmpty())
+            return;
+
+         timeout.cancel(false);
+         List<ReplicableCommand> toSend = commands;
+         commands = new ArrayList<>();
+         bytes = 0;
+         metricsManager.recordCommandBatch(toSend.size(), timeService.timeDuration(startNanos, NANOSECONDS));
+         if (!transport.sendBatch(destination, toSend)) {
+            batches.remove(destination, this);
+         }
+      }
+   }
+}
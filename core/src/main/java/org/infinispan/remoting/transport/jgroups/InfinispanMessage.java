@@ -1,14 +1,39 @@
 package org.infinispan.remoting.transport.jgroups;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.function.Supplier;
 
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.MarshallingException;
+import org.infinispan.commons.marshall.StreamAwareMarshaller;
+import org.infinispan.remoting.responses.Response;
 import org.jgroups.BytesMessage;
 import org.jgroups.Message;
+import org.jgroups.util.ByteArrayDataOutputStream;
 
-// TODO: we don't actually use this yet, just reserve the type id for future usage
+/**
+ * A {@link BytesMessage} that marshalls a {@link Response} directly into the JGroups output buffer when the message is
+ * written, instead of into an intermediate array when it is created.
+ * <p>
+ * The response is marshalled once when the message is created, only to compute its exact size, which JGroups needs for
+ * bundling and fragmentation. It is marshalled again every time the message is written, e.g. on retransmissions, so
+ * the payload is limited to responses: the transport creates them and never modifies them once they are sent, unlike
+ * commands. As a safety net, if the size changed anyway, or the payload cannot be written into a rewindable buffer,
+ * the message falls back to marshalling it into an array, and the array is used from then on. The same happens when a
+ * protocol accesses the array of the message (e.g. compression or encryption). {@link #hasArray()} only returns
+ * {@code true} once the array exists, so protocols that can work without it do not force the extra marshalling.
+ * <p>
+ * The payload is written in the same format as a {@link BytesMessage}, so the receiver always reads it as an array.
+ */
 class InfinispanMessage extends BytesMessage {
    public static final short TYPE = 1234;
 
+   private Object payload;
+   private Marshaller marshaller;
+   private int payloadLength;
+
    public InfinispanMessage() {
    }
 
@@ -20,6 +45,45 @@ public InfinispanMessage(org.jgroups.Address dest, byte[] array) {
       super(dest, array);
    }
 
+   /**
+    * @param marshaller a marshaller that is also a {@link StreamAwareMarshaller}
+    * @throws IOException if the payload cannot be marshalled
+    */
+   public InfinispanMessage(org.jgroups.Address dest, Response payload, Marshaller marshaller) throws IOException {
+      super(dest);
+      CountingOutputStream counter = new CountingOutputStream(null);
+      ((StreamAwareMarshaller) marshaller).writeObject(payload, counter);
+      setPayload(payload, marshaller, counter.count);
+   }
+
+   private synchronized void setPayload(Object payload, Marshaller marshaller, int payloadLength) {
+      this.payload = payload;
+      this.marshaller = marshaller;
+      this.payloadLength = payloadLength;
+   }
+
+   private synchronized Object payload() {
+      return payload;
+   }
+
+   /**
+    * Marshalls the payload into an array, for protocols that access the array of the message.
+    */
+   private synchronized void toArray() {
+      if (payload == null)
+         return;
+      try {
+         byte[] bytes = marshaller.objectToByteBuffer(payload);
+         payload = null;
+         super.setArray(bytes, 0, bytes.length);
+      } catch (IOException e) {
+         throw new MarshallingException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new MarshallingException(e);
+      }
+   }
+
    @Override
    public Supplier<Message> create() {
       return InfinispanMessage::new;
@@ -29,4 +93,105 @@ public Supplier<Message> create() {
    public short getType() {
       return TYPE;
    }
+
+   @Override
+   public boolean hasPayload() {
+      return payload() != null || super.hasPayload();
+   }
+
+   @Override
+   public byte[] getArray() {
+      toArray();
+      return super.getArray();
+   }
+
+   @Override
+   public int getOffset() {
+      toArray();
+      return super.getOffset();
+   }
+
+   @Override
+   public synchronized int getLength() {
+      return payload != null ? payloadLength : super.getLength();
+   }
+
+   @Override
+   public synchronized BytesMessage setArray(byte[] b, int offset, int length) {
+      payload = null;
+      return super.setArray(b, offset, length);
+   }
+
+   @Override
+   public int size() {
+      // With a lazy payload, super.size() only accounts for the length prefix
+      synchronized (this) {
+         return super.size() + (payload != null ? payloadLength : 0);
+      }
+   }
+
+   @Override
+   protected <T extends Message> T copyPayload(T copy) {
+      synchronized (this) {
+         if (payload != null && copy instanceof InfinispanMessage message) {
+            message.setPayload(payload, marshaller, payloadLength);
+            return copy;
+         }
+      }
+      return super.copyPayload(copy);
+   }
+
+   @Override
+   public void writePayload(DataOutput out) throws IOException {
+      Object payload;
+      Marshaller marshaller;
+      int payloadLength;
+      synchronized (this) {
+         payload = this.payload;
+         marshaller = this.marshaller;
+         payloadLength = this.payloadLength;
+      }
+      if (payload != null && out instanceof ByteArrayDataOutputStream buffer) {
+         int start = buffer.position();
+         out.writeInt(payloadLength);
+         CountingOutputStream os = new CountingOutputStream(out);
+         try {
+            ((StreamAwareMarshaller) marshaller).writeObject(payload, os);
+            if (os.count == payloadLength)
+               return;
+         } catch (IOException | RuntimeException e) {
+            // Retry below with the array, which reports the error if it persists
+         }
+         // The payload changed since its size was computed, discard what was written
+         buffer.position(start);
+      }
+      toArray();
+      super.writePayload(out);
+   }
+
+   /**
+    * Counts the bytes written, and forwards them to a {@link DataOutput} if there is one.
+    */
+   private static class CountingOutputStream extends OutputStream {
+      private final DataOutput out;
+      int count;
+
+      CountingOutputStream(DataOutput out) {
+         this.out = out;
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+         if (out != null)
+            out.write(b);
+         count++;
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+         if (out != null)
+            out.write(b, off, len);
+         count += len;
+      }
+   }
 }
@@ -28,6 +28,24 @@ public interface JGroupsMetricsManager {
     */
    void recordMessageSent(Address destination, int bytesSent, boolean async);
 
+   /**
+    * Records a request or response marshalled before it is sent.
+    *
+    * @param bufferBytes The number of bytes allocated for the intermediate buffer the message was marshalled into, or
+    *                    {@code 0} if it is marshalled directly into the JGroups output buffer.
+    * @param sizedBytes  The number of bytes marshalled only to compute the size of a message marshalled directly into
+    *                    the JGroups output buffer, or {@code 0} if it was marshalled into an intermediate buffer.
+    */
+   void recordMarshalling(int bufferBytes, int sizedBytes);
+
+   /**
+    * Records a batch of asynchronous commands sent to a node.
+    *
+    * @param commands   The number of commands in the batch.
+    * @param delayNanos The time, in nanoseconds, the first command of the batch waited before it was sent.
+    */
+   void recordCommandBatch(int commands, long delayNanos);
+
    /**
     * Registers metrics for a {@link JChannel}.
     *
@@ -62,6 +62,8 @@ public class JGroupsMetricsManagerImpl implements JGroupsMetricsManager {
    @Deprecated(forRemoval = true, since = "16.0")
    private String legacyGlobalPrefix;
    private volatile MainChannelRegistry mainChannelRegistry;
+   private volatile MarshallingMetrics marshallingMetrics;
+   private volatile BatchMetrics batchMetrics;
    private volatile boolean stopped = true;
 
    public JGroupsMetricsManagerImpl(boolean histogramEnabled, String legacyGlobalPrefix) {
@@ -84,6 +86,7 @@ public void stop() {
       perDestinationMetrics.values().forEach(metrics -> metrics.unregister(registry));
       perDestinationMetrics.clear();
       otherChannels.forEach(metrics -> metrics.unregister(registry));
+      unregisterMessageMetrics();
       mainChannelRegistry = null;
    }
 
@@ -131,6 +134,24 @@ public void recordMessageSent(Address destination, int bytesSent, boolean async)
       }
    }
 
+   @Override
+   public void recordMarshalling(int bufferBytes, int sizedBytes) {
+      var metrics = marshallingMetrics;
+      if (stopped || metrics == null) {
+         return;
+      }
+      metrics.record(bufferBytes, sizedBytes);
+   }
+
+   @Override
+   public void recordCommandBatch(int commands, long delayNanos) {
+      var metrics = batchMetrics;
+      if (stopped || metrics == null) {
+         return;
+      }
+      metrics.record(commands, delayNanos);
+   }
+
    @Override
    public synchronized void onChannelConnected(JChannel channel, boolean isMainChannel) {
       if (stopped) {
@@ -141,6 +162,8 @@ public synchronized void onChannelConnected(JChannel channel, boolean isMainChan
       if (isMainChannel) {
          assert mainChannelRegistry == null;
          mainChannelRegistry = new MainChannelRegistry(nodeName, clusterName);
+         marshallingMetrics = createMarshallingMetrics(mainChannelRegistry);
+         batchMetrics = createBatchMetrics(mainChannelRegistry);
       }
       if (otherChannels.stream().map(m -> m.channel).noneMatch(ch -> ch.equals(channel))) {
          otherChannels.add(new ClusterMetrics(channel));
@@ -156,6 +179,7 @@ public synchronized void onChannelDisconnected(JChannel channel) {
          return;
       }
       if (mainChannelRegistry != null && mainChannelRegistry.clusterName.equals(channel.clusterName()) && mainChannelRegistry.nodeName.equals(channel.address().toString())) {
+         unregisterMessageMetrics();
          mainChannelRegistry = null;
       }
       Optional<ClusterMetrics> optMetrics = otherChannels.stream().filter(m -> m.channel.equals(channel)).findFirst();
@@ -189,6 +213,58 @@ private DestinationMetrics createDestinationMetrics(Address destination) {
       return builder.build(metricsIds, histogramEnabled);
    }
 
+   private MarshallingMetrics createMarshallingMetrics(MainChannelRegistry statsRegistry) {
+      List<MetricInfo> attributes = new ArrayList<>(4);
+      attributes.add(MetricUtils.createCounter("MarshalledMessages", "Number of requests and responses marshalled",
+            MarshallingMetricsBuilder::setMessages, Map.of()));
+      attributes.add(MetricUtils.createCounter("DirectlyMarshalledMessages",
+            "Number of responses marshalled directly into the JGroups output buffer",
+            MarshallingMetricsBuilder::setDirectMessages, Map.of()));
+      attributes.add(MetricUtils.createCounter("MarshallingBufferBytes",
+            "Bytes allocated for the intermediate buffers requests and responses are marshalled into",
+            MarshallingMetricsBuilder::setBufferBytes, Map.of()));
+      attributes.add(MetricUtils.createCounter("MarshallingSizedBytes",
+            "Bytes marshalled only to compute the size of the responses marshalled directly into the JGroups output buffer",
+            MarshallingMetricsBuilder::setSizedBytes, Map.of()));
+      MarshallingMetricsBuilder builder = new MarshallingMetricsBuilder();
+      var metricsIds = statsRegistry.registerStats(builder, attributes);
+      return new MarshallingMetrics(builder.messages, builder.directMessages, builder.bufferBytes, builder.sizedBytes,
+            metricsIds);
+   }
+
+   private BatchMetrics createBatchMetrics(MainChannelRegistry statsRegistry) {
+      List<MetricInfo> attributes = new ArrayList<>(4);
+      attributes.add(MetricUtils.createCounter("CommandBatches", "Number of batches of asynchronous commands sent",
+            BatchMetricsBuilder::setBatches, Map.of()));
+      attributes.add(MetricUtils.createCounter("BatchedCommands", "Number of asynchronous commands sent in batches",
+            BatchMetricsBuilder::setCommands, Map.of()));
+      if (histogramEnabled) {
+         attributes.add(MetricUtils.createTimer("CommandBatchDelay",
+               "Time the first command of a batch waited before the batch was sent",
+               BatchMetricsBuilder::setDelay, Map.of()));
+      } else {
+         attributes.add(MetricUtils.createFunctionTimer("CommandBatchDelay",
+               "Time the first command of a batch waited before the batch was sent",
+               BatchMetricsBuilder::setDelay, Map.of()));
+      }
+      BatchMetricsBuilder builder = new BatchMetricsBuilder();
+      var metricsIds = statsRegistry.registerStats(builder, attributes);
+      return new BatchMetrics(builder.batches, builder.commands, builder.delay, metricsIds);
+   }
+
+   private void unregisterMessageMetrics() {
+      var metrics = marshallingMetrics;
+      if (metrics != null) {
+         registry.unregisterMetrics(metrics.metricsIds());
+         marshallingMetrics = null;
+      }
+      var batches = batchMetrics;
+      if (batches != null) {
+         registry.unregisterMetrics(batches.metricsIds());
+         batchMetrics = null;
+      }
+   }
+
    private static String nodeName(JChannel channel) {
       org.jgroups.Address addr = channel.address();
       return addr == null ? channel.name() : addr.toString();
@@ -298,6 +374,72 @@ void unregister(MetricsRegistry registry) {
       }
    }
 
+   private static class MarshallingMetricsBuilder {
+      CounterTracker messages;
+      CounterTracker directMessages;
+      CounterTracker bufferBytes;
+      CounterTracker sizedBytes;
+
+      void setMessages(CounterTracker messages) {
+         this.messages = messages;
+      }
+
+      void setDirectMessages(CounterTracker directMessages) {
+         this.directMessages = directMessages;
+      }
+
+      void setBufferBytes(CounterTracker bufferBytes) {
+         this.bufferBytes = bufferBytes;
+      }
+
+      void setSizedBytes(CounterTracker sizedBytes) {
+         this.sizedBytes = sizedBytes;
+      }
+   }
+
+   private record MarshallingMetrics(CounterTracker messages, CounterTracker directMessages,
+                                     CounterTracker bufferBytes, CounterTracker sizedBytes,
+                                     Set<Object> metricsIds) {
+
+      void record(int bufferBytes, int sizedBytes) {
+         messages.increment();
+         if (bufferBytes == 0) {
+            directMessages.increment();
+            this.sizedBytes.increment(sizedBytes);
+         } else {
+            this.bufferBytes.increment(bufferBytes);
+         }
+      }
+   }
+
+   private static class BatchMetricsBuilder {
+      CounterTracker batches;
+      CounterTracker commands;
+      TimerTracker delay;
+
+      void setBatches(CounterTracker batches) {
+         this.batches = batches;
+      }
+
+      void setCommands(CounterTracker commands) {
+         this.commands = commands;
+      }
+
+      void setDelay(TimerTracker delay) {
+         this.delay = delay;
+      }
+   }
+
+   private record BatchMetrics(CounterTracker batches, CounterTracker commands, TimerTracker delay,
+                               Set<Object> metricsIds) {
+
+      void record(int commands, long delayNanos) {
+         batches.increment();
+         this.commands.increment(commands);
+         delay.update(Duration.ofNanos(delayNanos));
+      }
+   }
+
    private static class RequestTrackerImpl implements RequestTracker {
       private final Address destination;
       final DestinationMetrics metrics;
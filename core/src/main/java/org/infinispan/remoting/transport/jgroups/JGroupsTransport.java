@@ -42,7 +42,9 @@
 import org.infinispan.commons.IllegalLifecycleStateException;
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.marshall.BufferSizePredictor;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.StreamAwareMarshaller;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.FileLookup;
 import org.infinispan.commons.util.FileLookupFactory;
@@ -115,6 +117,7 @@
 import org.jgroups.fork.ForkChannel;
 import org.jgroups.jmx.JmxConfigurator;
 import org.jgroups.protocols.FORK;
+import org.jgroups.protocols.Fragmentation;
 import org.jgroups.protocols.relay.RELAY;
 import org.jgroups.protocols.relay.RELAY2;
 import org.jgroups.protocols.relay.RouteStatusListener;
@@ -137,6 +140,14 @@
  * <li><code>configurationXml</code> - JGroups configuration XML as a String</li>
  * <li><code>configurationFile</code> - String pointing to a JGroups XML configuration file</li>
  * </ul>
+ * The <code>directMarshallingThreshold</code> property enables marshalling responses whose expected size is at least
+ * that many bytes, and below the fragmentation size, directly into the JGroups output buffers, see
+ * {@link InfinispanMessage}. This saves the intermediate array, but marshalls each response twice, once to compute
+ * its size. It is disabled by default.
+ * The <code>commandBatchDelay</code> property enables batching the asynchronous commands sent in
+ * {@link DeliverOrder#PER_SENDER} order to each node for up to that many microseconds, and
+ * <code>commandBatchSize</code> sends a batch early when the expected size of its commands reaches that many bytes
+ * (16384 by default), see {@link CommandBatcher}. Batching is disabled by default.
  * These are normally passed in as Properties in
  * {@link TransportConfigurationBuilder#withProperties(Properties)} or
  * in the Infinispan XML configuration file.
@@ -154,6 +165,9 @@ public class JGroupsTransport implements Transport {
    public static final String CHANNEL_CONFIGURATOR = "channelConfigurator";
    public static final String SOCKET_FACTORY = "socketFactory";
    public static final String DATA_SOURCE = "dataSource";
+   public static final String DIRECT_MARSHALLING_THRESHOLD = "directMarshallingThreshold";
+   public static final String COMMAND_BATCH_DELAY = "commandBatchDelay";
+   public static final String COMMAND_BATCH_SIZE = "commandBatchSize";
    public static final short REQUEST_FLAGS_UNORDERED =
          (short) (Message.Flag.OOB.value() | Message.Flag.NO_TOTAL_ORDER.value());
    public static final short REQUEST_FLAGS_UNORDERED_NO_FC = (short) (REQUEST_FLAGS_UNORDERED | Message.Flag.NO_FC.value());
@@ -193,6 +207,9 @@ public class JGroupsTransport implements Transport {
    private final ThreadPoolProbeHandler probeHandler;
    private final ChannelCallbacks channelCallbacks = new ChannelCallbacks();
    protected TypedProperties props;
+   private int directMarshallingThreshold = -1;
+   private int directMarshallingMaxSize = Integer.MAX_VALUE;
+   private CommandBatcher batcher;
    protected JChannel channel;
    protected Address address;
    // these members are not valid until we have received the first view on a second thread
@@ -308,7 +325,11 @@ public void sendTo(Address destination, ReplicableCommand command, DeliverOrder
       }
       checkCommandCompatibility(command);
       logCommand(command, destination);
-      sendCommandCheckingView(destination, command, Request.NO_REQUEST_ID, deliverOrder);
+      if (isBatched(deliverOrder)) {
+         batcher.add(destination, command);
+      } else {
+         sendCommandCheckingView(destination, command, Request.NO_REQUEST_ID, deliverOrder);
+      }
    }
 
    @Override
@@ -319,7 +340,7 @@ public void sendToMany(Collection<Address> targets, ReplicableCommand command, D
          sendCommandToAll(command, Request.NO_REQUEST_ID, deliverOrder);
       } else {
          logCommand(command, targets);
-         sendCommand(targets, command, Request.NO_REQUEST_ID, deliverOrder);
+         sendCommandOrBatch(targets, command, deliverOrder);
       }
    }
 
@@ -459,9 +480,25 @@ public void start() {
 
       probeHandler.updateThreadPool(nonBlockingExecutor);
       props = TypedProperties.toTypedProperties(configuration.transport().properties());
+      if (marshaller instanceof StreamAwareMarshaller) {
+         directMarshallingThreshold = props.getIntProperty(DIRECT_MARSHALLING_THRESHOLD, -1);
+      }
+      long commandBatchDelay = props.getLongProperty(COMMAND_BATCH_DELAY, 0);
+      if (commandBatchDelay > 0) {
+         batcher = new CommandBatcher(this, marshaller, metricsManager, timeService, timeoutExecutor,
+               nonBlockingExecutor, TimeUnit.MICROSECONDS.toNanos(commandBatchDelay),
+               props.getIntProperty(COMMAND_BATCH_SIZE, 16384));
+      }
       requests = new RequestRepository();
 
       initChannel();
+      if (directMarshallingThreshold >= 0) {
+         // Fragmented messages need their payload as an array
+         Fragmentation fragmentation = channel.getProtocolStack().findProtocol(Fragmentation.class);
+         if (fragmentation != null) {
+            directMarshallingMaxSize = fragmentation.getFragSize();
+         }
+      }
 
       channel.setUpHandler(channelCallbacks);
       setXSiteViewListener(channelCallbacks);
@@ -821,6 +858,9 @@ protected void receiveClusterView(View newView, boolean installIfFirst) {
    @Stop
    @Override
    public void stop() {
+      if (batcher != null) {
+         batcher.flushAll();
+      }
       running = false;
 
       if (channel != null) {
@@ -946,6 +986,16 @@ public boolean isPrimaryRelayNode() {
             .orElse(false);
    }
 
+   @Override
+   public long getRecentResponseTime() {
+      return requests.getRecentResponseTime();
+   }
+
+   @Override
+   public long getAverageResponseTime() {
+      return requests.getAverageResponseTime();
+   }
+
    @Override
    public <T> CompletionStage<T> invokeCommand(Address target, ReplicableCommand command,
                                                ResponseCollector<Address, T> collector, DeliverOrder deliverOrder,
@@ -959,6 +1009,10 @@ public <T> CompletionStage<T> invokeCommand(Address target, ReplicableCommand co
       long requestId = requests.newRequestId();
       logRequest(requestId, command, target, "single");
       SingleTargetRequest<T> request = new SingleTargetRequest<>(collector, requestId, requests, metricsManager.trackRequest(target));
+      if (!command.isReturnValueExpected()) {
+         // Only requests returning a value are measured, state transfer chunks would skew the response times
+         request.skipResponseTime();
+      }
       addRequest(request);
       if (request.onNewView(clusterView.getMembersSet())) {
          // The request is completed, destination not found in view. We can return immediately.
@@ -1183,25 +1237,27 @@ void sendCommandCheckingView(Address destination, Object command, long requestId
    }
 
    void doSendForCrossSite(SiteAddress target, Object command, long requestId, DeliverOrder deliverOrder) {
-      Message message = new BytesMessage(target);
-      marshallRequest(message, command, requestId);
+      Message message = marshallRequest(target, command, requestId);
       setMessageFlagsForCrossSite(message, deliverOrder);
       send(message);
    }
 
    void doSendForCluster(Address address, ExtendedUUID target, Object command, long requestId, DeliverOrder deliverOrder) {
-      Message message = new BytesMessage(target);
-      marshallRequest(message, command, requestId);
+      if (batcher != null && deliverOrder.preserveOrder()) {
+         // The pending batch must be delivered first
+         batcher.flush(address);
+      }
+      Message message = marshallRequest(target, command, requestId);
       setMessageFlagsForCluster(message, deliverOrder);
       send(message);
       metricsManager.recordMessageSent(address, message.size(), requestId == Request.NO_REQUEST_ID);
    }
 
-   private void marshallRequest(Message message, Object command, long requestId) {
+   private Message marshallRequest(org.jgroups.Address target, Object command, long requestId) {
       try {
-         ByteBuffer bytes = marshaller.objectToBuffer(command);
-         message.setArray(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+         Message message = marshall(target, command);
          addRequestHeader(message, requestId);
+         return message;
       } catch (RuntimeException e) {
          throw e;
       } catch (Exception e) {
@@ -1209,6 +1265,35 @@ private void marshallRequest(Message message, Object command, long requestId) {
       }
    }
 
+   /**
+    * Marshalls the object into a new message.
+    */
+   private Message marshall(org.jgroups.Address target, Object obj) throws Exception {
+      ByteBuffer bytes = marshaller.objectToBuffer(obj);
+      metricsManager.recordMarshalling(bytes.getBuf().length, 0);
+      return new BytesMessage(target).setArray(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+   }
+
+   /**
+    * Marshalls the response into a new message. If direct marshalling is enabled and the response is expected to be
+    * large enough, it is only marshalled into the JGroups output buffer when the message is sent.
+    * Requests never use direct marshalling, as commands may still be modified after they are sent, and neither do
+    * messages expected to be fragmented.
+    */
+   private Message marshallResponse(org.jgroups.Address target, Response response) throws Exception {
+      if (directMarshallingThreshold >= 0) {
+         BufferSizePredictor sizePredictor = marshaller.getBufferSizePredictor(response);
+         int expectedSize = sizePredictor.nextSize(response);
+         if (expectedSize >= directMarshallingThreshold && expectedSize < directMarshallingMaxSize) {
+            InfinispanMessage message = new InfinispanMessage(target, response, marshaller);
+            sizePredictor.recordSize(message.getLength());
+            metricsManager.recordMarshalling(0, message.getLength());
+            return message;
+         }
+      }
+      return marshall(target, response);
+   }
+
    private static void setMessageFlagsForCrossSite(Message message, DeliverOrder deliverOrder) {
       message.setFlag(encodeDeliverMode(deliverOrder), false);
       message.setFlag(Message.TransientFlag.DONT_LOOPBACK.value(), true);
@@ -1285,10 +1370,14 @@ private CompletableFuture<Map<Address, Response>> performAsyncRemoteInvocation(C
          sendCommandToAll(command, Request.NO_REQUEST_ID, deliverOrder);
       } else if (singleTarget != null) {
          logCommand(command, singleTarget);
-         sendCommandCheckingView(singleTarget, command, Request.NO_REQUEST_ID, deliverOrder);
+         if (isBatched(deliverOrder)) {
+            batcher.add(singleTarget, command);
+         } else {
+            sendCommandCheckingView(singleTarget, command, Request.NO_REQUEST_ID, deliverOrder);
+         }
       } else {
          logCommand(command, recipients);
-         sendCommand(recipients, command, Request.NO_REQUEST_ID, deliverOrder);
+         sendCommandOrBatch(recipients, command, deliverOrder);
       }
       return EMPTY_RESPONSES_FUTURE;
    }
@@ -1335,8 +1424,10 @@ public void sendToAll(ReplicableCommand command, DeliverOrder deliverOrder) {
     * Send a command to the entire cluster.
     */
    private void sendCommandToAll(ReplicableCommand command, long requestId, DeliverOrder deliverOrder) {
-      Message message = new BytesMessage();
-      marshallRequest(message, command, requestId);
+      if (batcher != null && deliverOrder.preserveOrder()) {
+         batcher.flushAll();
+      }
+      Message message = marshallRequest(null, command, requestId);
       setMessageFlagsForCluster(message, deliverOrder);
       send(message);
       clusterView.getMembersSet().stream()
@@ -1344,6 +1435,44 @@ private void sendCommandToAll(ReplicableCommand command, long requestId, Deliver
             .forEach(t -> metricsManager.recordMessageSent(t, message.size(), requestId == Request.NO_REQUEST_ID));
    }
 
+   private boolean isBatched(DeliverOrder deliverOrder) {
+      return batcher != null && deliverOrder == DeliverOrder.PER_SENDER;
+   }
+
+   private void sendCommandOrBatch(Collection<Address> targets, ReplicableCommand command, DeliverOrder deliverOrder) {
+      if (isBatched(deliverOrder)) {
+         for (Address target : targets) {
+            if (!target.equals(address)) {
+               batcher.add(target, command);
+            }
+         }
+      } else {
+         sendCommand(targets, command, Request.NO_REQUEST_ID, deliverOrder);
+      }
+   }
+
+   /**
+    * Sends the commands batched for a node, as a single {@link CommandBatch} if the node supports it.
+    *
+    * @return {@code false} if the node is no longer in the view
+    */
+   boolean sendBatch(Address destination, List<ReplicableCommand> commands) {
+      ExtendedUUID target = clusterView.getAddressFromView(destination);
+      if (target == null) {
+         if (log.isTraceEnabled())
+            log.tracef("%s dropping %d batched commands for %s, not in view", address, commands.size(), destination);
+         return false;
+      }
+      if (commands.size() == 1 || (isMixedVersionCluster() && getOldestMember().lessThan(CommandBatch.SUPPORTED_SINCE))) {
+         for (ReplicableCommand command : commands) {
+            doSendForCluster(destination, target, command, Request.NO_REQUEST_ID, DeliverOrder.PER_SENDER);
+         }
+      } else {
+         doSendForCluster(destination, target, new CommandBatch(commands), Request.NO_REQUEST_ID, DeliverOrder.PER_SENDER);
+      }
+      return true;
+   }
+
    private void logRequest(long requestId, Object command, Object targets, String type) {
       if (log.isTraceEnabled())
          log.tracef("%s sending %s request %d to %s: %s", address, type, requestId, targets, command);
@@ -1402,8 +1531,7 @@ private void cancelRequestsFromSite(String site) {
    private void sendCommand(Collection<Address> targets, ReplicableCommand command, long requestId,
                             DeliverOrder deliverOrder) {
       Objects.requireNonNull(targets);
-      Message message = new BytesMessage();
-      marshallRequest(message, command, requestId);
+      Message message = marshallRequest(null, command, requestId);
       setMessageFlagsForCluster(message, deliverOrder);
 
       Message copy = message;
@@ -1418,6 +1546,9 @@ private void sendCommand(Collection<Address> targets, ReplicableCommand command,
             continue;
          }
 
+         if (batcher != null && deliverOrder.preserveOrder()) {
+            batcher.flush(address);
+         }
          copy.dest(target);
          send(copy);
 
@@ -1478,7 +1609,7 @@ void processMessage(Message message) {
    private void sendResponse(org.jgroups.Address target, Response response, long requestId, Object command) {
       if (log.isTraceEnabled())
          log.tracef("%s sending response for request %d to %s: %s", getAddress(), requestId, target, response);
-      ByteBuffer bytes;
+      Message message;
       JChannel channel = this.channel;
       if (channel == null) {
          // Avoid NPEs during stop()
@@ -1487,12 +1618,17 @@ private void sendResponse(org.jgroups.Address target, Response response, long re
       try {
          // If no response, then send a buffer containing a single byte. An empty payload is not possible,
          // as this can also signify to a receiver that the ForkChannel is not running on this node.
-         bytes = response == null ? EMPTY_MESSAGE_BUFFER : marshaller.objectToBuffer(response);
+         if (response == null) {
+            message = new BytesMessage(target)
+                  .setArray(EMPTY_MESSAGE_BUFFER.getBuf(), EMPTY_MESSAGE_BUFFER.getOffset(), EMPTY_MESSAGE_BUFFER.getLength());
+         } else {
+            message = marshallResponse(target, response);
+         }
       } catch (Throwable t) {
          try {
             // this call should succeed (all exceptions are serializable)
             Exception e = t instanceof Exception ? ((Exception) t) : new CacheException(t);
-            bytes = marshaller.objectToBuffer(new ExceptionResponse(e));
+            message = marshall(target, new ExceptionResponse(e));
          } catch (Throwable tt) {
             if (channel.isConnected()) {
                CLUSTER.errorSendingResponse(requestId, target, command);
@@ -1502,8 +1638,7 @@ private void sendResponse(org.jgroups.Address target, Response response, long re
       }
 
       try {
-         Message message = new BytesMessage(target).setFlag(REPLY_FLAGS, false);
-         message.setArray(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+         message.setFlag(REPLY_FLAGS, false);
          RequestCorrelator.Header header = new RequestCorrelator.Header(RESPONSE, requestId,
                CORRELATOR_ID);
          message.putHeader(HEADER_ID, header);
@@ -1541,7 +1676,20 @@ private void processRequest(org.jgroups.Address src, short flags, byte[] buffer,
          if (org.jgroups.util.Util.isFlagSet(flags, Message.Flag.NO_RELAY)) {
             assert command instanceof ReplicableCommand;
             assert src instanceof ExtendedUUID;
-            invocationHandler.handleFromCluster(AddressCache.fromExtendedUUID((ExtendedUUID) src), (ReplicableCommand) command, reply, deliverOrder);
+            Address origin = AddressCache.fromExtendedUUID((ExtendedUUID) src);
+            if (command instanceof CommandBatch batch) {
+               // Batches are only sent without a request id, and the commands are handled in the order they were sent
+               // A command that fails must not prevent the rest of the batch from being handled
+               for (ReplicableCommand batchedCommand : batch.getCommands()) {
+                  try {
+                     invocationHandler.handleFromCluster(origin, batchedCommand, Reply.NO_OP, deliverOrder);
+                  } catch (Throwable t) {
+                     CLUSTER.errorProcessingRequest(requestId, src, t);
+                  }
+               }
+            } else {
+               invocationHandler.handleFromCluster(origin, (ReplicableCommand) command, reply, deliverOrder);
+            }
          } else {
             assert src instanceof SiteAddress;
             assert command instanceof XSiteRequest;
@@ -28,6 +28,16 @@ public void recordMessageSent(Address destination, int bytesSent, boolean async)
       //no-op
    }
 
+   @Override
+   public void recordMarshalling(int bufferBytes, int sizedBytes) {
+      //no-op
+   }
+
+   @Override
+   public void recordCommandBatch(int commands, long delayNanos) {
+      //no-op
+   }
+
    @Override
    public void onChannelConnected(JChannel channel, boolean isMainChannel) {
       //no-op
@@ -4,8 +4,10 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -15,6 +17,7 @@
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.reactive.publisher.impl.SegmentPublisherSupplier;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
@@ -63,11 +66,28 @@ public class OutboundTransferTask {
 
    private final RpcOptions rpcOptions;
 
+   private final StateTransferFlowControl flowControl;
+
+   private final Executor nonBlockingExecutor;
+
    private volatile boolean cancelled;
 
    public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int topologyId,
                                Consumer<Collection<StateChunk>> onChunkReplicated, RpcManager rpcManager,
                                CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState) {
+      this(destination, segments, segmentCount, chunkSize, topologyId, onChunkReplicated, rpcManager, commandsFactory,
+            timeout, cacheName, applyState, null, null);
+   }
+
+   /**
+    * @param flowControl limits the size of each state response and the rate at which they are sent, may be {@code null}
+    * @param nonBlockingExecutor sends the state responses that had to wait for the flow control, may only be
+    *                            {@code null} if {@code flowControl} is {@code null}
+    */
+   public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int topologyId,
+                               Consumer<Collection<StateChunk>> onChunkReplicated, RpcManager rpcManager,
+                               CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState,
+                               StateTransferFlowControl flowControl, Executor nonBlockingExecutor) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -87,6 +107,8 @@ public OutboundTransferTask(Address destination, IntSet segments, int segmentCou
       this.timeout = timeout;
       this.cacheName = cacheName;
       this.applyState = applyState;
+      this.flowControl = flowControl;
+      this.nonBlockingExecutor = nonBlockingExecutor;
 
       this.rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
    }
@@ -120,12 +142,23 @@ public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notificat
             // although we are batching the data, our final chunk can be smaller than chunkSize.
             // This could be improved.
             .concatMapCompletable(batch -> {
+               // A batch is split in several requests if its entries exceed the chunk bytes limit
+               long chunkBytes = flowControl != null ? flowControl.chunkBytes() : 0;
+               List<StateRequest> requests = new ArrayList<>(1);
                Map<Integer, StateChunk> chunks = new HashMap<>();
+               long bytes = 0;
                for(SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>> notification: batch) {
                   if (notification.isValue()) {
+                     long entryBytes = flowControl != null ? StateTransferFlowControl.estimateSize(notification.value()) : 0;
+                     if (chunkBytes > 0 && bytes > 0 && bytes + entryBytes > chunkBytes) {
+                        requests.add(new StateRequest(chunks, bytes));
+                        chunks = new HashMap<>();
+                        bytes = 0;
+                     }
                      StateChunk chunk = chunks.computeIfAbsent(
                            notification.valueSegment(), segment -> new StateChunk(segment, new ArrayList<>(), false));
                      chunk.getCacheEntries().add(notification.value());
+                     bytes += entryBytes;
                   }
 
                   // If the notification identify the segment is completed we mark a chunk as a last chunk.
@@ -136,19 +169,47 @@ public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notificat
                            : new StateChunk(segment, previous.getCacheEntries(), true));
                   }
                }
+               requests.add(new StateRequest(chunks, bytes));
 
-               return Completable.fromCompletionStage(sendChunks(chunks));
+               if (requests.size() == 1) {
+                  return Completable.fromCompletionStage(sendChunks(chunks, bytes));
+               }
+               return Flowable.fromIterable(requests)
+                     .concatMapCompletable(request -> Completable.fromCompletionStage(sendChunks(request.chunks(), request.bytes())), 1);
             }, 1)
             .toCompletionStage(null);
    }
 
-   private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks) {
+   private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks, long bytes) {
       if (chunks.isEmpty())
          return CompletableFutures.completedNull();
 
+      if (flowControl == null)
+         return doSendChunks(chunks, bytes);
+
+      CompletionStage<Void> admitted = flowControl.acquireOutbound(bytes);
+      if (CompletionStages.isCompletedSuccessfully(admitted))
+         return sendAdmittedChunks(chunks, bytes);
+
+      // The flow control completes its delay on the timeout scheduler thread, which must not send the state
+      return admitted.thenComposeAsync(ignored -> sendAdmittedChunks(chunks, bytes), nonBlockingExecutor);
+   }
+
+   private CompletionStage<Void> sendAdmittedChunks(Map<Integer, StateChunk> chunks, long bytes) {
+      // The task may have been cancelled while waiting
+      if (cancelled)
+         return CompletableFutures.completedNull();
+
+      long start = System.nanoTime();
+      return doSendChunks(chunks, bytes)
+            .thenRun(() -> flowControl.onOutboundSent(bytes, System.nanoTime() - start));
+   }
+
+   private CompletionStage<Void> doSendChunks(Map<Integer, StateChunk> chunks, long bytes) {
       if (log.isTraceEnabled()) {
          long entriesSize = chunks.values().stream().mapToInt(v -> v.getCacheEntries().size()).sum();
-         log.tracef("Sending to node %s %d cache entries from segments %s", destination, entriesSize, chunks.keySet());
+         log.tracef("Sending to node %s %d cache entries (%d bytes) from segments %s", destination, entriesSize, bytes,
+               chunks.keySet());
       }
 
       StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(topologyId, chunks.values(), applyState);
@@ -217,6 +278,9 @@ public boolean isCancelled() {
       return cancelled;
    }
 
+   private record StateRequest(Map<Integer, StateChunk> chunks, long bytes) {
+   }
+
    @Override
    public String toString() {
       return "OutboundTransferTask{" +
@@ -0,0 +1,114 @@
+package org.infinispan.statetransfer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.MarshallingException;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.reactive.publisher.impl.DeliveryGuarantee;
+import org.infinispan.reactive.publisher.impl.LocalPublisherManager;
+import org.infinispan.reactive.publisher.impl.SegmentPublisherSupplier;
+
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * Computes order independent checksums of the entries in a segment.
+ * <p>
+ * The checksum of a segment is the sum of a 64-bit hash of each entry (key, value, lifespan, max idle and version),
+ * so two nodes holding the same entries for a segment compute the same checksum regardless of the iteration order or
+ * of whether the entries are in memory or only in a store. An empty segment always has the checksum {@code 0}.
+ * <p>
+ * The hash of an entry that can expire also includes its expiry time, so a joiner never keeps an entry that expires
+ * at a different time than on the owners. Every owner records its own creation and last used times, so in practice
+ * a segment holding expirable entries rarely matches and is transferred in full.
+ * <p>
+ * Keys and values stored as {@code byte[]}, {@link WrappedBytes} or {@link String} are hashed by content, other
+ * objects (and the version) by the content of their marshalled form, so that the result does not depend on
+ * {@link Object#hashCode()}, which is only 32 bits wide and not value based for every type. Objects that do not
+ * marshal deterministically simply never match, and their segments are always transferred.
+ *
+ * @since 16.3
+ */
+final class SegmentChecksums {
+
+   private SegmentChecksums() { }
+
+   static CompletionStage<Map<Integer, Long>> compute(LocalPublisherManager<?, ?> localPublisherManager,
+                                                      Marshaller marshaller, IntSet segments, long flags) {
+      Map<Integer, Long> checksums = new HashMap<>();
+      segments.forEach((int segment) -> checksums.put(segment, 0L));
+      return Flowable.fromPublisher(localPublisherManager.entryPublisher(segments, null, null, flags,
+                  DeliveryGuarantee.AT_MOST_ONCE, Function.identity()).publisherWithSegments())
+            .filter(SegmentPublisherSupplier.Notification::isValue)
+            .collect(() -> checksums, (map, notification) -> {
+               InternalCacheEntry<?, ?> entry = (InternalCacheEntry<?, ?>) notification.value();
+               map.merge(notification.valueSegment(), hash(entry, marshaller), Long::sum);
+            })
+            .toCompletionStage();
+   }
+
+   static long hash(InternalCacheEntry<?, ?> entry, Marshaller marshaller) {
+      long h = hash(entry.getKey(), marshaller);
+      h = h * 31 + hash(entry.getValue(), marshaller);
+      Metadata metadata = entry.getMetadata();
+      if (metadata != null) {
+         h = h * 31 + metadata.lifespan();
+         h = h * 31 + metadata.maxIdle();
+         h = h * 31 + hash(metadata.version(), marshaller);
+      }
+      if (entry.canExpire()) {
+         h = h * 31 + entry.getExpiryTime();
+      }
+      return mix(h);
+   }
+
+   private static long hash(Object o, Marshaller marshaller) {
+      if (o == null) {
+         return 0;
+      } else if (o instanceof byte[] bytes) {
+         return hash(bytes, 0, bytes.length);
+      } else if (o instanceof WrappedBytes wrappedBytes) {
+         return hash(wrappedBytes.getBytes(), wrappedBytes.backArrayOffset(), wrappedBytes.getLength());
+      } else if (o instanceof String string) {
+         byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+         return hash(bytes, 0, bytes.length);
+      }
+      try {
+         byte[] bytes = marshaller.objectToByteBuffer(o);
+         return hash(bytes, 0, bytes.length);
+      } catch (IOException e) {
+         throw new MarshallingException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new MarshallingException(e);
+      }
+   }
+
+   private static long hash(byte[] bytes, int offset, int length) {
+      // 64-bit FNV-1a
+      long h = 0xcbf29ce484222325L;
+      for (int i = offset; i < offset + length; i++) {
+         h ^= bytes[i] & 0xff;
+         h *= 0x100000001b3L;
+      }
+      return h;
+   }
+
+   private static long mix(long h) {
+      // Murmur3 finalizer, spreads the bits so that the sum of the entry hashes does not cancel out
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return h;
+   }
+}
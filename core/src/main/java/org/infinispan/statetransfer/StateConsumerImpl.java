@@ -13,6 +13,7 @@
 import static org.infinispan.context.Flag.SKIP_SHARED_CACHE_STORE;
 import static org.infinispan.context.Flag.SKIP_XSITE_BACKUP;
 import static org.infinispan.factories.KnownComponentNames.NON_BLOCKING_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_MARSHALLER;
 import static org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 import static org.infinispan.util.logging.Log.PERSISTENCE;
@@ -23,6 +24,7 @@
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.PrimitiveIterator;
@@ -39,15 +41,18 @@
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.statetransfer.StateTransferGetChecksumsCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.IllegalLifecycleStateException;
+import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.EnumUtil;
@@ -62,6 +67,7 @@
 import org.infinispan.conflict.impl.InternalConflictManager;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.ReadCommittedEntry;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
@@ -174,6 +180,9 @@ public class StateConsumerImpl implements StateConsumer {
    @Inject ClusterPublisherManager<Object, Object> clusterPublisherManager;
    @Inject Transport transport;
    @Inject StateTransferTracker stateTracker;
+   @Inject StateTransferFlowControl flowControl;
+   @Inject @ComponentName(PERSISTENCE_MARSHALLER)
+   Marshaller persistenceMarshaller;
 
    protected String cacheName;
    protected long timeout;
@@ -181,6 +190,9 @@ public class StateConsumerImpl implements StateConsumer {
    protected boolean isTransactional;
    protected boolean isInvalidationMode;
    protected int chunkSize;
+   private int applyParallelism;
+   private boolean directApply;
+   private boolean deltaTransfer;
    protected volatile KeyInvalidationListener keyInvalidationListener; //for test purpose only!
 
    protected volatile CacheTopology cacheTopology;
@@ -229,6 +241,11 @@ public class StateConsumerImpl implements StateConsumer {
     */
    protected LimitedExecutor stateRequestExecutor;
 
+   /**
+    * Limits the number of segments whose state is applied concurrently.
+    */
+   private LimitedExecutor stateApplyExecutor;
+
    /**
     * Tracks and logs the progress of the state transfer.
     */
@@ -657,8 +674,20 @@ public CompletionStage<?> applyState(final Address sender, int topologyId, Colle
                     dataContainer.sizeIncludingExpired());
       }
       IntSet mySegments = IntSets.from(wCh.getSegmentsForOwner(rpcManager.getAddress()));
-      Iterator<StateChunk> iterator = stateChunks.iterator();
-      CompletionStage<?> stage = applyStateIteration(sender, mySegments, iterator);
+      // Delaying the application also delays the response, which slows down the sender
+      CompletionStage<Void> admitted = flowControl.acquireInbound(StateTransferFlowControl.estimateSize(stateChunks));
+      CompletionStage<?> stage;
+      // The limit completes its delay on the timeout scheduler thread, which must not apply the state
+      if (applyParallelism > 1) {
+         stage = CompletionStages.isCompletedSuccessfully(admitted) ?
+               applyStateBySegment(sender, mySegments, stateChunks) :
+               admitted.thenComposeAsync(ignored -> applyStateBySegment(sender, mySegments, stateChunks), nonBlockingExecutor);
+      } else {
+         Iterator<StateChunk> iterator = stateChunks.iterator();
+         stage = CompletionStages.isCompletedSuccessfully(admitted) ?
+               applyStateIteration(sender, mySegments, iterator) :
+               admitted.thenComposeAsync(ignored -> applyStateIteration(sender, mySegments, iterator), nonBlockingExecutor);
+      }
       if (log.isTraceEnabled()) {
          stage = stage.whenComplete((v, t) -> {
             log.tracef("After applying the received state the data container of cache %s has %d keys", cacheName,
@@ -688,6 +717,45 @@ private CompletionStage<?> applyStateIteration(Address sender, IntSet mySegments
       return chunkStage.thenCompose(v -> applyStateIteration(sender, mySegments, iterator));
    }
 
+   /**
+    * Applies the chunks of each segment in order, and the chunks of different segments concurrently on the state apply
+    * executor.
+    */
+   private CompletionStage<?> applyStateBySegment(Address sender, IntSet mySegments, Collection<StateChunk> stateChunks) {
+      Map<Integer, List<StateChunk>> chunksBySegment = new LinkedHashMap<>();
+      for (StateChunk stateChunk : stateChunks) {
+         chunksBySegment.computeIfAbsent(stateChunk.getSegmentId(), s -> new ArrayList<>(1)).add(stateChunk);
+      }
+      if (chunksBySegment.size() <= 1) {
+         return applyStateIteration(sender, mySegments, stateChunks.iterator());
+      }
+
+      AggregateCompletionStage<Void> aggregateStage = CompletionStages.aggregateCompletionStage();
+      for (List<StateChunk> segmentChunks : chunksBySegment.values()) {
+         aggregateStage.dependsOn(submitApply(() -> applyStateIteration(sender, mySegments, segmentChunks.iterator())));
+      }
+      return aggregateStage.freeze();
+   }
+
+   private CompletionStage<Void> submitApply(Supplier<CompletionStage<?>> task) {
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      stateApplyExecutor.executeAsync(() -> {
+         try {
+            task.get().whenComplete((ignored, t) -> {
+               if (t != null) {
+                  future.completeExceptionally(t);
+               } else {
+                  future.complete(null);
+               }
+            });
+         } catch (Throwable t) {
+            future.completeExceptionally(t);
+         }
+         return future;
+      });
+      return future;
+   }
+
    private CompletionStage<Void> applyChunk(Address sender, IntSet mySegments, StateChunk stateChunk) {
       if (!mySegments.contains(stateChunk.getSegmentId())) {
          log.debugf("Discarding received cache entries for segment %d of cache %s because they do not belong to this node.", stateChunk.getSegmentId(), cacheName);
@@ -732,6 +800,7 @@ private void onCompletedSegment(int segmentId, InboundTransferTask inboundTransf
             commitManager.stopTrackFor(PUT_FOR_STATE_TRANSFER, segmentId);
             transfersBySegment.remove(segmentId);
             progressTracker.removeTasks(1);
+            flowControl.segmentReceived();
          }
       } finally {
          transferMapsLock.unlock();
@@ -753,16 +822,42 @@ CompletionStage<?> doApplyState(Address sender, int segmentId,
          return applyStateInTransaction(segmentId, cacheEntries.iterator());
       } else {
          // non-tx cache
-         AggregateCompletionStage<Void> aggregateStage = CompletionStages.aggregateCompletionStage();
-         for (InternalCacheEntry<?, ?> e : cacheEntries) {
+         return applyEntries(segmentId, cacheEntries);
+      }
+   }
+
+   private CompletionStage<Void> applyEntries(int segmentId, Collection<? extends CacheEntry<?, ?>> cacheEntries) {
+      AggregateCompletionStage<Void> aggregateStage = CompletionStages.aggregateCompletionStage();
+      for (CacheEntry<?, ?> e : cacheEntries) {
+         CompletionStage<?> putStage;
+         if (directApply) {
+            putStage = writeDirectly(segmentId, (InternalCacheEntry<?, ?>) e);
+         } else {
             InvocationContext ctx = icf.createSingleKeyNonTxInvocationContext();
-            CompletionStage<?> putStage = invokePut(segmentId, ctx, e);
-            aggregateStage.dependsOn(putStage.exceptionally(t -> {
-               logApplyException(t, e.getKey());
-               return null;
-            }));
+            putStage = invokePut(segmentId, ctx, e);
          }
-         return aggregateStage.freeze();
+         aggregateStage.dependsOn(putStage.exceptionally(t -> {
+            logApplyException(t, e.getKey());
+            return null;
+         }));
+      }
+      return aggregateStage.freeze();
+   }
+
+   /**
+    * Writes the entry to the data container without building a command. The commit manager still discards the entry
+    * if the key was written by a regular operation since the state transfer started.
+    */
+   private CompletionStage<Void> writeDirectly(int segmentId, InternalCacheEntry<?, ?> e) {
+      try {
+         ReadCommittedEntry<Object, Object> entry = new ReadCommittedEntry<>(e.getKey(), e.getValue(), e.getMetadata());
+         entry.setCreated(e.getCreated());
+         entry.setLastUsed(e.getLastUsed());
+         entry.setInternalMetadata(e.getInternalMetadata());
+         entry.setChanged(true);
+         return commitManager.commit(entry, PUT_FOR_STATE_TRANSFER, segmentId, false, null);
+      } catch (Throwable t) {
+         return CompletableFuture.failedFuture(t);
       }
    }
 
@@ -922,6 +1017,9 @@ public void start() {
       timeout = configuration.clustering().stateTransfer().timeout();
       numSegments = configuration.clustering().hash().numSegments();
       chunkSize = configuration.clustering().stateTransfer().chunkSize();
+      applyParallelism = configuration.clustering().stateTransfer().applyParallelism();
+      directApply = configuration.clustering().stateTransfer().directApply() && isDirectApplySupported();
+      deltaTransfer = configuration.clustering().stateTransfer().deltaTransfer();
 
       isFetchEnabled = isFetchEnabled();
 
@@ -930,6 +1028,7 @@ public void start() {
       requestedTransactionalSegments = IntSets.concurrentSet(numSegments);
 
       stateRequestExecutor = new LimitedExecutor("StateRequest-" + cacheName, nonBlockingExecutor, 1);
+      stateApplyExecutor = new LimitedExecutor("StateApply-" + cacheName, nonBlockingExecutor, applyParallelism);
       progressTracker = new ProgressTracker("state-transfer-" + cacheName, timeoutExecutor, timeService, Math.min(30_000L, timeout >> 2), TimeUnit.MILLISECONDS);
       running = true;
    }
@@ -939,6 +1038,17 @@ private boolean isFetchEnabled() {
             configuration.clustering().stateTransfer().fetchInMemoryState();
    }
 
+   /**
+    * Direct writes skip the interceptor chain, so they are only possible when no interceptor has to act on the
+    * state transfer puts. Listeners are not notified of state transfer puts and stores are only written on eviction
+    * with passivation, shared stores are skipped by state transfer.
+    */
+   private boolean isDirectApplySupported() {
+      return !isTransactional && !configuration.indexing().enabled() && !configuration.sites().hasBackups() &&
+            !configuration.clustering().l1().enabled() &&
+            (configuration.persistence().passivation() || !persistenceManager.hasStore(store -> !store.shared()));
+   }
+
    @Stop
    @Override
    public void stop() {
@@ -963,8 +1073,10 @@ public void stop() {
          }
          requestedTransactionalSegments.clear();
          stateRequestExecutor.shutdownNow();
+         stateApplyExecutor.shutdownNow();
          stateTracker.forCache(cacheName).completeStateConsumer(Integer.MIN_VALUE);
          progressTracker.finishedAllTasks();
+         flowControl.inboundCompleted();
       } catch (Throwable t) {
          log.errorf(t, "Failed to stop StateConsumer of cache %s on node %s", cacheName, rpcManager.getAddress());
       }
@@ -1002,6 +1114,9 @@ protected CompletionStage<Void> handleSegments(int topologyId, IntSet addedSegme
                requestSegments(addedSegments, sources, excludedSources);
             });
          } else {
+            if (deltaTransfer && transport.getOldestMember().compareTo(StateTransferGetChecksumsCommand.SUPPORTED_SINCE) >= 0) {
+               stage = stage.thenCompose(ignored -> skipUnchangedSegments(topologyId, addedSegments, sources, excludedSources));
+            }
             stage = stage.thenRun(() -> {
                log.tracef("Using pull based state transfer for cache %s", cacheName);
                if (cache.wired().getStatus().isTerminated()) {
@@ -1063,8 +1178,10 @@ private void completeSegmentForTask(int segment, Map<Address, IntSet> sources) {
             commitManager.stopTrackFor(PUT_FOR_STATE_TRANSFER, segment);
             transfersBySegment.remove(segment);
             progressTracker.removeTasks(1);
+            flowControl.segmentReceived();
             if (transfersBySource.isEmpty()) {
                progressTracker.finishedAllTasks();
+               flowControl.inboundCompleted();
             }
          }
       } finally {
@@ -1117,6 +1234,9 @@ protected void sendCancelCommand(IntSet cancelledSegments) {
             Flowable.fromPublisher(clusterPublisherManager.entryPublisherForTopology(topologyId, chunkSize, sources));
 
       int concurrency = 20;
+      if (transactionManager == null && (directApply || applyParallelism > 1)) {
+         return applyNotificationsInBatches(notificationFlowable);
+      }
       if (transactionManager == null) {
          Map<Integer, AggregateCompletionStage<Integer>> segmentCompletions = new HashMap<>();
 
@@ -1173,6 +1293,49 @@ protected void sendCancelCommand(IntSet cancelledSegments) {
             }).concatWith(Flowable.defer(() -> Flowable.fromIterable(commitSegmentsRef.get())));
    }
 
+   /**
+    * Applies the received entries in batches of up to {@code chunkSize} notifications. The entries of each segment in
+    * a batch are applied as a single task on the state apply executor, so different segments are applied in parallel.
+    * A segment is only emitted as completed once every batch with its entries was applied.
+    */
+   private Flowable<Integer> applyNotificationsInBatches(
+         Flowable<SegmentPublisherSupplier.Notification<CacheEntry<Object, Object>>> notificationFlowable) {
+      // Only accessed by the flatMap mapper, which is invoked sequentially
+      Map<Integer, AggregateCompletionStage<Integer>> segmentCompletions = new HashMap<>();
+      return notificationFlowable
+            .buffer(chunkSize)
+            .flatMap(batch -> {
+               Map<Integer, List<CacheEntry<Object, Object>>> entriesBySegment = new HashMap<>();
+               List<CompletionStage<Integer>> completedSegments = new ArrayList<>();
+               AggregateCompletionStage<Void> batchStage = CompletionStages.aggregateCompletionStage();
+               for (SegmentPublisherSupplier.Notification<CacheEntry<Object, Object>> n : batch) {
+                  if (n.isSegmentComplete()) {
+                     int segment = n.completedSegment();
+                     // The entries of the segment in this batch must be applied before it is completed
+                     submitEntries(segment, entriesBySegment.remove(segment), segmentCompletions, batchStage);
+                     AggregateCompletionStage<Integer> agg = segmentCompletions.remove(segment);
+                     completedSegments.add(agg == null ? CompletableFuture.completedFuture(segment) : agg.freeze());
+                  } else {
+                     entriesBySegment.computeIfAbsent(n.valueSegment(), ___ -> new ArrayList<>()).add(n.value());
+                  }
+               }
+               entriesBySegment.forEach((segment, entries) -> submitEntries(segment, entries, segmentCompletions, batchStage));
+               return Completable.fromCompletionStage(batchStage.freeze())
+                     .andThen(Flowable.fromIterable(completedSegments).concatMapMaybe(Maybe::fromCompletionStage));
+            }, false, applyParallelism);
+   }
+
+   private void submitEntries(int segment, List<CacheEntry<Object, Object>> entries,
+                              Map<Integer, AggregateCompletionStage<Integer>> segmentCompletions,
+                              AggregateCompletionStage<Void> batchStage) {
+      if (entries == null)
+         return;
+      CompletionStage<Void> stage = submitApply(() -> applyEntries(segment, entries));
+      segmentCompletions.computeIfAbsent(segment, ___ -> CompletionStages.aggregateCompletionStage(segment))
+            .dependsOn(stage);
+      batchStage.dependsOn(stage);
+   }
+
    private void findSources(IntSet segments, Map<Address, IntSet> sources, Set<Address> excludedSources,
                             boolean ignoreOwnedSegments) {
       if (cache.wired().getStatus().isTerminated())
@@ -1212,6 +1375,82 @@ private Address findSource(int segmentId, Set<Address> excludedSources, boolean
       return null;
    }
 
+   /**
+    * Compares the checksums of the segments that already have local data (e.g. loaded from a store after a restart)
+    * with the ones computed by their sources, and removes the segments that match from both {@code segments} and
+    * {@code sources}. Segments without local data, or whose checksums could not be retrieved, are transferred in full.
+    */
+   private CompletionStage<Void> skipUnchangedSegments(int topologyId, IntSet segments, Map<Address, IntSet> sources,
+                                                       Set<Address> excludedSources) {
+      if (segments.isEmpty() || cache.wired().getStatus().isTerminated()) {
+         return CompletableFutures.completedNull();
+      }
+
+      return SegmentChecksums.compute(localPublisherManager, persistenceMarshaller, segments, StateProviderImpl.STATE_TRANSFER_ENTRIES_FLAGS)
+            .exceptionally(t -> {
+               log.debugf(t, "Could not compute the checksums of segments %s of cache %s, transferring them in full",
+                          segments, cacheName);
+               return new HashMap<>();
+            })
+            .thenCompose(localChecksums -> {
+               localChecksums.values().removeIf(checksum -> checksum == 0L);
+               if (localChecksums.isEmpty()) {
+                  return CompletableFutures.completedNull();
+               }
+               if (sources.isEmpty()) {
+                  findSources(segments, sources, excludedSources, true);
+               }
+
+               IntSet unchangedSegments = IntSets.concurrentSet(numSegments);
+               AggregateCompletionStage<Void> aggregateStage = CompletionStages.aggregateCompletionStage();
+               sources.forEach((source, segmentsFromSource) -> {
+                  IntSet segmentsToCompare = IntSets.mutableEmptySet(numSegments);
+                  segmentsFromSource.forEach((int segment) -> {
+                     if (localChecksums.containsKey(segment)) {
+                        segmentsToCompare.set(segment);
+                     }
+                  });
+                  if (segmentsToCompare.isEmpty())
+                     return;
+
+                  CacheRpcCommand cmd = commandsFactory.buildStateTransferGetChecksumsCommand(topologyId, segmentsToCompare);
+                  aggregateStage.dependsOn(rpcManager.invokeCommand(source, cmd, PassthroughSingleResponseCollector.INSTANCE, rpcOptions)
+                        .handle((response, throwable) -> {
+                           if (response instanceof SuccessfulResponse) {
+                              //noinspection unchecked
+                              Map<Integer, Long> checksums = ((SuccessfulResponse<Map<Integer, Long>>) response).getResponseValue();
+                              checksums.forEach((segment, checksum) -> {
+                                 if (checksum.equals(localChecksums.get(segment))) {
+                                    unchangedSegments.set(segment);
+                                 }
+                              });
+                           } else {
+                              log.debugf(throwable, "Could not retrieve the checksums of segments %s of cache %s from %s, transferring them in full: %s",
+                                         segmentsToCompare, cacheName, source, response);
+                           }
+                           return null;
+                        }));
+               });
+
+               return aggregateStage.freeze().thenRun(() -> {
+                  if (unchangedSegments.isEmpty())
+                     return;
+
+                  log.debugf("Not requesting segments %s of cache %s, the local data matches their owners", unchangedSegments, cacheName);
+                  segments.removeAll(unchangedSegments);
+                  for (Iterator<IntSet> it = sources.values().iterator(); it.hasNext(); ) {
+                     IntSet segmentsFromSource = it.next();
+                     segmentsFromSource.removeAll(unchangedSegments);
+                     if (segmentsFromSource.isEmpty()) {
+                        it.remove();
+                     }
+                  }
+                  unchangedSegments.forEach((int segment) -> commitManager.stopTrackFor(PUT_FOR_STATE_TRANSFER, segment));
+                  flowControl.segmentsSkipped(unchangedSegments.size());
+               });
+            });
+   }
+
    private CompletionStage<Void> requestTransactions(IntSet dataSegments, IntSet transactionOnlySegments,
                                                      Map<Address, IntSet> sources,
                                                      Set<Address> excludedSources) {
@@ -1492,6 +1731,7 @@ private void restartBrokenTransfers(CacheTopology cacheTopology, IntSet addedSeg
          if (transfersBySource.isEmpty()) {
             progressTracker.finishedAllTasks();
             stateTracker.forCache(cacheName).completeStateConsumer(stateTransferTopologyId.get());
+            flowControl.inboundCompleted();
          }
 
          // exclude those that are already in progress from a valid source
@@ -1551,6 +1791,7 @@ protected void addTransfer(InboundTransferTask inboundTransfer, IntSet segments,
       transfersBySource.computeIfAbsent(inboundTransfer.getSource(), s -> new ArrayList<>()).add(inboundTransfer);
       if (wasEmpty) {
          stateTracker.forCache(cacheName).startStateConsumer(topologyId);
+         flowControl.inboundStarted();
       }
    }
 
@@ -1577,6 +1818,7 @@ protected void removeTransfer(InboundTransferTask inboundTransfer) {
          if (transfersBySource.isEmpty()) {
             progressTracker.finishedAllTasks();
             stateTracker.forCache(cacheName).completeStateConsumer(stateTransferTopologyId.get());
+            flowControl.inboundCompleted();
          }
       } finally {
          transferMapsLock.unlock();
@@ -2,6 +2,7 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
@@ -43,6 +44,17 @@ public interface StateProvider {
     */
    CompletionStage<List<TransactionInfo>> getTransactionsForSegments(Address destination, int topologyId, IntSet segments);
 
+   /**
+    * Computes the checksums of the entries in the given segments, see {@link SegmentChecksums}. This is invoked in
+    * response to a {@link org.infinispan.commands.statetransfer.StateTransferGetChecksumsCommand}.
+    *
+    * @param destination the address of the requester
+    * @param topologyId required topology before we can start computing the checksums
+    * @param segments the segments to compute the checksums for
+    * @return a {@code CompletionStage} that completes with the checksum of every requested segment
+    */
+   CompletionStage<Map<Integer, Long>> getSegmentChecksums(Address destination, int topologyId, IntSet segments);
+
    Collection<ClusterListenerReplicateCallable<Object, Object>> getClusterListenersToInstall();
 
    /**
@@ -14,11 +14,13 @@
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
@@ -86,7 +88,12 @@ public class StateProviderImpl implements StateProvider {
    @Inject protected LocalPublisherManager<?, ?> localPublisherManager;
    @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
    @Inject ScheduledExecutorService timeoutExecutor;
+   @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
+   @Inject Executor nonBlockingExecutor;
    @Inject StateTransferTracker stateTracker;
+   @Inject StateTransferFlowControl flowControl;
+   @ComponentName(KnownComponentNames.PERSISTENCE_MARSHALLER)
+   @Inject Marshaller persistenceMarshaller;
 
    protected long timeout;
    protected int chunkSize;
@@ -100,7 +107,7 @@ public class StateProviderImpl implements StateProvider {
    /**
     * Flags used when requesting the local publisher for the entries.
     */
-   private static final long STATE_TRANSFER_ENTRIES_FLAGS = EnumUtil.bitSetOf(
+   static final long STATE_TRANSFER_ENTRIES_FLAGS = EnumUtil.bitSetOf(
          // Indicate the command to not use shared stores.
          STATE_TRANSFER_PROGRESS
    );
@@ -206,6 +213,27 @@ public CompletionStage<List<TransactionInfo>> getTransactionsForSegments(Address
                 });
    }
 
+   @Override
+   public CompletionStage<Map<Integer, Long>> getSegmentChecksums(Address destination, int requestTopologyId,
+                                                                 IntSet segments) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Received request for checksums from node %s for cache %s, topology id %d, segments %s",
+                    destination, cacheName, requestTopologyId, segments);
+      }
+
+      return getCacheTopology(requestTopologyId, destination, false)
+            .thenCompose(topology -> {
+               IntSet ownedSegments = IntSets.from(topology.getReadConsistentHash()
+                                                           .getSegmentsForOwner(rpcManager.getAddress()));
+               if (!ownedSegments.containsAll(segments)) {
+                  segments.removeAll(ownedSegments);
+                  throw new IllegalArgumentException(
+                        "Segments " + segments + " are not owned by " + rpcManager.getAddress());
+               }
+               return SegmentChecksums.compute(localPublisherManager, persistenceMarshaller, segments, STATE_TRANSFER_ENTRIES_FLAGS);
+            });
+   }
+
    @Override
    public Collection<ClusterListenerReplicateCallable<Object, Object>> getClusterListenersToInstall() {
       return clusterCacheNotifier.retrieveClusterListenerCallablesToInstall();
@@ -298,7 +326,7 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, In
       OutboundTransferTask outboundTransfer =
          new OutboundTransferTask(destination, segments, this.configuration.clustering().hash().numSegments(),
                                   chunkSize, requestTopologyId, chunks -> {}, rpcManager,
-                                  commandsFactory, timeout, cacheName, applyState);
+                                  commandsFactory, timeout, cacheName, applyState, flowControl, nonBlockingExecutor);
       addTransfer(outboundTransfer);
       outboundTransfer.execute(readEntries(segments))
                       .whenComplete((ignored, throwable) -> {
@@ -330,6 +358,7 @@ protected void addTransfer(OutboundTransferTask transferTask) {
 
          if (isEmpty) {
             stateTracker.forCache(cacheName).startStateProvider(transferTask.getTopologyId());
+            flowControl.outboundStarted();
          }
       }
    }
@@ -367,6 +396,7 @@ private void removeTransfer(OutboundTransferTask transferTask) {
 
          if (transfersByDestination.isEmpty()) {
             stateTracker.forCache(cacheName).completeStateProvider(transferTask.getTopologyId());
+            flowControl.outboundCompleted();
          }
       }
    }
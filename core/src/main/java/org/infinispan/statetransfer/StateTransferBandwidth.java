@@ -0,0 +1,68 @@
+package org.infinispan.statetransfer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+
+import com.google.errorprone.annotations.ThreadSafe;
+
+/**
+ * Global limiters that space the state transfer batches of all the caches of this node, so that the state transfer
+ * bandwidth limits apply to the node as a whole instead of to each cache separately.
+ * <p>
+ * Each batch reserves the time it takes to transfer at the limit configured for its own cache, so the caches
+ * configured with the same limit share it. Caches without a limit don't reserve any time, and only wait for the pauses
+ * requested by the adaptive flow control of any cache.
+ *
+ * @since 16.3
+ * @see StateTransferFlowControl
+ */
+@ThreadSafe
+@Scope(Scopes.GLOBAL)
+public class StateTransferBandwidth {
+   private final Limiter outbound = new Limiter();
+   private final Limiter inbound = new Limiter();
+
+   /**
+    * @return the time in nanoseconds to wait before sending the given number of bytes
+    */
+   long acquireOutbound(TimeService timeService, long bytes, long bytesPerSecond) {
+      return outbound.acquire(timeService, bytes, bytesPerSecond);
+   }
+
+   /**
+    * Delays all the outbound transfers of this node by the given time.
+    */
+   void pauseOutbound(TimeService timeService, long nanos) {
+      outbound.pause(timeService, nanos);
+   }
+
+   /**
+    * @return the time in nanoseconds to wait before applying the given number of bytes
+    */
+   long acquireInbound(TimeService timeService, long bytes, long bytesPerSecond) {
+      return inbound.acquire(timeService, bytes, bytesPerSecond);
+   }
+
+   private static class Limiter {
+      // Guarded by this
+      long nextFreeTime;
+      long pausedUntil;
+
+      synchronized long acquire(TimeService timeService, long amount, long bytesPerSecond) {
+         long now = timeService.time();
+         long start = Math.max(now, pausedUntil);
+         if (bytesPerSecond > 0) {
+            start = Math.max(start, nextFreeTime);
+            nextFreeTime = start + TimeUnit.SECONDS.toNanos(amount) / bytesPerSecond;
+         }
+         return start - now;
+      }
+
+      synchronized void pause(TimeService timeService, long nanos) {
+         pausedUntil = Math.max(timeService.time(), pausedUntil) + nanos;
+      }
+   }
+}
@@ -0,0 +1,298 @@
+package org.infinispan.statetransfer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StateTransferConfiguration;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.remoting.transport.Transport;
+
+/**
+ * Limits and measures the bandwidth used by state transfer.
+ * <p>
+ * Outbound transfers split their batches so that each {@link org.infinispan.commands.statetransfer.StateResponseCommand}
+ * carries at most {@link StateTransferConfiguration#chunkBytes()} bytes, and wait for {@link #acquireOutbound(long)}
+ * before sending each of them. Inbound batches wait for {@link #acquireInbound(long)} before they are applied, which
+ * delays the response and therefore the next batch of the sender.
+ * <p>
+ * With adaptive flow control enabled, the outbound window is halved whenever the recent response time of the regular
+ * requests sent by this node rises well above its long term average, down to 1/16th, and recovers gradually once the
+ * response time settles. The window scales the outbound bandwidth limit, or, when the bandwidth is unlimited, the
+ * fraction of time spent sending state.
+ * <p>
+ * The limits are enforced by the global {@link StateTransferBandwidth}, so they apply to all the caches of this node
+ * together, while the measurements and the adaptive window are kept for each cache.
+ *
+ * @since 16.3
+ */
+@Scope(Scopes.NAMED_CACHE)
+@MBean(objectName = "StateTransferFlowControl", description = "Limits and measures the bandwidth used by state transfer")
+public class StateTransferFlowControl {
+   private static final int MAX_WINDOW = 16;
+   // Shrink the window when the recent response time is this many times higher than the long term average
+   private static final int LATENCY_RISE_FACTOR = 2;
+   // Estimated size of keys and values that are not stored as bytes, and of the metadata of every entry
+   private static final int OBJECT_SIZE_ESTIMATE = 64;
+
+   @Inject Configuration configuration;
+   @Inject Transport transport;
+   @Inject TimeService timeService;
+   @Inject StateTransferBandwidth bandwidth;
+   @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
+   @Inject ScheduledExecutorService timeoutExecutor;
+
+   private final Throughput outbound = new Throughput();
+   private final Throughput inbound = new Throughput();
+   private final LongAdder segmentsReceived = new LongAdder();
+   private final LongAdder segmentsSkipped = new LongAdder();
+   private long chunkBytes;
+   private long maxOutboundBandwidth;
+   private long maxInboundBandwidth;
+   private boolean adaptive;
+   private volatile int window = MAX_WINDOW;
+
+   @Start
+   public void start() {
+      StateTransferConfiguration stateTransfer = configuration.clustering().stateTransfer();
+      chunkBytes = stateTransfer.chunkBytes();
+      maxOutboundBandwidth = stateTransfer.maxOutboundBandwidth();
+      maxInboundBandwidth = stateTransfer.maxInboundBandwidth();
+      adaptive = stateTransfer.adaptiveFlowControl();
+   }
+
+   /**
+    * @return the maximum number of bytes sent with a single state response, or {@code 0} if unlimited
+    */
+   public long chunkBytes() {
+      return chunkBytes;
+   }
+
+   /**
+    * @return the estimated size in bytes of the entry once marshalled
+    */
+   public static long estimateSize(InternalCacheEntry<?, ?> entry) {
+      return estimateSize(entry.getKey()) + estimateSize(entry.getValue()) + OBJECT_SIZE_ESTIMATE;
+   }
+
+   static long estimateSize(Collection<StateChunk> chunks) {
+      long bytes = 0;
+      for (StateChunk chunk : chunks) {
+         Collection<InternalCacheEntry<?, ?>> entries = chunk.getCacheEntries();
+         if (entries != null) {
+            for (InternalCacheEntry<?, ?> entry : entries) {
+               bytes += estimateSize(entry);
+            }
+         }
+      }
+      return bytes;
+   }
+
+   private static long estimateSize(Object o) {
+      if (o instanceof WrappedBytes bytes) {
+         return bytes.getLength();
+      } else if (o instanceof byte[] bytes) {
+         return bytes.length;
+      } else if (o instanceof String s) {
+         return utf8Length(s);
+      }
+      return o == null ? 0 : OBJECT_SIZE_ESTIMATE;
+   }
+
+   private static long utf8Length(String s) {
+      int length = s.length();
+      long bytes = length;
+      for (int i = 0; i < length; i++) {
+         char c = s.charAt(i);
+         if (c >= 0x800) {
+            // Surrogate pairs take 4 bytes, 2 for each of their chars
+            bytes += Character.isSurrogate(c) ? 1 : 2;
+         } else if (c >= 0x80) {
+            bytes++;
+         }
+      }
+      return bytes;
+   }
+
+   void outboundStarted() {
+      outbound.start(timeService);
+   }
+
+   void outboundCompleted() {
+      outbound.stop(timeService);
+   }
+
+   void inboundStarted() {
+      inbound.start(timeService);
+      segmentsReceived.reset();
+   }
+
+   void inboundCompleted() {
+      inbound.stop(timeService);
+   }
+
+   void segmentReceived() {
+      segmentsReceived.increment();
+   }
+
+   void segmentsSkipped(int count) {
+      segmentsSkipped.add(count);
+   }
+
+   /**
+    * Waits until the given number of bytes can be sent without exceeding the outbound limits.
+    */
+   CompletionStage<Void> acquireOutbound(long bytes) {
+      long limit = maxOutboundBandwidth;
+      if (limit > 0 && adaptive) {
+         limit = Math.max(1, limit * window / MAX_WINDOW);
+      }
+      return delay(bandwidth.acquireOutbound(timeService, bytes, limit));
+   }
+
+   /**
+    * Records a batch that was sent and acknowledged by the receiver and adjusts the adaptive window.
+    */
+   void onOutboundSent(long bytes, long durationNanos) {
+      outbound.record(bytes);
+      if (!adaptive)
+         return;
+
+      long average = transport.getAverageResponseTime();
+      int current = window;
+      if (average > 0 && transport.getRecentResponseTime() > LATENCY_RISE_FACTOR * average) {
+         window = Math.max(1, current / 2);
+      } else if (current < MAX_WINDOW) {
+         window = current + 1;
+      }
+      if (maxOutboundBandwidth <= 0 && window < MAX_WINDOW) {
+         // Without a bandwidth limit, pause so that the transfer only sends during window/16 of the time
+         bandwidth.pauseOutbound(timeService, durationNanos * (MAX_WINDOW - window) / window);
+      }
+   }
+
+   /**
+    * Waits until the given number of bytes can be applied without exceeding the inbound limit.
+    */
+   CompletionStage<Void> acquireInbound(long bytes) {
+      inbound.record(bytes);
+      return delay(bandwidth.acquireInbound(timeService, bytes, maxInboundBandwidth));
+   }
+
+   private CompletionStage<Void> delay(long nanos) {
+      if (nanos <= 0)
+         return CompletableFutures.completedNull();
+
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      timeoutExecutor.schedule(() -> future.complete(null), nanos, NANOSECONDS);
+      return future;
+   }
+
+   /**
+    * @return the estimated time in milliseconds until the given number of pending segments are received, or
+    * {@code -1} if no segment was received yet
+    */
+   public long estimateRemainingTime(long pendingSegments) {
+      long received = segmentsReceived.sum();
+      if (pendingSegments <= 0)
+         return 0;
+      if (received == 0)
+         return -1;
+      return inbound.elapsed(timeService, MILLISECONDS) * pendingSegments / received;
+   }
+
+   @ManagedAttribute(description = "Number of bytes sent to other nodes by the current or last outbound state transfer", displayName = "State transfer bytes sent", units = Units.BYTES, dataType = DataType.MEASUREMENT)
+   public long getBytesSent() {
+      return outbound.bytes.sum();
+   }
+
+   @ManagedAttribute(description = "Number of bytes received from other nodes by the current or last inbound state transfer", displayName = "State transfer bytes received", units = Units.BYTES, dataType = DataType.MEASUREMENT)
+   public long getBytesReceived() {
+      return inbound.bytes.sum();
+   }
+
+   @ManagedAttribute(description = "Average number of bytes sent per second by the current or last outbound state transfer", displayName = "Outbound state transfer throughput", units = Units.PER_SECOND, dataType = DataType.MEASUREMENT)
+   public long getOutboundThroughput() {
+      return outbound.throughput(timeService);
+   }
+
+   @ManagedAttribute(description = "Average number of bytes received per second by the current or last inbound state transfer", displayName = "Inbound state transfer throughput", units = Units.PER_SECOND, dataType = DataType.MEASUREMENT)
+   public long getInboundThroughput() {
+      return inbound.throughput(timeService);
+   }
+
+   @ManagedAttribute(description = "Number of segments received by the current or last inbound state transfer", displayName = "State transfer segments received", dataType = DataType.MEASUREMENT, measurementType = MeasurementType.TRENDSUP)
+   public long getSegmentsReceived() {
+      return segmentsReceived.sum();
+   }
+
+   @ManagedAttribute(description = "Number of segments not transferred because the local data matched the owner's checksum", displayName = "State transfer segments skipped", dataType = DataType.MEASUREMENT, measurementType = MeasurementType.TRENDSUP)
+   public long getSegmentsSkipped() {
+      return segmentsSkipped.sum();
+   }
+
+   @ManagedAttribute(description = "Percentage of the outbound state transfer bandwidth currently allowed by adaptive flow control", displayName = "State transfer window", units = Units.PERCENTAGE, dataType = DataType.MEASUREMENT)
+   public int getWindow() {
+      return window * 100 / MAX_WINDOW;
+   }
+
+   /**
+    * The bytes transferred in one direction and the time they took.
+    */
+   private static class Throughput {
+      final LongAdder bytes = new LongAdder();
+      volatile boolean active;
+      volatile long startTime;
+      volatile long endTime;
+
+      void start(TimeService timeService) {
+         bytes.reset();
+         startTime = timeService.time();
+         active = true;
+      }
+
+      void stop(TimeService timeService) {
+         if (active) {
+            endTime = timeService.time();
+            active = false;
+         }
+      }
+
+      void record(long amount) {
+         bytes.add(amount);
+      }
+
+      long elapsed(TimeService timeService, TimeUnit unit) {
+         long start = startTime;
+         if (start == 0)
+            return 0;
+         return timeService.timeDuration(start, active ? timeService.time() : endTime, unit);
+      }
+
+      long throughput(TimeService timeService) {
+         long millis = elapsed(timeService, MILLISECONDS);
+         return millis > 0 ? bytes.sum() * TimeUnit.SECONDS.toMillis(1) / millis : 0;
+      }
+   }
+}
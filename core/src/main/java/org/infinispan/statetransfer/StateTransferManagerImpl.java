@@ -34,6 +34,7 @@
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.partitionhandling.AvailabilityMode;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
@@ -80,6 +81,7 @@ public class StateTransferManagerImpl implements StateTransferManager {
    @Inject IracManager iracManager;
    @Inject IracVersionGenerator iracVersionGenerator;
    @Inject StateTransferTracker stateTracker;
+   @Inject StateTransferFlowControl flowControl;
 
    private final CompletableFuture<Void> initialStateTransferComplete = new CompletableFuture<>();
 
@@ -316,6 +318,11 @@ public long getInflightTransactionalSegmentCount() {
       return stateConsumer.inflightTransactionSegmentCount();
    }
 
+   @ManagedAttribute(description = "Estimated time until the local node receives the in-flight segments, based on the rate of the segments received so far, or -1 if unknown", displayName = "Estimated remaining state transfer time", units = Units.MILLISECONDS, dataType = DataType.MEASUREMENT)
+   public long getEstimatedRemainingTime() {
+      return flowControl.estimateRemainingTime(stateConsumer.inflightRequestCount());
+   }
+
    @Override
    public StateConsumer getStateConsumer() {
       return stateConsumer;
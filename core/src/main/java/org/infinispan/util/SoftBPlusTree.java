@@ -35,6 +35,11 @@
  * Disk space is managed internally using a block-aligned free list. Freed
  * blocks are pooled by size and reused for future allocations to avoid
  * unbounded index file growth.
+ * <p>
+ * When {@link #enableCheckpoints() checkpoints} are enabled, the tree persisted by
+ * {@link #checkpoint()} stays intact on disk while the tree is modified: nodes written
+ * before the checkpoint are never overwritten in place and their blocks are only reused
+ * after {@link #checkpointCompleted()} signals that a newer checkpoint is durable.
  *
  * @param <V> value type
  */
@@ -54,6 +59,15 @@
    @SuppressWarnings("unchecked")
    private List<NodeSpace>[] freeBlocks = new List[0];
 
+   private boolean checkpoints;
+   // Nodes written before the last checkpoint have an older generation and must not be modified in place
+   private int generation;
+   // Blocks freed since the last checkpoint that may still be referenced by it
+   private final List<NodeSpace> retainedFrees = new ArrayList<>();
+   // Blocks that are not referenced by the last checkpoint, but may be by the previous durable one
+   private final List<NodeSpace> checkpointFrees = new ArrayList<>();
+   private NodeSpace checkpointRoot;
+
    /**
     * Creates a disk-backed B+ tree with block-aligned free space management.
     *
@@ -160,6 +174,32 @@ public void setStoreSize(long size) {
     * @return a flipped buffer containing the serialized free block state
     */
    public ByteBuffer serializeFreeBlocks() {
+      return serializeFreeBlocks(freeBlocks);
+   }
+
+   @SuppressWarnings("unchecked")
+   private ByteBuffer serializeFreeBlocks(List<NodeSpace> additionalBlocks) {
+      int maxIdx = freeBlocks.length - 1;
+      for (NodeSpace ns : additionalBlocks) {
+         maxIdx = Math.max(maxIdx, bucketIndex(ns.occupiedSpace()));
+      }
+      List<NodeSpace>[] blocks = new List[maxIdx + 1];
+      for (int i = 0; i < freeBlocks.length; i++) {
+         if (freeBlocks[i] != null) {
+            blocks[i] = new ArrayList<>(freeBlocks[i]);
+         }
+      }
+      for (NodeSpace ns : additionalBlocks) {
+         int idx = bucketIndex(ns.occupiedSpace());
+         if (blocks[idx] == null) {
+            blocks[idx] = new ArrayList<>();
+         }
+         blocks[idx].add(ns);
+      }
+      return serializeFreeBlocks(blocks);
+   }
+
+   private ByteBuffer serializeFreeBlocks(List<NodeSpace>[] freeBlocks) {
       int numNonEmpty = 0;
       int size = 4;
       for (List<NodeSpace> list : freeBlocks) {
@@ -208,6 +248,93 @@ public void deserializeFreeBlocks(ByteBuffer buf) {
       }
    }
 
+   // --- Checkpoints ---
+
+   /**
+    * Keeps the tree persisted by {@link #checkpoint()} intact on disk. Must be invoked before the
+    * tree is modified.
+    */
+   public void enableCheckpoints() {
+      checkpoints = true;
+      // Nodes loaded from disk have generation 0, so they are always retained
+      generation = 1;
+   }
+
+   /**
+    * Persists the tree like {@link #saveTree()}, so that it can be restored later with
+    * {@link #loadCheckpoint(Checkpoint)}. Unlike {@link #saveTree()} the tree can still be modified
+    * afterward: the nodes reachable from the returned root are written to new blocks when they are
+    * modified and the blocks they occupied are only reused after the next checkpoint completes.
+    * <p>
+    * The caller must invoke {@link #checkpointCompleted()} once the returned checkpoint is durable.
+    *
+    * @return the descriptor of the persisted tree
+    */
+   public Checkpoint checkpoint() throws IOException {
+      if (!checkpoints) {
+         throw new IllegalStateException("Checkpoints are not enabled");
+      }
+      NodeSpace root = saveTree();
+      if (checkpointRoot != null) {
+         retainedFrees.add(checkpointRoot);
+      }
+      checkpointRoot = root;
+      // Nothing reachable from the new root was freed, but the previous checkpoint may still need these blocks
+      checkpointFrees.addAll(retainedFrees);
+      retainedFrees.clear();
+      generation++;
+      return new Checkpoint(root, storeSize, serializeFreeBlocks(checkpointFrees));
+   }
+
+   /**
+    * Signals that the last checkpoint is durable, so that the blocks only referenced by the previous checkpoints can
+    * be reused.
+    */
+   public void checkpointCompleted() {
+      for (NodeSpace ns : checkpointFrees) {
+         freeBlock(ns.offset, ns.occupiedSpace);
+      }
+      checkpointFrees.clear();
+   }
+
+   /**
+    * Releases all the blocks retained for checkpoints, after the checkpoints were discarded.
+    */
+   public void releaseCheckpoints() {
+      checkpointCompleted();
+      for (NodeSpace ns : retainedFrees) {
+         freeBlock(ns.offset, ns.occupiedSpace);
+      }
+      retainedFrees.clear();
+      if (checkpointRoot != null) {
+         freeBlock(checkpointRoot.offset, checkpointRoot.occupiedSpace);
+         checkpointRoot = null;
+      }
+   }
+
+   /**
+    * Restores the tree from a checkpoint returned by {@link #checkpoint()}.
+    */
+   public void loadCheckpoint(Checkpoint checkpoint) throws IOException {
+      setStoreSize(checkpoint.storeSize());
+      deserializeFreeBlocks(checkpoint.freeBlocks());
+      loadTree(checkpoint.root());
+      checkpointRoot = checkpoint.root();
+   }
+
+   private boolean isRetained(SoftNode<V> node) {
+      return checkpoints && node.generation < generation;
+   }
+
+   private void releaseNode(SoftNode<V> node) {
+      NodeSpace space = new NodeSpace(node.diskOffset, node.occupiedSpace);
+      if (isRetained(node)) {
+         retainedFrees.add(space);
+      } else {
+         pendingFrees.add(space);
+      }
+   }
+
    // --- Tree hooks ---
 
    @Override
@@ -219,7 +346,7 @@ protected void onChildrenReplaced(Node<V>[] oldChildren, int from, int to) {
 
    private void collectFreedNodes(Node<V> node) {
       if (node instanceof SoftNode<V> soft) {
-         pendingFrees.add(new NodeSpace(soft.diskOffset, soft.occupiedSpace));
+         releaseNode(soft);
       }
    }
 
@@ -230,6 +357,16 @@ protected void onValueOverwritten(Deque<PathEntry<V>> stack, LeafNode<V> leaf,
       PathEntry<V> parent = stack.peek();
       Node<V> childNode = parent.node().children[parent.index()];
       if (!(childNode instanceof SoftNode<V> softNode)) return;
+      if (isRetained(softNode)) {
+         // The leaf may be referenced by the last checkpoint, so write it and its ancestors to new blocks instead
+         for (PathEntry<V> entry : stack) {
+            if (entry.node().children[entry.index()] instanceof SoftNode<V> soft) {
+               releaseNode(soft);
+               entry.node().children[entry.index()] = soft.resolve();
+            }
+         }
+         return;
+      }
       int valueSize = serializer.serializedSize(leaf.values[entryIndex]);
       int valueOffset = leaf.valuesOffset + entryIndex * valueSize;
       ByteBuffer data;
@@ -273,19 +410,27 @@ protected boolean tryInPlaceLeafUpdate(Deque<PathEntry<V>> stack, LeafNode<V> ol
          }
       }
 
+      SoftNode<V> parentSoftNode = null;
+      Iterator<PathEntry<V>> it = stack.iterator();
+      it.next();
+      if (it.hasNext()) {
+         PathEntry<V> grandparentEntry = it.next();
+         parentSoftNode = (SoftNode<V>) grandparentEntry.node().children[grandparentEntry.index()];
+         // The parent may be referenced by the last checkpoint, so it must not be updated in place
+         if (isRetained(parentSoftNode)) {
+            return false;
+         }
+      }
+
       try {
          NodeSpace newSpace = writeNodeToStore(newLeaf);
 
-         pendingFrees.add(new NodeSpace(oldSoftNode.diskOffset, oldSoftNode.occupiedSpace));
+         releaseNode(oldSoftNode);
 
          SoftNode<V> newSoftNode = new SoftNode<>(newLeaf, newSpace.offset, newSpace.occupiedSpace, this);
          parentEntry.node().children[parentEntry.index()] = newSoftNode;
 
-         Iterator<PathEntry<V>> it = stack.iterator();
-         it.next();
-         if (it.hasNext()) {
-            PathEntry<V> grandparentEntry = it.next();
-            SoftNode<V> parentSoftNode = (SoftNode<V>) grandparentEntry.node().children[grandparentEntry.index()];
+         if (parentSoftNode != null) {
             int refOffset = parentEntry.node().headerLength() + parentEntry.node().keyPartsLength()
                   + parentEntry.index() * INNER_NODE_REFERENCE_SIZE;
             ByteBuffer refData = ByteBuffer.allocate(INNER_NODE_REFERENCE_SIZE);
@@ -413,6 +558,9 @@ private <R> Flowable<R> publishWithRetry(PublishFunction<V, R> function) {
    public void clear() {
       super.clear();
       pendingFrees.clear();
+      retainedFrees.clear();
+      checkpointFrees.clear();
+      checkpointRoot = null;
       freeBlocks = new List[0];
       storeSize = initialStoreSize;
       try {
@@ -614,6 +762,12 @@ public interface NodeStore {
    /** A disk region descriptor: byte offset and allocated size. */
    public record NodeSpace(long offset, short occupiedSpace) { }
 
+   /**
+    * A tree persisted by {@link #checkpoint()}: the root's disk location (null if the tree was empty),
+    * the logical size of the store and the serialized free block lists.
+    */
+   public record Checkpoint(NodeSpace root, long storeSize, ByteBuffer freeBlocks) { }
+
    // --- Serialization ---
 
    private NodeSpace writeNodeToStore(Node<V> node) throws IOException {
@@ -733,6 +887,8 @@ Node<V> deserializeNode(ByteBuffer buffer) {
       private volatile SoftReference<Node<V>> reference;
       final long diskOffset;
       final short occupiedSpace;
+      // Nodes read from disk have generation 0, as it is unknown when they were written
+      final int generation;
       private final SoftBPlusTree<V> tree;
       private final ReentrantLock lock = new ReentrantLock();
 
@@ -740,12 +896,14 @@ Node<V> deserializeNode(ByteBuffer buffer) {
          this.reference = new SoftReference<>(actual);
          this.diskOffset = diskOffset;
          this.occupiedSpace = occupiedSpace;
+         this.generation = tree.generation;
          this.tree = tree;
       }
 
       SoftNode(long diskOffset, short occupiedSpace, SoftBPlusTree<V> tree) {
          this.diskOffset = diskOffset;
          this.occupiedSpace = occupiedSpace;
+         this.generation = 0;
          this.tree = tree;
       }
 
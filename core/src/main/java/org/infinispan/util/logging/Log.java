@@ -2458,15 +2458,15 @@ CacheConfigurationException storeConfiguredHasBothReadAndWriteOnly(String storeC
    CacheConfigurationException dynamicResizeRequiresMemoryMonitor(String containerName);
 
    @LogMessage(level = INFO)
-   @Message(value = "Shared container '%s' resized from %d to %d", id = 722)
+   @Message(value = "Container '%s' resized from %d to %d", id = 722)
    void containerResized(String containerName, long oldCapacity, long newCapacity);
 
    @LogMessage(level = WARN)
-   @Message(value = "All shared containers have reached their minimum floor capacity", id = 723)
+   @Message(value = "All dynamically resized containers have reached their minimum floor capacity", id = 723)
    void containerAtFloor();
 
    @LogMessage(level = INFO)
-   @Message(value = "All shared containers have recovered to their original capacity", id = 724)
+   @Message(value = "All dynamically resized containers have recovered to their original capacity", id = 724)
    void allContainersRecovered();
 
    @LogMessage(level = WARN)
@@ -2474,4 +2474,18 @@ CacheConfigurationException storeConfiguredHasBothReadAndWriteOnly(String storeC
          "When the container shrinks under memory pressure, evicted entries must be persisted to the " +
          "store, which may increase memory churn and reduce the effectiveness of the resize.", id = 725)
    void dynamicResizeWithPassivation(String containerName);
+
+   @Message(value = "State transfer attribute '%s' must not be negative, got %d", id = 726)
+   CacheConfigurationException invalidStateTransferLimit(String attribute, long value);
+
+   @Message(value = "State transfer apply parallelism must be positive, got %d", id = 727)
+   CacheConfigurationException invalidStateTransferApplyParallelism(int parallelism);
+
+   @Message(value = "Cache has dynamic-resize enabled but the memory-monitor is disabled. " +
+         "Enable the memory-monitor or disable dynamic-resize.", id = 728)
+   CacheConfigurationException cacheDynamicResizeRequiresMemoryMonitor();
+
+   @Message(value = "State transfer max-inbound-bandwidth %d requires chunk-bytes to be set to a value that can be " +
+         "received within the state transfer timeout %s, got %d", id = 729)
+   CacheConfigurationException stateTransferChunkExceedsTimeout(long maxInboundBandwidth, String timeout, long chunkBytes);
 }
@@ -24,6 +24,7 @@
 import org.infinispan.commons.executors.ScheduledThreadPoolExecutorFactory;
 import org.infinispan.commons.util.FileLookupFactory;
 import org.infinispan.commons.util.Version;
+import org.infinispan.configuration.cache.AdmissionPolicy;
 import org.infinispan.configuration.cache.AsyncStoreConfiguration;
 import org.infinispan.configuration.cache.BackupConfiguration;
 import org.infinispan.configuration.cache.BackupFailurePolicy;
@@ -37,9 +38,12 @@
 import org.infinispan.configuration.cache.IndexingMode;
 import org.infinispan.configuration.cache.IsolationLevel;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.configuration.cache.OffHeapEvictionPolicy;
 import org.infinispan.configuration.cache.PartitionHandlingConfiguration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.QueryConfiguration;
+import org.infinispan.configuration.cache.StateTransferConfiguration;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.configuration.cache.TracingConfiguration;
@@ -116,6 +120,45 @@ public void testParseAndConstructUnifiedXmlFile(Path config) throws IOException
    }
 
    public enum ParserVersionCheck {
+      INFINISPAN_163(16, 3) {
+         @Override
+         public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schemaMinor) {
+            Configuration c = getConfiguration(holder, "repl");
+            assertTrue(c.expiration().reaperIndex());
+            assertFalse(getConfiguration(holder, "local").expiration().reaperIndex());
+            SoftIndexFileStoreConfiguration sifs = getStoreConfiguration(getConfiguration(holder, "local"), SoftIndexFileStoreConfiguration.class);
+            assertTrue(sifs.syncWrites());
+            assertEquals(2, sifs.syncWritesWindow());
+            assertEquals(1048576, sifs.syncWritesMaxBytes());
+            assertEquals(100, sifs.async().flushInterval());
+            assertEquals(65536, sifs.async().flushMaxBytes());
+            assertEquals(10485760, sifs.compactionRate());
+            assertEquals(300000, sifs.checkpointInterval());
+            assertTrue(sifs.memoryMappedReads());
+            assertEquals(OffHeapAllocatorType.SLAB, getConfiguration(holder, "minimal-offheap").memory().offHeapAllocator());
+            assertEquals(OffHeapAllocatorType.UNPOOLED, getConfiguration(holder, "off-heap-memory").memory().offHeapAllocator());
+            assertEquals(OffHeapEvictionPolicy.CLOCK, getConfiguration(holder, "off-heap-memory").memory().offHeapEvictionPolicy());
+            assertEquals(OffHeapEvictionPolicy.LRU, getConfiguration(holder, "minimal-offheap").memory().offHeapEvictionPolicy());
+            assertTrue(getConfiguration(holder, "minimal-object").memory().compactEntries());
+            assertFalse(getConfiguration(holder, "object-memory").memory().compactEntries());
+            assertEquals(4, getConfiguration(holder, "heap_object").memory().evictionShards());
+            assertEquals(1, getConfiguration(holder, "object-memory").memory().evictionShards());
+            assertTrue(getConfiguration(holder, "heap_binary").memory().dynamicResize());
+            assertFalse(getConfiguration(holder, "heap_object").memory().dynamicResize());
+            assertEquals(AdmissionPolicy.TINY_LFU, getConfiguration(holder, "off-heap-memory").memory().admissionPolicy());
+            assertEquals(AdmissionPolicy.NONE, getConfiguration(holder, "minimal-offheap").memory().admissionPolicy());
+            assertEquals(10_000, getConfiguration(holder, "heap_object").memory().evictionExpiryWindow());
+            assertEquals(-1, getConfiguration(holder, "object-memory").memory().evictionExpiryWindow());
+            StateTransferConfiguration stateTransfer = getConfiguration(holder, "dist").clustering().stateTransfer();
+            assertEquals(4194304, stateTransfer.chunkBytes());
+            assertEquals(104857600, stateTransfer.maxOutboundBandwidth());
+            assertEquals(52428800, stateTransfer.maxInboundBandwidth());
+            assertTrue(stateTransfer.adaptiveFlowControl());
+            assertEquals(4, stateTransfer.applyParallelism());
+            assertTrue(stateTransfer.directApply());
+            assertTrue(stateTransfer.deltaTransfer());
+         }
+      },
       INFINISPAN_162(16, 2) {
          @Override
          public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schemaMinor) {
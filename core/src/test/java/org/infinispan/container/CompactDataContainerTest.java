@@ -0,0 +1,41 @@
+package org.infinispan.container;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.DefaultDataContainer;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.CompactDataContainerTest")
+public class CompactDataContainerTest extends SimpleDataContainerTest {
+
+   @Override
+   protected DefaultDataContainer<String, String> newContainer() {
+      return DefaultDataContainer.compactDataContainer();
+   }
+
+   public void testImmortalEntriesAreCompacted() {
+      InternalDataContainer<String, String> dc = createContainer();
+      dc.put("immortal", "v", new EmbeddedMetadata.Builder().build());
+      dc.put("mortal", "v", new EmbeddedMetadata.Builder().lifespan(100, TimeUnit.MINUTES).build());
+
+      // Only the value of the immortal entry is stored, so the entry is created on every read
+      InternalCacheEntry<String, String> immortal = dc.peek("immortal");
+      assertNotSame(immortal, dc.peek("immortal"));
+      assertEquals(immortal, dc.peek("immortal"));
+      assertEquals("v", immortal.getValue());
+
+      InternalCacheEntry<String, String> mortal = dc.peek("mortal");
+      assertSame(mortal, dc.peek("mortal"));
+
+      dc.compute("immortal", (k, oldEntry, factory) -> factory.update(oldEntry, "v2", oldEntry.getMetadata()));
+      assertEquals("v2", dc.peek("immortal").getValue());
+      assertEquals(2, dc.sizeIncludingExpired());
+   }
+}
@@ -49,8 +49,12 @@ public void tearDown() {
       dc = null;
    }
 
+   protected DefaultDataContainer<String, String> newContainer() {
+      return new DefaultDataContainer<>(16);
+   }
+
    protected InternalDataContainer<String, String> createContainer() {
-      DefaultDataContainer<String, String> dc = new DefaultDataContainer<>(16);
+      DefaultDataContainer<String, String> dc = newContainer();
       InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
       timeService = new ControlledTimeService();
       TestingUtil.inject(internalEntryFactory, timeService);
@@ -10,6 +10,7 @@
 
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.util.MemoryMonitor;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.global.ContainerMemoryConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
@@ -168,6 +169,38 @@ public void testConfigValidationSucceedsWithMemoryMonitor() {
       builder.build();
    }
 
+   @Test
+   public void testCacheConfigValidationFailsWithoutMemoryMonitor() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.cacheContainer().memoryMonitor().enabled(false);
+      GlobalConfiguration globalConfig = global.build();
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().maxCount(100).dynamicResize(true);
+
+      try {
+         builder.build(globalConfig);
+         fail("Expected CacheConfigurationException");
+      } catch (CacheConfigurationException e) {
+         assertTrue(e.getMessage().contains("dynamic-resize"));
+         assertTrue(e.getMessage().contains("memory-monitor"));
+      }
+
+      // Not bounded, dynamic-resize is ignored
+      builder.memory().maxCount(-1);
+      builder.build(globalConfig);
+   }
+
+   @Test
+   public void testCacheConfigValidationSucceedsWithMemoryMonitor() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.cacheContainer().memoryMonitor().enabled(true);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().maxCount(100).dynamicResize(true);
+
+      // Should not throw
+      builder.build(global.build());
+   }
+
    private DynamicMemoryResizer createResizer(SharedCaffeineMap<?, ?> map, String name,
                                               MemoryMonitor monitor, ScheduledExecutorService executor) {
       ContainerMemoryConfiguration containerConfig = Mockito.mock(ContainerMemoryConfiguration.class);
@@ -12,12 +12,14 @@
 import static org.mockito.Mockito.when;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.commons.util.MemoryMonitor;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.configuration.global.ContainerMemoryConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.test.AbstractInfinispanTest;
@@ -301,4 +303,85 @@ public void testGrowingToShrinkingCancelsTask() {
       assertEquals(DynamicMemoryResizer.State.SHRINKING, resizer.state);
       verify(sharedMap).resize(600);
    }
+
+   @Test
+   public void testRegisteredContainerIsResized() {
+      ResizableContainer container = mock(ResizableContainer.class);
+      when(container.capacity()).thenReturn(500L);
+      when(container.beforeShrink(anyLong())).thenReturn(CompletableFutures.completedNull());
+      resizer.register("cache", container);
+
+      when(memoryMonitor.isMemoryLow()).thenReturn(true);
+      resizer.onMemoryLow();
+
+      verify(sharedMap).resize(800);
+      // 20% of 500 = 100
+      verify(container).resize(400);
+
+      resizer.unregister(container);
+      when(memoryMonitor.isMemoryLow()).thenReturn(false);
+      resizer.checkRecovery();
+      resizer.growStep();
+      verify(container, never()).resize(500);
+   }
+
+   @Test
+   public void testShrinkWaitsForContainer() {
+      ResizableContainer container = mock(ResizableContainer.class);
+      when(container.capacity()).thenReturn(500L);
+      CompletableFuture<Void> passivation = new CompletableFuture<>();
+      when(container.beforeShrink(400)).thenReturn(passivation);
+      resizer.register("cache", container);
+
+      when(memoryMonitor.isMemoryLow()).thenReturn(true);
+      resizer.onMemoryLow();
+      verify(container, never()).resize(anyLong());
+
+      passivation.complete(null);
+      verify(container).resize(400);
+   }
+
+   @Test
+   public void testShrinkScalesWithGcPressure() {
+      when(memoryMonitor.isGcPressureExceeded()).thenReturn(true);
+      when(memoryMonitor.getGcPressureThreshold()).thenReturn(0.2);
+      when(memoryMonitor.getGcPressure()).thenReturn(0.4);
+
+      resizer.onGcPressureHigh();
+
+      // Twice the threshold => 2 * 20% of 1000 = 400
+      verify(sharedMap).resize(600);
+   }
+
+   @Test
+   public void testShrinkScalesWithAllocationRate() {
+      // Allocation rate observed while stable
+      when(memoryMonitor.getAllocationRate()).thenReturn(100L);
+      resizer.onGcCompleted();
+
+      when(memoryMonitor.isMemoryLow()).thenReturn(true);
+      when(memoryMonitor.getAllocationRate()).thenReturn(1000L);
+      resizer.onMemoryLow();
+
+      // Capped to 3 * 20% of 1000 = 600
+      verify(sharedMap).resize(400);
+   }
+
+   @Test
+   public void testNoGrowWhileAllocationRateHigh() {
+      when(memoryMonitor.getAllocationRate()).thenReturn(100L);
+      resizer.onGcCompleted();
+
+      resizer.state = DynamicMemoryResizer.State.GROWING;
+      when(sharedMap.capacity()).thenReturn(800L);
+      when(memoryMonitor.getAllocationRate()).thenReturn(200L);
+      resizer.growStep();
+
+      verify(sharedMap, never()).resize(anyLong());
+      assertEquals(DynamicMemoryResizer.State.GROWING, resizer.state);
+
+      when(memoryMonitor.getAllocationRate()).thenReturn(120L);
+      resizer.growStep();
+      verify(sharedMap).resize(900);
+   }
 }
@@ -0,0 +1,90 @@
+package org.infinispan.container.offheap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.infinispan.configuration.cache.AdmissionPolicy;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.impl.AdmissionFilter;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapBoundedAdmissionTest")
+public class OffHeapBoundedAdmissionTest extends SingleCacheManagerTest {
+   private static final int COUNT = 50;
+   private static final int READS = 5;
+
+   public OffHeapBoundedAdmissionTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().storage(StorageType.OFF_HEAP).maxCount(COUNT).admissionPolicy(AdmissionPolicy.TINY_LFU);
+      builder.persistence().passivation(true).addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testColdEntriesDoNotEvictReadEntries() {
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("hot" + i, "value" + i);
+      }
+      for (int reads = 0; reads < READS; ++reads) {
+         for (int i = 0; i < COUNT; ++i) {
+            assertEquals("value" + i, cache.get("hot" + i));
+         }
+      }
+
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("cold" + i, "value" + i);
+      }
+
+      for (int i = 0; i < COUNT; ++i) {
+         assertNotNull(peek("hot" + i));
+      }
+      AdmissionFilter admissionFilter = TestingUtil.extractComponent(cache, AdmissionFilter.class);
+      assertTrue(admissionFilter.getRejected() >= COUNT);
+      assertTrue(admissionFilter.getHitRatio() > 0);
+   }
+
+   public void testRejectedEntryIsPassivated() {
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("hot" + i, "value" + i);
+         cache.get("hot" + i);
+         cache.get("hot" + i);
+      }
+
+      cache.put("cold", "value");
+      assertNull(peek("cold"));
+      assertEquals(COUNT, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+
+      // Loaded from the store
+      eventuallyEquals("value", () -> cache.get("cold"));
+   }
+
+   public void testOnlyReadsAreRecorded() {
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("hot" + i, "value" + i);
+         cache.put("hot" + i, "value" + i);
+         assertNotNull(peek("hot" + i));
+      }
+      AdmissionFilter admissionFilter = TestingUtil.extractComponent(cache, AdmissionFilter.class);
+      assertEquals(0, admissionFilter.getHitRatio());
+
+      assertEquals("value0", cache.get("hot0"));
+      assertEquals(1, admissionFilter.getHitRatio());
+   }
+
+   private Object peek(String key) {
+      Object storageKey = cache.getAdvancedCache().getKeyDataConversion().toStorage(key);
+      return cache.getAdvancedCache().getDataContainer().peek(storageKey);
+   }
+}
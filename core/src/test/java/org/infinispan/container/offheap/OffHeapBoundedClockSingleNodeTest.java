@@ -0,0 +1,51 @@
+package org.infinispan.container.offheap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.IsolationLevel;
+import org.infinispan.configuration.cache.OffHeapEvictionPolicy;
+import org.infinispan.configuration.cache.StorageType;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapBoundedClockSingleNodeTest")
+public class OffHeapBoundedClockSingleNodeTest extends OffHeapBoundedSingleNodeTest {
+
+   private static final int COUNT = 51;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storage(StorageType.OFF_HEAP).maxCount(COUNT).offHeapEvictionPolicy(OffHeapEvictionPolicy.CLOCK);
+      dcc.locking().isolationLevel(IsolationLevel.READ_COMMITTED);
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+
+   public void testReadEntryGetsSecondChance() {
+      Cache<String, String> cache = cache(0);
+
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+      // Marks the oldest entry as referenced
+      assertEquals("value0", cache.get("key0"));
+
+      cache.put("key" + COUNT, "value" + COUNT);
+
+      assertEquals(COUNT, cache.size());
+      // The entry that was read got a second chance, the next one was evicted instead
+      assertNotNull(peek(cache, "key0"));
+      assertNull(peek(cache, "key1"));
+   }
+
+   private Object peek(Cache<String, String> cache, String key) {
+      Object storageKey = cache.getAdvancedCache().getKeyDataConversion().toStorage(key);
+      return cache.getAdvancedCache().getDataContainer().peek(storageKey);
+   }
+}
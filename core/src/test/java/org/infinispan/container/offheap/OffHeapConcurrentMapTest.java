@@ -1,13 +1,20 @@
 package org.infinispan.container.offheap;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.marshall.WrappedBytes;
@@ -28,14 +35,17 @@ public class OffHeapConcurrentMapTest {
 
    @BeforeMethod
    void initializeMap() {
-      OffHeapMemoryAllocator allocator = new UnpooledOffHeapMemoryAllocator();
+      map = createMap(new UnpooledOffHeapMemoryAllocator());
+   }
+
+   private OffHeapConcurrentMap createMap(OffHeapMemoryAllocator allocator) {
       OffHeapEntryFactoryImpl offHeapEntryFactory = new OffHeapEntryFactoryImpl();
       offHeapEntryFactory.allocator = allocator;
       offHeapEntryFactory.internalEntryFactory = new InternalEntryFactoryImpl();
       offHeapEntryFactory.configuration = new ConfigurationBuilder().build();
       offHeapEntryFactory.start();
 
-      map = new OffHeapConcurrentMap(allocator, offHeapEntryFactory, null);
+      return new OffHeapConcurrentMap(allocator, offHeapEntryFactory, null);
    }
 
    @AfterMethod
@@ -132,6 +142,61 @@ public void testIterationCreatedButNotUsedUntilAfterAResize() {
       assertEquals(RESIZE_LIMITATION, entriesFound);
    }
 
+   public void testOptimisticReadsDuringWrites() throws Exception {
+      SlabOffHeapMemoryAllocator allocator = new SlabOffHeapMemoryAllocator();
+      if (!allocator.retainsDeallocatedMemory()) {
+         // Memory accesses are validated, reads will use the read lock
+         return;
+      }
+      int keyCount = RESIZE_LIMITATION * 4;
+      WrappedBytes[] keys = new WrappedBytes[keyCount];
+      for (int i = 0; i < keyCount; ++i) {
+         keys[i] = new WrappedByteArray(("key" + i).getBytes());
+      }
+      try (OffHeapConcurrentMap slabMap = createMap(allocator)) {
+         AtomicBoolean running = new AtomicBoolean(true);
+         // Values have a different size on every write and start with the key, so that a torn read is detected
+         Future<Void> writer = fork(() -> {
+            for (int i = 0; running.get(); ++i) {
+               WrappedBytes key = keys[i % keyCount];
+               byte[] value = Arrays.copyOf(key.getBytes(), key.getLength() + i % 64);
+               if (i % 3 == 0) {
+                  slabMap.remove(key);
+               } else {
+                  slabMap.put(key, new ImmortalCacheEntry(key, new WrappedByteArray(value)));
+               }
+               if (i % (keyCount * 10) == 0) {
+                  slabMap.clear();
+               }
+            }
+            return null;
+         });
+         try {
+            long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < endTime) {
+               WrappedBytes key = keys[ThreadLocalRandom.current().nextInt(keyCount)];
+               InternalCacheEntry<WrappedBytes, WrappedBytes> ice = slabMap.get(key);
+               if (ice != null) {
+                  assertEquals(key, ice.getKey());
+                  byte[] value = ice.getValue().getBytes();
+                  assertArrayEquals(key.getBytes(), Arrays.copyOf(value, key.getLength()));
+               }
+            }
+         } finally {
+            running.set(false);
+            writer.get(10, TimeUnit.SECONDS);
+         }
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   private static Future<Void> fork(Callable<Void> callable) {
+      FutureTask<Void> task = new FutureTask<>(callable);
+      new Thread(task, "OffHeapConcurrentMapTest-writer").start();
+      return task;
+   }
+
    WrappedBytes putInMap(OffHeapConcurrentMap map, WrappedBytes value) {
       InternalCacheEntry<WrappedBytes, WrappedBytes> ice;
       WrappedBytes key;
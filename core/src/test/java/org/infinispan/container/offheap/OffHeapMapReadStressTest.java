@@ -0,0 +1,110 @@
+package org.infinispan.container.offheap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.impl.InternalEntryFactoryImpl;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the get throughput of an {@link OffHeapConcurrentMap} that acquires the read lock of its regions, which is
+ * the case with the unpooled allocator, with one that reads optimistically, which is the case with the slab allocator.
+ * Run on a machine with many cores (32 or more) to see how reads scale with the number of threads.
+ *
+ * @since 16.3
+ */
+@Test(testName = "container.offheap.OffHeapMapReadStressTest", groups = "profiling")
+public class OffHeapMapReadStressTest {
+   static final long RUNNING_TIME = Integer.getInteger("time", 10) * 1000;
+   static final int NUM_KEYS = Integer.getInteger("size", 100000);
+
+   @DataProvider(name = "threads")
+   Object[][] threads() {
+      int maxThreads = Math.max(32, Runtime.getRuntime().availableProcessors());
+      List<Object[]> threads = new ArrayList<>();
+      for (int readers = 1; readers <= maxThreads; readers <<= 1) {
+         threads.add(new Object[] { readers, 0 });
+         threads.add(new Object[] { readers, 1 });
+      }
+      return threads.toArray(new Object[0][]);
+   }
+
+   @Test(dataProvider = "threads")
+   public void testGetThroughput(int readerThreads, int writerThreads) throws Exception {
+      System.out.printf("Testing off-heap get performance with keys %d, readers %d, writers %d\n", NUM_KEYS,
+            readerThreads, writerThreads);
+      testGetThroughput("locked", new UnpooledOffHeapMemoryAllocator(), readerThreads, writerThreads);
+      SlabOffHeapMemoryAllocator slabAllocator = new SlabOffHeapMemoryAllocator();
+      try {
+         testGetThroughput("optimistic", slabAllocator, readerThreads, writerThreads);
+      } finally {
+         slabAllocator.stop();
+      }
+   }
+
+   private void testGetThroughput(String name, OffHeapMemoryAllocator allocator, int readerThreads, int writerThreads)
+         throws Exception {
+      OffHeapEntryFactoryImpl entryFactory = new OffHeapEntryFactoryImpl();
+      entryFactory.allocator = allocator;
+      entryFactory.internalEntryFactory = new InternalEntryFactoryImpl();
+      entryFactory.configuration = new ConfigurationBuilder().build();
+      entryFactory.start();
+
+      try (OffHeapConcurrentMap map = new OffHeapConcurrentMap(allocator, entryFactory, null)) {
+         WrappedBytes[] keys = new WrappedBytes[NUM_KEYS];
+         WrappedBytes value = new WrappedByteArray(new byte[100]);
+         for (int i = 0; i < keys.length; ++i) {
+            keys[i] = new WrappedByteArray(("key" + i).getBytes());
+            map.putNoReturn(keys[i], new ImmortalCacheEntry(keys[i], value));
+         }
+
+         LongAdder gets = new LongAdder();
+         LongAdder puts = new LongAdder();
+         CountDownLatch latch = new CountDownLatch(1);
+         long endTime = System.nanoTime() + RUNNING_TIME * 1_000_000;
+         List<Thread> threads = new ArrayList<>();
+         for (int i = 0; i < readerThreads + writerThreads; ++i) {
+            boolean reader = i < readerThreads;
+            threads.add(new Thread(() -> {
+               ThreadLocalRandom random = ThreadLocalRandom.current();
+               long operations = 0;
+               try {
+                  latch.await();
+               } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+               }
+               while ((operations & 1023) != 0 || System.nanoTime() < endTime) {
+                  WrappedBytes key = keys[random.nextInt(keys.length)];
+                  if (reader) {
+                     map.get(key);
+                  } else {
+                     map.putNoReturn(key, new ImmortalCacheEntry(key, value));
+                  }
+                  operations++;
+               }
+               (reader ? gets : puts).add(operations);
+            }));
+         }
+         threads.forEach(Thread::start);
+         latch.countDown();
+         for (Thread thread : threads) {
+            thread.join();
+         }
+
+         double seconds = RUNNING_TIME / 1000d;
+         System.out.printf("Map %-12s  ", name);
+         System.out.printf("Gets/s %14.2f  ", gets.sum() / seconds);
+         System.out.printf("Gets/s/thread %12.2f  ", gets.sum() / seconds / readerThreads);
+         System.out.printf("Puts/s %12.2f\n", puts.sum() / seconds);
+      }
+   }
+}
@@ -0,0 +1,44 @@
+package org.infinispan.container.offheap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapSlabSingleNodeTest")
+public class OffHeapSlabSingleNodeTest extends OffHeapSingleNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storage(StorageType.OFF_HEAP).offHeapAllocator(OffHeapAllocatorType.SLAB);
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+
+   public void testSlotsAreReused() {
+      Cache<String, String> cache = cache(0);
+      SlabOffHeapMemoryAllocator allocator = (SlabOffHeapMemoryAllocator) TestingUtil.extractComponent(cache,
+            OffHeapMemoryAllocator.class);
+
+      for (int i = 0; i < 1_000; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+      int pages = allocator.getPages();
+      assertTrue(pages > 0);
+      for (int i = 0; i < 1_000; ++i) {
+         cache.remove("key" + i);
+      }
+      for (int i = 0; i < 1_000; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+      assertEquals(pages, allocator.getPages());
+   }
+}
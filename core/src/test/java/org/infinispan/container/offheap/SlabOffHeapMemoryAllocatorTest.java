@@ -0,0 +1,113 @@
+package org.infinispan.container.offheap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.offheap.SlabOffHeapMemoryAllocatorTest")
+public class SlabOffHeapMemoryAllocatorTest {
+
+   @DataProvider(name = "sizeClasses")
+   Object[][] sizeClasses() {
+      return new Object[][] {
+            { 1, 16 },
+            { 16, 16 },
+            { 17, 32 },
+            { 250, 256 },
+            { 257, 320 },
+            { 513, 640 },
+            { 32767, 32768 },
+      };
+   }
+
+   @Test(dataProvider = "sizeClasses")
+   public void testSizeClasses(long size, long expectedSlotSize) {
+      assertEquals(expectedSlotSize, SlabOffHeapMemoryAllocator.slotSize(SlabOffHeapMemoryAllocator.sizeClass(size)));
+   }
+
+   public void testLargeAllocationsAreNotPooled() {
+      assertEquals(-1, SlabOffHeapMemoryAllocator.sizeClass(SlabOffHeapMemoryAllocator.MAX_SLOT_SIZE + 1));
+      SlabOffHeapMemoryAllocator allocator = new SlabOffHeapMemoryAllocator(1);
+      try {
+         long size = SlabOffHeapMemoryAllocator.MAX_SLOT_SIZE * 4;
+         long estimatedSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+         long address = allocator.allocate(size);
+         assertEquals(0, allocator.getPages());
+         assertEquals(estimatedSize, allocator.getAllocatedAmount());
+         assertEquals(estimatedSize, allocator.getReservedAmount());
+         allocator.deallocate(address, size);
+         assertEquals(0, allocator.getAllocatedAmount());
+         assertEquals(0, allocator.getReservedAmount());
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testLargeAllocationsRetainedDuringUnlockedRead() throws Exception {
+      SlabOffHeapMemoryAllocator allocator = new SlabOffHeapMemoryAllocator(1);
+      if (!allocator.retainsDeallocatedMemory()) {
+         // Memory accesses are validated, nothing is retained
+         return;
+      }
+      try {
+         long size = SlabOffHeapMemoryAllocator.MAX_SLOT_SIZE * 4;
+         long estimatedSize = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+         long address = allocator.allocate(size);
+         allocator.startUnlockedRead();
+         try {
+            // Deallocated by another thread while this one may still read it
+            Thread writer = new Thread(() -> allocator.deallocate(address, size));
+            writer.start();
+            writer.join();
+            assertEquals(0, allocator.getAllocatedAmount());
+            assertEquals(estimatedSize, allocator.getReservedAmount());
+         } finally {
+            allocator.endUnlockedRead();
+         }
+         // The next unpooled allocation releases the retired memory
+         long other = allocator.allocate(size);
+         assertEquals(estimatedSize, allocator.getReservedAmount());
+         allocator.deallocate(other, size);
+         assertEquals(0, allocator.getReservedAmount());
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testFreedSlotIsReused() {
+      SlabOffHeapMemoryAllocator allocator = new SlabOffHeapMemoryAllocator(1);
+      try {
+         long first = allocator.allocate(100);
+         long second = allocator.allocate(100);
+         assertNotEquals(first, second);
+         assertEquals(1, allocator.getPages());
+         assertEquals(2 * 112, allocator.getAllocatedAmount());
+
+         allocator.deallocate(first, 100);
+         assertEquals(112, allocator.getAllocatedAmount());
+         assertEquals(first, allocator.allocate(100));
+         assertEquals(1, allocator.getPages());
+         assertEquals(3, allocator.getAllocations());
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testStatistics() {
+      SlabOffHeapMemoryAllocator allocator = new SlabOffHeapMemoryAllocator(1);
+      try {
+         allocator.allocate(24);
+         allocator.allocate(32);
+         assertEquals(SlabOffHeapMemoryAllocator.MIN_PAGE_SIZE, allocator.getReservedAmount());
+         assertEquals(64, allocator.getAllocatedAmount());
+         assertEquals(1 - 56d / 64, allocator.getFragmentation(), 0.0001);
+         assertEquals(64d / SlabOffHeapMemoryAllocator.MIN_PAGE_SIZE, allocator.getPageUtilization(), 0.0001);
+      } finally {
+         allocator.stop();
+         assertEquals(0, allocator.getPages());
+         assertEquals(0, allocator.getReservedAmount());
+      }
+   }
+}
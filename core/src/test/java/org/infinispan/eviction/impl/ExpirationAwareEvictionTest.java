@@ -0,0 +1,54 @@
+package org.infinispan.eviction.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "eviction.impl.ExpirationAwareEvictionTest")
+public class ExpirationAwareEvictionTest extends SingleCacheManagerTest {
+   private static final int COUNT = 10;
+
+   public ExpirationAwareEvictionTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager();
+   }
+
+   public void testHeapEvictsExpiringEntry() {
+      testEvictsExpiringEntry(StorageType.HEAP);
+   }
+
+   public void testOffHeapEvictsExpiringEntry() {
+      testEvictsExpiringEntry(StorageType.OFF_HEAP);
+   }
+
+   private void testEvictsExpiringEntry(StorageType storageType) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory().storage(storageType).maxCount(COUNT).evictionExpiryWindow(10, TimeUnit.SECONDS);
+      Cache<String, String> cache = cacheManager.createCache(storageType.name(), builder.build());
+
+      for (int i = 0; i < COUNT - 1; ++i) {
+         cache.put("immortal" + i, "value" + i);
+      }
+      cache.put("mortal", "value", 5, TimeUnit.SECONDS);
+      cache.put("immortal" + (COUNT - 1), "value" + (COUNT - 1));
+
+      assertNull(cache.get("mortal"));
+      for (int i = 0; i < COUNT; ++i) {
+         assertEquals("value" + i, cache.get("immortal" + i));
+      }
+      assertEquals(COUNT, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+   }
+}
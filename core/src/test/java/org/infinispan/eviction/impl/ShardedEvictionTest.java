@@ -0,0 +1,146 @@
+package org.infinispan.eviction.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.container.impl.ShardedBoundedSegmentedDataContainer;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "eviction.impl.ShardedEvictionTest")
+public class ShardedEvictionTest extends SingleCacheManagerTest {
+   private static final int CACHE_SIZE = 400;
+   private static final int SHARDS = 4;
+   private static final int SEGMENTS = 16;
+
+   public ShardedEvictionTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.REPL_SYNC).hash().numSegments(SEGMENTS)
+            .memory().maxCount(CACHE_SIZE).evictionShards(SHARDS);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createClusteredCacheManager(builder);
+      cache = cm.getCache();
+      return cm;
+   }
+
+   private ShardedBoundedSegmentedDataContainer<?, ?> container() {
+      return (ShardedBoundedSegmentedDataContainer<?, ?>) TestingUtil.extractComponent(cache, InternalDataContainer.class);
+   }
+
+   private int shard(Object key) {
+      int segment = TestingUtil.extractComponent(cache, KeyPartitioner.class).getSegment(key);
+      return segment * SHARDS / SEGMENTS;
+   }
+
+   public void testCapacityIsSplitBetweenShards() {
+      ShardedBoundedSegmentedDataContainer<?, ?> container = container();
+      assertEquals(SHARDS, container.getEvictionShards());
+      for (int i = 0; i < SHARDS; ++i) {
+         assertEquals(CACHE_SIZE / SHARDS, container.getShardCapacity(i));
+      }
+
+      for (int i = 0; i < CACHE_SIZE * 4; ++i) {
+         cache.put("key-" + i, "value-" + i);
+      }
+      container.cleanUp();
+
+      long evictions = 0;
+      for (int i = 0; i < SHARDS; ++i) {
+         assertTrue(container.getShardEvictionSize(i) <= CACHE_SIZE / SHARDS);
+         evictions += container.getShardEvictions(i);
+      }
+      assertTrue(container.evictionSize() <= CACHE_SIZE);
+      assertEquals(container.sizeIncludingExpired(), container.evictionSize());
+      assertTrue(evictions >= CACHE_SIZE * 3);
+   }
+
+   public void testRebalanceFavorsReadShards() {
+      ShardedBoundedSegmentedDataContainer<?, ?> container = container();
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; keys.size() < CACHE_SIZE / SHARDS / 2; ++i) {
+         String key = "key-" + i;
+         if (shard(key) == 0) {
+            cache.put(key, "value-" + i);
+            keys.add(key);
+         }
+      }
+      for (int reads = 0; reads < 10; ++reads) {
+         keys.forEach(cache::get);
+      }
+      container.rebalance();
+
+      assertTrue(container.getRebalances() >= 1);
+      long total = 0;
+      for (int shard = 0; shard < SHARDS; ++shard) {
+         total += container.getShardCapacity(shard);
+      }
+      assertEquals(CACHE_SIZE, total);
+      for (int shard = 1; shard < SHARDS; ++shard) {
+         assertTrue(container.getShardCapacity(0) > container.getShardCapacity(shard));
+         // Every shard keeps at least half of an even share
+         assertTrue(container.getShardCapacity(shard) >= CACHE_SIZE / SHARDS / 2);
+      }
+
+      // Resizing keeps the proportions
+      long shard0 = container.getShardCapacity(0);
+      container.resize(CACHE_SIZE * 2);
+      assertEquals(CACHE_SIZE * 2, container.capacity());
+      assertTrue(Math.abs(shard0 * 2 - container.getShardCapacity(0)) <= 1);
+   }
+
+   public void testNoRebalanceWithoutReads() {
+      ShardedBoundedSegmentedDataContainer<?, ?> container = container();
+      container.rebalance();
+      assertEquals(0, container.getRebalances());
+      for (int i = 0; i < SHARDS; ++i) {
+         assertEquals(CACHE_SIZE / SHARDS, container.getShardCapacity(i));
+      }
+   }
+
+   public void testEvictsExpiringEntryOfShard() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.REPL_SYNC).hash().numSegments(SEGMENTS)
+            .memory().maxCount(CACHE_SIZE).evictionShards(SHARDS).evictionExpiryWindow(10, TimeUnit.SECONDS);
+      cacheManager.defineConfiguration("expiring", builder.build());
+      Cache<String, String> expiringCache = cacheManager.getCache("expiring");
+
+      int shardSize = CACHE_SIZE / SHARDS;
+      List<String> keys = new ArrayList<>();
+      for (int i = 0; keys.size() < shardSize + 1; ++i) {
+         String key = "key-" + i;
+         if (shard(key) == 0) {
+            keys.add(key);
+         }
+      }
+      for (int i = 0; i < shardSize - 1; ++i) {
+         expiringCache.put(keys.get(i), "value");
+      }
+      String mortal = keys.get(shardSize - 1);
+      expiringCache.put(mortal, "value", 5, TimeUnit.SECONDS);
+      // The shard is full, so the entry about to expire is evicted
+      expiringCache.put(keys.get(shardSize), "value");
+
+      assertNull(expiringCache.get(mortal));
+      for (int i = 0; i < shardSize - 1; ++i) {
+         assertEquals("value", expiringCache.get(keys.get(i)));
+      }
+      assertEquals("value", expiringCache.get(keys.get(shardSize)));
+   }
+}
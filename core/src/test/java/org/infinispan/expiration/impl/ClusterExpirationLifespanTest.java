@@ -8,6 +8,7 @@
 import java.lang.invoke.MethodHandles;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadLocalRandom;
@@ -26,14 +27,17 @@
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.Flag;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.LocalizedCacheTopology;
 import org.infinispan.distribution.MagicKey;
+import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.test.MultipleCacheManagersTest;
 import org.infinispan.test.TestDataSCI;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.transaction.LockingMode;
 import org.infinispan.util.ControlledRpcManager;
+import org.infinispan.util.CountingRpcManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 import org.testng.SkipException;
@@ -305,6 +309,50 @@ public void testExpirationWithNoValueEquals() {
       verifyNoValue(cache1.getAdvancedCache().getDataContainer().iteratorIncludingExpired());
    }
 
+   public void testReaperExpiresBackupsInBatches() {
+      if (transactional) {
+         throw new SkipException("Transactional caches expire each entry with its own command");
+      }
+      for (int i = 0; i < 10; i++) {
+         Object key = createKey(cache0, cache1);
+         cache0.put(key, key.toString(), 10, TimeUnit.MINUTES);
+      }
+      incrementAllTimeServices(TimeUnit.MINUTES.toMillis(10) + 1, TimeUnit.MILLISECONDS);
+
+      RpcManager rpcManager = TestingUtil.extractComponent(cache0, RpcManager.class);
+      CountingRpcManager countingRpcManager = CountingRpcManager.replaceRpcManager(cache0);
+      try {
+         cache0.getAdvancedCache().getExpirationManager().processExpiration();
+      } finally {
+         TestingUtil.replaceComponent(cache0, RpcManager.class, rpcManager, true);
+      }
+
+      // The primary owner sent a single command to each backup owner for all the entries
+      assertEquals(cacheMode == CacheMode.REPL_SYNC ? 2 : 1, countingRpcManager.otherCount);
+      for (Cache<Object, Object> cache : Arrays.asList(cache0, cache1, cache2)) {
+         assertEquals(0, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+      }
+   }
+
+   public void testReaperKeepsEntryWrittenOnBackupAfterExpiration() {
+      if (transactional) {
+         throw new SkipException("Transactional caches expire each entry with its own command");
+      }
+      Object key = createKey(cache0, cache1);
+      cache0.put(key, key.toString(), 10, TimeUnit.MINUTES);
+      incrementAllTimeServices(TimeUnit.MINUTES.toMillis(10) + 1, TimeUnit.MILLISECONDS);
+
+      // The backup owner receives the expiration of an entry that was written again in the meantime
+      ClusterExpirationManager<Object, Object> backupExpirationManager =
+            (ClusterExpirationManager<Object, Object>) TestingUtil.extractComponent(cache1, InternalExpirationManager.class);
+      cache1.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).put(key, "new-value", 10, TimeUnit.MINUTES);
+      Object storedKey = cache1.getAdvancedCache().getKeyDataConversion().toStorage(key);
+      backupExpirationManager.removeExpiredOnBackup(List.of(storedKey), List.of(TimeUnit.MINUTES.toMillis(10)))
+            .toCompletableFuture().join();
+
+      assertEquals("new-value", cache1.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).get(key));
+   }
+
    private void verifyNoValue(Iterator<InternalCacheEntry<Object, Object>> iter) {
       if (iter.hasNext()) {
          assertNull(iter.next().getValue());
@@ -0,0 +1,88 @@
+package org.infinispan.expiration.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.impl.ExpirationIndex;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "expiration.impl.ExpirationIndexFunctionalTest")
+public class ExpirationIndexFunctionalTest extends ExpirationFunctionalTest {
+
+   @Factory
+   @Override
+   public Object[] factory() {
+      return new Object[]{
+            new ExpirationIndexFunctionalTest().cacheMode(CacheMode.LOCAL).withStorage(StorageType.HEAP),
+            new ExpirationIndexFunctionalTest().cacheMode(CacheMode.LOCAL).withStorage(StorageType.OFF_HEAP),
+            new ExpirationIndexFunctionalTest().cacheMode(CacheMode.DIST_SYNC).withStorage(StorageType.HEAP),
+            new ExpirationIndexFunctionalTest().cacheMode(CacheMode.DIST_SYNC).withStorage(StorageType.OFF_HEAP)
+      };
+   }
+
+   @Override
+   protected void configure(ConfigurationBuilder config) {
+      super.configure(config);
+      config.expiration().reaperIndex(true);
+   }
+
+   public void testIndexOnlyHoldsExpirableEntries() {
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("immortal-" + i, "value-" + i);
+         cache.put("mortal-" + i, "value-" + i, 10, TimeUnit.MILLISECONDS);
+      }
+      ExpirationIndex<Object> index = expirationIndex();
+      assertEquals(SIZE, index.size());
+
+      cache.remove("mortal-0");
+      assertEquals(SIZE - 1, index.size());
+
+      timeService.advance(11);
+      processExpiration();
+      assertEquals(0, index.size());
+      assertEquals(SIZE, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+   }
+
+   public void testNotExpiredEntriesAreVisitedAgain() {
+      for (int i = 0; i < SIZE; i++) {
+         cache.put("key-" + i, "value-" + i, 10, TimeUnit.MILLISECONDS);
+      }
+      // The entries are due in the index as it covers the whole reaper interval, but they are not expired yet
+      processExpiration();
+      assertEquals(SIZE, cache.size());
+      assertEquals(SIZE, expirationIndex().size());
+
+      timeService.advance(11);
+      processExpiration();
+      assertEquals(0, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+      assertEquals(0, expirationIndex().size());
+   }
+
+   public void testUpdateMovesKeyInIndex() {
+      cache.put("key", "value", 10, TimeUnit.MILLISECONDS);
+      cache.put("key", "value2", 10, TimeUnit.DAYS);
+      assertEquals(1, expirationIndex().size());
+
+      timeService.advance(11);
+      processExpiration();
+      assertEquals("value2", cache.get("key"));
+
+      cache.put("key", "value3");
+      assertEquals(0, expirationIndex().size());
+   }
+
+   private ExpirationIndex<Object> expirationIndex() {
+      InternalDataContainer<Object, Object> container = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      ExpirationIndex<Object> index = container.expirationIndex();
+      assertNotNull(index);
+      return index;
+   }
+}
@@ -64,6 +64,23 @@ public void testSimpleExpirationMaxIdle() throws Exception {
       assertExpiredEvents(SIZE);
    }
 
+   public void testMassExpirationRemovesFromStore() {
+      // More entries than the reaper removes at once
+      int count = 2500;
+      for (int i = 0; i < count; i++) {
+         cache.put("key-" + i, "value-" + i, 10, TimeUnit.MILLISECONDS);
+      }
+      DummyInMemoryStore store = TestingUtil.getFirstStore(cache);
+      assertEquals(count, store.size());
+
+      timeService.advance(11);
+      processExpiration();
+
+      assertEquals(0, cache.getAdvancedCache().getDataContainer().sizeIncludingExpired());
+      assertEquals(0, store.keySet().size());
+      assertExpiredEvents(count);
+   }
+
    public void testExpirationOfStoreWhenDataNotInMemory() throws Exception {
       String key = "k";
       cache.put(key, "v", 10, TimeUnit.MILLISECONDS);
@@ -16,6 +16,7 @@
 import org.infinispan.container.impl.DefaultDataContainer;
 import org.infinispan.container.impl.DefaultSegmentedDataContainer;
 import org.infinispan.container.impl.L1SegmentedDataContainer;
+import org.infinispan.container.impl.ShardedBoundedSegmentedDataContainer;
 import org.infinispan.container.impl.SharedBoundedContainer;
 import org.infinispan.container.impl.SharedCaffeineMap;
 import org.infinispan.container.impl.SharedContainerMaps;
@@ -130,6 +131,17 @@ public void testEvictionRemoveSegmented() {
       assertEquals(BoundedSegmentedDataContainer.class, component.getClass());
    }
 
+   @Test
+   public void testEvictionRemoveSegmentedSharded() {
+      dataContainerFactory.configuration = new ConfigurationBuilder().clustering()
+            .memory().whenFull(EvictionStrategy.REMOVE).maxCount(1000).evictionShards(4)
+            .clustering().cacheMode(CacheMode.DIST_ASYNC).build();
+
+      Object component = dataContainerFactory.construct(COMPONENT_NAME);
+      assertEquals(ShardedBoundedSegmentedDataContainer.class, component.getClass());
+      assertEquals(4, ((ShardedBoundedSegmentedDataContainer<?, ?>) component).getEvictionShards());
+   }
+
    @Test
    public void testEvictionRemoveNotSegmentedOffHeap() {
       dataContainerFactory.configuration = new ConfigurationBuilder().clustering()
@@ -8,13 +8,17 @@
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.interceptors.AsyncInterceptorChain;
 import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
 import org.infinispan.interceptors.impl.CacheWriterInterceptor;
@@ -132,6 +136,37 @@ public void testAddToNonEmptyCache() {
       }
    }
 
+   public void testAddSegmentedStoreWithExpirationIndex() {
+      EmbeddedCacheManager cm = null;
+      try {
+         ConfigurationBuilder cacheBuilder = new ConfigurationBuilder();
+         cacheBuilder.expiration().reaperIndex(true);
+         cm = createCacheManager(cacheBuilder);
+         ControlledTimeService timeService = new ControlledTimeService();
+         TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+         Cache<Object, Object> cache = cm.getCache();
+         PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+
+         // The index was created with a single segment, the store makes the key partitioner return real segments
+         ConfigurationBuilder storeBuilder = new ConfigurationBuilder();
+         storeBuilder.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class).segmented(true);
+         join(persistenceManager.addStore(storeBuilder.build().persistence().stores().get(0)));
+
+         for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value" + i, 1, TimeUnit.MINUTES);
+         }
+         InternalDataContainer<Object, Object> container = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+         assertEquals(100, container.expirationIndex().size());
+
+         timeService.advance(TimeUnit.MINUTES.toMillis(1) + 1);
+         cache.getAdvancedCache().getExpirationManager().processExpiration();
+         assertEquals(0, container.sizeIncludingExpired());
+         assertEquals(0, container.expirationIndex().size());
+      } finally {
+         TestingUtil.killCacheManagers(cm);
+      }
+   }
+
    private void addAndCheckStore(ConfigurationBuilder builder, StoreConfiguration
          storeConfiguration, Consumer<Cache<?, ?>> check) {
       EmbeddedCacheManager cm = null;
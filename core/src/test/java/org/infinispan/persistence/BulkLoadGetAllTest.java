@@ -0,0 +1,119 @@
+package org.infinispan.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the entries of a getAll that are missing in memory are loaded from the store with a single bulk load.
+ */
+@Test(groups = "functional", testName = "persistence.BulkLoadGetAllTest")
+public class BulkLoadGetAllTest extends SingleCacheManagerTest {
+   private static final int NUM_KEYS = 100;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createClusteredCacheManager();
+      cm.defineConfiguration("segmented", storeConfiguration("segmented", true, false).build());
+      cm.defineConfiguration("non-segmented", storeConfiguration("non-segmented", false, false).build());
+      cm.defineConfiguration("passivation", storeConfiguration("passivation", true, true).build());
+      ConfigurationBuilder clusteredPassivation = storeConfiguration("clustered-passivation", true, true);
+      clusteredPassivation.clustering().cacheMode(CacheMode.DIST_SYNC);
+      cm.defineConfiguration("clustered-passivation", clusteredPassivation.build());
+      return cm;
+   }
+
+   private ConfigurationBuilder storeConfiguration(String storeName, boolean segmented, boolean passivation) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .passivation(passivation)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getName() + "-" + storeName)
+            .segmented(segmented);
+      return builder;
+   }
+
+   public void testSegmentedBulkLoad() {
+      doTest("segmented");
+   }
+
+   public void testNonSegmentedBulkLoad() {
+      doTest("non-segmented");
+   }
+
+   private void doTest(String cacheName) {
+      Cache<Object, Object> cache = cacheWithEntriesInStore(cacheName);
+      DummyInMemoryStore store = TestingUtil.getFirstStore(cache);
+      // One of the entries is still in memory
+      cache.get("key0");
+      store.clearStats();
+
+      Map<Object, Object> entries = cache.getAll(keys());
+      assertEquals(NUM_KEYS, entries.size());
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("value" + i, entries.get("key" + i));
+      }
+      assertEquals(1, (int) store.stats().get("loadAll"));
+      assertEquals(0, (int) store.stats().get("load"));
+      assertEquals(NUM_KEYS, cache.getAdvancedCache().getDataContainer().size());
+
+      // The loaded entries are now in memory
+      store.clearStats();
+      assertEquals(entries, cache.getAll(keys()));
+      assertEquals(0, (int) store.stats().get("loadAll"));
+      assertEquals(0, (int) store.stats().get("load"));
+   }
+
+   public void testPassivationLoadsEveryKey() {
+      doPassivationTest("passivation");
+   }
+
+   public void testClusteredPassivationLoadsEveryKey() {
+      doPassivationTest("clustered-passivation");
+   }
+
+   private void doPassivationTest(String cacheName) {
+      // Every load is ordered with the writes of its key, so the keys are loaded one by one
+      Cache<Object, Object> cache = cacheWithEntriesInStore(cacheName);
+      DummyInMemoryStore store = TestingUtil.getFirstStore(cache);
+      store.clearStats();
+
+      Map<Object, Object> entries = cache.getAll(keys());
+      assertEquals(NUM_KEYS, entries.size());
+      assertEquals(0, (int) store.stats().get("loadAll"));
+      assertEquals(NUM_KEYS + 1, (int) store.stats().get("load"));
+   }
+
+   private Cache<Object, Object> cacheWithEntriesInStore(String cacheName) {
+      Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache.put("key" + i, "value" + i);
+      }
+      // Passivation only writes the entries to the store when they are evicted from memory
+      cache.stop();
+      cache.start();
+      return cache;
+   }
+
+   private static Set<Object> keys() {
+      Set<Object> keys = new HashSet<>();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         keys.add("key" + i);
+      }
+      keys.add("missing");
+      return keys;
+   }
+}
@@ -0,0 +1,72 @@
+package org.infinispan.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the write-behind store with a flush interval, which coalesces the writes to the same key.
+ */
+@Test(groups = "functional", testName = "persistence.CoalescingAsyncStoreTest")
+public class CoalescingAsyncStoreTest extends SingleCacheManagerTest {
+   private static final String INTERVAL_CACHE = "interval";
+   private static final String MAX_BYTES_CACHE = "max-bytes";
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(false);
+      // The interval never elapses during the test
+      cm.defineConfiguration(INTERVAL_CACHE, storeConfiguration(INTERVAL_CACHE, Integer.MAX_VALUE).build());
+      cm.defineConfiguration(MAX_BYTES_CACHE, storeConfiguration(MAX_BYTES_CACHE, 1024).build());
+      return cm;
+   }
+
+   private ConfigurationBuilder storeConfiguration(String storeName, int flushMaxBytes) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getName() + "-" + storeName)
+            .async().enable()
+            .flushInterval(1, TimeUnit.HOURS)
+            .flushMaxBytes(flushMaxBytes);
+      return builder;
+   }
+
+   public void testRepeatedWritesAreCoalesced() {
+      Cache<Object, Object> cache = cacheManager.getCache(INTERVAL_CACHE);
+      DummyInMemoryStore store = TestingUtil.getFirstStore(cache);
+      for (int i = 0; i < 100; i++) {
+         cache.put("hot", "value" + i);
+         cache.put("key" + (i % 10), "value" + i);
+      }
+      assertEquals(0, (int) store.stats().get("write"));
+
+      // Stopping the cache writes the pending modifications without waiting for the interval
+      cache.stop();
+      assertEquals(11, (int) store.stats().get("write"));
+      assertEquals(11, DummyInMemoryStore.getStoreDataSize(store.getStoreName()));
+
+      cache.start();
+      assertEquals("value99", cache.get("hot"));
+   }
+
+   public void testFlushWhenMaxBytesReached() {
+      Cache<Object, Object> cache = cacheManager.getCache(MAX_BYTES_CACHE);
+      DummyInMemoryStore store = TestingUtil.getFirstStore(cache);
+      String value = "v".repeat(100);
+      for (int i = 0; i < 20; i++) {
+         cache.put("key" + i, value);
+      }
+      eventually(() -> store.stats().get("write") > 0);
+   }
+}
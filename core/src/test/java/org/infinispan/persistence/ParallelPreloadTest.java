@@ -0,0 +1,99 @@
+package org.infinispan.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PreloadManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.transaction.TransactionMode;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the preload of segmented stores, which inserts groups of segments in parallel.
+ */
+@Test(groups = "functional", testName = "persistence.ParallelPreloadTest")
+public class ParallelPreloadTest extends SingleCacheManagerTest {
+   private static final int NUM_KEYS = 1000;
+   private static final int MAX_COUNT = 100;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(false);
+      cm.defineConfiguration("segmented", storeConfiguration("segmented", true).build());
+      cm.defineConfiguration("non-segmented", storeConfiguration("non-segmented", false).build());
+      ConfigurationBuilder transactional = storeConfiguration("transactional", true);
+      transactional.transaction().transactionMode(TransactionMode.TRANSACTIONAL);
+      cm.defineConfiguration("transactional", transactional.build());
+      ConfigurationBuilder bounded = storeConfiguration("bounded", true);
+      bounded.memory().maxCount(MAX_COUNT);
+      cm.defineConfiguration("bounded", bounded.build());
+      return cm;
+   }
+
+   private ConfigurationBuilder storeConfiguration(String storeName, boolean segmented) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getName() + "-" + storeName)
+            .segmented(segmented)
+            .preload(true);
+      return builder;
+   }
+
+   public void testSegmentedPreload() {
+      doTest("segmented", true);
+   }
+
+   public void testNonSegmentedPreload() {
+      doTest("non-segmented", false);
+   }
+
+   public void testTransactionalPreload() {
+      doTest("transactional", true);
+   }
+
+   private void doTest(String cacheName, boolean segmented) {
+      Cache<Object, Object> cache = restartWithEntries(cacheName);
+      assertEquals(segmented, TestingUtil.extractComponent(cache, PersistenceManager.class).isPreloadSegmented());
+
+      PreloadManager preloadManager = TestingUtil.extractComponent(cache, PreloadManager.class);
+      assertFalse(preloadManager.isPreloading());
+      assertTrue(preloadManager.isFullyPreloaded());
+      assertEquals(NUM_KEYS, preloadManager.getPreloadedEntries());
+      assertEquals(NUM_KEYS, cache.getAdvancedCache().getDataContainer().size());
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("value" + i, cache.getAdvancedCache().getDataContainer().peek("key" + i).getValue());
+      }
+   }
+
+   public void testPreloadStopsWhenContainerIsFull() {
+      Cache<Object, Object> cache = restartWithEntries("bounded");
+
+      PreloadManager preloadManager = TestingUtil.extractComponent(cache, PreloadManager.class);
+      assertFalse(preloadManager.isFullyPreloaded());
+      assertEquals(MAX_COUNT, preloadManager.getPreloadedEntries());
+      assertEquals(MAX_COUNT, cache.getAdvancedCache().getDataContainer().size());
+      // The entries that were not preloaded are still loaded from the store
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("value" + i, cache.get("key" + i));
+      }
+   }
+
+   private Cache<Object, Object> restartWithEntries(String cacheName) {
+      Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache.put("key" + i, "value" + i);
+      }
+      cache.stop();
+      cache.start();
+      return cache;
+   }
+}
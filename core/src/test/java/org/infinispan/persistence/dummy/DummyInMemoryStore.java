@@ -2,6 +2,7 @@
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -287,8 +288,35 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return CompletableFuture.completedFuture(entry);
    }
 
+   @Override
+   public CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+      assertRunning();
+      if (configuration.asyncOperation()) {
+         return CompletableFuture.supplyAsync(() -> actualLoadAll(keysBySegment), nonBlockingExecutor);
+      }
+      return CompletableFuture.completedFuture(actualLoadAll(keysBySegment));
+   }
+
+   private Map<Object, MarshallableEntry<K, V>> actualLoadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+      record("loadAll");
+      Map<Object, MarshallableEntry<K, V>> entries = new HashMap<>();
+      for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+         for (Object key : segmentKeys.getValue()) {
+            MarshallableEntry<K, V> me = loadEntry(segmentKeys.getKey(), key);
+            if (me != null) {
+               entries.put(key, me);
+            }
+         }
+      }
+      return entries;
+   }
+
    private MarshallableEntry actualLoad(int segment, Object key) {
       record("load");
+      return loadEntry(segment, key);
+   }
+
+   private MarshallableEntry<K, V> loadEntry(int segment, Object key) {
       if (key == null) return null;
       Map<Object, byte[]> map = mapForSegment(segment);
       MarshallableEntry<K, V> me = deserialize(key, map.get(key));
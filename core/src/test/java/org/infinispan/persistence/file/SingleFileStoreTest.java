@@ -1,6 +1,8 @@
 package org.infinispan.persistence.file;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.concurrent.CompletionStage;
@@ -11,6 +13,7 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.marshall.persistence.impl.MarshalledEntryUtil;
 import org.infinispan.persistence.BaseNonBlockingStoreTest;
@@ -28,6 +31,7 @@ public class SingleFileStoreTest extends BaseNonBlockingStoreTest {
 
    private final String tmpDirectory = Testing.tmpDirectory(this.getClass());
    private boolean segmented;
+   private StorageType indexStorage = StorageType.HEAP;
 
    @AfterClass(alwaysRun = true)
    protected void clearTempDir() {
@@ -39,17 +43,24 @@ public SingleFileStoreTest segmented(boolean segmented) {
       return this;
    }
 
+   public SingleFileStoreTest indexStorage(StorageType indexStorage) {
+      this.indexStorage = indexStorage;
+      return this;
+   }
+
    @Factory
    public Object[] factory() {
       return new Object[] {
               new SingleFileStoreTest().segmented(false),
               new SingleFileStoreTest().segmented(true),
+              new SingleFileStoreTest().segmented(false).indexStorage(StorageType.OFF_HEAP),
+              new SingleFileStoreTest().segmented(true).indexStorage(StorageType.OFF_HEAP),
       };
    }
 
    @Override
    protected String parameters() {
-      return "[" + segmented + "]";
+      return "[" + segmented + ", " + indexStorage + "]";
    }
 
    @Override
@@ -63,6 +74,7 @@ protected SingleFileStoreConfigurationBuilder createCacheStoreConfig(Persistence
       cfg.segmented(segmented);
       cfg.location(tmpDirectory);
       cfg.fragmentationFactor(0.5f);
+      cfg.indexStorage(indexStorage);
       return cfg;
    }
 
@@ -125,4 +137,47 @@ public void testStopDuringClear() {
       long size = CompletionStages.join(store.size(IntSets.immutableRangeSet(segmentCount)));
       assertTrue(size == 0 || size == 1);
    }
+
+   public void testKeysWithSameHashCode() {
+      // "Aa" and "BB" have the same hash code, so the index must compare the serialized keys
+      assertEquals("Aa".hashCode(), "BB".hashCode());
+      store.write(MarshalledEntryUtil.create(TestInternalCacheEntryFactory.create("Aa", "v1"), getMarshaller()));
+      store.write(MarshalledEntryUtil.create(TestInternalCacheEntryFactory.create("BB", "v2"), getMarshaller()));
+      assertEquals("v1", store.loadEntry("Aa").getValue());
+      assertEquals("v2", store.loadEntry("BB").getValue());
+
+      assertTrue(store.delete("Aa"));
+      assertNull(store.loadEntry("Aa"));
+      assertEquals("v2", store.loadEntry("BB").getValue());
+   }
+
+   public void testManyEntries() {
+      int numKeys = 1000;
+      for (int i = 0; i < numKeys; ++i) {
+         store.write(MarshalledEntryUtil.create(TestInternalCacheEntryFactory.create("key" + i, "value" + i), getMarshaller()));
+      }
+      for (int i = 0; i < numKeys; i += 3) {
+         assertTrue(store.delete("key" + i));
+      }
+      for (int i = 1; i < numKeys; i += 3) {
+         store.write(MarshalledEntryUtil.create(TestInternalCacheEntryFactory.create("key" + i, "updated" + i), getMarshaller()));
+      }
+
+      for (int i = 0; i < numKeys; ++i) {
+         MarshallableEntry<Object, Object> entry = store.loadEntry("key" + i);
+         if (i % 3 == 0) {
+            assertNull(entry);
+         } else {
+            assertEquals((i % 3 == 1 ? "updated" : "value") + i, entry.getValue());
+         }
+      }
+      assertEquals(numKeys - (numKeys + 2) / 3, store.publishKeysWait(segments, null).size());
+
+      SingleFileStore<Object, Object> sfs = (SingleFileStore<Object, Object>) store.delegate();
+      assertEquals(indexStorage == StorageType.OFF_HEAP, sfs.getIndexOffHeapMemory() > 0);
+
+      store.clearAndWait();
+      assertEquals(0, store.publishKeysWait(segments, null).size());
+      assertNull(store.loadEntry("key1"));
+   }
 }
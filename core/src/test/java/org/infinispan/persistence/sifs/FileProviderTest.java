@@ -1,11 +1,15 @@
 package org.infinispan.persistence.sifs;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 import org.infinispan.commons.util.Util;
 import org.infinispan.testing.Testing;
@@ -93,4 +97,29 @@ public void testGetFileNonExistentFileWhenIsIndexTrue() throws IOException {
          fileProvider.stop();
       }
    }
+
+   public void testMemoryMappedReadsOnceFileIsNoLongerAppended() throws IOException {
+      Path dataPath = Path.of(tmpDirectory, "data");
+      FileProvider fileProvider = new FileProvider(dataPath, 10, "test-", 1000, false, true);
+
+      try {
+         FileProvider.Log log = fileProvider.getFileForLog();
+         log.fileChannel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+         try (FileProvider.Handle handle = fileProvider.getFile(log.fileId)) {
+            // The file is still appended to, so it is read from the channel
+            assertEquals(3, handle.read(ByteBuffer.allocate(8), 0));
+            log.fileChannel.write(ByteBuffer.wrap(new byte[]{4}));
+            log.close();
+
+            // The mapping must include everything written before the file was closed
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            assertEquals(3, handle.read(buffer, 1));
+            assertEquals(3, buffer.position());
+            assertArrayEquals(new byte[]{2, 3, 4}, Arrays.copyOf(buffer.array(), 3));
+            assertEquals(-1, handle.read(ByteBuffer.allocate(8), 4));
+         }
+      } finally {
+         fileProvider.stop();
+      }
+   }
 }
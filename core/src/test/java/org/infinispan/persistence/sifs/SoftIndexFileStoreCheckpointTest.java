@@ -0,0 +1,130 @@
+package org.infinispan.persistence.sifs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.testing.Testing;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "persistence.sifs.SoftIndexFileStoreCheckpointTest")
+public class SoftIndexFileStoreCheckpointTest extends SingleCacheManagerTest {
+   private static final int COUNT = 300;
+
+   private String tmpDirectory;
+
+   @BeforeClass(alwaysRun = true)
+   protected void setUpTempDir() {
+      tmpDirectory = Testing.tmpDirectory(getClass());
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(storeConfiguration("live"));
+   }
+
+   private ConfigurationBuilder storeConfiguration(String location) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, location, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, location, "index").toString())
+            // Spread the entries over multiple data files
+            .maxFileSize(10_000)
+            // Checkpoints are triggered by the test
+            .checkpointInterval(1, TimeUnit.HOURS);
+      return builder;
+   }
+
+   public void testRecoverFromCheckpointAfterCrash() throws IOException {
+      String value = "v".repeat(100);
+      for (int i = 0; i < COUNT; ++i) {
+         cache.put("key" + i, value + i);
+      }
+
+      NonBlockingSoftIndexFileStore<Object, Object> store = TestingUtil.getFirstStore(cache);
+      Index index = TestingUtil.extractField(store, "index");
+      CompletionStages.join(store.checkpointIndex());
+      assertEquals(1, index.getCheckpointCount());
+
+      // Modifications after the checkpoint have to be recovered from the data files
+      for (int i = 0; i < COUNT; i += 2) {
+         cache.put("key" + i, "updated" + i);
+      }
+      for (int i = 1; i < COUNT; i += 4) {
+         cache.remove("key" + i);
+      }
+      for (int i = COUNT; i < COUNT + 50; ++i) {
+         cache.put("key" + i, value + i);
+      }
+
+      // Copy the files of the running store, as if the process crashed
+      String cacheName = cache.getName();
+      copyDirectory(Paths.get(tmpDirectory, "live", "data", cacheName, "data"),
+            Paths.get(tmpDirectory, "crashed", "data", cacheName, "data"));
+      copyDirectory(Paths.get(tmpDirectory, "live", "index", cacheName, "index"),
+            Paths.get(tmpDirectory, "crashed", "index", cacheName, "index"));
+      int dataFiles = Paths.get(tmpDirectory, "crashed", "data", cacheName, "data").toFile().list().length;
+
+      EmbeddedCacheManager recovered = TestCacheManagerFactory.createCacheManager(storeConfiguration("crashed"));
+      try {
+         Cache<Object, Object> recoveredCache = recovered.getCache();
+         Index recoveredIndex = TestingUtil.extractField(TestingUtil.getFirstStore(recoveredCache), "index");
+         int readFiles = recoveredIndex.getRecoveryReadFiles();
+         assertTrue(readFiles > 0 && readFiles < dataFiles, "Read " + readFiles + " of " + dataFiles + " files");
+
+         assertEquals(COUNT + 50 - COUNT / 4, recoveredCache.size());
+         for (int i = 0; i < COUNT + 50; ++i) {
+            Object expected;
+            if (i < COUNT && i % 2 == 0) {
+               expected = "updated" + i;
+            } else if (i < COUNT && i % 4 == 1) {
+               expected = null;
+            } else {
+               expected = value + i;
+            }
+            if (expected == null) {
+               assertNull(recoveredCache.get("key" + i));
+            } else {
+               assertEquals(expected, recoveredCache.get("key" + i));
+            }
+         }
+      } finally {
+         TestingUtil.killCacheManagers(recovered);
+      }
+   }
+
+   private static void copyDirectory(Path source, Path target) throws IOException {
+      Files.createDirectories(target);
+      try (Stream<Path> files = Files.list(source)) {
+         for (Path file : (Iterable<Path>) files::iterator) {
+            Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+         }
+      }
+   }
+}
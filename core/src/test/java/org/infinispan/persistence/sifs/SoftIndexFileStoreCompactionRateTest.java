@@ -0,0 +1,148 @@
+package org.infinispan.persistence.sifs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.testing.Testing;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "persistence.sifs.SoftIndexFileStoreCompactionRateTest")
+public class SoftIndexFileStoreCompactionRateTest extends SingleCacheManagerTest {
+   private static final int COUNT = 200;
+   private static final long RATE = 512 * 1024;
+
+   private String tmpDirectory;
+
+   @BeforeClass(alwaysRun = true)
+   protected void setUpTempDir() {
+      tmpDirectory = Testing.tmpDirectory(getClass());
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            // Larger than a single chunk, so files are compacted in multiple chunks
+            .maxFileSize(100 * 1024)
+            .compactionRate(RATE);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testCompactionInChunks() {
+      String value = "v".repeat(1024);
+      for (int round = 0; round < 2; ++round) {
+         for (int i = 0; i < COUNT; ++i) {
+            cache.put("key" + i, value + round);
+         }
+      }
+
+      NonBlockingSoftIndexFileStore<Object, Object> store = TestingUtil.getFirstStore(cache);
+      Compactor compactor = TestingUtil.extractField(store, "compactor");
+      CompletionStages.join(compactor.forceCompactionForAllNonLogFiles());
+
+      assertTrue(compactor.getRewrittenBytes() > 0);
+      assertTrue(compactor.getCompactedFiles() > 0);
+      assertEquals(0, compactor.getBacklogFiles());
+      assertTrue(compactor.getFreeBytes() <= compactor.getTotalBytes());
+      assertTrue(compactor.getCompactionRate() > 0 && compactor.getCompactionRate() <= RATE);
+
+      cache.getAdvancedCache().getDataContainer().clear();
+      for (int i = 0; i < COUNT; ++i) {
+         assertEquals(value + 1, cache.get("key" + i));
+      }
+   }
+
+   public void testStopDoesNotWaitForNextChunk() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "slow-data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "slow-index").toString())
+            .maxFileSize(100 * 1024)
+            // The first chunk takes more than a minute worth of the rate
+            .compactionRate(1024);
+      EmbeddedCacheManager slowManager = TestCacheManagerFactory.createCacheManager(builder);
+      try {
+         Cache<Object, Object> slowCache = slowManager.getCache();
+         String value = "v".repeat(1024);
+         for (int round = 0; round < 2; ++round) {
+            for (int i = 0; i < COUNT; ++i) {
+               slowCache.put("key" + i, value + round);
+            }
+         }
+         NonBlockingSoftIndexFileStore<Object, Object> store = TestingUtil.getFirstStore(slowCache);
+         Compactor compactor = TestingUtil.extractField(store, "compactor");
+         CompletionStage<Void> compaction = compactor.forceCompactionForAllNonLogFiles();
+         eventually(() -> TestingUtil.extractField(compactor, "pausedRequest") != null);
+         assertFalse(CompletionStages.isCompletedSuccessfully(compaction));
+
+         // Stopping the store must cancel the next chunk instead of waiting for it
+         Future<?> stop = fork(slowManager::stop);
+         stop.get(10, TimeUnit.SECONDS);
+      } finally {
+         TestingUtil.killCacheManagers(slowManager);
+      }
+   }
+
+   public void testRateLimiterBacksOffWhenWriteLatencyRises() {
+      ControlledTimeService timeService = new ControlledTimeService();
+      CompactionRateLimiter limiter = new CompactionRateLimiter(RATE, timeService);
+      assertEquals(64 * 1024, limiter.chunkSize());
+
+      // Charging a full second worth of bytes requires waiting for a second
+      assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.acquire(RATE));
+      timeService.advance(1000);
+
+      for (int i = 0; i < 100; ++i) {
+         limiter.recordWriteLatency(TimeUnit.MICROSECONDS.toNanos(100));
+      }
+      limiter.acquire(0);
+      assertEquals(RATE, limiter.currentRate());
+
+      for (int i = 0; i < 10; ++i) {
+         limiter.recordWriteLatency(TimeUnit.MILLISECONDS.toNanos(10));
+      }
+      limiter.acquire(0);
+      assertEquals(RATE / 2, limiter.currentRate());
+      for (int i = 0; i < 10; ++i) {
+         limiter.acquire(0);
+      }
+      // Never drops below 1/16th of the configured rate
+      assertEquals(RATE / 16, limiter.currentRate());
+
+      for (int i = 0; i < 1000; ++i) {
+         limiter.recordWriteLatency(TimeUnit.MICROSECONDS.toNanos(100));
+      }
+      for (int i = 0; i < 16; ++i) {
+         limiter.acquire(0);
+      }
+      assertEquals(RATE, limiter.currentRate());
+   }
+}
@@ -0,0 +1,95 @@
+package org.infinispan.persistence.sifs;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.support.WaitDelegatingNonBlockingStore;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.testing.Testing;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Compares the latency of loading entries from a {@link NonBlockingSoftIndexFileStore} with positional reads of the
+ * file channel and with memory mapped reads. The first pass after a restart is cold, as no data file is open or
+ * mapped, while the second pass is warm. Run with a number of keys whose data doesn't fit in the page cache to see
+ * the effect of disk reads.
+ *
+ * @since 16.3
+ */
+@Test(groups = "profiling", testName = "persistence.sifs.SoftIndexFileStoreReadStressTest")
+public class SoftIndexFileStoreReadStressTest extends SingleCacheManagerTest {
+   static final int NUM_KEYS = Integer.getInteger("size", 100000);
+   static final int VALUE_SIZE = Integer.getInteger("valueSize", 1024);
+
+   private String tmpDirectory;
+
+   @BeforeClass(alwaysRun = true)
+   protected void setUpTempDir() {
+      tmpDirectory = Testing.tmpDirectory(getClass());
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager();
+   }
+
+   public void testLoadLatency() {
+      System.out.printf("Testing SIFS load latency with keys %d, value size %d\n", NUM_KEYS, VALUE_SIZE);
+      testLoadLatency("channel", false);
+      testLoadLatency("mapped", true);
+   }
+
+   private void testLoadLatency(String name, boolean memoryMappedReads) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, name, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, name, "index").toString())
+            .memoryMappedReads(memoryMappedReads);
+      Cache<String, byte[]> cache = cacheManager.createCache(name, builder.build());
+      List<String> keys = new ArrayList<>(NUM_KEYS);
+      byte[] value = new byte[VALUE_SIZE];
+      for (int i = 0; i < NUM_KEYS; ++i) {
+         String key = "key" + i;
+         keys.add(key);
+         cache.put(key, value);
+      }
+
+      // Restart the store, so that no data file is open
+      cache.stop();
+      cache.start();
+      WaitDelegatingNonBlockingStore<String, byte[]> store = TestingUtil.getFirstStoreWait(cache);
+      Collections.shuffle(keys);
+      System.out.printf("Store %-8s  ", name);
+      System.out.printf("Cold load us %10.2f  ", loadAll(store, keys));
+      System.out.printf("Warm load us %10.2f\n", loadAll(store, keys));
+      cache.stop();
+   }
+
+   private double loadAll(WaitDelegatingNonBlockingStore<String, byte[]> store, List<String> keys) {
+      long start = System.nanoTime();
+      for (String key : keys) {
+         assertNotNull(store.loadEntry(key));
+      }
+      return (System.nanoTime() - start) / 1000d / keys.size();
+   }
+}
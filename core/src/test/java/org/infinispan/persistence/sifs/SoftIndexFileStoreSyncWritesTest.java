@@ -0,0 +1,78 @@
+package org.infinispan.persistence.sifs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.testing.Testing;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "persistence.sifs.SoftIndexFileStoreSyncWritesTest")
+public class SoftIndexFileStoreSyncWritesTest extends SingleCacheManagerTest {
+   private static final int COUNT = 200;
+
+   private String tmpDirectory;
+
+   @BeforeClass(alwaysRun = true)
+   protected void setUpTempDir() {
+      tmpDirectory = Testing.tmpDirectory(getClass());
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager();
+   }
+
+   public void testConcurrentWritesShareWindow() {
+      testWrites("window", 20, 4 * 1024 * 1024);
+   }
+
+   public void testWritesForcedByMaxBytes() {
+      // Every write exceeds the limit, so none of them waits for the window
+      testWrites("max-bytes", TimeUnit.MINUTES.toMillis(1), 1);
+   }
+
+   private void testWrites(String cacheName, long window, int maxBytes) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, cacheName, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, cacheName, "index").toString())
+            .syncWrites(true)
+            .syncWritesWindow(window, TimeUnit.MILLISECONDS)
+            .syncWritesMaxBytes(maxBytes);
+      Cache<String, String> cache = cacheManager.createCache(cacheName, builder.build());
+
+      List<CompletableFuture<String>> futures = new ArrayList<>(COUNT);
+      for (int i = 0; i < COUNT; ++i) {
+         futures.add(cache.putAsync("key" + i, "value" + i));
+      }
+      futures.forEach(CompletionStages::join);
+
+      // Read the entries back from the store
+      cache.getAdvancedCache().getDataContainer().clear();
+      for (int i = 0; i < COUNT; ++i) {
+         assertEquals("value" + i, cache.get("key" + i));
+      }
+   }
+}
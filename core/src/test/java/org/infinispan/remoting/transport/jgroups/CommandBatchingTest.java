@@ -0,0 +1,111 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.intThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that asynchronous commands batched per destination are all applied, in the order they were sent.
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "remoting.transport.jgroups.CommandBatchingTest")
+public class CommandBatchingTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 100;
+
+   private JGroupsMetricsManager metricsManager;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_ASYNC);
+      for (int i = 0; i < 2; i++) {
+         GlobalConfigurationBuilder global = defaultGlobalConfigurationBuilder();
+         global.transport().addProperty(JGroupsTransport.COMMAND_BATCH_DELAY, "1000");
+         global.transport().addProperty(JGroupsTransport.COMMAND_BATCH_SIZE, "1024");
+         addClusterEnabledCacheManager(global, builder);
+      }
+      waitForClusterToForm();
+
+      JGroupsTransport transport = (JGroupsTransport) TestingUtil.extractGlobalComponent(manager(0), Transport.class);
+      CommandBatcher batcher = TestingUtil.extractField(JGroupsTransport.class, transport, "batcher");
+      JGroupsMetricsManager manager = TestingUtil.extractField(CommandBatcher.class, batcher, "metricsManager");
+      metricsManager = mock(JGroupsMetricsManager.class, delegatesTo(manager));
+      TestingUtil.replaceField(metricsManager, "metricsManager", batcher, CommandBatcher.class);
+   }
+
+   @BeforeMethod
+   public void clearMetrics() {
+      clearInvocations(metricsManager);
+   }
+
+   public void testBatchedWritesApplied() {
+      Cache<Object, Object> cache0 = cache(0);
+      Cache<Object, Object> cache1 = cache(1);
+      for (int round = 0; round < 10; round++) {
+         for (int i = 0; i < NUM_KEYS; i++) {
+            cache0.put("k" + i, "v" + round);
+         }
+      }
+      cache0.remove("k0");
+
+      for (int i = 1; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         eventuallyEquals("v9", () -> cache1.get(key));
+      }
+      eventually(() -> cache1.get("k0") == null);
+      assertNull(cache1.get("k0"));
+      assertEquals("v9", cache1.get("k" + (NUM_KEYS - 1)));
+
+      // The writes forwarded to the primary owner were batched
+      verify(metricsManager, atLeastOnce()).recordCommandBatch(intThat(commands -> commands > 1), anyLong());
+   }
+
+   public void testOrderedMessageSentAfterPendingBatch() {
+      Cache<Object, Object> cache0 = cache(0);
+      Cache<Object, Object> cache1 = cache(1);
+      Object key = getKeyForCache(1);
+      RpcManager rpcManager = TestingUtil.extractComponent(cache0, RpcManager.class);
+
+      // The first write waits in the batch, the second one is sent right away as it is not batched
+      rpcManager.sendTo(address(1), putCommand(cache0, key, "batched"), DeliverOrder.PER_SENDER);
+      rpcManager.sendTo(address(1), putCommand(cache0, key, "not-batched"), DeliverOrder.PER_SENDER_NO_FC);
+
+      // The pending batch was sent before the second write, so the second write is applied last
+      eventuallyEquals("not-batched", () -> cache1.get(key));
+      eventuallyEquals("not-batched", () -> cache0.get(key));
+      verify(metricsManager).recordCommandBatch(eq(1), anyLong());
+   }
+
+   private PutKeyValueCommand putCommand(Cache<Object, Object> cache, Object key, Object value) {
+      CommandsFactory commandsFactory = TestingUtil.extractCommandsFactory(cache);
+      int segment = TestingUtil.extractComponent(cache, KeyPartitioner.class).getSegment(key);
+      PutKeyValueCommand command = commandsFactory.buildPutKeyValueCommand(key, value, segment,
+            new EmbeddedMetadata.Builder().build(), EnumUtil.EMPTY_BIT_SET);
+      command.setTopologyId(TestingUtil.extractComponent(cache, RpcManager.class).getTopologyId());
+      return command;
+   }
+}
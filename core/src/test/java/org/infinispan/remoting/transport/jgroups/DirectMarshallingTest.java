@@ -0,0 +1,129 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestDataSCI;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.data.Person;
+import org.jgroups.BytesMessage;
+import org.jgroups.util.ByteArrayDataInputStream;
+import org.jgroups.util.ByteArrayDataOutputStream;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that responses marshalled directly into the JGroups output buffers are received intact, that requests and
+ * values large enough to be fragmented are marshalled into an array instead, and that a payload modified after the
+ * message was created falls back to an array.
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "remoting.transport.jgroups.DirectMarshallingTest")
+public class DirectMarshallingTest extends MultipleCacheManagersTest {
+   private final List<JGroupsMetricsManager> metrics = new ArrayList<>();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC);
+      builder.clustering().hash().numOwners(1);
+      for (int i = 0; i < 2; i++) {
+         GlobalConfigurationBuilder global = defaultGlobalConfigurationBuilder();
+         global.serialization().addContextInitializer(TestDataSCI.INSTANCE);
+         global.transport().addProperty(JGroupsTransport.DIRECT_MARSHALLING_THRESHOLD, "0");
+         addClusterEnabledCacheManager(global, builder);
+      }
+      waitForClusterToForm();
+
+      for (int i = 0; i < 2; i++) {
+         JGroupsTransport transport = (JGroupsTransport) TestingUtil.extractGlobalComponent(manager(i), Transport.class);
+         JGroupsMetricsManager manager = TestingUtil.extractField(JGroupsTransport.class, transport, "metricsManager");
+         JGroupsMetricsManager spy = mock(JGroupsMetricsManager.class, delegatesTo(manager));
+         TestingUtil.replaceField(spy, "metricsManager", transport, JGroupsTransport.class);
+         metrics.add(spy);
+      }
+   }
+
+   public void testRemoteWritesAndReads() {
+      Cache<Object, Object> cache0 = cache(0);
+      Cache<Object, Object> cache1 = cache(1);
+      for (int size : new int[]{1, 1_000, 100_000, 1_000_000}) {
+         byte[] value = new byte[size];
+         Arrays.fill(value, (byte) size);
+         for (int i = 0; i < 10; i++) {
+            String key = "k-" + size + "-" + i;
+            cache0.put(key, value);
+            assertArrayEquals(value, (byte[]) cache0.get(key));
+            assertArrayEquals(value, (byte[]) cache1.get(key));
+         }
+      }
+
+      // The responses with small values were marshalled directly, and the cost of computing their size is reported.
+      // The requests and the responses above the fragmentation size were marshalled into an intermediate array.
+      assertTrue(countMarshalling((bufferBytes, sizedBytes) -> bufferBytes == 0 && sizedBytes > 0) > 0);
+      assertTrue(countMarshalling((bufferBytes, sizedBytes) -> bufferBytes >= 1_000_000 && sizedBytes == 0) > 0);
+      assertEquals(0, countMarshalling((bufferBytes, sizedBytes) -> bufferBytes == 0 && sizedBytes == 0));
+   }
+
+   public void testModifiedPayload() throws Exception {
+      Marshaller marshaller = TestingUtil.extractGlobalMarshaller(manager(0));
+      Person person = new Person("name");
+      SuccessfulResponse<?> response = SuccessfulResponse.create(person);
+      InfinispanMessage message = new InfinispanMessage(null, response, marshaller);
+      int length = message.getLength();
+
+      // An unmodified payload is written directly
+      ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(64);
+      message.writePayload(out);
+      assertFalse(message.hasArray());
+      assertEquals(person, readPayload(marshaller, out).getResponseValue());
+
+      // A payload whose size changed is written from an array instead
+      person.setName("a much longer name");
+      out = new ByteArrayDataOutputStream(64);
+      out.writeInt(42);
+      message.writePayload(out);
+      assertTrue(message.hasArray());
+      assertNotEquals(length, message.getLength());
+      ByteArrayDataInputStream in = new ByteArrayDataInputStream(out.buffer(), 0, out.position());
+      assertEquals(42, in.readInt());
+      SuccessfulResponse<?> received = (SuccessfulResponse<?>) readPayload(marshaller, in);
+      assertEquals(person, received.getResponseValue());
+   }
+
+   private static SuccessfulResponse<?> readPayload(Marshaller marshaller, ByteArrayDataOutputStream out) throws Exception {
+      return (SuccessfulResponse<?>) readPayload(marshaller, new ByteArrayDataInputStream(out.buffer(), 0, out.position()));
+   }
+
+   private static Object readPayload(Marshaller marshaller, ByteArrayDataInputStream in) throws Exception {
+      BytesMessage received = new BytesMessage();
+      received.readPayload(in);
+      return marshaller.objectFromByteBuffer(received.getArray(), received.getOffset(), received.getLength());
+   }
+
+   private long countMarshalling(BiPredicate<Integer, Integer> bytes) {
+      return metrics.stream()
+            .flatMap(manager -> mockingDetails(manager).getInvocations().stream())
+            .filter(invocation -> invocation.getMethod().getName().equals("recordMarshalling"))
+            .filter(invocation -> bytes.test(invocation.getArgument(0), invocation.getArgument(1)))
+            .count();
+   }
+}
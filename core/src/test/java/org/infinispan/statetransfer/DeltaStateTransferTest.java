@@ -0,0 +1,81 @@
+package org.infinispan.statetransfer;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestDataSCI;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a node restarted with the data of its store only receives the segments that changed while it was down.
+ *
+ * @since 16.3
+ */
+@Test(groups = "functional", testName = "statetransfer.DeltaStateTransferTest")
+public class DeltaStateTransferTest extends MultipleCacheManagersTest {
+   private static final String CACHE_NAME = "delta";
+   private static final int NUM_SEGMENTS = 16;
+   private static final int NUM_KEYS = 100;
+   // Longs with the same hashCode(), the checksums must still tell them apart
+   private static final long VALUE = 0L;
+   private static final long COLLIDING_VALUE = 0x1_0000_0001L;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      addNode(0);
+      addNode(1);
+      waitForClusterToForm(CACHE_NAME);
+   }
+
+   private void addNode(int id) {
+      ConfigurationBuilder config = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC);
+      config.clustering().hash().numSegments(NUM_SEGMENTS);
+      config.clustering().stateTransfer().deltaTransfer(true);
+      config.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(getClass().getSimpleName() + "-" + id)
+            .preload(true);
+      EmbeddedCacheManager manager = addClusterEnabledCacheManager(TestDataSCI.INSTANCE, null);
+      manager.defineConfiguration(CACHE_NAME, config.build());
+   }
+
+   public void testOnlyChangedSegmentsTransferred() {
+      Cache<Object, Object> cache0 = cache(0, CACHE_NAME);
+      KeyPartitioner keyPartitioner = extractComponent(cache0, KeyPartitioner.class);
+      IntSet segmentsWithData = IntSets.mutableEmptySet(NUM_SEGMENTS);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache0.put("k" + i, "v" + i);
+         segmentsWithData.set(keyPartitioner.getSegment("k" + i));
+      }
+      cache0.put("long", VALUE);
+      segmentsWithData.set(keyPartitioner.getSegment("long"));
+      assertEquals("v0", cache(1, CACHE_NAME).get("k0"));
+
+      killMember(1, CACHE_NAME);
+      cache0.put("k0", "changed");
+      cache0.put("long", COLLIDING_VALUE);
+      IntSet changedSegments = IntSets.mutableEmptySet(NUM_SEGMENTS);
+      changedSegments.set(keyPartitioner.getSegment("k0"));
+      changedSegments.set(keyPartitioner.getSegment("long"));
+
+      addNode(1);
+      waitForClusterToForm(CACHE_NAME);
+
+      Cache<Object, Object> cache1 = cache(1, CACHE_NAME);
+      assertEquals("changed", cache1.get("k0"));
+      assertEquals(COLLIDING_VALUE, cache1.get("long"));
+      for (int i = 1; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, cache1.get("k" + i));
+      }
+      StateTransferFlowControl flowControl = extractComponent(cache1, StateTransferFlowControl.class);
+      assertEquals(segmentsWithData.size() - changedSegments.size(), flowControl.getSegmentsSkipped());
+   }
+}
@@ -1,6 +1,9 @@
 package org.infinispan.statetransfer;
 
+import static org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -11,6 +14,7 @@
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -19,14 +23,19 @@
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.time.ControlledTimeService;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.reactive.publisher.impl.Notifications;
 import org.infinispan.reactive.publisher.impl.SegmentPublisherSupplier;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.Transport;
 import org.infinispan.test.TestException;
+import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.CleanupAfterMethod;
 import org.mockito.ArgumentCaptor;
 import org.testng.annotations.Test;
@@ -96,4 +105,68 @@ public void shouldNotifyForAllSegments() throws InterruptedException {
 
       assertEquals(transferred, segments);
    }
+
+   public void shouldSplitBatchesByChunkBytes() {
+      int numEntries = 10;
+      IntSet segments = IntSets.immutableSet(0);
+
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC).stateTransfer().chunkBytes(400);
+      StateTransferFlowControl flowControl = new StateTransferFlowControl();
+      TestingUtil.inject(flowControl, builder.build(), mock(Transport.class), new ControlledTimeService(),
+            new StateTransferBandwidth(),
+            TestingUtil.named(TIMEOUT_SCHEDULE_EXECUTOR, mock(ScheduledExecutorService.class)));
+      flowControl.start();
+
+      RpcManager rpcManager = mock(RpcManager.class);
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+
+      OutboundTransferTask task = new OutboundTransferTask(
+            Address.LOCAL,
+            segments,
+            1,
+            numEntries + 1,
+            1,
+            chunks -> {},
+            rpcManager,
+            commandsFactory,
+            10_000,
+            "mock-cache",
+            true,
+            flowControl,
+            Runnable::run
+      );
+
+      ArgumentCaptor<Collection<StateChunk>> cmdCaptor = ArgumentCaptor.forClass(Collection.class);
+      when(commandsFactory.buildStateResponseCommand(anyInt(), cmdCaptor.capture(), anyBoolean()))
+            .thenReturn(mock(StateResponseCommand.class));
+      when(rpcManager.invokeCommand(any(Address.class), any(), any(), any()))
+            .thenAnswer(i -> CompletableFutures.completedNull());
+
+      // Each entry is estimated at 36 + 100 + 64 = 200 bytes, so a request holds 2 entries
+      List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> entries = new ArrayList<>();
+      for (int i = 0; i < numEntries; i++) {
+         ImmortalCacheEntry entry = new ImmortalCacheEntry(new byte[36], new byte[100]);
+         entries.add(Notifications.value(entry, 0));
+      }
+      entries.add(Notifications.segmentComplete(0));
+
+      task.execute(Flowable.fromIterable(entries)).toCompletableFuture().join();
+
+      List<Collection<StateChunk>> requests = cmdCaptor.getAllValues();
+      assertEquals(numEntries / 2, requests.size());
+      for (int i = 0; i < requests.size(); i++) {
+         Collection<StateChunk> chunks = requests.get(i);
+         assertEquals(1, chunks.size());
+         StateChunk chunk = chunks.iterator().next();
+         assertEquals(0, chunk.getSegmentId());
+         assertEquals(2, chunk.getCacheEntries().size());
+         if (i == requests.size() - 1) {
+            assertTrue(chunk.isLastChunk());
+         } else {
+            assertFalse(chunk.isLastChunk());
+         }
+      }
+      assertEquals(numEntries * 200, flowControl.getBytesSent());
+   }
 }
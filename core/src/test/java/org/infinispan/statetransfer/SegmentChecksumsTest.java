@@ -0,0 +1,45 @@
+package org.infinispan.statetransfer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.MortalCacheEntry;
+import org.infinispan.container.entries.TransientCacheEntry;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the hash of an entry used by {@link SegmentChecksums} changes with its expiry time.
+ *
+ * @since 16.3
+ */
+@Test(groups = "unit", testName = "statetransfer.SegmentChecksumsTest")
+public class SegmentChecksumsTest extends AbstractInfinispanTest {
+   private final Marshaller marshaller = mock(Marshaller.class);
+
+   public void testImmortalEntry() {
+      assertEquals(SegmentChecksums.hash(new ImmortalCacheEntry("k", "v"), marshaller),
+            SegmentChecksums.hash(new ImmortalCacheEntry("k", "v"), marshaller));
+      assertNotEquals(SegmentChecksums.hash(new ImmortalCacheEntry("k", "v"), marshaller),
+            SegmentChecksums.hash(new ImmortalCacheEntry("k", "v2"), marshaller));
+   }
+
+   public void testMortalEntryIncludesExpiryTime() {
+      assertEquals(SegmentChecksums.hash(new MortalCacheEntry("k", "v", 1000, 1), marshaller),
+            SegmentChecksums.hash(new MortalCacheEntry("k", "v", 1000, 1), marshaller));
+      // Same value and lifespan, but written at another time
+      assertNotEquals(SegmentChecksums.hash(new MortalCacheEntry("k", "v", 1000, 1), marshaller),
+            SegmentChecksums.hash(new MortalCacheEntry("k", "v", 1000, 2), marshaller));
+   }
+
+   public void testTransientEntryIncludesExpiryTime() {
+      assertEquals(SegmentChecksums.hash(new TransientCacheEntry("k", "v", 1000, 1), marshaller),
+            SegmentChecksums.hash(new TransientCacheEntry("k", "v", 1000, 1), marshaller));
+      // Same value and max idle, but last used at another time
+      assertNotEquals(SegmentChecksums.hash(new TransientCacheEntry("k", "v", 1000, 1), marshaller),
+            SegmentChecksums.hash(new TransientCacheEntry("k", "v", 1000, 2), marshaller));
+   }
+}
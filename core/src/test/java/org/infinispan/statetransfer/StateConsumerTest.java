@@ -376,10 +376,18 @@ private void injectComponents(StateConsumer stateConsumer, AsyncInterceptorChain
             TestingUtil.named(TIMEOUT_SCHEDULE_EXECUTOR, scheduledExecutorService),
             clusterPublisherManager,
             transport,
-            stt
+            stt,
+            flowControl()
             );
    }
 
+   private static StateTransferFlowControl flowControl() {
+      StateTransferFlowControl flowControl = new StateTransferFlowControl();
+      TestingUtil.inject(flowControl, createConfiguration(), new ControlledTimeService(), new StateTransferBandwidth());
+      flowControl.start();
+      return flowControl;
+   }
+
    public void testClusterRecoverDuringStateTransfer() throws Exception {
       PersistentUUIDManager persistentUUIDManager = new PersistentUUIDManagerImpl();
 
@@ -719,6 +727,7 @@ private void injectTxComponents(StateConsumer stateConsumer, AsyncInterceptorCha
             clusterPublisherManager,
             transport,
             stt,
+            flowControl(),
             mock(TransactionManager.class)
       );
    }
@@ -25,6 +25,7 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
+import org.infinispan.commons.time.ControlledTimeService;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
@@ -158,7 +159,7 @@ public void test1() {
       StateProviderImpl stateProvider = new StateProviderImpl();
       TestingUtil.inject(stateProvider, configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
                          dataContainer, transactionTable, stateTransferLock, distributionManager, ef, lpm, keyPartitioner,
-                         TransactionOriginatorChecker.LOCAL, stt);
+                         TransactionOriginatorChecker.LOCAL, stt, flowControl());
       stateProvider.start();
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<>();
@@ -255,7 +256,7 @@ public void test2() {
       StateProviderImpl stateProvider = new StateProviderImpl();
       TestingUtil.inject(stateProvider, configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
                          dataContainer, transactionTable, stateTransferLock, distributionManager, ef, lpm, keyPartitioner,
-                         TransactionOriginatorChecker.LOCAL, stt);
+                         TransactionOriginatorChecker.LOCAL, stt, flowControl());
       stateProvider.start();
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<>();
@@ -326,4 +327,11 @@ public void test2() {
 
       assertFalse(stateProvider.isStateTransferInProgress());
    }
+
+   private StateTransferFlowControl flowControl() {
+      StateTransferFlowControl flowControl = new StateTransferFlowControl();
+      TestingUtil.inject(flowControl, configuration, new ControlledTimeService(), new StateTransferBandwidth());
+      flowControl.start();
+      return flowControl;
+   }
 }
@@ -0,0 +1,178 @@
+package org.infinispan.statetransfer;
+
+import static org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.util.concurrent.CompletionStages;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the limits and the adaptive window of {@link StateTransferFlowControl}.
+ *
+ * @since 16.3
+ */
+@Test(groups = "unit", testName = "statetransfer.StateTransferFlowControlTest")
+public class StateTransferFlowControlTest extends AbstractInfinispanTest {
+   private static final long BANDWIDTH = 1000;
+
+   private final ControlledTimeService timeService = new ControlledTimeService();
+   private final Transport transport = mock(Transport.class);
+   private final ScheduledExecutorService timeoutExecutor = mock(ScheduledExecutorService.class);
+
+   private StateTransferFlowControl flowControl(ConfigurationBuilder builder) {
+      return flowControl(builder, new StateTransferBandwidth());
+   }
+
+   private StateTransferFlowControl flowControl(ConfigurationBuilder builder, StateTransferBandwidth bandwidth) {
+      StateTransferFlowControl flowControl = new StateTransferFlowControl();
+      TestingUtil.inject(flowControl, builder.build(), transport, timeService, bandwidth,
+            TestingUtil.named(TIMEOUT_SCHEDULE_EXECUTOR, timeoutExecutor));
+      flowControl.start();
+      return flowControl;
+   }
+
+   private static ConfigurationBuilder configuration() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      return builder;
+   }
+
+   public void testUnlimited() {
+      StateTransferFlowControl flowControl = flowControl(configuration());
+
+      assertTrue(CompletionStages.isCompletedSuccessfully(flowControl.acquireOutbound(1_000_000)));
+      assertTrue(CompletionStages.isCompletedSuccessfully(flowControl.acquireInbound(1_000_000)));
+      assertEquals(0, flowControl.chunkBytes());
+      verify(timeoutExecutor, never()).schedule(any(Runnable.class), anyLong(), any());
+   }
+
+   public void testInboundLimitDelaysBatches() {
+      ConfigurationBuilder builder = configuration();
+      builder.clustering().stateTransfer().chunkBytes(500).maxInboundBandwidth(BANDWIDTH);
+      StateTransferFlowControl flowControl = flowControl(builder);
+
+      // The first batch is admitted right away, the next one once the first one was received at the limit
+      assertTrue(CompletionStages.isCompletedSuccessfully(flowControl.acquireInbound(500)));
+      CompletionStage<Void> second = flowControl.acquireInbound(500);
+      assertFalse(second.toCompletableFuture().isDone());
+
+      ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+      verify(timeoutExecutor).schedule(task.capture(), eq(TimeUnit.MILLISECONDS.toNanos(500)), eq(TimeUnit.NANOSECONDS));
+      task.getValue().run();
+      assertTrue(CompletionStages.isCompletedSuccessfully(second));
+      assertEquals(1000, flowControl.getBytesReceived());
+
+      // Once the time of the previous batches passed, a batch is admitted right away again
+      timeService.advance(1000);
+      assertTrue(CompletionStages.isCompletedSuccessfully(flowControl.acquireInbound(500)));
+   }
+
+   public void testOutboundLimitSharedByCaches() {
+      ConfigurationBuilder limited = configuration();
+      limited.clustering().stateTransfer().maxOutboundBandwidth(BANDWIDTH);
+      StateTransferBandwidth bandwidth = new StateTransferBandwidth();
+      StateTransferFlowControl cache1 = flowControl(limited, bandwidth);
+      StateTransferFlowControl cache2 = flowControl(limited, bandwidth);
+      StateTransferFlowControl unlimited = flowControl(configuration(), bandwidth);
+
+      // The batch of the second cache waits for the time the first cache reserved
+      assertTrue(CompletionStages.isCompletedSuccessfully(cache1.acquireOutbound(500)));
+      assertFalse(cache2.acquireOutbound(500).toCompletableFuture().isDone());
+      verify(timeoutExecutor).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(500)), eq(TimeUnit.NANOSECONDS));
+
+      // A cache without a limit is not delayed by the others
+      assertTrue(CompletionStages.isCompletedSuccessfully(unlimited.acquireOutbound(500)));
+   }
+
+   public void testAdaptiveWindow() {
+      ConfigurationBuilder builder = configuration();
+      builder.clustering().stateTransfer().maxOutboundBandwidth(BANDWIDTH).adaptiveFlowControl(true);
+      StateTransferFlowControl flowControl = flowControl(builder);
+      assertEquals(100, flowControl.getWindow());
+
+      // The response time of the regular requests rises, the window is halved every batch down to 1/16th
+      when(transport.getAverageResponseTime()).thenReturn(10L);
+      when(transport.getRecentResponseTime()).thenReturn(100L);
+      flowControl.onOutboundSent(100, 0);
+      assertEquals(50, flowControl.getWindow());
+      for (int i = 0; i < 10; i++) {
+         flowControl.onOutboundSent(100, 0);
+      }
+      assertEquals(100 / 16, flowControl.getWindow());
+      assertEquals(1100, flowControl.getBytesSent());
+
+      // The bandwidth limit is scaled by the window
+      assertTrue(CompletionStages.isCompletedSuccessfully(flowControl.acquireOutbound(BANDWIDTH / 16)));
+      flowControl.acquireOutbound(BANDWIDTH / 16);
+      verify(timeoutExecutor).schedule(any(Runnable.class), eq(TimeUnit.SECONDS.toNanos(1)), eq(TimeUnit.NANOSECONDS));
+
+      // The window recovers gradually once the response time settles
+      when(transport.getRecentResponseTime()).thenReturn(10L);
+      flowControl.onOutboundSent(100, 0);
+      assertEquals(2 * 100 / 16, flowControl.getWindow());
+      for (int i = 0; i < 20; i++) {
+         flowControl.onOutboundSent(100, 0);
+      }
+      assertEquals(100, flowControl.getWindow());
+   }
+
+   public void testAdaptivePauseWithoutBandwidthLimit() {
+      ConfigurationBuilder builder = configuration();
+      builder.clustering().stateTransfer().adaptiveFlowControl(true);
+      StateTransferFlowControl flowControl = flowControl(builder);
+
+      when(transport.getAverageResponseTime()).thenReturn(10L);
+      when(transport.getRecentResponseTime()).thenReturn(100L);
+      // Halves the window, so the transfer must pause as long as it took to send the batch
+      flowControl.onOutboundSent(100, 1000);
+      assertEquals(50, flowControl.getWindow());
+
+      assertFalse(flowControl.acquireOutbound(100).toCompletableFuture().isDone());
+      verify(timeoutExecutor).schedule(any(Runnable.class), eq(1000L), eq(TimeUnit.NANOSECONDS));
+   }
+
+   public void testEstimateSize() {
+      assertEquals(3 + 10 + 64, StateTransferFlowControl.estimateSize(new ImmortalCacheEntry("key", new byte[10])));
+      assertEquals(64 + 64, StateTransferFlowControl.estimateSize(new ImmortalCacheEntry(1, null)));
+      List<InternalCacheEntry<?, ?>> entries = List.of(new ImmortalCacheEntry("a", "b"), new ImmortalCacheEntry("c", "d"));
+      StateChunk chunk = new StateChunk(0, entries, true);
+      assertEquals(2 * 66, StateTransferFlowControl.estimateSize(List.of(chunk, new StateChunk(1, null, true))));
+      // Strings are counted in UTF-8 bytes
+      assertEquals(1 + 2 + 3 + 4 + 64, StateTransferFlowControl.estimateSize(new ImmortalCacheEntry("a\u00e9\u20ac\ud83d\ude00", null)));
+   }
+
+   public void testEstimateRemainingTime() {
+      StateTransferFlowControl flowControl = flowControl(configuration());
+      flowControl.inboundStarted();
+      assertEquals(0, flowControl.estimateRemainingTime(0));
+      assertEquals(-1, flowControl.estimateRemainingTime(10));
+
+      timeService.advance(100);
+      flowControl.segmentReceived();
+      flowControl.segmentReceived();
+      assertEquals(500, flowControl.estimateRemainingTime(10));
+   }
+}
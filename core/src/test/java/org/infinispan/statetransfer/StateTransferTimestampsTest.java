@@ -27,6 +27,12 @@
 public class StateTransferTimestampsTest extends MultipleCacheManagersTest {
    public static final String CACHE_NAME = "cache";
    private ControlledTimeService timeService;
+   private Boolean directApply;
+
+   public StateTransferTimestampsTest directApply(Boolean directApply) {
+      this.directApply = directApply;
+      return this;
+   }
 
    @Override
    public Object[] factory() {
@@ -35,10 +41,23 @@ public Object[] factory() {
          new StateTransferTimestampsTest().cacheMode(CacheMode.DIST_SYNC),
          new StateTransferTimestampsTest().cacheMode(CacheMode.REPL_SYNC),
          // With other storage types there's an opportunity to change the timestamps before the write
-         new StateTransferTimestampsTest().cacheMode(CacheMode.DIST_SYNC).storageType(StorageType.OFF_HEAP)
+         new StateTransferTimestampsTest().cacheMode(CacheMode.DIST_SYNC).storageType(StorageType.OFF_HEAP),
+         // Direct writes to the data container must preserve the timestamps as well
+         new StateTransferTimestampsTest().cacheMode(CacheMode.DIST_SYNC).directApply(true),
+         new StateTransferTimestampsTest().cacheMode(CacheMode.REPL_SYNC).directApply(true)
       };
    }
 
+   @Override
+   protected String[] parameterNames() {
+      return concat(super.parameterNames(), "directApply");
+   }
+
+   @Override
+   protected Object[] parameterValues() {
+      return concat(super.parameterValues(), directApply);
+   }
+
    @Override
    protected void createCacheManagers() throws Throwable {
       createCluster(new ConfigurationBuilder(), 2);
@@ -46,6 +65,9 @@ protected void createCacheManagers() throws Throwable {
       timeService = new ControlledTimeService();
       ConfigurationBuilder replConfig = new ConfigurationBuilder();
       replConfig.clustering().cacheMode(cacheMode).hash().numSegments(4);
+      if (Boolean.TRUE.equals(directApply)) {
+         replConfig.clustering().stateTransfer().directApply(true).applyParallelism(2);
+      }
       if (storageType != null) {
          replConfig.memory().storage(storageType);
       }
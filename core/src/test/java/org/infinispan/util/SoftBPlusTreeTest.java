@@ -509,6 +509,57 @@ public void testSaveLoadTreeThenMutate() throws IOException {
       assertEquals(Integer.valueOf(199), loaded.get(key("key-00199")));
    }
 
+   public void testCheckpointSurvivesModifications() throws IOException {
+      InMemoryNodeStore store = new InMemoryNodeStore();
+      SoftBPlusTree<Integer> tree = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store, INT_SERIALIZER, keyLoader);
+      tree.enableCheckpoints();
+      int count = 300;
+      for (int i = 0; i < count; i++) {
+         putTracked(tree, key(String.format("key-%05d", i)), i);
+      }
+      SoftBPlusTree.Checkpoint checkpoint = tree.checkpoint();
+
+      // Overwrites, inserts and removals after the checkpoint must not touch the nodes it references
+      for (int i = 0; i < count; i += 2) {
+         putTracked(tree, key(String.format("key-%05d", i)), count + i);
+      }
+      for (int i = count; i < 2 * count; i++) {
+         putTracked(tree, key(String.format("key-%05d", i)), i);
+      }
+      for (int i = 1; i < count; i += 4) {
+         tree.remove(key(String.format("key-%05d", i)));
+      }
+
+      SoftBPlusTree<Integer> restored = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store.snapshot(),
+            INT_SERIALIZER, keyLoader);
+      restored.loadCheckpoint(checkpoint);
+      for (int i = 0; i < count; i++) {
+         assertEquals(Integer.valueOf(i), restored.get(key(String.format("key-%05d", i))));
+      }
+      assertNull(restored.get(key(String.format("key-%05d", count))));
+
+      // Once a newer checkpoint completed, the blocks of the first one can be reused
+      SoftBPlusTree.Checkpoint second = tree.checkpoint();
+      tree.checkpointCompleted();
+      for (int i = 0; i < count; i++) {
+         putTracked(tree, key(String.format("key-%05d", i)), 3 * count + i);
+      }
+
+      restored = new SoftBPlusTree<>(MIN_NODE_SIZE, MAX_NODE_SIZE, store.snapshot(), INT_SERIALIZER, keyLoader);
+      restored.loadCheckpoint(second);
+      for (int i = 0; i < 2 * count; i++) {
+         Integer expected;
+         if (i >= count) {
+            expected = i;
+         } else if (i % 4 == 1) {
+            expected = null;
+         } else {
+            expected = i % 2 == 0 ? count + i : i;
+         }
+         assertEquals(expected, restored.get(key(String.format("key-%05d", i))));
+      }
+   }
+
    // --- Per-node efficiency tests ---
 
    public void testWriteCountIsProportionalToHeight() throws IOException {
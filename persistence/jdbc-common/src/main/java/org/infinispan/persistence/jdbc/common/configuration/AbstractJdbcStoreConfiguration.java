@@ -11,15 +11,17 @@
    static final AttributeDefinition<DatabaseType> DIALECT = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.DIALECT, null, DatabaseType.class).immutable().build();
    static final AttributeDefinition<Integer> READ_QUERY_TIMEOUT = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.READ_QUERY_TIMEOUT, 0, Integer.class).build();
    static final AttributeDefinition<Integer> WRITE_QUERY_TIMEOUT = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.WRITE_QUERY_TIMEOUT, 0, Integer.class).build();
+   static final AttributeDefinition<Long> BATCH_TARGET_LATENCY = AttributeDefinition.builder(org.infinispan.persistence.jdbc.common.configuration.Attribute.BATCH_TARGET_LATENCY, 0L, Long.class).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(AbstractJdbcStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(),
-            DIALECT, READ_QUERY_TIMEOUT, WRITE_QUERY_TIMEOUT);
+            DIALECT, READ_QUERY_TIMEOUT, WRITE_QUERY_TIMEOUT, BATCH_TARGET_LATENCY);
    }
 
    private final Attribute<DatabaseType> dialect;
    private final Attribute<Integer> readQueryTimeout;
    private final Attribute<Integer> writeQueryTimeout;
+   private final Attribute<Long> batchTargetLatency;
    private final ConnectionFactoryConfiguration connectionFactory;
 
    protected AbstractJdbcStoreConfiguration(Enum<?> element, AttributeSet attributes, AsyncStoreConfiguration async, ConnectionFactoryConfiguration connectionFactory) {
@@ -28,6 +30,7 @@ protected AbstractJdbcStoreConfiguration(Enum<?> element, AttributeSet attribute
       dialect = attributes.attribute(DIALECT);
       readQueryTimeout = attributes.attribute(READ_QUERY_TIMEOUT);
       writeQueryTimeout = attributes.attribute(WRITE_QUERY_TIMEOUT);
+      batchTargetLatency = attributes.attribute(BATCH_TARGET_LATENCY);
    }
 
    public ConnectionFactoryConfiguration connectionFactory() {
@@ -68,4 +71,12 @@ public Integer readQueryTimeout() {
    public Integer writeQueryTimeout() {
       return writeQueryTimeout.get();
    }
+
+   /**
+    * @return the target duration, in milliseconds, of the batches written to the database or 0 if the batches always
+    * contain up to {@link #maxBatchSize()} rows
+    */
+   public long batchTargetLatency() {
+      return batchTargetLatency.get();
+   }
 }
@@ -117,6 +117,16 @@ public S writeQueryTimeout(Integer queryTimeout) {
       return self();
    }
 
+   /**
+    * Sets the target duration, in milliseconds, of the batches written to the database. When set, the number of rows
+    * written by each statement batch adapts to the observed latency, between 1 and {@link #maxBatchSize(int)} rows.
+    * The default is 0, which always writes up to max-batch-size rows per batch.
+    */
+   public S batchTargetLatency(long targetLatency) {
+      attributes.attribute(AbstractJdbcStoreConfiguration.BATCH_TARGET_LATENCY).set(targetLatency);
+      return self();
+   }
+
    @Override
    public void validate() {
       super.validate();
@@ -24,6 +24,9 @@ protected boolean handleCommonAttributes(ConfigurationReader reader,
          case WRITE_QUERY_TIMEOUT:
             builder.writeQueryTimeout(Integer.parseInt(value));
             break;
+         case BATCH_TARGET_LATENCY:
+            builder.batchTargetLatency(Long.parseLong(value));
+            break;
          default:
             return false;
       }
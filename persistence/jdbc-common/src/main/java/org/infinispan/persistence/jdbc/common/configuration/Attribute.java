@@ -14,6 +14,7 @@ public enum Attribute {
    UNKNOWN(null),
    ANNOTATION,
    BATCH_SIZE,
+   BATCH_TARGET_LATENCY,
    CONNECTION_URL,
    CREATE_ON_START,
    DIALECT,
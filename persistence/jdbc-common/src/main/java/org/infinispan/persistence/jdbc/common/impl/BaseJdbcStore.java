@@ -4,20 +4,33 @@
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 import org.infinispan.commons.reactive.Functions;
+import org.infinispan.commons.stat.MetricInfo;
+import org.infinispan.commons.stat.TimerTracker;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.global.GlobalMetricsConfiguration;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.metrics.Constants;
+import org.infinispan.metrics.impl.MetricUtils;
+import org.infinispan.metrics.impl.MetricsCollector;
 import org.infinispan.persistence.jdbc.common.TableOperations;
 import org.infinispan.persistence.jdbc.common.configuration.AbstractJdbcStoreConfiguration;
 import org.infinispan.persistence.jdbc.common.connectionfactory.ConnectionFactory;
 import org.infinispan.persistence.jdbc.common.logging.Log;
+import org.infinispan.persistence.jdbc.common.sql.BaseTableOperations;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
@@ -36,6 +49,14 @@
    protected C config;
    protected TableOperations<K, V> tableOperations;
    protected final Map<Transaction, Connection> transactionConnectionMap = new ConcurrentHashMap<>();
+   private InitializationContext ctx;
+   private TimeService timeService;
+   private Set<Object> metricIds;
+   private volatile TimerTracker loadTimes = TimerTracker.NO_OP;
+   private volatile TimerTracker loadAllTimes = TimerTracker.NO_OP;
+   private volatile TimerTracker writeTimes = TimerTracker.NO_OP;
+   private volatile TimerTracker deleteTimes = TimerTracker.NO_OP;
+   private volatile TimerTracker batchTimes = TimerTracker.NO_OP;
 
    @Override
    public Set<Characteristic> characteristics() {
@@ -60,7 +81,9 @@ Object keyIdentifier(Object key) {
    @Override
    public CompletionStage<Void> start(InitializationContext ctx) {
       this.config = ctx.getConfiguration();
+      this.ctx = ctx;
       blockingManager = ctx.getBlockingManager();
+      timeService = ctx.getTimeService();
 
       return blockingManager.runBlocking(() -> {
          try {
@@ -71,7 +94,57 @@ public CompletionStage<Void> start(InitializationContext ctx) {
          } catch (SQLException e) {
             throw new PersistenceException(e);
          }
-      }, "jdbcstore-start");
+      }, "jdbcstore-start").thenRun(this::registerMetrics);
+   }
+
+   private void registerMetrics() {
+      MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+      if (metricsCollector == null) {
+         return;
+      }
+      Map<String, String> tags = Map.of("store", getClass().getSimpleName());
+      metricIds = metricsCollector.registerMetrics(this, metrics(ctx.getGlobalConfiguration().metrics(), tags),
+            Constants.INFINISPAN_PREFIX + "jdbc_", ctx.getCache().getName());
+   }
+
+   private void unregisterMetrics() {
+      if (metricIds != null) {
+         MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+         metricIds.forEach(metricsCollector::unregisterMetric);
+         metricIds = null;
+      }
+   }
+
+   static Collection<MetricInfo> metrics(GlobalMetricsConfiguration configuration, Map<String, String> tags) {
+      return List.of(
+            MetricUtils.<BaseJdbcStore<?, ?, ?>>createGauge("BatchSize",
+                  "Number of rows currently written to the database per batch",
+                  BaseJdbcStore::getBatchSize, tags),
+            timer(configuration, "LoadTimes", "Time spent reading an entry from the database",
+                  (store, tracker) -> store.loadTimes = tracker, tags),
+            timer(configuration, "LoadAllTimes", "Time spent reading the entries of multiple keys from the database",
+                  (store, tracker) -> store.loadAllTimes = tracker, tags),
+            timer(configuration, "WriteTimes", "Time spent writing an entry to the database",
+                  (store, tracker) -> store.writeTimes = tracker, tags),
+            timer(configuration, "DeleteTimes", "Time spent deleting an entry from the database",
+                  (store, tracker) -> store.deleteTimes = tracker, tags),
+            timer(configuration, "BatchTimes", "Time spent writing a batch of modifications to the database",
+                  (store, tracker) -> store.batchTimes = tracker, tags));
+   }
+
+   private static MetricInfo timer(GlobalMetricsConfiguration configuration, String name, String description,
+                                   BiConsumer<BaseJdbcStore<?, ?, ?>, TimerTracker> setter, Map<String, String> tags) {
+      return configuration.histograms() ?
+            MetricUtils.createTimer(name, description, setter, tags) :
+            MetricUtils.createFunctionTimer(name, description, setter, tags);
+   }
+
+   int getBatchSize() {
+      return tableOperations instanceof BaseTableOperations<?, ?> operations ? operations.getBatchSize() : config.maxBatchSize();
+   }
+
+   private void recordTime(TimerTracker tracker, long start) {
+      tracker.update(timeService.timeDuration(start, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
    }
 
    /**
@@ -84,6 +157,7 @@ protected void extraStopSteps() {
 
    @Override
    public CompletionStage<Void> stop() {
+      unregisterMetrics();
       return blockingManager.runBlocking(() -> {
          extraStopSteps();
          try {
@@ -120,6 +194,7 @@ public CompletionStage<Boolean> isAvailable() {
    public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return blockingManager.supplyBlocking(() -> {
          Connection conn = null;
+         long start = timeService.time();
          try {
             conn = connectionFactory.getConnection();
             return tableOperations.loadEntry(conn, segment, key);
@@ -131,14 +206,33 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
                   key, keyIdentifier), e);
          } finally {
             connectionFactory.releaseConnection(conn);
+            recordTime(loadTimes, start);
          }
       }, "jdbcstore-load");
    }
 
+   @Override
+   public CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+      return blockingManager.supplyBlocking(() -> {
+         Connection conn = null;
+         long start = timeService.time();
+         try {
+            conn = connectionFactory.getConnection();
+            return tableOperations.loadEntries(conn, keysBySegment);
+         } catch (SQLException e) {
+            throw new PersistenceException("SQL error while fetching stored entries", e);
+         } finally {
+            connectionFactory.releaseConnection(conn);
+            recordTime(loadAllTimes, start);
+         }
+      }, "jdbcstore-load-all");
+   }
+
    @Override
    public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> entry) {
       return blockingManager.runBlocking(() -> {
          Connection connection = null;
+         long start = timeService.time();
          try {
             connection = connectionFactory.getConnection();
             tableOperations.upsertEntry(connection, segment, entry);
@@ -147,6 +241,7 @@ public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ?
             throw new PersistenceException(String.format("Error while storing string key to database; key: '%s'", entry.getKey()), ex);
          } finally {
             connectionFactory.releaseConnection(connection);
+            recordTime(writeTimes, start);
          }
       }, "jdbcstore-write");
    }
@@ -155,6 +250,7 @@ public CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ?
    public CompletionStage<Boolean> delete(int segment, Object key) {
       return blockingManager.supplyBlocking(() -> {
          Connection connection = null;
+         long start = timeService.time();
          try {
             connection = connectionFactory.getConnection();
             return tableOperations.deleteEntry(connection, segment, key);
@@ -163,6 +259,7 @@ public CompletionStage<Boolean> delete(int segment, Object key) {
             throw new PersistenceException(String.format("Error while removing key %s from database", key), ex);
          } finally {
             connectionFactory.releaseConnection(connection);
+            recordTime(deleteTimes, start);
          }
       }, "jdbcstore-delete");
    }
@@ -189,6 +286,7 @@ public CompletionStage<Void> batch(int publisherCount,
          Publisher<SegmentedPublisher<MarshallableEntry<K, V>>> writePublisher) {
       return blockingManager.runBlocking(() -> {
          Connection connection = null;
+         long start = timeService.time();
          try {
             connection = connectionFactory.getConnection();
             tableOperations.batchUpdates(connection, publisherCount, Flowable.fromPublisher(removePublisher)
@@ -197,6 +295,7 @@ public CompletionStage<Void> batch(int publisherCount,
             throw PERSISTENCE.sqlFailureWritingBatch(e);
          } finally {
             connectionFactory.releaseConnection(connection);
+            recordTime(batchTimes, start);
          }
       }, "jdbcstore-batch");
    }
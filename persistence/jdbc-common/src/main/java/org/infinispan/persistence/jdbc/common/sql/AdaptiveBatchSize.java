@@ -0,0 +1,42 @@
+package org.infinispan.persistence.jdbc.common.sql;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The number of rows written to the database per batch. When a target latency is configured, the size is halved
+ * every time a batch takes longer than the target and increases slowly while full batches complete within the target,
+ * never exceeding the configured maximum. Otherwise the size is always the maximum.
+ * <p>
+ * The size is shared by all the batches of a store and updated without synchronization, since an occasional lost
+ * update only delays the adjustment.
+ */
+class AdaptiveBatchSize {
+   private final int maxBatchSize;
+   private final long targetLatencyNanos;
+   private final int increment;
+   private volatile int batchSize;
+
+   AdaptiveBatchSize(int maxBatchSize, long targetLatencyMillis) {
+      this.maxBatchSize = Math.max(1, maxBatchSize);
+      this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+      this.increment = Math.max(1, this.maxBatchSize / 16);
+      this.batchSize = this.maxBatchSize;
+   }
+
+   int get() {
+      return batchSize;
+   }
+
+   void record(int rows, long durationNanos) {
+      if (targetLatencyNanos <= 0) {
+         return;
+      }
+      int size = batchSize;
+      if (durationNanos > targetLatencyNanos) {
+         batchSize = Math.max(1, size / 2);
+      } else if (rows >= size && size < maxBatchSize) {
+         // Only full batches show that a bigger batch could still complete in time
+         batchSize = Math.min(maxBatchSize, size + increment);
+      }
+   }
+}
@@ -7,6 +7,8 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -26,16 +28,17 @@
 import org.infinispan.persistence.spi.NonBlockingStore;
 import org.reactivestreams.Publisher;
 
-import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
 
 public abstract class BaseTableOperations<K, V> implements TableOperations<K, V> {
    private static final Log log = Log.getLog(BaseTableOperations.class);
 
    protected final AbstractJdbcStoreConfiguration<?> configuration;
+   private final AdaptiveBatchSize batchSize;
 
    public BaseTableOperations(AbstractJdbcStoreConfiguration<?> configuration) {
       this.configuration = configuration;
+      this.batchSize = new AdaptiveBatchSize(configuration.maxBatchSize(), configuration.batchTargetLatency());
    }
 
    public abstract String getSelectRowSql();
@@ -160,6 +163,36 @@ public long size(Connection connection) throws SQLException {
       }
    }
 
+   /**
+    * @return the number of rows currently written per batch, which adapts to the observed latency when a batch target
+    * latency is configured
+    */
+   public int getBatchSize() {
+      return batchSize.get();
+   }
+
+   /**
+    * Writes all the given entries with a single multi-row statement.
+    *
+    * @return false if the database doesn't support multi-row upserts, in which case the entries are written with a
+    * batch of single row statements instead
+    */
+   protected boolean upsertRows(Connection connection, List<SegmentedEntry<K, V>> entries) throws SQLException {
+      return false;
+   }
+
+   /**
+    * Deletes the rows of all the given keys with a single multi-row statement.
+    *
+    * @return false if the database doesn't support multi-row deletes, in which case the keys are deleted with a
+    * batch of single row statements instead
+    */
+   protected boolean deleteRows(Connection connection, List<Object> keys) throws SQLException {
+      return false;
+   }
+
+   protected record SegmentedEntry<K, V>(int segment, MarshallableEntry<K, V> entry) { }
+
    // This method invokes some blocking methods, but this method is itself only blocking
    @SuppressWarnings("checkstyle:ForbiddenMethod")
    @Override
@@ -175,28 +208,37 @@ public void batchUpdates(Connection connection, int writePublisherCount, Publish
            PreparedStatement deleteBatch = connection.prepareStatement(deleteSql)) {
 
          // Note this one is non blocking as we need to subscribe to both Publishers before anything is processed.
+         List<Object> keys = new ArrayList<>();
          CompletionStage<Void> removeStage = Flowable.fromPublisher(removePublisher)
                .doOnNext(key -> {
-                  prepareKeyStatement(deleteBatch, key);
-                  deleteBatch.addBatch();
-               }).lastElement()
-               .doAfterSuccess(ignore -> deleteBatch.executeBatch())
-               .flatMapCompletable(ignore -> Completable.complete())
+                  keys.add(key);
+                  if (keys.size() >= batchSize.get()) {
+                     deleteBatch(connection, deleteBatch, keys);
+                  }
+               })
+               .doOnComplete(() -> {
+                  if (!keys.isEmpty()) {
+                     deleteBatch(connection, deleteBatch, keys);
+                  }
+               })
+               .ignoreElements()
                .toCompletionStage(null);
 
+         List<SegmentedEntry<K, V>> entries = new ArrayList<>();
          ByRef<Throwable> throwableRef = new ByRef<>(null);
-         ByRef<Object> hadValue = new ByRef<>(null);
          Flowable.fromPublisher(writePublisher)
                .concatMapEager(sp ->
                      Flowable.fromPublisher(sp)
-                           .doOnNext(me -> {
-                              prepareValueStatement(upsertBatch, sp.getSegment(), me);
-                              upsertBatch.addBatch();
-                           }), writePublisherCount, writePublisherCount
-               ).lastElement()
-               .blockingSubscribe(hadValue::set, throwableRef::set);
-         if (hadValue.get() != null) {
-            upsertBatch.executeBatch();
+                           .map(me -> new SegmentedEntry<>(sp.getSegment(), me)), writePublisherCount, writePublisherCount
+               )
+               .blockingSubscribe(entry -> {
+                  entries.add(entry);
+                  if (entries.size() >= batchSize.get()) {
+                     upsertBatch(connection, upsertBatch, entries);
+                  }
+               }, throwableRef::set);
+         if (throwableRef.get() == null && !entries.isEmpty()) {
+            upsertBatch(connection, upsertBatch, entries);
          }
 
          Throwable t = throwableRef.get();
@@ -211,6 +253,32 @@ public void batchUpdates(Connection connection, int writePublisherCount, Publish
       }
    }
 
+   private void upsertBatch(Connection connection, PreparedStatement upsertBatch, List<SegmentedEntry<K, V>> entries) throws SQLException {
+      long start = System.nanoTime();
+      if (!upsertRows(connection, entries)) {
+         for (SegmentedEntry<K, V> entry : entries) {
+            prepareValueStatement(upsertBatch, entry.segment(), entry.entry());
+            upsertBatch.addBatch();
+         }
+         upsertBatch.executeBatch();
+      }
+      batchSize.record(entries.size(), System.nanoTime() - start);
+      entries.clear();
+   }
+
+   private void deleteBatch(Connection connection, PreparedStatement deleteBatch, List<Object> keys) throws SQLException {
+      long start = System.nanoTime();
+      if (!deleteRows(connection, keys)) {
+         for (Object key : keys) {
+            prepareKeyStatement(deleteBatch, key);
+            deleteBatch.addBatch();
+         }
+         deleteBatch.executeBatch();
+      }
+      batchSize.record(keys.size(), System.nanoTime() - start);
+      keys.clear();
+   }
+
    @Override
    public Flowable<MarshallableEntry<K, V>> publishEntries(Supplier<Connection> connectionSupplier,
          Consumer<Connection> connectionCloser, IntSet segments, Predicate<? super K> filter, boolean fetchValue) {
@@ -12,6 +12,13 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.PrimitiveIterator;
 import java.util.function.Predicate;
@@ -80,6 +87,7 @@
    private final String loadAllNonExpiredRowsSql;
    private final String deleteAllRows;
    private final String selectExpiredRowsSql;
+   private final boolean multiRowUpsertSupported;
 
    AbstractTableManager(InitializationContext ctx, ConnectionFactory connectionFactory, JdbcStringBasedStoreConfiguration jdbcConfig,
          DbMetaData dbMetadata, String cacheName, Log log) {
@@ -116,6 +124,7 @@
       this.loadAllNonExpiredRowsSql = initLoadNonExpiredAllRowsSql();
       this.deleteAllRows = initDeleteAllRowsSql();
       this.selectExpiredRowsSql = initSelectOnlyExpiredRowsSql();
+      this.multiRowUpsertSupported = initUpsertRowsSql(1) != null;
 
       // ISPN-14108 only initiate variables from InitializationContext if not null. Required for StoreMigrator
       if (ctx != null) {
@@ -610,6 +619,72 @@ public String getSelectAllSql(IntSet segments) {
       }
    }
 
+   protected String getSelectRowsSql(int numKeys) {
+      StringBuilder stringBuilder = new StringBuilder("SELECT ");
+      stringBuilder.append(config.dataColumnName());
+      stringBuilder.append(", ");
+      stringBuilder.append(config.idColumnName());
+      stringBuilder.append(" FROM ");
+      stringBuilder.append(dataTableName);
+      stringBuilder.append(" WHERE ");
+      stringBuilder.append(config.idColumnName());
+      stringBuilder.append(" IN (?");
+
+      for (int i = 1; i < numKeys; ++i) {
+         stringBuilder.append(",?");
+      }
+      stringBuilder.append(")");
+
+      return stringBuilder.toString();
+   }
+
+   @Override
+   public Map<Object, MarshallableEntry<K, V>> loadEntries(Connection connection,
+         Map<Integer, ? extends Collection<?>> keysBySegment) throws SQLException {
+      // The rows are looked up by their string key, which is mapped back to the requested key
+      Map<String, Object> keysByString = new LinkedHashMap<>();
+      for (Collection<?> keys : keysBySegment.values()) {
+         for (Object key : keys) {
+            keysByString.put(key2Str(key), key);
+         }
+      }
+      Map<Object, MarshallableEntry<K, V>> entries = new HashMap<>();
+      List<String> keyStrings = new ArrayList<>(keysByString.keySet());
+      int batchSize = Math.max(1, Math.min(configuration.maxBatchSize(), getMaxStatementParameters()));
+      for (int start = 0; start < keyStrings.size(); start += batchSize) {
+         List<String> batch = keyStrings.subList(start, Math.min(start + batchSize, keyStrings.size()));
+         String selectSql = getSelectRowsSql(batch.size());
+         if (log.isTraceEnabled()) {
+            log.tracef("Running select rows sql '%s'", selectSql);
+         }
+         PreparedStatement ps = null;
+         ResultSet rs = null;
+         try {
+            ps = connection.prepareStatement(selectSql);
+            ps.setQueryTimeout(configuration.readQueryTimeout());
+            for (int i = 0; i < batch.size(); ++i) {
+               ps.setString(i + 1, batch.get(i));
+            }
+            rs = ps.executeQuery();
+            while (rs.next()) {
+               Object key = keysByString.get(rs.getString(2));
+               if (key == null) {
+                  // The database matched the key ignoring its case or trailing spaces
+                  continue;
+               }
+               MarshallableEntry<K, V> entry = entryFromResultSet(rs, key, true, null);
+               if (entry != null) {
+                  entries.put(key, entry);
+               }
+            }
+         } finally {
+            JdbcUtil.safeClose(rs);
+            JdbcUtil.safeClose(ps);
+         }
+      }
+      return entries;
+   }
+
    @Override
    protected void prepareKeyStatement(PreparedStatement ps, Object key) throws SQLException {
       String lockingKey = key2Str(key);
@@ -695,6 +770,136 @@ public void upsertEntry(Connection connection, int segment, MarshallableEntry<?
       }
    }
 
+   /**
+    * Returns the statement upserting the given number of rows at once, binding the columns of every row in the order
+    * of {@link #getInsertRowSql()}.
+    *
+    * @return the statement or null if the database doesn't support multi-row upserts
+    */
+   protected String initUpsertRowsSql(int numRows) {
+      return null;
+   }
+
+   /**
+    * @return the maximum number of parameters the database accepts in a single statement
+    */
+   protected int getMaxStatementParameters() {
+      return Short.MAX_VALUE;
+   }
+
+   protected String getRowsValuesSql(int numRows) {
+      String row = dbMetadata.isSegmentedDisabled() ? "(?,?,?)" : "(?,?,?,?)";
+      StringBuilder stringBuilder = new StringBuilder("VALUES ");
+      stringBuilder.append(row);
+      for (int i = 1; i < numRows; ++i) {
+         stringBuilder.append(", ").append(row);
+      }
+      return stringBuilder.toString();
+   }
+
+   protected String getInsertRowsSql(int numRows) {
+      String insertRowSql = getInsertRowSql();
+      return insertRowSql.substring(0, insertRowSql.lastIndexOf("VALUES")) + getRowsValuesSql(numRows);
+   }
+
+   protected String getDeleteRowsSql(int numKeys) {
+      StringBuilder stringBuilder = new StringBuilder("DELETE FROM ");
+      stringBuilder.append(dataTableName);
+      stringBuilder.append(" WHERE ");
+      stringBuilder.append(config.idColumnName());
+      stringBuilder.append(" IN (?");
+
+      for (int i = 1; i < numKeys; ++i) {
+         stringBuilder.append(",?");
+      }
+      stringBuilder.append(")");
+
+      return stringBuilder.toString();
+   }
+
+   /**
+    * Number of rows of the next multi-row statement. Statements only ever contain a power of two rows, which bounds
+    * the number of distinct statements the database has to prepare.
+    */
+   private static int rowsPerStatement(int remaining, int maxRows) {
+      return Integer.highestOneBit(Math.min(remaining, maxRows));
+   }
+
+   @Override
+   protected boolean upsertRows(Connection connection, List<SegmentedEntry<K, V>> entries) throws SQLException {
+      if (entries.size() == 1 || !multiRowUpsertSupported || !isUpsertSupported()) {
+         return false;
+      }
+      // Some databases reject a statement that upserts the same row twice, only the last value of a key is written
+      Map<String, SegmentedEntry<K, V>> rows = new LinkedHashMap<>();
+      for (SegmentedEntry<K, V> entry : entries) {
+         rows.put(key2Str(entry.entry().getKey()), entry);
+      }
+      int columns = dbMetadata.isSegmentedDisabled() ? 3 : 4;
+      int maxRows = Math.max(1, getMaxStatementParameters() / columns);
+      Iterator<Map.Entry<String, SegmentedEntry<K, V>>> iterator = rows.entrySet().iterator();
+      int remaining = rows.size();
+      while (remaining > 0) {
+         int numRows = rowsPerStatement(remaining, maxRows);
+         String upsertSql = initUpsertRowsSql(numRows);
+         if (log.isTraceEnabled()) {
+            log.tracef("Running upsert rows sql '%s'", upsertSql);
+         }
+         PreparedStatement ps = null;
+         try {
+            ps = connection.prepareStatement(upsertSql);
+            ps.setQueryTimeout(configuration.writeQueryTimeout());
+            for (int i = 0; i < numRows; ++i) {
+               Map.Entry<String, SegmentedEntry<K, V>> row = iterator.next();
+               MarshallableEntry<K, V> entry = row.getValue().entry();
+               ByteBuffer valueBytes = marshall(entry.getMarshalledValue(), marshaller);
+               int offset = i * columns;
+               ps.setBinaryStream(offset + 1, new ByteArrayInputStream(valueBytes.getBuf(), valueBytes.getOffset(),
+                     valueBytes.getLength()), valueBytes.getLength());
+               ps.setLong(offset + 2, entry.expiryTime());
+               ps.setString(offset + 3, row.getKey());
+               if (!dbMetadata.isSegmentedDisabled()) {
+                  ps.setInt(offset + 4, row.getValue().segment());
+               }
+            }
+            ps.executeUpdate();
+         } finally {
+            JdbcUtil.safeClose(ps);
+         }
+         remaining -= numRows;
+      }
+      return true;
+   }
+
+   @Override
+   protected boolean deleteRows(Connection connection, List<Object> keys) throws SQLException {
+      if (keys.size() == 1) {
+         return false;
+      }
+      int maxRows = getMaxStatementParameters();
+      int offset = 0;
+      while (offset < keys.size()) {
+         int numRows = rowsPerStatement(keys.size() - offset, maxRows);
+         String deleteSql = getDeleteRowsSql(numRows);
+         if (log.isTraceEnabled()) {
+            log.tracef("Running delete rows sql '%s'", deleteSql);
+         }
+         PreparedStatement ps = null;
+         try {
+            ps = connection.prepareStatement(deleteSql);
+            ps.setQueryTimeout(configuration.writeQueryTimeout());
+            for (int i = 0; i < numRows; ++i) {
+               ps.setString(i + 1, key2Str(keys.get(offset + i)));
+            }
+            ps.executeUpdate();
+         } finally {
+            JdbcUtil.safeClose(ps);
+         }
+         offset += numRows;
+      }
+      return true;
+   }
+
    @Override
    protected final void prepareValueStatement(PreparedStatement ps, int segment, MarshallableEntry<? extends K, ? extends V> entry) throws SQLException {
       prepareValueStatement(ps, segment, key2Str(entry.getKey()), marshall(entry.getMarshalledValue(), marshaller), entry.expiryTime());
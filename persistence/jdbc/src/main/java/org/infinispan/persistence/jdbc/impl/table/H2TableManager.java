@@ -30,6 +30,18 @@ protected String initUpsertRowSql() {
       }
    }
 
+   @Override
+   protected String initUpsertRowsSql(int numRows) {
+      if (dbMetadata.isSegmentedDisabled()) {
+         return String.format("MERGE INTO %1$s (%2$s, %3$s, %4$s) KEY(%4$s) %5$s", dataTableName,
+               config.dataColumnName(), config.timestampColumnName(), config.idColumnName(), getRowsValuesSql(numRows));
+      } else {
+         return String.format("MERGE INTO %1$s (%2$s, %3$s, %4$s, %5$s) KEY(%4$s) %6$s", dataTableName,
+               config.dataColumnName(), config.timestampColumnName(), config.idColumnName(), config.segmentColumnName(),
+               getRowsValuesSql(numRows));
+      }
+   }
+
    @Override
    protected void dropIndex(Connection conn, String indexName) throws PersistenceException {
       String dropIndexDdl = String.format("DROP INDEX IF EXISTS  %s", getIndexName(dbMetadata.getMaxTableNameLength(), true, indexName));
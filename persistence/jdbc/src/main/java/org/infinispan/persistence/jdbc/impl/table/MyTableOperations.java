@@ -31,4 +31,15 @@ public String initUpsertRowSql() {
                config.dataColumnName(), config.timestampColumnName(), config.segmentColumnName());
       }
    }
+
+   @Override
+   protected String initUpsertRowsSql(int numRows) {
+      if (dbMetadata.isSegmentedDisabled()) {
+         return String.format("%1$s ON DUPLICATE KEY UPDATE %2$s = VALUES(%2$s), %3$s = VALUES(%3$s)", getInsertRowsSql(numRows),
+               config.dataColumnName(), config.timestampColumnName());
+      } else {
+         return String.format("%1$s ON DUPLICATE KEY UPDATE %2$s = VALUES(%2$s), %3$s = VALUES(%3$s), %4$s = VALUES(%4$s)", getInsertRowsSql(numRows),
+               config.dataColumnName(), config.timestampColumnName(), config.segmentColumnName());
+      }
+   }
 }
@@ -155,4 +155,10 @@ public void prepareUpdateStatement(PreparedStatement ps, String key, long timest
          ps.setInt(4, segment);
       }
    }
+
+   @Override
+   protected int getMaxStatementParameters() {
+      // ORA-01795: maximum number of expressions in a list is 1000
+      return 1000;
+   }
 }
@@ -65,4 +65,11 @@ public String initUpsertRowSql() {
                getInsertRowSql(), config.idColumnName(), config.dataColumnName(),
                config.timestampColumnName());
    }
+
+   @Override
+   protected String initUpsertRowsSql(int numRows) {
+      return String.format("%1$s ON CONFLICT (%2$s) DO UPDATE SET %3$s = EXCLUDED.%3$s, %4$s = EXCLUDED.%4$s",
+               getInsertRowsSql(numRows), config.idColumnName(), config.dataColumnName(),
+               config.timestampColumnName());
+   }
 }
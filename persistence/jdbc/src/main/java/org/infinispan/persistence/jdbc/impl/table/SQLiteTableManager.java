@@ -35,4 +35,23 @@ public String initUpsertRowSql() {
                config.idColumnName(), config.segmentColumnName());
       }
    }
+
+   @Override
+   protected String initUpsertRowsSql(int numRows) {
+      if (dbMetadata.isSegmentedDisabled()) {
+         return String.format("INSERT OR REPLACE INTO %s (%s, %s, %s) %s",
+               dataTableName, config.dataColumnName(), config.timestampColumnName(),
+               config.idColumnName(), getRowsValuesSql(numRows));
+      } else {
+         return String.format("INSERT OR REPLACE INTO %s (%s, %s, %s, %s) %s",
+               dataTableName, config.dataColumnName(), config.timestampColumnName(),
+               config.idColumnName(), config.segmentColumnName(), getRowsValuesSql(numRows));
+      }
+   }
+
+   @Override
+   protected int getMaxStatementParameters() {
+      // SQLITE_MAX_VARIABLE_NUMBER before 3.32
+      return 999;
+   }
 }
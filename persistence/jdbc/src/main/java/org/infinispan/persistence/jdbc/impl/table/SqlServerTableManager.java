@@ -60,4 +60,10 @@ public String encodeString(String string) {
       }
       return string;
    }
+
+   @Override
+   protected int getMaxStatementParameters() {
+      // A request supports at most 2100 parameters
+      return 2100;
+   }
 }
@@ -1,13 +1,20 @@
 package org.infinispan.persistence.jdbc.stringbased;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.persistence.BaseNonBlockingStoreTest;
 import org.infinispan.persistence.jdbc.UnitTestDatabaseManager;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
 import org.testng.annotations.Factory;
 import org.testng.annotations.Test;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 /**
  * Tester class  for {@link JdbcStringBasedStore}.
  *
@@ -51,4 +58,22 @@ protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
       UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
       return configurationBuilder.build();
    }
+
+   public void testWriteBatchLargerThanMaxBatchSize() {
+      int numberOfEntries = 2 * configuration.persistence().stores().get(0).maxBatchSize() + 3;
+      // The first key is written twice in the same batch, only the last value must be kept
+      Flowable<MarshallableEntry<Object, Object>> entries = Flowable.range(0, numberOfEntries)
+            .map(i -> entry(i.toString(), "Val" + i))
+            .startWithItem(entry("0", "Old"));
+      store.batchUpdate(segmentCount, Flowable.empty(),
+            TestingUtil.multipleSegmentPublisher(entries, MarshallableEntry::getKey, keyPartitioner));
+
+      assertEquals(numberOfEntries, store.sizeWait(segments));
+      assertEquals(valueToStorage("Val0"), store.loadEntry(keyToStorage("0")).getValue());
+      assertEquals(valueToStorage("Val" + (numberOfEntries - 1)), store.loadEntry(keyToStorage(Integer.toString(numberOfEntries - 1))).getValue());
+   }
+
+   private MarshallableEntry<Object, Object> entry(String key, String value) {
+      return marshalledEntry(TestInternalCacheEntryFactory.create(internalEntryFactory, keyToStorage(key), valueToStorage(value), -1));
+   }
 }
@@ -10,18 +10,22 @@
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.CacheConfigurationException;
@@ -30,6 +34,7 @@
 import org.infinispan.commons.marshall.Marshaller;
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
 import org.infinispan.commons.reactive.RxJavaInterop;
+import org.infinispan.commons.stat.MetricInfo;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.AbstractIterator;
 import org.infinispan.commons.util.IntSet;
@@ -39,12 +44,17 @@
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.marshall.persistence.PersistenceMarshaller;
 import org.infinispan.marshall.persistence.impl.MarshallableEntryImpl;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
+import org.infinispan.metrics.Constants;
+import org.infinispan.metrics.impl.MetricUtils;
+import org.infinispan.metrics.impl.MetricsCollector;
 import org.infinispan.persistence.internal.PersistenceUtil;
 import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBTuningConfiguration;
 import org.infinispan.persistence.rocksdb.logging.Log;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.MarshallableEntry;
@@ -57,16 +67,25 @@
 import org.infinispan.protostream.annotations.ProtoTypeId;
 import org.infinispan.util.concurrent.BlockingManager;
 import org.reactivestreams.Publisher;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.BuiltinComparator;
+import org.rocksdb.Cache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.Filter;
+import org.rocksdb.HistogramData;
+import org.rocksdb.HistogramType;
+import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
@@ -100,6 +119,11 @@
    private KeyPartitioner keyPartitioner;
    private MarshallableEntryFactory<K, V> entryFactory;
    private BlockingManager blockingManager;
+   // Block cache, bloom filter and statistics of the data column families, null when not configured
+   private Cache blockCache;
+   private Filter bloomFilter;
+   private volatile Statistics statistics;
+   private Set<Object> metricIds;
 
    @Override
    public CompletionStage<Void> start(InitializationContext ctx) {
@@ -132,6 +156,7 @@ public CompletionStage<Void> start(InitializationContext ctx) {
 
       return blockingManager.runBlocking(() -> {
          try {
+            initTuning();
             initDefaultHandler();
             MetadataImpl existingMeta = handler.loadMetadata();
             if (existingMeta == null && !configuration.purgeOnStartup()) {
@@ -142,7 +167,116 @@ public CompletionStage<Void> start(InitializationContext ctx) {
          } catch (Exception e) {
             throw new CacheConfigurationException("Unable to open database", e);
          }
-      }, "rocksdb-open");
+      }, "rocksdb-open").thenRun(this::registerMetrics);
+   }
+
+   private void initTuning() {
+      RocksDBTuningConfiguration tuning = configuration.tuning();
+      if (tuning.sharedBlockCache()) {
+         blockCache = SharedBlockCache.acquire(ctx.getCache().getCacheManager(), tuning.blockCacheSize());
+      } else if (tuning.blockCacheSize() > 0) {
+         blockCache = new LRUCache(tuning.blockCacheSize());
+      }
+      if (tuning.bloomFilterBitsPerKey() > 0) {
+         bloomFilter = new BloomFilter(tuning.bloomFilterBitsPerKey());
+      }
+      if (tuning.statistics()) {
+         statistics = new Statistics();
+      }
+   }
+
+   private void closeTuning() {
+      if (blockCache != null) {
+         if (configuration.tuning().sharedBlockCache()) {
+            SharedBlockCache.release(ctx.getCache().getCacheManager());
+         } else {
+            blockCache.close();
+         }
+         blockCache = null;
+      }
+      if (bloomFilter != null) {
+         bloomFilter.close();
+         bloomFilter = null;
+      }
+      if (statistics != null) {
+         Statistics stats = statistics;
+         statistics = null;
+         stats.close();
+      }
+   }
+
+   private void registerMetrics() {
+      if (statistics == null) {
+         return;
+      }
+      MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+      if (metricsCollector == null) {
+         return;
+      }
+      metricIds = metricsCollector.registerMetrics(this, statisticsMetrics(), Constants.INFINISPAN_PREFIX + "rocksdb_",
+            ctx.getCache().getName());
+   }
+
+   private void unregisterMetrics() {
+      if (metricIds != null) {
+         MetricsCollector metricsCollector = ComponentRegistry.componentOf(ctx.getCache(), MetricsCollector.class);
+         metricIds.forEach(metricsCollector::unregisterMetric);
+         metricIds = null;
+      }
+   }
+
+   /**
+    * The RocksDB tickers and histograms exported as metrics when statistics are enabled. Histograms are exported as
+    * gauges of their average and percentiles, as RocksDB only exposes their summary.
+    */
+   static Collection<MetricInfo> statisticsMetrics() {
+      List<MetricInfo> metrics = new ArrayList<>();
+      addTicker(metrics, "BlockCacheHits", "Number of block cache hits", TickerType.BLOCK_CACHE_HIT);
+      addTicker(metrics, "BlockCacheMisses", "Number of block cache misses", TickerType.BLOCK_CACHE_MISS);
+      addTicker(metrics, "BloomFilterUseful", "Number of reads avoided by the bloom filter", TickerType.BLOOM_FILTER_USEFUL);
+      addTicker(metrics, "BytesRead", "Number of uncompressed bytes read", TickerType.BYTES_READ);
+      addTicker(metrics, "BytesWritten", "Number of uncompressed bytes written", TickerType.BYTES_WRITTEN);
+      addTicker(metrics, "CompactionReadBytes", "Number of bytes read during compaction", TickerType.COMPACT_READ_BYTES);
+      addTicker(metrics, "CompactionWriteBytes", "Number of bytes written during compaction", TickerType.COMPACT_WRITE_BYTES);
+      addTicker(metrics, "StallMicros", "Time in microseconds writes were stalled", TickerType.STALL_MICROS);
+      metrics.add(MetricUtils.<RocksDBStore<?, ?>>createGauge("BlockCacheHitRatio", "Ratio of the block reads served by the block cache",
+            RocksDBStore::getBlockCacheHitRatio, null));
+      addHistogram(metrics, "GetMicros", "time in microseconds of the reads", HistogramType.DB_GET);
+      addHistogram(metrics, "WriteMicros", "time in microseconds of the writes", HistogramType.DB_WRITE);
+      addHistogram(metrics, "CompactionMicros", "time in microseconds of the compactions", HistogramType.COMPACTION_TIME);
+      return metrics;
+   }
+
+   private static void addTicker(List<MetricInfo> metrics, String name, String description, TickerType type) {
+      metrics.add(MetricUtils.<RocksDBStore<?, ?>>createGauge(name, description, store -> store.getTickerCount(type), null));
+   }
+
+   private static void addHistogram(List<MetricInfo> metrics, String name, String description, HistogramType type) {
+      addHistogramGauge(metrics, name + "Average", "Average " + description, type, HistogramData::getAverage);
+      addHistogramGauge(metrics, name + "P95", "95th percentile " + description, type, HistogramData::getPercentile95);
+      addHistogramGauge(metrics, name + "P99", "99th percentile " + description, type, HistogramData::getPercentile99);
+   }
+
+   private static void addHistogramGauge(List<MetricInfo> metrics, String name, String description, HistogramType type,
+                                         ToDoubleFunction<HistogramData> value) {
+      metrics.add(MetricUtils.<RocksDBStore<?, ?>>createGauge(name, description,
+            store -> store.getHistogramValue(type, value), null));
+   }
+
+   private long getTickerCount(TickerType type) {
+      Statistics stats = statistics;
+      return stats != null ? stats.getTickerCount(type) : 0;
+   }
+
+   private double getHistogramValue(HistogramType type, ToDoubleFunction<HistogramData> value) {
+      Statistics stats = statistics;
+      return stats != null ? value.applyAsDouble(stats.getHistogramData(type)) : 0;
+   }
+
+   private double getBlockCacheHitRatio() {
+      long hits = getTickerCount(TickerType.BLOCK_CACHE_HIT);
+      long total = hits + getTickerCount(TickerType.BLOCK_CACHE_MISS);
+      return total == 0 ? 0 : (double) hits / total;
    }
 
    private void initDefaultHandler() throws RocksDBException {
@@ -255,6 +389,9 @@ private DBOptions dataDbOptions() {
       } else {
          dbOptions = new DBOptions();
       }
+      if (statistics != null) {
+         dbOptions.setStatistics(statistics);
+      }
       return dbOptions
             .setCreateIfMissing(true)
             // We have to create missing column families on open.
@@ -282,10 +419,12 @@ protected static RocksDB openDatabase(Path location, Options options) throws Roc
    @Override
    public CompletionStage<Void> stop() {
       return blockingManager.runBlocking(() -> {
+         unregisterMetrics();
          // it could be null if an issue occurs during the initialization
          if (handler != null) {
             handler.close();
          }
+         closeTuning();
       }, "rocksdb-stop");
    }
 
@@ -348,6 +487,11 @@ public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       return handler.load(segment, key);
    }
 
+   @Override
+   public CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+      return handler.loadAll(keysBySegment);
+   }
+
    @Override
    public CompletionStage<Void> batch(int publisherCount, Publisher<SegmentedPublisher<Object>> removePublisher,
                                       Publisher<SegmentedPublisher<MarshallableEntry<K, V>>> writePublisher) {
@@ -751,6 +895,20 @@ ColumnFamilyDescriptor newDescriptor(byte[] name) {
          if (configuration.attributes().attribute(RocksDBStoreConfiguration.COMPRESSION_TYPE).isModified()) {
             columnFamilyOptions.setCompressionType(configuration.compressionType().getValue());
          }
+         RocksDBTuningConfiguration tuning = configuration.tuning();
+         if (tuning.attributes().attribute(RocksDBTuningConfiguration.COMPACTION_STYLE).isModified()) {
+            columnFamilyOptions.setCompactionStyle(tuning.compactionStyle().getValue());
+         }
+         if (blockCache != null || bloomFilter != null) {
+            BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+            if (blockCache != null) {
+               tableConfig.setBlockCache(blockCache);
+            }
+            if (bloomFilter != null) {
+               tableConfig.setFilterPolicy(bloomFilter);
+            }
+            columnFamilyOptions.setTableFormatConfig(tableConfig);
+         }
          return new ColumnFamilyDescriptor(name, columnFamilyOptions);
       }
 
@@ -780,6 +938,46 @@ CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
          }
       }
 
+      CompletionStage<Map<Object, MarshallableEntry<K, V>>> loadAll(Map<Integer, ? extends Collection<?>> keysBySegment) {
+         List<ColumnFamilyHandle> handles = new ArrayList<>();
+         List<Object> keys = new ArrayList<>();
+         List<byte[]> marshalledKeys = new ArrayList<>();
+         for (Map.Entry<Integer, ? extends Collection<?>> segmentKeys : keysBySegment.entrySet()) {
+            ColumnFamilyHandle handle = getHandle(segmentKeys.getKey());
+            if (handle == null) {
+               log.tracef("Ignoring load of segment %d as handle is not currently configured", segmentKeys.getKey());
+               continue;
+            }
+            for (Object key : segmentKeys.getValue()) {
+               handles.add(handle);
+               keys.add(key);
+               marshalledKeys.add(marshall(key));
+            }
+         }
+         if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+         }
+         // A single MultiGet reads the keys of every segment, sharing the block reads between them
+         CompletionStage<List<byte[]>> entriesByteStage = blockingManager.supplyBlocking(() -> {
+            try {
+               return db.multiGetAsList(handles, marshalledKeys);
+            } catch (RocksDBException e) {
+               throw new CompletionException(e);
+            }
+         }, "rocksdb-load-all");
+         return entriesByteStage.thenApply(entriesBytes -> {
+            long now = timeService.wallClockTime();
+            Map<Object, MarshallableEntry<K, V>> entries = new HashMap<>();
+            for (int i = 0; i < entriesBytes.size(); ++i) {
+               MarshallableEntry<K, V> me = unmarshallEntry(keys.get(i), entriesBytes.get(i));
+               if (me != null && !me.isExpired(now)) {
+                  entries.put(keys.get(i), me);
+               }
+            }
+            return entries;
+         });
+      }
+
       CompletionStage<Void> write(int segment, MarshallableEntry<? extends K, ? extends V> me) {
          ColumnFamilyHandle handle = getHandle(segment);
          if (handle == null) {
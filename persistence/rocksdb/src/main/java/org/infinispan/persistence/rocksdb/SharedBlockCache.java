@@ -0,0 +1,47 @@
+package org.infinispan.persistence.rocksdb;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.rocksdb.logging.Log;
+import org.rocksdb.Cache;
+import org.rocksdb.LRUCache;
+
+/**
+ * The block cache shared by the RocksDB stores of a cache manager that enable the shared block cache.
+ * <p>
+ * The cache is created with the size configured by the first store that acquires it and it is closed when the last
+ * store releases it.
+ */
+final class SharedBlockCache {
+   private static final Log log = Log.getLog(SharedBlockCache.class);
+   private static final Map<EmbeddedCacheManager, SharedBlockCache> CACHES = new HashMap<>();
+
+   private final LRUCache cache;
+   private final long size;
+   private int references;
+
+   private SharedBlockCache(long size) {
+      this.cache = new LRUCache(size);
+      this.size = size;
+   }
+
+   static synchronized Cache acquire(EmbeddedCacheManager cacheManager, long size) {
+      SharedBlockCache shared = CACHES.computeIfAbsent(cacheManager, ignore -> new SharedBlockCache(size));
+      if (log.isDebugEnabled() && shared.references > 0 && shared.size != size) {
+         log.debugf("Using the existing shared RocksDB block cache of %d bytes instead of %d bytes",
+               shared.size, size);
+      }
+      shared.references++;
+      return shared.cache;
+   }
+
+   static synchronized void release(EmbeddedCacheManager cacheManager) {
+      SharedBlockCache shared = CACHES.get(cacheManager);
+      if (shared != null && --shared.references == 0) {
+         CACHES.remove(cacheManager);
+         shared.cache.close();
+      }
+   }
+}
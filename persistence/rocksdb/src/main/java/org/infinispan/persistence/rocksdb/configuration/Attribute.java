@@ -12,9 +12,12 @@ public enum Attribute {
    // must be first
    UNKNOWN(null),
 
+   BLOCK_CACHE_SIZE("block-cache-size"),
    BLOCK_SIZE("block-size"),
+   BLOOM_FILTER_BITS_PER_KEY("bloom-filter-bits-per-key"),
    CACHE_SIZE("cache-size"),
    CLEAR_THRESHOLD("clear-threshold"),
+   COMPACTION_STYLE("compaction-style"),
    COMPRESSION_TYPE("compressionType"),
    EXPIRED_LOCATION("expiredLocation"),
    EXPIRY_QUEUE_SIZE("expiryQueueSize"),
@@ -22,6 +25,8 @@ public enum Attribute {
    LOCATION("location"),
    PATH("path"),
    RELATIVE_TO("relative-to"),
+   SHARED_BLOCK_CACHE("shared-block-cache"),
+   STATISTICS("statistics"),
    TYPE("type"),
    ;
 
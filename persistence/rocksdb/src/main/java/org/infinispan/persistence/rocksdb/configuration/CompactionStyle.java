@@ -0,0 +1,22 @@
+package org.infinispan.persistence.rocksdb.configuration;
+
+/**
+ * The compaction style of the data column families of the RocksDB store.
+ *
+ * @since 16.3
+ */
+public enum CompactionStyle {
+   LEVEL(org.rocksdb.CompactionStyle.LEVEL),
+   UNIVERSAL(org.rocksdb.CompactionStyle.UNIVERSAL),
+   FIFO(org.rocksdb.CompactionStyle.FIFO);
+
+   private final org.rocksdb.CompactionStyle value;
+
+   CompactionStyle(org.rocksdb.CompactionStyle value) {
+      this.value = value;
+   }
+
+   public org.rocksdb.CompactionStyle getValue() {
+      return value;
+   }
+}
@@ -15,6 +15,7 @@ public enum Element {
    COMPRESSION("compression"),
    EXPIRATION("expiration"),
    ROCKSDB_STORE("rocksdb-store"),
+   TUNING("tuning"),
    ;
 
    private final String name;
@@ -27,16 +27,23 @@ public static AttributeSet attributeDefinitionSet() {
    }
 
    private final RocksDBExpirationConfiguration expiration;
+   private final RocksDBTuningConfiguration tuning;
 
-   public RocksDBStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, RocksDBExpirationConfiguration expiration) {
+   public RocksDBStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, RocksDBExpirationConfiguration expiration,
+                                    RocksDBTuningConfiguration tuning) {
       super(Element.ROCKSDB_STORE, attributes, async);
       this.expiration = expiration;
+      this.tuning = tuning;
    }
 
    public RocksDBExpirationConfiguration expiration() {
       return expiration;
    }
 
+   public RocksDBTuningConfiguration tuning() {
+      return tuning;
+   }
+
    public String location() {
       return attributes.attribute(LOCATION).get();
    }
@@ -18,6 +18,7 @@
 public class RocksDBStoreConfigurationBuilder extends AbstractStoreConfigurationBuilder<RocksDBStoreConfiguration, RocksDBStoreConfigurationBuilder> {
 
    protected RocksDBExpirationConfigurationBuilder expiration = new RocksDBExpirationConfigurationBuilder();
+   protected RocksDBTuningConfigurationBuilder tuning = new RocksDBTuningConfigurationBuilder();
 
    public RocksDBStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       this(builder, RocksDBStoreConfiguration.attributeDefinitionSet());
@@ -42,11 +43,19 @@ public RocksDBStoreConfigurationBuilder compressionType(CompressionType compress
       return self();
    }
 
+   /**
+    * Configures the block cache, bloom filters, compaction and statistics of the store.
+    */
+   public RocksDBTuningConfigurationBuilder tuning() {
+      return tuning;
+   }
+
    @Override
    public void validate() {
       // how do you validate required attributes?
       super.validate();
       expiration.validate();
+      tuning.validate();
    }
 
    @Override
@@ -60,13 +69,14 @@ public void validate(GlobalConfiguration globalConfig) {
 
    @Override
    public RocksDBStoreConfiguration create() {
-      return new RocksDBStoreConfiguration(attributes.protect(), async.create(), expiration.create());
+      return new RocksDBStoreConfiguration(attributes.protect(), async.create(), expiration.create(), tuning.create());
    }
 
    @Override
    public Builder<?> read(RocksDBStoreConfiguration template, Combine combine) {
       super.read(template, combine);
       expiration.read(template.expiration(), combine);
+      tuning.read(template.tuning(), combine);
       return self();
    }
 
@@ -99,6 +99,10 @@ private void parseRocksDBCacheStore(ConfigurationReader reader, RocksDBStoreConf
                this.parseCompression(reader, builder);
                break;
             }
+            case TUNING: {
+               this.parseTuning(reader, builder.tuning());
+               break;
+            }
             default: {
                CacheParser.parseStoreElement(reader, builder);
             }
@@ -138,6 +142,38 @@ private void parseCompression(ConfigurationReader reader, RocksDBStoreConfigurat
       ParseUtils.requireNoContent(reader);
    }
 
+   private void parseTuning(ConfigurationReader reader, RocksDBTuningConfigurationBuilder builder) {
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+         String value = reader.getAttributeValue(i);
+         Attribute attribute = Attribute.forName(reader.getAttributeName(i));
+         switch (attribute) {
+            case BLOCK_CACHE_SIZE: {
+               builder.blockCacheSize(value);
+               break;
+            }
+            case SHARED_BLOCK_CACHE: {
+               builder.sharedBlockCache(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
+            case BLOOM_FILTER_BITS_PER_KEY: {
+               builder.bloomFilterBitsPerKey(ParseUtils.parseInt(reader, i, value));
+               break;
+            }
+            case COMPACTION_STYLE: {
+               builder.compactionStyle(ParseUtils.parseEnum(reader, i, CompactionStyle.class, value));
+               break;
+            }
+            case STATISTICS: {
+               builder.statistics(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            }
+            default:
+               throw ParseUtils.unexpectedAttribute(reader, i);
+         }
+      }
+      ParseUtils.requireNoContent(reader);
+   }
+
    @Override
    public Namespace[] getNamespaces() {
       return ParseUtils.getNamespaceAnnotations(getClass());
@@ -33,6 +33,12 @@ public void serialize(ConfigurationWriter writer, RocksDBStoreConfiguration conf
          expirationAttrs.write(writer, RocksDBExpirationConfiguration.EXPIRED_LOCATION, Attribute.PATH);
          writer.writeEndElement();
       }
+      AttributeSet tuningAttrs = configuration.tuning().attributes();
+      if (tuningAttrs.isModified()) {
+         writer.writeStartElement(Element.TUNING);
+         tuningAttrs.write(writer);
+         writer.writeEndElement();
+      }
       writeCommonStoreElements(writer, configuration);
       writer.writeEndElement();
    }
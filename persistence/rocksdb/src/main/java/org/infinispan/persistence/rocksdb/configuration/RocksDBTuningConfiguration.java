@@ -0,0 +1,60 @@
+package org.infinispan.persistence.rocksdb.configuration;
+
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.configuration.attributes.ConfigurationElement;
+
+/**
+ * Tuning of the block cache, bloom filters, compaction and statistics of the RocksDB store.
+ *
+ * @since 16.3
+ */
+public class RocksDBTuningConfiguration extends ConfigurationElement<RocksDBTuningConfiguration> {
+
+   public static final AttributeDefinition<Long> BLOCK_CACHE_SIZE = AttributeDefinition.builder(Attribute.BLOCK_CACHE_SIZE, 0L).immutable().build();
+   public static final AttributeDefinition<Boolean> SHARED_BLOCK_CACHE = AttributeDefinition.builder(Attribute.SHARED_BLOCK_CACHE, false).immutable().build();
+   public static final AttributeDefinition<Integer> BLOOM_FILTER_BITS_PER_KEY = AttributeDefinition.builder(Attribute.BLOOM_FILTER_BITS_PER_KEY, 0).immutable().build();
+   public static final AttributeDefinition<CompactionStyle> COMPACTION_STYLE = AttributeDefinition.builder(Attribute.COMPACTION_STYLE, CompactionStyle.LEVEL).immutable().build();
+   public static final AttributeDefinition<Boolean> STATISTICS = AttributeDefinition.builder(Attribute.STATISTICS, false).immutable().build();
+
+   public static AttributeSet attributeDefinitionSet() {
+      return new AttributeSet(RocksDBTuningConfiguration.class, BLOCK_CACHE_SIZE, SHARED_BLOCK_CACHE,
+            BLOOM_FILTER_BITS_PER_KEY, COMPACTION_STYLE, STATISTICS);
+   }
+
+   RocksDBTuningConfiguration(AttributeSet attributes) {
+      super(Element.TUNING, attributes);
+   }
+
+   /**
+    * @return the size in bytes of the block cache of the data column families, 0 to use the RocksDB default
+    */
+   public long blockCacheSize() {
+      return attributes.attribute(BLOCK_CACHE_SIZE).get();
+   }
+
+   /**
+    * @return whether the block cache is shared with the other RocksDB stores of the cache manager
+    */
+   public boolean sharedBlockCache() {
+      return attributes.attribute(SHARED_BLOCK_CACHE).get();
+   }
+
+   /**
+    * @return the bits per key of the bloom filter of the data column families, 0 if bloom filters are disabled
+    */
+   public int bloomFilterBitsPerKey() {
+      return attributes.attribute(BLOOM_FILTER_BITS_PER_KEY).get();
+   }
+
+   public CompactionStyle compactionStyle() {
+      return attributes.attribute(COMPACTION_STYLE).get();
+   }
+
+   /**
+    * @return whether the RocksDB statistics are collected and exported as metrics
+    */
+   public boolean statistics() {
+      return attributes.attribute(STATISTICS).get();
+   }
+}
@@ -0,0 +1,101 @@
+package org.infinispan.persistence.rocksdb.configuration;
+
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBTuningConfiguration.BLOCK_CACHE_SIZE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBTuningConfiguration.BLOOM_FILTER_BITS_PER_KEY;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBTuningConfiguration.COMPACTION_STYLE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBTuningConfiguration.SHARED_BLOCK_CACHE;
+import static org.infinispan.persistence.rocksdb.configuration.RocksDBTuningConfiguration.STATISTICS;
+
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.configuration.Combine;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.commons.util.ByteQuantity;
+import org.infinispan.persistence.rocksdb.logging.Log;
+
+/**
+ * @since 16.3
+ */
+public class RocksDBTuningConfigurationBuilder implements Builder<RocksDBTuningConfiguration> {
+   private static final Log log = Log.getLog(RocksDBTuningConfigurationBuilder.class);
+
+   private final AttributeSet attributes;
+
+   RocksDBTuningConfigurationBuilder() {
+      attributes = RocksDBTuningConfiguration.attributeDefinitionSet();
+   }
+
+   public AttributeSet attributes() {
+      return attributes;
+   }
+
+   /**
+    * Sets the size in bytes of the block cache of the data column families.
+    */
+   public RocksDBTuningConfigurationBuilder blockCacheSize(long blockCacheSize) {
+      attributes.attribute(BLOCK_CACHE_SIZE).set(blockCacheSize);
+      return this;
+   }
+
+   /**
+    * Sets the size of the block cache of the data column families, e.g. {@code 64MB}.
+    */
+   public RocksDBTuningConfigurationBuilder blockCacheSize(String blockCacheSize) {
+      return blockCacheSize(ByteQuantity.parse(blockCacheSize));
+   }
+
+   /**
+    * Shares the block cache with the other RocksDB stores of the cache manager that enable it. The cache is created
+    * with the block cache size of the first store that starts.
+    */
+   public RocksDBTuningConfigurationBuilder sharedBlockCache(boolean sharedBlockCache) {
+      attributes.attribute(SHARED_BLOCK_CACHE).set(sharedBlockCache);
+      return this;
+   }
+
+   /**
+    * Enables a bloom filter with the given bits per key for the data column families, which avoids reading data
+    * blocks for keys that are not in the store.
+    */
+   public RocksDBTuningConfigurationBuilder bloomFilterBitsPerKey(int bloomFilterBitsPerKey) {
+      attributes.attribute(BLOOM_FILTER_BITS_PER_KEY).set(bloomFilterBitsPerKey);
+      return this;
+   }
+
+   public RocksDBTuningConfigurationBuilder compactionStyle(CompactionStyle compactionStyle) {
+      attributes.attribute(COMPACTION_STYLE).set(compactionStyle);
+      return this;
+   }
+
+   /**
+    * Collects the RocksDB statistics and exports them as metrics.
+    */
+   public RocksDBTuningConfigurationBuilder statistics(boolean statistics) {
+      attributes.attribute(STATISTICS).set(statistics);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (attributes.attribute(BLOCK_CACHE_SIZE).get() < 0) {
+         throw log.rocksDBInvalidBlockCacheSize(attributes.attribute(BLOCK_CACHE_SIZE).get());
+      }
+      if (attributes.attribute(SHARED_BLOCK_CACHE).get() && attributes.attribute(BLOCK_CACHE_SIZE).get() == 0) {
+         throw log.rocksDBSharedBlockCacheWithoutSize();
+      }
+      if (attributes.attribute(BLOOM_FILTER_BITS_PER_KEY).get() < 0) {
+         throw log.rocksDBInvalidBloomFilterBitsPerKey(attributes.attribute(BLOOM_FILTER_BITS_PER_KEY).get());
+      }
+   }
+
+   @Override
+   public RocksDBTuningConfiguration create() {
+      return new RocksDBTuningConfiguration(attributes.protect());
+   }
+
+   @Override
+   public Builder<?> read(RocksDBTuningConfiguration template, Combine combine) {
+      attributes.read(template.attributes(), combine);
+      return this;
+   }
+
+}
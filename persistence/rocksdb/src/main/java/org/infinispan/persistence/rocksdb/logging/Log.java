@@ -29,4 +29,13 @@ static Log getLog(Class<?> clazz) {
 
    @Message(value = "RocksDB properties %s, contains an unknown property", id = 23001)
    CacheConfigurationException rocksDBUnknownPropertiesSupplied(String properties);
+
+   @Message(value = "RocksDB block cache size %d must not be negative", id = 23002)
+   CacheConfigurationException rocksDBInvalidBlockCacheSize(long blockCacheSize);
+
+   @Message(value = "RocksDB shared block cache requires a block cache size", id = 23003)
+   CacheConfigurationException rocksDBSharedBlockCacheWithoutSize();
+
+   @Message(value = "RocksDB bloom filter bits per key %d must not be negative", id = 23004)
+   CacheConfigurationException rocksDBInvalidBloomFilterBitsPerKey(int bitsPerKey);
 }
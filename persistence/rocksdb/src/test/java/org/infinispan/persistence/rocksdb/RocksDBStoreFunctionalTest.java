@@ -1,7 +1,11 @@
 package org.infinispan.persistence.rocksdb;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.infinispan.Cache;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
@@ -10,6 +14,8 @@
 import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfigurationBuilder;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.testing.Exceptions;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
 import org.testng.annotations.Test;
 
 @Test(groups = "unit", testName = "persistence.rocksdb.RocksDBStoreFunctionalTest")
@@ -68,4 +74,35 @@ public void testKnownProperties() {
       // since otherwise this will fail like the unkonwn properties method
       assertNotNull(cacheManager.getCache(cacheName));
    }
+
+   public void testTuning() {
+      Cache<String, String> first = createTunedCache("rocksdb-tuning-1");
+      Cache<String, String> second = createTunedCache("rocksdb-tuning-2");
+      for (int i = 0; i < 100; i++) {
+         first.put("k" + i, "v" + i);
+         second.put("k" + i, "v" + i);
+      }
+      first.getAdvancedCache().getDataContainer().clear();
+      for (int i = 0; i < 100; i++) {
+         assertEquals("v" + i, first.get("k" + i));
+      }
+
+      RocksDBStore<?, ?> firstStore = TestingUtil.getFirstStore(first);
+      RocksDBStore<?, ?> secondStore = TestingUtil.getFirstStore(second);
+      assertSame(TestingUtil.extractField(firstStore, "blockCache"), TestingUtil.extractField(secondStore, "blockCache"));
+      Statistics statistics = TestingUtil.extractField(firstStore, "statistics");
+      assertTrue(statistics.getTickerCount(TickerType.BYTES_WRITTEN) > 0);
+   }
+
+   private Cache<String, String> createTunedCache(String cacheName) {
+      ConfigurationBuilder cb = getDefaultCacheConfiguration();
+      createStoreBuilder(cb.persistence())
+            .tuning()
+            .blockCacheSize("8MB")
+            .sharedBlockCache(true)
+            .bloomFilterBitsPerKey(10)
+            .statistics(true);
+      TestingUtil.defineConfiguration(cacheManager, cacheName, cb.build());
+      return cacheManager.getCache(cacheName);
+   }
 }
@@ -19,8 +19,10 @@
 import org.infinispan.configuration.parsing.ParserRegistry;
 import org.infinispan.manager.DefaultCacheManager;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.rocksdb.configuration.CompactionStyle;
 import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfiguration;
 import org.infinispan.persistence.rocksdb.configuration.RocksDBStoreConfigurationBuilder;
+import org.infinispan.persistence.rocksdb.configuration.RocksDBTuningConfiguration;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.testing.Testing;
 import org.testng.annotations.AfterClass;
@@ -83,5 +85,11 @@ public void testXmlConfig() throws IOException {
       RocksDBStoreConfiguration rocksdbConfig = (RocksDBStoreConfiguration) cacheLoaderConfig;
       assertEquals("/tmp/rocksdb/52/data", rocksdbConfig.location());
       assertEquals("/tmp/rocksdb/52/expired", rocksdbConfig.expiredLocation());
+      RocksDBTuningConfiguration tuning = rocksdbConfig.tuning();
+      assertEquals(64_000_000, tuning.blockCacheSize());
+      assertTrue(tuning.sharedBlockCache());
+      assertEquals(10, tuning.bloomFilterBitsPerKey());
+      assertEquals(CompactionStyle.UNIVERSAL, tuning.compactionStyle());
+      assertTrue(tuning.statistics());
    }
 }
@@ -95,6 +95,7 @@
 import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
 import org.infinispan.partitionhandling.AvailabilityMode;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PreloadManager;
 import org.infinispan.persistence.remote.RemoteStore;
 import org.infinispan.persistence.remote.configuration.RemoteStoreConfiguration;
 import org.infinispan.persistence.remote.upgrade.SerializationUtils;
@@ -420,6 +421,7 @@ static class CacheInfo implements JsonSerialization {
       StorageType storageType;
       String maxSize;
       long maxSizeBytes;
+      PreloadManager preload;
 
       @Override
       public Json toJson() {
@@ -463,6 +465,14 @@ public Json toJson() {
             json.set("rebalancing_requested", rebalancingRequested);
             json.set("rebalancing_inflight", rebalancingInflight);
          }
+         if (preload != null) {
+            json.set("preload", Json.object()
+                  .set("in_progress", preload.isPreloading())
+                  .set("fully_preloaded", preload.isFullyPreloaded())
+                  .set("entries", preload.getPreloadedEntries())
+                  .set("time", preload.getPreloadTime())
+                  .set("throughput", preload.getPreloadThroughput()));
+         }
          if (configuration != null) {
             json.set("configuration", Json.factory().raw(configuration));
          }
@@ -964,6 +974,7 @@ protected RestResponse getDetailResponse(RestRequest request, Cache<?, ?> cache,
       GlobalConfiguration globalConfiguration = SecurityActions.getCacheManagerConfiguration(cacheManager);
       PersistenceManager persistenceManager = SecurityActions.getCacheComponent(cacheManager, cache.getName(), PersistenceManager.class);
       Stats stats = null;
+      PreloadManager preloadManager = null;
       Boolean rehashInProgress = null;
       Boolean indexingInProgress = null;
       Boolean queryable = null;
@@ -971,6 +982,9 @@ protected RestResponse getDetailResponse(RestRequest request, Cache<?, ?> cache,
       ComponentRegistry ccr = SecurityActions.getCacheComponentRegistry(cache.getAdvancedCache());
       try {
          stats = ccr.getComponent(ClusterCacheStats.class);
+         if (configuration.persistence().preload()) {
+            preloadManager = ccr.getComponent(PreloadManager.class);
+         }
          DistributionManager distributionManager = cache.getAdvancedCache().getDistributionManager();
          rehashInProgress = distributionManager != null && distributionManager.isRehashInProgress();
       } catch (SecurityException ex) {
@@ -1011,6 +1025,7 @@ protected RestResponse getDetailResponse(RestRequest request, Cache<?, ?> cache,
 
       CacheInfo fullDetail = new CacheInfo();
       fullDetail.stats = stats;
+      fullDetail.preload = preloadManager;
       StringBuilderWriter sw = new StringBuilderWriter();
       try (ConfigurationWriter w = ConfigurationWriter.to(sw).withType(APPLICATION_JSON).prettyPrint(pretty).build()) {
          invocationHelper.getParserRegistry().serialize(w, cache.getName(), configuration);
@@ -38,6 +38,8 @@
 import org.infinispan.security.Security;
 import org.infinispan.security.actions.SecurityActions;
 import org.infinispan.server.core.BackupManager;
+import org.infinispan.statetransfer.StateTransferFlowControl;
+import org.infinispan.statetransfer.StateTransferManager;
 
 /**
  * @since 10.0
@@ -69,6 +71,9 @@ public Invocations getInvocations() {
             .invocation().method(GET).path("/v2/cluster").withAction("distribution")
                .permission(AuthorizationPermission.MONITOR).name("CLUSTER DISTRIBUTION").auditContext(AuditContext.SERVER)
                .handleWith(this::distribution)
+            .invocation().method(GET).path("/v2/cluster").withAction("state-transfer")
+               .permission(AuthorizationPermission.MONITOR).name("CLUSTER STATE TRANSFER").auditContext(AuditContext.SERVER)
+               .handleWith(this::stateTransfer)
             .invocation().methods(GET, HEAD).path("/v2/cluster/backups")
                .permission(AuthorizationPermission.ADMIN).name("BACKUP NAMES").auditContext(AuditContext.SERVER)
                .handleWith(this::getAllBackupNames)
@@ -163,6 +168,57 @@ private CompletionStage<List<NodeDistributionInfo>> clusterDistribution() {
             });
    }
 
+   protected CompletionStage<RestResponse> stateTransfer(RestRequest request) {
+      EmbeddedCacheManager cacheManager = invocationHelper.getProtocolServer().getCacheManager();
+      boolean pretty = isPretty(request);
+      if (cacheManager.getMembers() == null) {
+         Json node = Json.read(nodeStateTransfer(cacheManager));
+         return asJsonResponseFuture(invocationHelper.newResponse(request), Json.array(node), pretty);
+      }
+
+      Map<Address, Json> nodes = new ConcurrentHashMap<>();
+      return SecurityActions.getClusterExecutor(cacheManager)
+            .submitConsumer(ClusterResource::nodeStateTransfer, (address, json, t) -> {
+               if (t != null) {
+                  throw CompletableFutures.asCompletionException(t);
+               }
+               nodes.put(address, Json.read(json));
+            })
+            .thenApply(ignore -> asJsonResponse(invocationHelper.newResponse(request), Json.make(nodes.values()), pretty));
+   }
+
+   /**
+    * Reports the progress and throughput of the state transfers of every running cache of the local node. The result
+    * is returned as a string, so that the cluster executor doesn't need to marshall {@link Json} instances.
+    */
+   private static String nodeStateTransfer(EmbeddedCacheManager ecm) {
+      Json caches = Json.object();
+      for (String cacheName : ecm.getCacheNames()) {
+         if (!ecm.isRunning(cacheName))
+            continue;
+         StateTransferManager stm = SecurityActions.getCacheComponent(ecm, cacheName, StateTransferManager.class);
+         StateTransferFlowControl flowControl = SecurityActions.getCacheComponent(ecm, cacheName, StateTransferFlowControl.class);
+         if (stm == null || flowControl == null)
+            continue;
+         long inflightSegments = stm.getInflightSegmentTransferCount();
+         caches.set(cacheName, Json.object()
+               .set("in_progress", stm.isStateTransferInProgress())
+               .set("inflight_segments", inflightSegments)
+               .set("segments_received", flowControl.getSegmentsReceived())
+               .set("segments_skipped", flowControl.getSegmentsSkipped())
+               .set("bytes_sent", flowControl.getBytesSent())
+               .set("bytes_received", flowControl.getBytesReceived())
+               .set("outbound_throughput", flowControl.getOutboundThroughput())
+               .set("inbound_throughput", flowControl.getInboundThroughput())
+               .set("window", flowControl.getWindow())
+               .set("estimated_remaining_time", flowControl.estimateRemainingTime(inflightSegments)));
+      }
+      return Json.object()
+            .set("node_name", ecm.getCacheManagerInfo().getNodeName())
+            .set("caches", caches)
+            .toString();
+   }
+
    protected CompletionStage<RestResponse> handleRaftMembers(RestRequest request) {
       RaftManager raftManager = raftManager();
       if (!raftManager.isRaftAvailable()) {
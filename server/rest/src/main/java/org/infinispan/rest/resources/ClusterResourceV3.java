@@ -32,6 +32,7 @@
  * - Action-based endpoints use underscore-prefixed path segments
  *   - POST /v2/cluster?action=stop → POST /v3/cluster/_stop
  *   - GET /v2/cluster?action=distribution → GET /v3/cluster/_distribution
+ *   - GET /v2/cluster?action=state-transfer → GET /v3/cluster/_state-transfer
  * - All other endpoints retain the same structure with /v3/ prefix
  * - OpenAPI 3.0 compliance with unique operationIds and proper response schemas
  *
@@ -68,6 +69,16 @@ public Invocations getInvocations() {
             .auditContext(AuditContext.SERVER)
             .handleWith(this::distribution);
 
+      builder.invocation()
+            .methods(GET).path("/v3/cluster/_state-transfer")
+            .name("Get cluster state transfer progress")
+            .operationId("getClusterStateTransfer")
+            .parameter("pretty", ParameterIn.QUERY, false, Schema.BOOLEAN, "Pretty print the JSON output")
+            .response(OK, "State transfer progress and throughput of every node", APPLICATION_JSON)
+            .permission(AuthorizationPermission.MONITOR)
+            .auditContext(AuditContext.SERVER)
+            .handleWith(this::stateTransfer);
+
       // 2. Backup Operations
       builder.invocation()
             .methods(GET, HEAD).path("/v3/cluster/backups")